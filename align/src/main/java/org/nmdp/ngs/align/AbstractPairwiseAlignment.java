@@ -22,9 +22,12 @@
 */
 package org.nmdp.ngs.align;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import java.util.List;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 
 import org.biojava.bio.seq.Sequence;
 
@@ -115,4 +118,52 @@ abstract class AbstractPairwiseAlignment implements PairwiseAlignment {
     public Iterable<AlignmentPair> global(final List<Sequence> queries, final List<Sequence> subjects) {
         return global(queries, subjects, DEFAULT_GLOBAL_GAP_PENALTIES);
     }
+
+    @Override
+    public Iterable<CompactAlignment> localCompact(final List<Sequence> queries, final List<Sequence> subjects) {
+        return localCompact(queries, subjects, DEFAULT_LOCAL_GAP_PENALTIES);
+    }
+
+    @Override
+    public Iterable<CompactAlignment> localCompact(final List<Sequence> queries,
+                                                   final List<Sequence> subjects,
+                                                   final GapPenalties gapPenalties) {
+        checkNotNull(queries);
+        checkNotNull(subjects);
+        checkNotNull(gapPenalties);
+
+        List<CompactAlignment> compactAlignments = Lists.newArrayListWithExpectedSize(queries.size() * subjects.size());
+        for (Sequence query : queries) {
+            for (Sequence subject : subjects) {
+                for (AlignmentPair alignmentPair : local(query, subject, gapPenalties)) {
+                    compactAlignments.add(CompactAlignment.create(alignmentPair));
+                }
+            }
+        }
+        return compactAlignments;
+    }
+
+    @Override
+    public Iterable<CompactAlignment> globalCompact(final List<Sequence> queries, final List<Sequence> subjects) {
+        return globalCompact(queries, subjects, DEFAULT_GLOBAL_GAP_PENALTIES);
+    }
+
+    @Override
+    public Iterable<CompactAlignment> globalCompact(final List<Sequence> queries,
+                                                    final List<Sequence> subjects,
+                                                    final GapPenalties gapPenalties) {
+        checkNotNull(queries);
+        checkNotNull(subjects);
+        checkNotNull(gapPenalties);
+
+        List<CompactAlignment> compactAlignments = Lists.newArrayListWithExpectedSize(queries.size() * subjects.size());
+        for (Sequence query : queries) {
+            for (Sequence subject : subjects) {
+                for (AlignmentPair alignmentPair : global(query, subject, gapPenalties)) {
+                    compactAlignments.add(CompactAlignment.create(alignmentPair));
+                }
+            }
+        }
+        return compactAlignments;
+    }
 }
@@ -0,0 +1,355 @@
+/*
+
+    ngs-align  Sequence alignment.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.align;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import static org.nmdp.ngs.align.Alignments.isGapSymbol;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.annotation.concurrent.Immutable;
+
+import com.google.common.collect.Range;
+
+import org.biojava.bio.alignment.AlignmentPair;
+
+import org.biojava.bio.symbol.BasisSymbol;
+import org.biojava.bio.symbol.Symbol;
+
+/**
+ * Alignment features, the match, mismatch, and gap runs in an alignment as
+ * 0-based [closed, open) column ranges held in primitive arrays.
+ *
+ * <p>
+ * Features are extracted in a single pass over the alignment columns, either from a biojava
+ * {@link AlignmentPair} or from a packed CIGAR (see {@link Cigars}).
+ * </p>
+ */
+@Immutable
+public final class AlignmentFeatures {
+    /** Number of alignment columns. */
+    private final long columns;
+
+    /** Run starts, indexed by feature type ordinal. */
+    private final long[][] starts;
+
+    /** Run ends, indexed by feature type ordinal. */
+    private final long[][] ends;
+
+    /** Run counts, indexed by feature type ordinal. */
+    private final int[] counts;
+
+
+    /**
+     * Alignment feature type.
+     */
+    public enum Type {
+        /** Alignment match. */
+        MATCH,
+
+        /** Alignment mismatch. */
+        MISMATCH,
+
+        /** Gap in either sequence. */
+        GAP
+    }
+
+
+    /**
+     * Create new alignment features.
+     *
+     * @param columns number of alignment columns
+     * @param starts run starts, indexed by feature type ordinal
+     * @param ends run ends, indexed by feature type ordinal
+     * @param counts run counts, indexed by feature type ordinal
+     */
+    private AlignmentFeatures(final long columns, final long[][] starts, final long[][] ends, final int[] counts) {
+        this.columns = columns;
+        this.starts = starts;
+        this.ends = ends;
+        this.counts = counts;
+    }
+
+
+    /**
+     * Return the number of alignment columns.
+     *
+     * @return the number of alignment columns
+     */
+    public long columns() {
+        return columns;
+    }
+
+    /**
+     * Return the number of runs of the specified feature type.
+     *
+     * @param type feature type, must not be null
+     * @return the number of runs of the specified feature type
+     */
+    public int count(final Type type) {
+        checkNotNull(type);
+        return counts[type.ordinal()];
+    }
+
+    /**
+     * Return the start of the run of the specified feature type at the specified index.
+     *
+     * @param type feature type, must not be null
+     * @param index run index, must be between <code>0</code> and <code>count(type) - 1</code>
+     * @return the start of the run of the specified feature type at the specified index
+     */
+    public long start(final Type type, final int index) {
+        checkElementIndex(index, count(type));
+        return starts[type.ordinal()][index];
+    }
+
+    /**
+     * Return the end of the run of the specified feature type at the specified index.
+     *
+     * @param type feature type, must not be null
+     * @param index run index, must be between <code>0</code> and <code>count(type) - 1</code>
+     * @return the end of the run of the specified feature type at the specified index
+     */
+    public long end(final Type type, final int index) {
+        checkElementIndex(index, count(type));
+        return ends[type.ordinal()][index];
+    }
+
+    /**
+     * Return the total number of columns in runs of the specified feature type.
+     *
+     * @param type feature type, must not be null
+     * @return the total number of columns in runs of the specified feature type
+     */
+    public long length(final Type type) {
+        int t = type.ordinal();
+        long length = 0L;
+        for (int i = 0, size = counts[t]; i < size; i++) {
+            length += ends[t][i] - starts[t][i];
+        }
+        return length;
+    }
+
+    /**
+     * Return the maximum run length of the specified feature type, or <code>-1</code> if there are none.
+     *
+     * @param type feature type, must not be null
+     * @return the maximum run length of the specified feature type, or <code>-1</code> if there are none
+     */
+    public long maximumLength(final Type type) {
+        int t = type.ordinal();
+        long maximumLength = -1L;
+        for (int i = 0, size = counts[t]; i < size; i++) {
+            maximumLength = Math.max(maximumLength, ends[t][i] - starts[t][i]);
+        }
+        return maximumLength;
+    }
+
+    /**
+     * Return the runs of the specified feature type as 0-based [closed, open) ranges.
+     *
+     * @param type feature type, must not be null
+     * @return the runs of the specified feature type as 0-based [closed, open) ranges
+     */
+    public List<Range<Long>> ranges(final Type type) {
+        int t = type.ordinal();
+        List<Range<Long>> ranges = new ArrayList<Range<Long>>(counts[t]);
+        for (int i = 0, size = counts[t]; i < size; i++) {
+            ranges.add(Range.closedOpen(Long.valueOf(starts[t][i]), Long.valueOf(ends[t][i])));
+        }
+        return ranges;
+    }
+
+
+    /**
+     * Extract alignment features from the specified alignment pair in a single pass.
+     *
+     * @param alignmentPair alignment pair, must not be null
+     * @return alignment features extracted from the specified alignment pair
+     */
+    public static AlignmentFeatures extract(final AlignmentPair alignmentPair) {
+        checkNotNull(alignmentPair);
+        Builder builder = new Builder();
+        for (int i = 1, length = alignmentPair.length() + 1; i < length; i++) {
+            builder.append(classify(alignmentPair.symbolAt(i)), 1);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Extract alignment features from the specified packed CIGAR in a single pass.
+     *
+     * <p>
+     * Sequence match (=) operations are match runs and sequence mismatch (X) operations are mismatch runs.
+     * Alignment match (M) operations do not distinguish between the two and are reported as match runs.
+     * Insertion (I), deletion (D), and skip (N) operations are gap runs.  Clipping and padding operations
+     * do not occupy alignment columns.
+     * </p>
+     *
+     * @param cigar packed CIGAR, must not be null
+     * @return alignment features extracted from the specified packed CIGAR
+     */
+    public static AlignmentFeatures extract(final int[] cigar) {
+        checkNotNull(cigar);
+        Builder builder = new Builder();
+        for (int packed : cigar) {
+            int length = Cigars.length(packed);
+            switch (Cigars.operation(packed)) {
+            case Cigars.MATCH:
+            case Cigars.SEQUENCE_MATCH:
+                builder.append(MATCH, length);
+                break;
+            case Cigars.SEQUENCE_MISMATCH:
+                builder.append(MISMATCH, length);
+                break;
+            case Cigars.INSERTION:
+            case Cigars.DELETION:
+            case Cigars.SKIP:
+                builder.append(GAP, length);
+                break;
+            default:
+                break;
+            }
+        }
+        return builder.build();
+    }
+
+
+    /** Match feature type ordinal. */
+    private static final int MATCH = Type.MATCH.ordinal();
+
+    /** Mismatch feature type ordinal. */
+    private static final int MISMATCH = Type.MISMATCH.ordinal();
+
+    /** Gap feature type ordinal. */
+    private static final int GAP = Type.GAP.ordinal();
+
+    /** Not a feature, e.g. a column that is not a basis symbol. */
+    private static final int NONE = -1;
+
+
+    /**
+     * Classify the specified alignment column symbol without allocation.
+     *
+     * @param symbol alignment column symbol
+     * @return the feature type ordinal of the specified alignment column symbol, or <code>NONE</code>
+     */
+    static int classify(final Symbol symbol) {
+        if (!(symbol instanceof BasisSymbol)) {
+            return NONE;
+        }
+        List<?> symbols = ((BasisSymbol) symbol).getSymbols();
+        Symbol first = null;
+        boolean mismatch = false;
+        for (int i = 0, size = symbols.size(); i < size; i++) {
+            Symbol s = (Symbol) symbols.get(i);
+            if (isGapSymbol(s)) {
+                return GAP;
+            }
+            if (first == null) {
+                first = s;
+            }
+            else if (!first.equals(s)) {
+                mismatch = true;
+            }
+        }
+        if (first == null) {
+            return NONE;
+        }
+        return mismatch ? MISMATCH : MATCH;
+    }
+
+    /**
+     * Alignment features builder, coalesces adjacent columns of the same feature type into runs.
+     */
+    private static final class Builder {
+        /** Current column. */
+        private long column = 0L;
+
+        /** Current run feature type ordinal. */
+        private int type = NONE;
+
+        /** Current run start. */
+        private long start = 0L;
+
+        /** Run starts, indexed by feature type ordinal. */
+        private final long[][] starts = new long[3][16];
+
+        /** Run ends, indexed by feature type ordinal. */
+        private final long[][] ends = new long[3][16];
+
+        /** Run counts, indexed by feature type ordinal. */
+        private final int[] counts = new int[3];
+
+
+        /**
+         * Append the specified number of columns of the specified feature type.
+         *
+         * @param type feature type ordinal, or <code>NONE</code>
+         * @param length number of columns
+         */
+        void append(final int type, final int length) {
+            if (length == 0) {
+                return;
+            }
+            if (type != this.type) {
+                finishRun();
+                this.type = type;
+                start = column;
+            }
+            column += length;
+        }
+
+        /**
+         * Finish the current run, if any.
+         */
+        private void finishRun() {
+            if (type == NONE) {
+                return;
+            }
+            int count = counts[type];
+            if (count == starts[type].length) {
+                starts[type] = Arrays.copyOf(starts[type], count * 2);
+                ends[type] = Arrays.copyOf(ends[type], count * 2);
+            }
+            starts[type][count] = start;
+            ends[type][count] = column;
+            counts[type] = count + 1;
+        }
+
+        /**
+         * Build and return new alignment features.
+         *
+         * @return new alignment features
+         */
+        AlignmentFeatures build() {
+            finishRun();
+            type = NONE;
+            return new AlignmentFeatures(column, starts, ends, counts);
+        }
+    }
+}
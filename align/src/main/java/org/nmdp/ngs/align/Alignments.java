@@ -26,9 +26,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 import com.google.common.collect.BoundType;
 import com.google.common.collect.Iterables;
@@ -42,7 +40,6 @@ import org.biojava.bio.alignment.AlignmentPair;
 import org.biojava.bio.seq.DNATools;
 
 import org.biojava.bio.symbol.AlphabetManager;
-import org.biojava.bio.symbol.BasisSymbol;
 import org.biojava.bio.symbol.Symbol;
 import org.biojava.bio.symbol.GappedSymbolList;
 
@@ -194,19 +191,7 @@ public final class Alignments {
      * @return true if the specified symbol represents an alignment match
      */
     static boolean isMatchSymbol(final Symbol symbol) {
-        if (!(symbol instanceof BasisSymbol)) {
-            return false;
-        }
-        BasisSymbol basisSymbol = (BasisSymbol) symbol;
-        Set<Symbol> uniqueSymbols = new HashSet<Symbol>();
-        for (Object o : basisSymbol.getSymbols()) {
-            Symbol s = (Symbol) o;
-            if (isGapSymbol(s)) {
-                return false;
-            }
-            uniqueSymbols.add((Symbol) o);
-        }
-        return (uniqueSymbols.size() == 1);
+        return AlignmentFeatures.classify(symbol) == AlignmentFeatures.Type.MATCH.ordinal();
     }
 
     /**
@@ -216,19 +201,7 @@ public final class Alignments {
      * @return true if the specified symbol represents an alignment mismatch
      */
     static boolean isMismatchSymbol(final Symbol symbol) {
-        if (!(symbol instanceof BasisSymbol)) {
-            return false;
-        }
-        BasisSymbol basisSymbol = (BasisSymbol) symbol;
-        Set<Symbol> uniqueSymbols = new HashSet<Symbol>();
-        for (Object o : basisSymbol.getSymbols()) {
-            Symbol s = (Symbol) o;
-            if (isGapSymbol(s)) {
-                return false;
-            }
-            uniqueSymbols.add((Symbol) o);
-        }
-        return (uniqueSymbols.size() > 1);
+        return AlignmentFeatures.classify(symbol) == AlignmentFeatures.Type.MISMATCH.ordinal();
     }
 
     /**
@@ -0,0 +1,345 @@
+/*
+
+    ngs-align  Sequence alignment.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.align;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+
+/**
+ * Reusable, mutable view over the tab-separated fields of one line in BED format.
+ *
+ * <p>
+ * Fields are located by offset into a shared character buffer; chrom, start, and end are
+ * parsed eagerly and all other fields are parsed only when requested.  Instances are not
+ * thread safe and are only valid until the next line is decoded.  Use {@link #toRecord()}
+ * to create an immutable BED record.
+ * </p>
+ */
+public final class BedFields {
+    /** Maximum number of fields, BED12. */
+    private static final int MAXIMUM_FIELDS = 12;
+
+    /** Character buffer. */
+    private char[] buffer;
+
+    /** Field start offsets, inclusive. */
+    private final int[] fieldStarts = new int[MAXIMUM_FIELDS];
+
+    /** Field end offsets, exclusive. */
+    private final int[] fieldEnds = new int[MAXIMUM_FIELDS];
+
+    /** Number of fields. */
+    private int fieldCount;
+
+    /** Line number. */
+    private long lineNumber;
+
+    /** Chrom, reused across lines while it does not change. */
+    private String chrom;
+
+    /** Start. */
+    private long start;
+
+    /** End. */
+    private long end;
+
+
+    /**
+     * Create a new empty BED fields view.
+     */
+    BedFields() {
+        // empty
+    }
+
+
+    /**
+     * Decode the specified line into this BED fields view.
+     *
+     * @param buffer character buffer
+     * @param offset line start offset, inclusive
+     * @param limit line end offset, exclusive, not including line terminator characters
+     * @param lineNumber line number
+     * @throws IllegalArgumentException if the line is not valid BED[3,4,5,6,12] format
+     * @throws NumberFormatException if start or end cannot be parsed as a long
+     */
+    void decode(final char[] buffer, final int offset, final int limit, final long lineNumber) {
+        this.buffer = buffer;
+        this.lineNumber = lineNumber;
+
+        int count = 0;
+        int fieldStart = offset;
+        for (int i = offset; i <= limit; i++) {
+            if (i == limit || buffer[i] == '\t') {
+                if (count < MAXIMUM_FIELDS) {
+                    int s = fieldStart;
+                    int e = i;
+                    while (s < e && buffer[s] <= ' ') {
+                        s++;
+                    }
+                    while (e > s && buffer[e - 1] <= ' ') {
+                        e--;
+                    }
+                    fieldStarts[count] = s;
+                    fieldEnds[count] = e;
+                }
+                count++;
+                fieldStart = i + 1;
+            }
+        }
+        fieldCount = count;
+
+        if (count < 3) {
+            throw new IllegalArgumentException("value must have at least three fields (chrom, start, end)");
+        }
+        if (count > 6 && count != MAXIMUM_FIELDS) {
+            throw new IllegalArgumentException("value is not in BED3, BED4, BED5, BED6 or BED12 format");
+        }
+
+        int chromLength = fieldEnds[0] - fieldStarts[0];
+        if (chrom == null || !regionMatches(chrom, buffer, fieldStarts[0], chromLength)) {
+            chrom = new String(buffer, fieldStarts[0], chromLength);
+        }
+        start = parseLong(buffer, fieldStarts[1], fieldEnds[1]);
+        end = parseLong(buffer, fieldStarts[2], fieldEnds[2]);
+
+        checkArgument(start >= 0L, "start must be at least zero");
+        checkArgument(end >= 0L, "end must be at least zero");
+        checkArgument(end >= start, "end must be greater than or equal to start");
+    }
+
+
+    /**
+     * Return the line number for these BED fields.
+     *
+     * @return the line number for these BED fields
+     */
+    public long lineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Return the number of fields, one of <code>3</code>, <code>4</code>, <code>5</code>, <code>6</code>, or <code>12</code>.
+     *
+     * @return the number of fields
+     */
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Return the chrom for these BED fields.  The same string instance is returned for consecutive
+     * lines with the same chrom.
+     *
+     * @return the chrom for these BED fields
+     */
+    public String chrom() {
+        return chrom;
+    }
+
+    /**
+     * Return the start for these BED fields.
+     *
+     * @return the start for these BED fields
+     */
+    public long start() {
+        return start;
+    }
+
+    /**
+     * Return the end for these BED fields.
+     *
+     * @return the end for these BED fields
+     */
+    public long end() {
+        return end;
+    }
+
+    /**
+     * Return the name for these BED fields, if any.
+     *
+     * @return the name for these BED fields, or <code>null</code> if not present
+     */
+    public String name() {
+        return field(3);
+    }
+
+    /**
+     * Return the score for these BED fields, if any.
+     *
+     * @return the score for these BED fields, or <code>null</code> if not present
+     */
+    public String score() {
+        return field(4);
+    }
+
+    /**
+     * Return the strand for these BED fields, if any.
+     *
+     * @return the strand for these BED fields, or <code>null</code> if not present
+     */
+    public String strand() {
+        return field(5);
+    }
+
+    /**
+     * Return the strand for these BED fields as a character, without allocation.
+     *
+     * @return the strand for these BED fields as a character, or <code>'.'</code> if not present or empty
+     */
+    public char strandChar() {
+        if (fieldCount < 6 || fieldEnds[5] == fieldStarts[5]) {
+            return '.';
+        }
+        return buffer[fieldStarts[5]];
+    }
+
+    /**
+     * Return an immutable BED record for these BED fields.
+     *
+     * @return an immutable BED record for these BED fields
+     * @throws IllegalArgumentException if these BED fields are not a valid BED record
+     * @throws NumberFormatException if a long valued field cannot be parsed as a long
+     */
+    public BedRecord toRecord() {
+        switch (fieldCount) {
+        case 3:
+            return new BedRecord(chrom, start, end);
+        case 4:
+            return new BedRecord(chrom, start, end, name());
+        case 5:
+            return new BedRecord(chrom, start, end, name(), score());
+        case 6:
+            return new BedRecord(chrom, start, end, name(), score(), strand());
+        default:
+            long thickStart = parseLong(buffer, fieldStarts[6], fieldEnds[6]);
+            long thickEnd = parseLong(buffer, fieldStarts[7], fieldEnds[7]);
+            String itemRgb = field(8);
+            int blockCount = Integer.parseInt(field(9));
+            long[] blockSizes = parseLongArray(buffer, fieldStarts[10], fieldEnds[10]);
+            long[] blockStarts = parseLongArray(buffer, fieldStarts[11], fieldEnds[11]);
+            return new BedRecord(chrom, start, end, name(), score(), strand(), thickStart, thickEnd, itemRgb, blockCount, blockSizes, blockStarts);
+        }
+    }
+
+    /**
+     * Return the field at the specified index as a new string, or null if not present.
+     *
+     * @param index field index
+     * @return the field at the specified index as a new string, or null if not present
+     */
+    private String field(final int index) {
+        if (index >= fieldCount) {
+            return null;
+        }
+        return new String(buffer, fieldStarts[index], fieldEnds[index] - fieldStarts[index]);
+    }
+
+    /**
+     * Return true if the specified string is equal to the specified region of the specified character buffer.
+     *
+     * @param value string
+     * @param buffer character buffer
+     * @param offset region offset
+     * @param length region length
+     * @return true if the specified string is equal to the specified region of the specified character buffer
+     */
+    private static boolean regionMatches(final String value, final char[] buffer, final int offset, final int length) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) != buffer[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parse a long from the specified region of the specified character buffer.
+     *
+     * @param buffer character buffer
+     * @param offset region start offset, inclusive
+     * @param limit region end offset, exclusive
+     * @return a long parsed from the specified region of the specified character buffer
+     * @throws NumberFormatException if the specified region cannot be parsed as a long
+     */
+    static long parseLong(final char[] buffer, final int offset, final int limit) {
+        int i = offset;
+        boolean negative = false;
+        if (i < limit && (buffer[i] == '-' || buffer[i] == '+')) {
+            negative = buffer[i] == '-';
+            i++;
+        }
+        // fall back to Long.parseLong for empty and possibly overflowing values
+        if (i == limit || limit - i > 18) {
+            return Long.parseLong(new String(buffer, offset, limit - offset));
+        }
+        long value = 0L;
+        for (; i < limit; i++) {
+            char c = buffer[i];
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("For input string: \"" + new String(buffer, offset, limit - offset) + "\"");
+            }
+            value = value * 10L + (c - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parse a comma-separated array of longs from the specified region of the specified character buffer,
+     * ignoring empty values.
+     *
+     * @param buffer character buffer
+     * @param offset region start offset, inclusive
+     * @param limit region end offset, exclusive
+     * @return a comma-separated array of longs parsed from the specified region of the specified character buffer
+     * @throws NumberFormatException if a value cannot be parsed as a long
+     */
+    static long[] parseLongArray(final char[] buffer, final int offset, final int limit) {
+        long[] longs = new long[8];
+        int size = 0;
+        int valueStart = offset;
+        for (int i = offset; i <= limit; i++) {
+            if (i == limit || buffer[i] == ',') {
+                int s = valueStart;
+                int e = i;
+                while (s < e && buffer[s] <= ' ') {
+                    s++;
+                }
+                while (e > s && buffer[e - 1] <= ' ') {
+                    e--;
+                }
+                if (e > s) {
+                    if (size == longs.length) {
+                        longs = Arrays.copyOf(longs, size * 2);
+                    }
+                    longs[size++] = parseLong(buffer, s, e);
+                }
+                valueStart = i + 1;
+            }
+        }
+        return Arrays.copyOf(longs, size);
+    }
+}
@@ -26,17 +26,21 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.io.IOException;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.nio.CharBuffer;
 
-import com.google.common.io.CharStreams;
-import com.google.common.io.LineProcessor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * BED format reader.
  */
 public final class BedReader {
 
+    /** Initial character buffer size. */
+    private static final int BUFFER_SIZE = 65536;
+
+
     /**
      * Private no-arg constructor.
      */
@@ -70,46 +74,84 @@ public final class BedReader {
         checkNotNull(readable);
         checkNotNull(listener);
 
-        BedLineProcessor lineProcessor = new BedLineProcessor(listener);
-        CharStreams.readLines(readable, lineProcessor);
+        streamFields(readable, new BedFieldsListener() {
+                @Override
+                public boolean fields(final BedFields fields) {
+                    return listener.record(fields.toRecord());
+                }
+            });
     }
 
     /**
-     * BED line processor.
+     * Stream the fields of zero or more BED records from the specified readable.
+     *
+     * <p>
+     * Lines are scanned directly from a reusable character buffer and the specified listener
+     * is notified with a reusable BED fields view, so no per-line strings or BED records are
+     * created unless requested by the listener.
+     * </p>
+     *
+     * @param readable readable to stream from, must not be null
+     * @param listener event based listener callback, must not be null
+     * @throws IOException if an I/O error occurs
      */
-    private static final class BedLineProcessor implements LineProcessor<Object> {
-        /** Line number. */
-        private long lineNumber = 0;
-
-        /** BED listener. */
-        private final BedListener listener;
-
-
-        /**
-         * Create a new BED line processor with the specified BED listener.
-         *
-         * @param listener BED listener, must not be null
-         */
-        private BedLineProcessor(final BedListener listener) {
-            checkNotNull(listener);
-            this.listener = listener;
-        }
-
-
-        @Override
-        public Object getResult() {
-            return null;
-        }
+    public static void streamFields(final Readable readable, final BedFieldsListener listener) throws IOException {
+        checkNotNull(readable);
+        checkNotNull(listener);
 
-        @Override
-        public boolean processLine(final String line) throws IOException
-        {
-            try {
+        BedFields fields = new BedFields();
+        char[] buffer = new char[BUFFER_SIZE];
+        int lineStart = 0;
+        int position = 0;
+        int limit = 0;
+        long lineNumber = 0;
+        boolean eof = false;
+
+        while (true) {
+            int newline = -1;
+            for (int i = position; i < limit; i++) {
+                if (buffer[i] == '\n') {
+                    newline = i;
+                    break;
+                }
+            }
+            if (newline >= 0 || (eof && lineStart < limit)) {
+                int lineEnd = (newline >= 0) ? newline : limit;
+                int contentEnd = (lineEnd > lineStart && buffer[lineEnd - 1] == '\r') ? lineEnd - 1 : lineEnd;
                 lineNumber++;
-                return listener.record(BedRecord.valueOf(line));
+                try {
+                    fields.decode(buffer, lineStart, contentEnd, lineNumber);
+                    if (!listener.fields(fields)) {
+                        return;
+                    }
+                }
+                catch (IllegalArgumentException | NullPointerException e) {
+                    throw new IOException("could not read BED record at line " + lineNumber + ", caught " + e.getMessage(), e);
+                }
+                lineStart = lineEnd + 1;
+                position = lineStart;
+                continue;
+            }
+            if (eof) {
+                return;
+            }
+
+            // compact the partial line to the start of the buffer, growing the buffer if necessary
+            if (lineStart > 0) {
+                System.arraycopy(buffer, lineStart, buffer, 0, limit - lineStart);
+                limit -= lineStart;
+                lineStart = 0;
+            }
+            position = limit;
+            if (limit == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            int read = readable.read(CharBuffer.wrap(buffer, limit, buffer.length - limit));
+            if (read < 0) {
+                eof = true;
             }
-            catch (IllegalArgumentException | NullPointerException e) {
-                throw new IOException("could not read BED record at line " + lineNumber + ", caught " + e.getMessage(), e);
+            else {
+                limit += read;
             }
         }
     }
@@ -120,7 +162,7 @@ public final class BedReader {
      */
     private static class Collect implements BedListener {
         /** List of collected BED records. */
-        private final List<BedRecord> records = new LinkedList<BedRecord>();
+        private final List<BedRecord> records = new ArrayList<BedRecord>();
 
 
         @Override
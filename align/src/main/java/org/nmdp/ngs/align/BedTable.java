@@ -0,0 +1,1054 @@
+/*
+
+    ngs-align  Sequence alignment.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.align;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.concurrent.Immutable;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableRangeSet;
+import com.google.common.collect.Range;
+
+/**
+ * Columnar in-memory store of BED records.
+ *
+ * <p>
+ * Records are stored column-wise: chroms as ids into a chrom dictionary, starts and ends
+ * as <code>long[]</code> arrays, names and scores as ids into a string dictionary, and
+ * strands packed two bits per record.  BED12 thick, item RGB, and block columns are not retained,
+ * records are stored as BED3, BED4, BED5, or BED6.
+ * </p>
+ */
+@Immutable
+public final class BedTable {
+    /** Absent name or score id. */
+    private static final int NONE = -1;
+
+    /** Absent strand. */
+    private static final int NO_STRAND = 0;
+
+    /** Forward strand. */
+    private static final int FORWARD = 1;
+
+    /** Reverse strand. */
+    private static final int REVERSE = 2;
+
+    /** Number of records. */
+    private final int size;
+
+    /** Chrom dictionary. */
+    private final String[] chroms;
+
+    /** Chrom ids. */
+    private final int[] chromIds;
+
+    /** Starts. */
+    private final long[] starts;
+
+    /** Ends. */
+    private final long[] ends;
+
+    /** String dictionary for names and scores. */
+    private final String[] strings;
+
+    /** Name ids. */
+    private final int[] names;
+
+    /** Score ids. */
+    private final int[] scores;
+
+    /** Strands, packed two bits per record. */
+    private final long[] strands;
+
+    /** True if this table is sorted by coordinate. */
+    private final boolean sorted;
+
+
+    /**
+     * Create a new BED table from the specified columns.
+     *
+     * @param size number of records
+     * @param chroms chrom dictionary
+     * @param chromIds chrom ids
+     * @param starts starts
+     * @param ends ends
+     * @param strings string dictionary
+     * @param names name ids
+     * @param scores score ids
+     * @param strands packed strands
+     */
+    private BedTable(final int size, final String[] chroms, final int[] chromIds, final long[] starts, final long[] ends,
+                     final String[] strings, final int[] names, final int[] scores, final long[] strands) {
+        this.size = size;
+        this.chroms = chroms;
+        this.chromIds = chromIds;
+        this.starts = starts;
+        this.ends = ends;
+        this.strings = strings;
+        this.names = names;
+        this.scores = scores;
+        this.strands = strands;
+
+        int[] ranks = ranks(chroms);
+        boolean sorted = true;
+        for (int i = 1; i < size; i++) {
+            if (compare(ranks, i - 1, i) > 0) {
+                sorted = false;
+                break;
+            }
+        }
+        this.sorted = sorted;
+    }
+
+
+    /**
+     * Return the number of records in this BED table.
+     *
+     * @return the number of records in this BED table
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Return true if this BED table is empty.
+     *
+     * @return true if this BED table is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Return true if this BED table is sorted by chrom, start, and end.
+     *
+     * @return true if this BED table is sorted by chrom, start, and end
+     */
+    public boolean isSorted() {
+        return sorted;
+    }
+
+    /**
+     * Return the chrom dictionary for this BED table, in order of first appearance.
+     *
+     * @return the chrom dictionary for this BED table
+     */
+    public List<String> chroms() {
+        return ImmutableList.copyOf(chroms);
+    }
+
+    /**
+     * Return the chrom for the record at the specified index.
+     *
+     * @param index record index
+     * @return the chrom for the record at the specified index
+     */
+    public String chrom(final int index) {
+        checkElementIndex(index, size);
+        return chroms[chromIds[index]];
+    }
+
+    /**
+     * Return the start for the record at the specified index.
+     *
+     * @param index record index
+     * @return the start for the record at the specified index
+     */
+    public long start(final int index) {
+        checkElementIndex(index, size);
+        return starts[index];
+    }
+
+    /**
+     * Return the end for the record at the specified index.
+     *
+     * @param index record index
+     * @return the end for the record at the specified index
+     */
+    public long end(final int index) {
+        checkElementIndex(index, size);
+        return ends[index];
+    }
+
+    /**
+     * Return the name for the record at the specified index, if any.
+     *
+     * @param index record index
+     * @return the name for the record at the specified index, or <code>null</code> if not present
+     */
+    public String name(final int index) {
+        checkElementIndex(index, size);
+        return string(names[index]);
+    }
+
+    /**
+     * Return the score for the record at the specified index, if any.
+     *
+     * @param index record index
+     * @return the score for the record at the specified index, or <code>null</code> if not present
+     */
+    public String score(final int index) {
+        checkElementIndex(index, size);
+        return string(scores[index]);
+    }
+
+    /**
+     * Return the strand for the record at the specified index, if any.
+     *
+     * @param index record index
+     * @return the strand for the record at the specified index, or <code>null</code> if not present
+     */
+    public String strand(final int index) {
+        checkElementIndex(index, size);
+        switch (strandCode(strands, index)) {
+        case FORWARD:
+            return "+";
+        case REVERSE:
+            return "-";
+        default:
+            return null;
+        }
+    }
+
+    /**
+     * Return the record at the specified index as a new BED record.
+     *
+     * @param index record index
+     * @return the record at the specified index as a new BED record
+     */
+    public BedRecord toRecord(final int index) {
+        checkElementIndex(index, size);
+        String chrom = chroms[chromIds[index]];
+        if (names[index] == NONE) {
+            return new BedRecord(chrom, starts[index], ends[index]);
+        }
+        if (scores[index] == NONE) {
+            return new BedRecord(chrom, starts[index], ends[index], name(index));
+        }
+        if (strandCode(strands, index) == NO_STRAND) {
+            return new BedRecord(chrom, starts[index], ends[index], name(index), score(index));
+        }
+        return new BedRecord(chrom, starts[index], ends[index], name(index), score(index), strand(index));
+    }
+
+    /**
+     * Write the records in this BED table with the specified print writer.
+     *
+     * @param writer print writer to write records with, must not be null
+     */
+    public void write(final PrintWriter writer) {
+        checkNotNull(writer);
+        for (int i = 0; i < size; i++) {
+            writer.print(chroms[chromIds[i]]);
+            writer.print('\t');
+            writer.print(starts[i]);
+            writer.print('\t');
+            writer.print(ends[i]);
+            if (names[i] != NONE) {
+                writer.print('\t');
+                writer.print(strings[names[i]]);
+                if (scores[i] != NONE) {
+                    writer.print('\t');
+                    writer.print(strings[scores[i]]);
+                    int strand = strandCode(strands, i);
+                    if (strand != NO_STRAND) {
+                        writer.print('\t');
+                        writer.print(strand == FORWARD ? '+' : '-');
+                    }
+                }
+            }
+            writer.println();
+        }
+    }
+
+    /**
+     * Return this BED table sorted by chrom, start, and end.  Chroms are sorted lexicographically
+     * and the sort is stable.
+     *
+     * @return this BED table sorted by chrom, start, and end
+     */
+    public BedTable sort() {
+        if (sorted) {
+            return this;
+        }
+        int[] order = sortedOrder();
+        int[] sortedChromIds = new int[size];
+        long[] sortedStarts = new long[size];
+        long[] sortedEnds = new long[size];
+        int[] sortedNames = new int[size];
+        int[] sortedScores = new int[size];
+        long[] sortedStrands = new long[strandWords(size)];
+        for (int i = 0; i < size; i++) {
+            int j = order[i];
+            sortedChromIds[i] = chromIds[j];
+            sortedStarts[i] = starts[j];
+            sortedEnds[i] = ends[j];
+            sortedNames[i] = names[j];
+            sortedScores[i] = scores[j];
+            setStrandCode(sortedStrands, i, strandCode(strands, j));
+        }
+        return new BedTable(size, chroms, sortedChromIds, sortedStarts, sortedEnds, strings, sortedNames, sortedScores, sortedStrands);
+    }
+
+    /**
+     * Return a new BED3 table containing the overlapping and book-ended records in this
+     * BED table merged into single records, similar to <code>bedtools merge</code>.
+     *
+     * @return a new BED3 table containing the overlapping and book-ended records in
+     *    this BED table merged into single records
+     */
+    public BedTable merge() {
+        BedTable sortedTable = sort();
+        Builder builder = new Builder();
+        int i = 0;
+        while (i < size) {
+            int chromId = sortedTable.chromIds[i];
+            long start = sortedTable.starts[i];
+            long end = sortedTable.ends[i];
+            i++;
+            while (i < size && sortedTable.chromIds[i] == chromId && sortedTable.starts[i] <= end) {
+                end = Math.max(end, sortedTable.ends[i]);
+                i++;
+            }
+            builder.add(chroms[chromId], start, end);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Return a new BED3 table containing the intervals not covered by records in this BED table,
+     * similar to <code>bedtools complement</code>.  Chroms are visited in the iteration order of
+     * the specified map of chromosome lengths.
+     *
+     * @param lengths map of chromosome lengths keyed by chrom, must not be null and must contain
+     *    every chrom in this BED table
+     * @return a new BED3 table containing the intervals not covered by records in this BED table
+     */
+    public BedTable complement(final Map<String, Long> lengths) {
+        checkNotNull(lengths);
+        for (String chrom : chroms) {
+            checkArgument(lengths.containsKey(chrom), "lengths must contain chrom " + chrom);
+        }
+        BedTable merged = merge();
+        int[] offsets = merged.chromOffsets();
+        Map<String, Integer> ids = merged.chromIds();
+        Builder builder = new Builder();
+        for (Map.Entry<String, Long> entry : lengths.entrySet()) {
+            String chrom = entry.getKey();
+            long length = entry.getValue();
+            long position = 0L;
+            Integer chromId = ids.get(chrom);
+            if (chromId != null) {
+                for (int i = offsets[chromId], end = offsets[chromId + 1]; i < end && position < length; i++) {
+                    if (merged.starts[i] > position) {
+                        builder.add(chrom, position, Math.min(merged.starts[i], length));
+                    }
+                    position = Math.max(position, merged.ends[i]);
+                }
+            }
+            if (position < length) {
+                builder.add(chrom, position, length);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Return a new BED table with the records in this BED table extended by the specified number
+     * of bases on each side, similar to <code>bedtools slop</code>.  Starts are clamped to zero.
+     *
+     * @param left number of bases to subtract from each start, must be at least zero
+     * @param right number of bases to add to each end, must be at least zero
+     * @return a new BED table with the records in this BED table extended by the specified number
+     *    of bases on each side
+     */
+    public BedTable slop(final long left, final long right) {
+        checkArgument(left >= 0L, "left must be at least zero");
+        checkArgument(right >= 0L, "right must be at least zero");
+        long[] slopStarts = new long[size];
+        long[] slopEnds = new long[size];
+        for (int i = 0; i < size; i++) {
+            slopStarts[i] = Math.max(0L, starts[i] - left);
+            slopEnds[i] = ends[i] + right;
+        }
+        return new BedTable(size, chroms, chromIds, slopStarts, slopEnds, strings, names, scores, strands);
+    }
+
+    /**
+     * Return a new BED table with the records in this BED table extended by the specified number
+     * of bases on each side, similar to <code>bedtools slop</code>.  Starts are clamped to zero
+     * and ends are clamped to the specified chromosome lengths.
+     *
+     * @param left number of bases to subtract from each start, must be at least zero
+     * @param right number of bases to add to each end, must be at least zero
+     * @param lengths map of chromosome lengths keyed by chrom, must not be null and must contain
+     *    every chrom in this BED table
+     * @return a new BED table with the records in this BED table extended by the specified number
+     *    of bases on each side
+     */
+    public BedTable slop(final long left, final long right, final Map<String, Long> lengths) {
+        checkArgument(left >= 0L, "left must be at least zero");
+        checkArgument(right >= 0L, "right must be at least zero");
+        checkNotNull(lengths);
+        long[] chromLengths = new long[chroms.length];
+        for (int i = 0; i < chroms.length; i++) {
+            Long length = lengths.get(chroms[i]);
+            checkArgument(length != null, "lengths must contain chrom " + chroms[i]);
+            chromLengths[i] = length;
+        }
+        long[] slopStarts = new long[size];
+        long[] slopEnds = new long[size];
+        for (int i = 0; i < size; i++) {
+            long length = chromLengths[chromIds[i]];
+            slopStarts[i] = Math.min(length, Math.max(0L, starts[i] - left));
+            slopEnds[i] = Math.max(slopStarts[i], Math.min(length, ends[i] + right));
+        }
+        return new BedTable(size, chroms, chromIds, slopStarts, slopEnds, strings, names, scores, strands);
+    }
+
+    /**
+     * Return the records in this BED table on the specified chrom as a range set, built directly
+     * from the merged intervals without creating per-record ranges.
+     *
+     * @param chrom chrom, must not be null
+     * @return the records in this BED table on the specified chrom as a range set
+     */
+    public ImmutableRangeSet<Long> rangeSet(final String chrom) {
+        checkNotNull(chrom);
+        BedTable merged = merge();
+        Integer chromId = merged.chromIds().get(chrom);
+        if (chromId == null) {
+            return ImmutableRangeSet.of();
+        }
+        int[] offsets = merged.chromOffsets();
+        return merged.rangeSet(offsets[chromId], offsets[chromId + 1]);
+    }
+
+    /**
+     * Return the records in this BED table as range sets keyed by chrom, built directly
+     * from the merged intervals without creating per-record ranges.
+     *
+     * @return the records in this BED table as range sets keyed by chrom
+     */
+    public ImmutableMap<String, ImmutableRangeSet<Long>> rangeSets() {
+        BedTable merged = merge();
+        int[] offsets = merged.chromOffsets();
+        ImmutableMap.Builder<String, ImmutableRangeSet<Long>> builder = ImmutableMap.builder();
+        for (int i = 0; i < merged.chroms.length; i++) {
+            builder.put(merged.chroms[i], merged.rangeSet(offsets[i], offsets[i + 1]));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Create and return a new overlap index for the records in this BED table.
+     *
+     * @return a new overlap index for the records in this BED table
+     */
+    public Index index() {
+        int[] order = sortedOrder();
+        long[] indexStarts = new long[size];
+        long[] indexEnds = new long[size];
+        long[] maximumEnds = new long[size];
+        int[] counts = new int[chroms.length];
+        for (int i = 0; i < size; i++) {
+            int j = order[i];
+            indexStarts[i] = starts[j];
+            indexEnds[i] = ends[j];
+            boolean first = (i == 0) || chromIds[order[i - 1]] != chromIds[j];
+            maximumEnds[i] = first ? ends[j] : Math.max(maximumEnds[i - 1], ends[j]);
+            counts[chromIds[j]]++;
+        }
+        // sorted order groups chroms by rank, map each chrom id to its range in the index
+        int[] ranks = ranks(chroms);
+        int[] byRank = new int[chroms.length];
+        for (int i = 0; i < chroms.length; i++) {
+            byRank[ranks[i]] = i;
+        }
+        int[] chromStarts = new int[chroms.length];
+        int[] chromEnds = new int[chroms.length];
+        int offset = 0;
+        for (int rank = 0; rank < chroms.length; rank++) {
+            int chromId = byRank[rank];
+            chromStarts[chromId] = offset;
+            offset += counts[chromId];
+            chromEnds[chromId] = offset;
+        }
+        return new Index(chromIds(), chromStarts, chromEnds, indexStarts, indexEnds, maximumEnds, order);
+    }
+
+
+    /**
+     * Overlap index over the records in a BED table.
+     *
+     * <p>
+     * Records are held in coordinate order per chrom along with a running maximum of ends, so
+     * overlap queries are a binary search followed by a backwards scan that stops as soon as no
+     * earlier record can reach the query.
+     * </p>
+     */
+    @Immutable
+    public static final class Index {
+        /** Map of chrom ids keyed by chrom. */
+        private final Map<String, Integer> chromIds;
+
+        /** Offset of the first record for each chrom id. */
+        private final int[] chromStarts;
+
+        /** Offset past the last record for each chrom id. */
+        private final int[] chromEnds;
+
+        /** Starts, in coordinate order. */
+        private final long[] starts;
+
+        /** Ends, in coordinate order. */
+        private final long[] ends;
+
+        /** Running maximum of ends per chrom. */
+        private final long[] maximumEnds;
+
+        /** Record indices into the indexed BED table, in coordinate order. */
+        private final int[] records;
+
+
+        /**
+         * Create a new overlap index.
+         *
+         * @param chromIds map of chrom ids keyed by chrom
+         * @param chromStarts offset of the first record for each chrom id
+         * @param chromEnds offset past the last record for each chrom id
+         * @param starts starts
+         * @param ends ends
+         * @param maximumEnds running maximum of ends per chrom
+         * @param records record indices into the indexed BED table
+         */
+        private Index(final Map<String, Integer> chromIds, final int[] chromStarts, final int[] chromEnds,
+                      final long[] starts, final long[] ends, final long[] maximumEnds, final int[] records) {
+            this.chromIds = chromIds;
+            this.chromStarts = chromStarts;
+            this.chromEnds = chromEnds;
+            this.starts = starts;
+            this.ends = ends;
+            this.maximumEnds = maximumEnds;
+            this.records = records;
+        }
+
+
+        /**
+         * Return true if any indexed record overlaps the specified interval by at least one base.
+         *
+         * @param chrom chrom, must not be null
+         * @param start interval start, zero-based
+         * @param end interval end, exclusive
+         * @return true if any indexed record overlaps the specified interval by at least one base
+         */
+        public boolean intersects(final String chrom, final long start, final long end) {
+            checkNotNull(chrom);
+            Integer chromId = chromIds.get(chrom);
+            if (chromId == null) {
+                return false;
+            }
+            int lower = chromStarts[chromId];
+            for (int i = upperBound(lower, chromEnds[chromId], end) - 1; i >= lower && maximumEnds[i] > start; i--) {
+                if (ends[i] > start) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Return the indices of the indexed records that overlap the specified interval by at
+         * least one base, in order of decreasing start.
+         *
+         * @param chrom chrom, must not be null
+         * @param start interval start, zero-based
+         * @param end interval end, exclusive
+         * @return the indices of the indexed records that overlap the specified interval
+         */
+        public int[] overlapping(final String chrom, final long start, final long end) {
+            checkNotNull(chrom);
+            Integer chromId = chromIds.get(chrom);
+            if (chromId == null) {
+                return new int[0];
+            }
+            int lower = chromStarts[chromId];
+            int count = 0;
+            int[] overlapping = new int[8];
+            for (int i = upperBound(lower, chromEnds[chromId], end) - 1; i >= lower && maximumEnds[i] > start; i--) {
+                if (ends[i] > start) {
+                    if (count == overlapping.length) {
+                        overlapping = Arrays.copyOf(overlapping, count * 2);
+                    }
+                    overlapping[count++] = records[i];
+                }
+            }
+            return Arrays.copyOf(overlapping, count);
+        }
+
+        /**
+         * Return the offset of the first record in the specified bounds with a start greater than
+         * or equal to the specified value.
+         *
+         * @param lower lower bound, inclusive
+         * @param upper upper bound, exclusive
+         * @param value value
+         * @return the offset of the first record in the specified bounds with a start greater than
+         *    or equal to the specified value
+         */
+        private int upperBound(final int lower, final int upper, final long value) {
+            int low = lower;
+            int high = upper;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (starts[middle] < value) {
+                    low = middle + 1;
+                }
+                else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+
+
+    /**
+     * Return the string for the specified string id, or <code>null</code> if not present.
+     *
+     * @param id string id
+     * @return the string for the specified string id, or <code>null</code> if not present
+     */
+    private String string(final int id) {
+        return id == NONE ? null : strings[id];
+    }
+
+    /**
+     * Return a map of chrom ids keyed by chrom for this BED table.
+     *
+     * @return a map of chrom ids keyed by chrom for this BED table
+     */
+    private Map<String, Integer> chromIds() {
+        Map<String, Integer> ids = new HashMap<String, Integer>(chroms.length * 2);
+        for (int i = 0; i < chroms.length; i++) {
+            ids.put(chroms[i], i);
+        }
+        return ids;
+    }
+
+    /**
+     * Return the offsets of each chrom id in this merged BED table.  Merged BED tables are built
+     * in coordinate order, so chrom ids appear contiguously and in increasing order.
+     *
+     * @return the offsets of each chrom id in this merged BED table
+     */
+    private int[] chromOffsets() {
+        int[] offsets = new int[chroms.length + 1];
+        for (int i = 0; i < size; i++) {
+            offsets[chromIds[i] + 1]++;
+        }
+        for (int i = 1; i < offsets.length; i++) {
+            offsets[i] += offsets[i - 1];
+        }
+        return offsets;
+    }
+
+    /**
+     * Return the records in the specified range of this merged BED table as a range set.
+     *
+     * @param from first record, inclusive
+     * @param to last record, exclusive
+     * @return the records in the specified range of this merged BED table as a range set
+     */
+    private ImmutableRangeSet<Long> rangeSet(final int from, final int to) {
+        ImmutableRangeSet.Builder<Long> builder = ImmutableRangeSet.builder();
+        for (int i = from; i < to; i++) {
+            if (ends[i] > starts[i]) {
+                builder.add(Range.closedOpen(starts[i], ends[i]));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Return the order of records in this BED table sorted by chrom, start, and end.
+     *
+     * @return the order of records in this BED table sorted by chrom, start, and end
+     */
+    private int[] sortedOrder() {
+        int[] ranks = ranks(chroms);
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        if (!sorted) {
+            mergeSort(ranks, order, new int[size], 0, size);
+        }
+        return order;
+    }
+
+    /**
+     * Stable merge sort of the specified range of record indices.
+     *
+     * @param ranks chrom ranks
+     * @param order record indices
+     * @param scratch scratch space
+     * @param from first index, inclusive
+     * @param to last index, exclusive
+     */
+    private void mergeSort(final int[] ranks, final int[] order, final int[] scratch, final int from, final int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(ranks, order, scratch, from, middle);
+        mergeSort(ranks, order, scratch, middle, to);
+        if (compare(ranks, order[middle - 1], order[middle]) <= 0) {
+            return;
+        }
+        System.arraycopy(order, from, scratch, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && compare(ranks, scratch[left], scratch[right]) <= 0)) {
+                order[i] = scratch[left++];
+            }
+            else {
+                order[i] = scratch[right++];
+            }
+        }
+    }
+
+    /**
+     * Compare the records at the specified indices by chrom rank, start, and end.
+     *
+     * @param ranks chrom ranks
+     * @param i first record index
+     * @param j second record index
+     * @return the comparison of the records at the specified indices
+     */
+    private int compare(final int[] ranks, final int i, final int j) {
+        int c = Integer.compare(ranks[chromIds[i]], ranks[chromIds[j]]);
+        if (c != 0) {
+            return c;
+        }
+        c = Long.compare(starts[i], starts[j]);
+        if (c != 0) {
+            return c;
+        }
+        return Long.compare(ends[i], ends[j]);
+    }
+
+    /**
+     * Return the lexicographic rank of each chrom in the specified chrom dictionary.
+     *
+     * @param chroms chrom dictionary
+     * @return the lexicographic rank of each chrom in the specified chrom dictionary
+     */
+    private static int[] ranks(final String[] chroms) {
+        String[] sortedChroms = chroms.clone();
+        Arrays.sort(sortedChroms);
+        int[] ranks = new int[chroms.length];
+        for (int i = 0; i < chroms.length; i++) {
+            ranks[i] = Arrays.binarySearch(sortedChroms, chroms[i]);
+        }
+        return ranks;
+    }
+
+    /**
+     * Return the number of words needed to pack the specified number of strands.
+     *
+     * @param size number of strands
+     * @return the number of words needed to pack the specified number of strands
+     */
+    private static int strandWords(final int size) {
+        return (size + 31) >>> 5;
+    }
+
+    /**
+     * Return the strand code at the specified index.
+     *
+     * @param strands packed strands
+     * @param index record index
+     * @return the strand code at the specified index
+     */
+    private static int strandCode(final long[] strands, final int index) {
+        return (int) ((strands[index >>> 5] >>> ((index & 31) << 1)) & 3L);
+    }
+
+    /**
+     * Set the strand code at the specified index.
+     *
+     * @param strands packed strands
+     * @param index record index
+     * @param code strand code
+     */
+    private static void setStrandCode(final long[] strands, final int index, final int code) {
+        int shift = (index & 31) << 1;
+        strands[index >>> 5] = (strands[index >>> 5] & ~(3L << shift)) | (((long) code) << shift);
+    }
+
+
+    /**
+     * Read zero or more BED records from the specified readable into a new BED table,
+     * without creating per-record BED record objects.
+     *
+     * @param readable to read from, must not be null
+     * @return a new BED table containing zero or more BED records read from the specified readable
+     * @throws IOException if an I/O error occurs
+     */
+    public static BedTable read(final Readable readable) throws IOException {
+        checkNotNull(readable);
+        final Builder builder = builder();
+        BedReader.streamFields(readable, new BedFieldsListener() {
+                @Override
+                public boolean fields(final BedFields fields) {
+                    builder.add(fields);
+                    return true;
+                }
+            });
+        return builder.build();
+    }
+
+    /**
+     * Create and return a new BED table builder.
+     *
+     * @return a new BED table builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * BED table builder.
+     */
+    public static final class Builder {
+        /** Number of records. */
+        private int size;
+
+        /** Chrom dictionary. */
+        private final List<String> chroms = new ArrayList<String>();
+
+        /** Map of chrom ids keyed by chrom. */
+        private final Map<String, Integer> chromIds = new HashMap<String, Integer>();
+
+        /** String dictionary. */
+        private final List<String> strings = new ArrayList<String>();
+
+        /** Map of string ids keyed by string. */
+        private final Map<String, Integer> stringIds = new HashMap<String, Integer>();
+
+        /** Last chrom added. */
+        private String lastChrom;
+
+        /** Last chrom id added. */
+        private int lastChromId = NONE;
+
+        /** Chrom id column. */
+        private int[] chromIdColumn = new int[16];
+
+        /** Start column. */
+        private long[] startColumn = new long[16];
+
+        /** End column. */
+        private long[] endColumn = new long[16];
+
+        /** Name id column. */
+        private int[] nameColumn = new int[16];
+
+        /** Score id column. */
+        private int[] scoreColumn = new int[16];
+
+        /** Packed strand column. */
+        private long[] strandColumn = new long[1];
+
+
+        /**
+         * Create a new BED table builder.
+         */
+        private Builder() {
+            // empty
+        }
+
+
+        /**
+         * Return this BED table builder configured with the specified BED3 record.
+         *
+         * @param chrom chrom, must not be null
+         * @param start start, must be at least zero
+         * @param end end, must be at least zero, and greater than or equal to start
+         * @return this BED table builder configured with the specified BED3 record
+         */
+        public Builder add(final String chrom, final long start, final long end) {
+            return add(chrom, start, end, null, null, NO_STRAND);
+        }
+
+        /**
+         * Return this BED table builder configured with the specified BED6 record.  Trailing
+         * <code>null</code> values describe BED3, BED4, or BED5 records.
+         *
+         * @param chrom chrom, must not be null
+         * @param start start, must be at least zero
+         * @param end end, must be at least zero, and greater than or equal to start
+         * @param name name, if any
+         * @param score score, if any
+         * @param strand strand, if present must be either <code>-</code> or <code>+</code>
+         * @return this BED table builder configured with the specified BED6 record
+         */
+        public Builder add(final String chrom, final long start, final long end, final String name, final String score, final String strand) {
+            if (strand != null) {
+                checkArgument("-".equals(strand) || "+".equals(strand), "if present, strand must be either - or +");
+            }
+            return add(chrom, start, end, name, score, strand == null ? NO_STRAND : ("+".equals(strand) ? FORWARD : REVERSE));
+        }
+
+        /**
+         * Return this BED table builder configured with the specified BED record.
+         *
+         * @param record BED record, must not be null
+         * @return this BED table builder configured with the specified BED record
+         */
+        public Builder add(final BedRecord record) {
+            checkNotNull(record);
+            return add(record.chrom(), record.start(), record.end(), record.name(), record.score(), record.strand());
+        }
+
+        /**
+         * Return this BED table builder configured with the specified BED fields.
+         *
+         * @param fields BED fields, must not be null
+         * @return this BED table builder configured with the specified BED fields
+         */
+        public Builder add(final BedFields fields) {
+            checkNotNull(fields);
+            int count = fields.fieldCount();
+            String name = count > 3 ? fields.name() : null;
+            String score = count > 4 ? fields.score() : null;
+            int strand = NO_STRAND;
+            if (count > 5) {
+                char c = fields.strandChar();
+                checkArgument(c == '-' || c == '+', "if present, strand must be either - or +");
+                strand = (c == '+') ? FORWARD : REVERSE;
+            }
+            return add(fields.chrom(), fields.start(), fields.end(), name, score, strand);
+        }
+
+        /**
+         * Add the specified record.
+         *
+         * @param chrom chrom
+         * @param start start
+         * @param end end
+         * @param name name
+         * @param score score
+         * @param strand strand code
+         * @return this BED table builder
+         */
+        private Builder add(final String chrom, final long start, final long end, final String name, final String score, final int strand) {
+            checkNotNull(chrom);
+            checkArgument(start >= 0L, "start must be at least zero");
+            checkArgument(end >= 0L, "end must be at least zero");
+            checkArgument(end >= start, "end must be greater than or equal to start");
+
+            if (size == startColumn.length) {
+                int capacity = size * 2;
+                chromIdColumn = Arrays.copyOf(chromIdColumn, capacity);
+                startColumn = Arrays.copyOf(startColumn, capacity);
+                endColumn = Arrays.copyOf(endColumn, capacity);
+                nameColumn = Arrays.copyOf(nameColumn, capacity);
+                scoreColumn = Arrays.copyOf(scoreColumn, capacity);
+                strandColumn = Arrays.copyOf(strandColumn, strandWords(capacity));
+            }
+            chromIdColumn[size] = chromId(chrom);
+            startColumn[size] = start;
+            endColumn[size] = end;
+            nameColumn[size] = (name == null) ? NONE : stringId(name);
+            scoreColumn[size] = (name == null || score == null) ? NONE : stringId(score);
+            setStrandCode(strandColumn, size, (name == null || score == null) ? NO_STRAND : strand);
+            size++;
+            return this;
+        }
+
+        /**
+         * Return the chrom id for the specified chrom, adding it to the chrom dictionary if necessary.
+         *
+         * @param chrom chrom
+         * @return the chrom id for the specified chrom
+         */
+        private int chromId(final String chrom) {
+            if (chrom == lastChrom || chrom.equals(lastChrom)) {
+                return lastChromId;
+            }
+            Integer id = chromIds.get(chrom);
+            if (id == null) {
+                id = chroms.size();
+                chroms.add(chrom);
+                chromIds.put(chrom, id);
+            }
+            lastChrom = chrom;
+            lastChromId = id;
+            return id;
+        }
+
+        /**
+         * Return the string id for the specified string, adding it to the string dictionary if necessary.
+         *
+         * @param value string
+         * @return the string id for the specified string
+         */
+        private int stringId(final String value) {
+            Integer id = stringIds.get(value);
+            if (id == null) {
+                id = strings.size();
+                strings.add(value);
+                stringIds.put(value, id);
+            }
+            return id;
+        }
+
+        /**
+         * Create and return a new BED table configured from this builder.
+         *
+         * @return a new BED table configured from this builder
+         */
+        public BedTable build() {
+            return new BedTable(size, chroms.toArray(new String[chroms.size()]), Arrays.copyOf(chromIdColumn, size),
+                                Arrays.copyOf(startColumn, size), Arrays.copyOf(endColumn, size),
+                                strings.toArray(new String[strings.size()]), Arrays.copyOf(nameColumn, size),
+                                Arrays.copyOf(scoreColumn, size), Arrays.copyOf(strandColumn, strandWords(size)));
+        }
+    }
+}
@@ -27,9 +27,14 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static org.dishevelled.compress.Sources.charSource;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileReader;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 
 import java.nio.charset.Charset;
 
@@ -38,12 +43,16 @@ import java.util.List;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 
+import com.google.common.io.ByteStreams;
 import com.google.common.io.Files;
 
 /**
  * Utility to run blastn via the command line.
  */
 public final class Blastn {
+    /** Charset for FASTA input and tabular output. */
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
 
     /**
      * Private no-arg constructor.
@@ -65,46 +74,193 @@ public final class Blastn {
         checkNotNull(sourceFile);
         checkNotNull(targetFile);
 
-        File blastResult = File.createTempFile("blastn", ".txt");
+        final List<HighScoringPair> hsps = Lists.newArrayList();
+        blastn(sourceFile, targetFile, new HspListener() {
+                @Override
+                public boolean hsp(final HighScoringPair hsp) {
+                    hsps.add(hsp);
+                    return true;
+                }
+            });
+        return ImmutableList.copyOf(hsps);
+    }
 
-        // blastn can't handle compressed files, so copy source and target to temp files, decompressing if necessary
-        File sourceFileCopy = File.createTempFile("sourceFile", ".fa");
-        charSource(sourceFile).copyTo(Files.asCharSink(sourceFileCopy, Charset.forName("UTF-8")));
+    /**
+     * Stream the high-scoring segment pairs (HSPs) from blastn of the source and target sequence files in FASTA format
+     * to the specified listener as blastn reports them.
+     *
+     * <p>
+     * The target sequence file is piped to blastn on stdin and tabular (<code>-outfmt 6</code>) results are
+     * read directly from blastn's stdout, so no temporary files are created unless the source sequence file is
+     * compressed.  If the listener returns false, the blastn process is destroyed and no further
+     * high-scoring segment pairs are reported.
+     * </p>
+     *
+     * @param sourceFile source sequence file in FASTA format, must not be null
+     * @param targetFile target sequence file in FASTA format, must not be null
+     * @param listener event based listener callback, must not be null
+     * @throws IOException if an I/O error occurs or if blastn exits with a non-zero exit code
+     */
+    public static void blastn(final File sourceFile, final File targetFile, final HspListener listener) throws IOException {
+        checkNotNull(sourceFile);
+        checkNotNull(targetFile);
+        checkNotNull(listener);
 
-        File targetFileCopy = File.createTempFile("targetFile", ".fa");
-        charSource(targetFile).copyTo(Files.asCharSink(targetFileCopy, Charset.forName("UTF-8")));
+        // blastn can't handle compressed files, so copy the source to a temp file only if necessary
+        File sourceFileCopy = null;
+        if (isCompressed(sourceFile)) {
+            sourceFileCopy = File.createTempFile("sourceFile", ".fa");
+            charSource(sourceFile).copyTo(Files.asCharSink(sourceFileCopy, UTF_8));
+        }
+        File subjectFile = (sourceFileCopy == null) ? sourceFile : sourceFileCopy;
 
         ProcessBuilder blastn = new ProcessBuilder("blastn",
-                                                   "-subject", sourceFileCopy.getPath(),
-                                                   "-query", targetFileCopy.getPath(),
-                                                   "-outfmt", "6",
-                                                   "-out", blastResult.getPath());
-        Process blastnProcess = blastn.start();
+                                                   "-subject", subjectFile.getPath(),
+                                                   "-query", "-",
+                                                   "-outfmt", "6");
+        blastn.redirectError(ProcessBuilder.Redirect.INHERIT);
+
+        Process blastnProcess = null;
+        QueryWriter queryWriter = null;
         try {
-            blastnProcess.waitFor();
+            blastnProcess = blastn.start();
+            queryWriter = new QueryWriter(targetFile, blastnProcess);
+            queryWriter.start();
+
+            StopListener stopListener = new StopListener(listener);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(blastnProcess.getInputStream(), UTF_8))) {
+                HspReader.stream(reader, stopListener);
+            }
+            if (stopListener.stopped()) {
+                return;
+            }
+
+            int exitValue = blastnProcess.waitFor();
+            if (exitValue != 0) {
+                throw new IOException("blastn exited with exit value " + exitValue);
+            }
+            queryWriter.join();
+            if (queryWriter.exception() != null) {
+                throw queryWriter.exception();
+            }
         }
         catch (InterruptedException e) {
-            // ignore
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted waiting for blastn", e);
+        }
+        finally {
+            if (blastnProcess != null) {
+                blastnProcess.destroy();
+            }
+            if (sourceFileCopy != null) {
+                sourceFileCopy.delete();
+            }
         }
+    }
 
-        BufferedReader reader = null;
-        List<HighScoringPair> hsps = Lists.newLinkedList();
-        try {
-            reader = new BufferedReader(new FileReader(blastResult));
-            for (HighScoringPair hsp : HspReader.read(reader)) {
-                hsps.add(hsp);
+    /**
+     * Return true if the specified file is gzip, BGZF, or bzip2 compressed, based on its magic bytes.
+     *
+     * @param file file
+     * @return true if the specified file is gzip, BGZF, or bzip2 compressed
+     * @throws IOException if an I/O error occurs
+     */
+    static boolean isCompressed(final File file) throws IOException {
+        byte[] magic = new byte[3];
+        try (InputStream inputStream = new FileInputStream(file)) {
+            int read = ByteStreams.read(inputStream, magic, 0, magic.length);
+            if (read >= 2 && (magic[0] & 0xff) == 0x1f && (magic[1] & 0xff) == 0x8b) {
+                return true;
             }
+            return read == 3 && magic[0] == 'B' && magic[1] == 'Z' && magic[2] == 'h';
         }
-        finally {
-            try {
-                reader.close();
+    }
+
+    /**
+     * Query writer, copies the target sequence file, decompressing if necessary, to blastn's stdin.
+     */
+    private static final class QueryWriter extends Thread {
+        /** Target sequence file. */
+        private final File targetFile;
+
+        /** Blastn process. */
+        private final Process process;
+
+        /** I/O exception caught while writing, if any. */
+        private volatile IOException exception;
+
+
+        /**
+         * Create a new query writer.
+         *
+         * @param targetFile target sequence file
+         * @param process blastn process
+         */
+        private QueryWriter(final File targetFile, final Process process) {
+            super("blastn-query-writer");
+            setDaemon(true);
+            this.targetFile = targetFile;
+            this.process = process;
+        }
+
+
+        @Override
+        public void run() {
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), UTF_8))) {
+                charSource(targetFile).copyTo(writer);
             }
-            catch (Exception e) {
-                // empty
+            catch (IOException e) {
+                // blastn closes stdin early if it fails or if the listener stopped processing
+                if (process.isAlive()) {
+                    exception = e;
+                }
             }
-            sourceFileCopy.delete();
-            targetFileCopy.delete();
         }
-        return ImmutableList.copyOf(hsps);
+
+        /**
+         * Return the I/O exception caught while writing, if any.
+         *
+         * @return the I/O exception caught while writing, if any
+         */
+        IOException exception() {
+            return exception;
+        }
+    }
+
+    /**
+     * Stop listener, records whether the wrapped listener requested processing to stop.
+     */
+    private static final class StopListener implements HspListener {
+        /** Wrapped listener. */
+        private final HspListener listener;
+
+        /** True if the wrapped listener requested processing to stop. */
+        private boolean stopped = false;
+
+
+        /**
+         * Create a new stop listener.
+         *
+         * @param listener listener to wrap
+         */
+        private StopListener(final HspListener listener) {
+            this.listener = listener;
+        }
+
+
+        @Override
+        public boolean hsp(final HighScoringPair hsp) {
+            stopped = !listener.hsp(hsp);
+            return !stopped;
+        }
+
+        /**
+         * Return true if the wrapped listener requested processing to stop.
+         *
+         * @return true if the wrapped listener requested processing to stop
+         */
+        boolean stopped() {
+            return stopped;
+        }
     }
 }
@@ -0,0 +1,224 @@
+/*
+
+    ngs-align  Sequence alignment.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.align;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+
+/**
+ * Static utility methods on CIGAR strings packed into int arrays.
+ *
+ * <p>
+ * As in the BAM format, each packed operation holds the operation length in the upper
+ * 28 bits and the operation code in the lower 4 bits.
+ * </p>
+ */
+public final class Cigars {
+    /** Alignment match (M), may be a sequence match or mismatch. */
+    public static final int MATCH = 0;
+
+    /** Insertion to the reference (I). */
+    public static final int INSERTION = 1;
+
+    /** Deletion from the reference (D). */
+    public static final int DELETION = 2;
+
+    /** Skipped region from the reference (N). */
+    public static final int SKIP = 3;
+
+    /** Soft clipping (S). */
+    public static final int SOFT_CLIP = 4;
+
+    /** Hard clipping (H). */
+    public static final int HARD_CLIP = 5;
+
+    /** Padding (P). */
+    public static final int PADDING = 6;
+
+    /** Sequence match (=). */
+    public static final int SEQUENCE_MATCH = 7;
+
+    /** Sequence mismatch (X). */
+    public static final int SEQUENCE_MISMATCH = 8;
+
+    /** CIGAR operation characters, indexed by operation code. */
+    private static final String OPERATIONS = "MIDNSHP=X";
+
+    /** Maximum operation length. */
+    private static final int MAXIMUM_LENGTH = (1 << 28) - 1;
+
+
+    /**
+     * Private no-arg constructor.
+     */
+    private Cigars() {
+        // empty
+    }
+
+
+    /**
+     * Pack the specified operation and operation length into an int.
+     *
+     * @param operation operation code, must be between <code>MATCH</code> and <code>SEQUENCE_MISMATCH</code>
+     * @param length operation length, must be at least zero and less than <code>2^28</code>
+     * @return the specified operation and operation length packed into an int
+     */
+    public static int pack(final int operation, final int length) {
+        checkArgument(operation >= MATCH && operation <= SEQUENCE_MISMATCH, "invalid operation " + operation);
+        checkArgument(length >= 0 && length <= MAXIMUM_LENGTH, "invalid length " + length);
+        return (length << 4) | operation;
+    }
+
+    /**
+     * Return the operation code of the specified packed operation.
+     *
+     * @param packed packed operation
+     * @return the operation code of the specified packed operation
+     */
+    public static int operation(final int packed) {
+        return packed & 0xf;
+    }
+
+    /**
+     * Return the operation length of the specified packed operation.
+     *
+     * @param packed packed operation
+     * @return the operation length of the specified packed operation
+     */
+    public static int length(final int packed) {
+        return packed >>> 4;
+    }
+
+    /**
+     * Return true if the specified operation consumes query sequence.
+     *
+     * @param operation operation code
+     * @return true if the specified operation consumes query sequence
+     */
+    public static boolean consumesQuery(final int operation) {
+        return operation == MATCH || operation == INSERTION || operation == SOFT_CLIP
+            || operation == SEQUENCE_MATCH || operation == SEQUENCE_MISMATCH;
+    }
+
+    /**
+     * Return true if the specified operation consumes reference sequence.
+     *
+     * @param operation operation code
+     * @return true if the specified operation consumes reference sequence
+     */
+    public static boolean consumesReference(final int operation) {
+        return operation == MATCH || operation == DELETION || operation == SKIP
+            || operation == SEQUENCE_MATCH || operation == SEQUENCE_MISMATCH;
+    }
+
+    /**
+     * Return the number of query sequence symbols consumed by the specified packed CIGAR.
+     *
+     * @param cigar packed CIGAR, must not be null
+     * @return the number of query sequence symbols consumed by the specified packed CIGAR
+     */
+    public static long queryLength(final int[] cigar) {
+        checkNotNull(cigar);
+        long length = 0L;
+        for (int packed : cigar) {
+            if (consumesQuery(operation(packed))) {
+                length += length(packed);
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Return the number of reference sequence symbols consumed by the specified packed CIGAR.
+     *
+     * @param cigar packed CIGAR, must not be null
+     * @return the number of reference sequence symbols consumed by the specified packed CIGAR
+     */
+    public static long referenceLength(final int[] cigar) {
+        checkNotNull(cigar);
+        long length = 0L;
+        for (int packed : cigar) {
+            if (consumesReference(operation(packed))) {
+                length += length(packed);
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Parse the specified CIGAR string into a packed CIGAR.
+     *
+     * @param value CIGAR string to parse, must not be null
+     * @return the specified CIGAR string parsed into a packed CIGAR
+     * @throws IllegalArgumentException if the value is not a valid CIGAR string
+     */
+    public static int[] valueOf(final String value) {
+        checkNotNull(value);
+        if ("*".equals(value)) {
+            return new int[0];
+        }
+        int[] cigar = new int[Math.max(1, value.length() / 2)];
+        int size = 0;
+        long length = -1L;
+        for (int i = 0, n = value.length(); i < n; i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                length = (length < 0L ? 0L : length * 10L) + (c - '0');
+                checkArgument(length <= MAXIMUM_LENGTH, "operation length too large at position " + i + " in CIGAR " + value);
+            }
+            else {
+                int operation = OPERATIONS.indexOf(c);
+                checkArgument(operation >= 0, "invalid operation " + c + " at position " + i + " in CIGAR " + value);
+                checkArgument(length >= 0L, "missing operation length at position " + i + " in CIGAR " + value);
+                if (size == cigar.length) {
+                    cigar = Arrays.copyOf(cigar, cigar.length * 2);
+                }
+                cigar[size++] = pack(operation, (int) length);
+                length = -1L;
+            }
+        }
+        checkArgument(length < 0L, "missing operation at end of CIGAR " + value);
+        return Arrays.copyOf(cigar, size);
+    }
+
+    /**
+     * Format the specified packed CIGAR as a CIGAR string.
+     *
+     * @param cigar packed CIGAR to format, must not be null
+     * @return the specified packed CIGAR formatted as a CIGAR string
+     */
+    public static String toString(final int[] cigar) {
+        checkNotNull(cigar);
+        if (cigar.length == 0) {
+            return "*";
+        }
+        StringBuilder sb = new StringBuilder(cigar.length * 4);
+        for (int packed : cigar) {
+            sb.append(length(packed));
+            sb.append(OPERATIONS.charAt(operation(packed)));
+        }
+        return sb.toString();
+    }
+}
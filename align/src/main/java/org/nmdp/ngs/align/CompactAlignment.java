@@ -0,0 +1,422 @@
+/*
+
+    ngs-align  Sequence alignment.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.align;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.Serializable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import javax.annotation.concurrent.Immutable;
+
+import com.google.common.base.Splitter;
+
+import org.biojava.bio.BioException;
+
+import org.biojava.bio.alignment.AlignmentPair;
+import org.biojava.bio.alignment.SubstitutionMatrix;
+
+import org.biojava.bio.seq.DNATools;
+import org.biojava.bio.seq.GappedSequence;
+import org.biojava.bio.seq.Sequence;
+
+import org.biojava.bio.symbol.SymbolList;
+
+/**
+ * Compact pairwise alignment, holding query and subject names, 0-based [closed, open) coordinates,
+ * score, and a packed CIGAR (see {@link Cigars}) instead of gapped symbol lists.
+ *
+ * <p>
+ * The subject sequence is the reference for CIGAR operations, i.e. an insertion (I) is present in
+ * the query but not in the subject and a deletion (D) is present in the subject but not in the query.
+ * </p>
+ */
+@Immutable
+public final class CompactAlignment implements Serializable {
+    private final String query;
+    private final String subject;
+    private final long queryStart;
+    private final long queryEnd;
+    private final long subjectStart;
+    private final long subjectEnd;
+    private final int score;
+    private final int[] cigar;
+
+
+    /**
+     * Create a new compact alignment.
+     *
+     * @param query query
+     * @param subject subject
+     * @param queryStart query start
+     * @param queryEnd query end
+     * @param subjectStart subject start
+     * @param subjectEnd subject end
+     * @param score score
+     * @param cigar packed CIGAR
+     */
+    private CompactAlignment(final String query,
+                             final String subject,
+                             final long queryStart,
+                             final long queryEnd,
+                             final long subjectStart,
+                             final long subjectEnd,
+                             final int score,
+                             final int[] cigar) {
+
+        this.query = query;
+        this.subject = subject;
+        this.queryStart = queryStart;
+        this.queryEnd = queryEnd;
+        this.subjectStart = subjectStart;
+        this.subjectEnd = subjectEnd;
+        this.score = score;
+        this.cigar = cigar;
+    }
+
+
+    /**
+     * Return the query for this compact alignment.
+     *
+     * @return the query for this compact alignment
+     */
+    public String query() {
+        return query;
+    }
+
+    /**
+     * Return the subject for this compact alignment.
+     *
+     * @return the subject for this compact alignment
+     */
+    public String subject() {
+        return subject;
+    }
+
+    /**
+     * Return the 0-based query start for this compact alignment.
+     *
+     * @return the 0-based query start for this compact alignment
+     */
+    public long queryStart() {
+        return queryStart;
+    }
+
+    /**
+     * Return the 0-based, exclusive query end for this compact alignment.
+     *
+     * @return the 0-based, exclusive query end for this compact alignment
+     */
+    public long queryEnd() {
+        return queryEnd;
+    }
+
+    /**
+     * Return the 0-based subject start for this compact alignment.
+     *
+     * @return the 0-based subject start for this compact alignment
+     */
+    public long subjectStart() {
+        return subjectStart;
+    }
+
+    /**
+     * Return the 0-based, exclusive subject end for this compact alignment.
+     *
+     * @return the 0-based, exclusive subject end for this compact alignment
+     */
+    public long subjectEnd() {
+        return subjectEnd;
+    }
+
+    /**
+     * Return the score for this compact alignment.
+     *
+     * @return the score for this compact alignment
+     */
+    public int score() {
+        return score;
+    }
+
+    /**
+     * Return a copy of the packed CIGAR for this compact alignment.
+     *
+     * @return a copy of the packed CIGAR for this compact alignment
+     */
+    public int[] cigar() {
+        return cigar.clone();
+    }
+
+    /**
+     * Return the alignment features for this compact alignment.
+     *
+     * @return the alignment features for this compact alignment
+     */
+    public AlignmentFeatures features() {
+        return AlignmentFeatures.extract(cigar);
+    }
+
+    /**
+     * Convert this compact alignment to an alignment pair, given the full query and subject
+     * DNA sequences this compact alignment was created from.
+     *
+     * @param querySequence query DNA sequence, must not be null
+     * @param subjectSequence subject DNA sequence, must not be null
+     * @param substitutionMatrix substitution matrix, must not be null
+     * @return this compact alignment converted to an alignment pair
+     * @throws IllegalArgumentException if the coordinates of this compact alignment are not
+     *    valid for the specified sequences
+     * @throws BioException if an alignment pair cannot be created
+     */
+    public AlignmentPair toAlignmentPair(final Sequence querySequence,
+                                         final Sequence subjectSequence,
+                                         final SubstitutionMatrix substitutionMatrix) throws BioException {
+        checkNotNull(querySequence);
+        checkNotNull(subjectSequence);
+        checkNotNull(substitutionMatrix);
+        checkArgument(queryEnd <= querySequence.length(), "query end " + queryEnd + " greater than query length " + querySequence.length());
+        checkArgument(subjectEnd <= subjectSequence.length(), "subject end " + subjectEnd + " greater than subject length " + subjectSequence.length());
+
+        // biojava coordinates are 1-based
+        String queryString = (queryEnd > queryStart) ? querySequence.subStr((int) queryStart + 1, (int) queryEnd) : "";
+        String subjectString = (subjectEnd > subjectStart) ? subjectSequence.subStr((int) subjectStart + 1, (int) subjectEnd) : "";
+
+        StringBuilder gappedQuery = new StringBuilder();
+        StringBuilder gappedSubject = new StringBuilder();
+        int q = 0;
+        int s = 0;
+        for (int packed : cigar) {
+            int length = Cigars.length(packed);
+            int operation = Cigars.operation(packed);
+            if (operation == Cigars.SOFT_CLIP || operation == Cigars.HARD_CLIP || operation == Cigars.PADDING) {
+                continue;
+            }
+            for (int i = 0; i < length; i++) {
+                gappedQuery.append(Cigars.consumesQuery(operation) ? queryString.charAt(q++) : '-');
+                gappedSubject.append(Cigars.consumesReference(operation) ? subjectString.charAt(s++) : '-');
+            }
+        }
+        GappedSequence gappedQuerySequence = DNATools.createGappedDNASequence(gappedQuery.toString(), query);
+        GappedSequence gappedSubjectSequence = DNATools.createGappedDNASequence(gappedSubject.toString(), subject);
+        AlignmentPair alignmentPair = new AlignmentPair(gappedQuerySequence, gappedSubjectSequence,
+                                                        (int) queryStart + 1, (int) queryEnd, (int) subjectStart + 1, (int) subjectEnd, substitutionMatrix);
+        alignmentPair.setScore(score);
+        return alignmentPair;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(query, subject, queryStart, queryEnd, subjectStart, subjectEnd, score, Arrays.hashCode(cigar));
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof CompactAlignment)) {
+            return false;
+        }
+        CompactAlignment compactAlignment = (CompactAlignment) o;
+        return Objects.equals(query, compactAlignment.query)
+            && Objects.equals(subject, compactAlignment.subject)
+            && queryStart == compactAlignment.queryStart
+            && queryEnd == compactAlignment.queryEnd
+            && subjectStart == compactAlignment.subjectStart
+            && subjectEnd == compactAlignment.subjectEnd
+            && score == compactAlignment.score
+            && Arrays.equals(cigar, compactAlignment.cigar);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(query);
+        sb.append("\t");
+        sb.append(subject);
+        sb.append("\t");
+        sb.append(queryStart);
+        sb.append("\t");
+        sb.append(queryEnd);
+        sb.append("\t");
+        sb.append(subjectStart);
+        sb.append("\t");
+        sb.append(subjectEnd);
+        sb.append("\t");
+        sb.append(score);
+        sb.append("\t");
+        sb.append(Cigars.toString(cigar));
+        return sb.toString();
+    }
+
+
+    /**
+     * Create and return a new compact alignment.
+     *
+     * @param query query, must not be null
+     * @param subject subject, must not be null
+     * @param queryStart 0-based query start, must be at least zero
+     * @param queryEnd 0-based, exclusive query end, must be at least <code>queryStart</code>
+     * @param subjectStart 0-based subject start, must be at least zero
+     * @param subjectEnd 0-based, exclusive subject end, must be at least <code>subjectStart</code>
+     * @param score score
+     * @param cigar packed CIGAR, must not be null and must be consistent with the query and subject coordinates
+     * @return a new compact alignment
+     */
+    public static CompactAlignment create(final String query,
+                                          final String subject,
+                                          final long queryStart,
+                                          final long queryEnd,
+                                          final long subjectStart,
+                                          final long subjectEnd,
+                                          final int score,
+                                          final int[] cigar) {
+        checkNotNull(query);
+        checkNotNull(subject);
+        checkNotNull(cigar);
+        checkArgument(queryStart >= 0L, "query start must be at least zero");
+        checkArgument(queryEnd >= queryStart, "query end must be at least query start");
+        checkArgument(subjectStart >= 0L, "subject start must be at least zero");
+        checkArgument(subjectEnd >= subjectStart, "subject end must be at least subject start");
+        checkArgument(Cigars.queryLength(cigar) - clipped(cigar) == queryEnd - queryStart, "CIGAR query length must match query coordinates");
+        checkArgument(Cigars.referenceLength(cigar) == subjectEnd - subjectStart, "CIGAR reference length must match subject coordinates");
+        return new CompactAlignment(query, subject, queryStart, queryEnd, subjectStart, subjectEnd, score, cigar.clone());
+    }
+
+    /**
+     * Create and return a new compact alignment from the specified alignment pair.
+     *
+     * @param alignmentPair alignment pair, must not be null
+     * @return a new compact alignment created from the specified alignment pair
+     */
+    public static CompactAlignment create(final AlignmentPair alignmentPair) {
+        checkNotNull(alignmentPair);
+        SymbolList gappedQuery = alignmentPair.getQuery();
+        SymbolList gappedSubject = alignmentPair.getSubject();
+
+        int[] cigar = new int[16];
+        int size = 0;
+        int operation = -1;
+        int length = 0;
+        for (int i = 1, columns = Math.min(gappedQuery.length(), gappedSubject.length()) + 1; i < columns; i++) {
+            boolean queryGap = Alignments.isGapSymbol(gappedQuery.symbolAt(i));
+            boolean subjectGap = Alignments.isGapSymbol(gappedSubject.symbolAt(i));
+            int columnOperation;
+            if (queryGap && subjectGap) {
+                continue;
+            }
+            else if (queryGap) {
+                columnOperation = Cigars.DELETION;
+            }
+            else if (subjectGap) {
+                columnOperation = Cigars.INSERTION;
+            }
+            else if (gappedQuery.symbolAt(i).equals(gappedSubject.symbolAt(i))) {
+                columnOperation = Cigars.SEQUENCE_MATCH;
+            }
+            else {
+                columnOperation = Cigars.SEQUENCE_MISMATCH;
+            }
+
+            if (columnOperation == operation) {
+                length++;
+            }
+            else {
+                if (length > 0) {
+                    if (size == cigar.length) {
+                        cigar = Arrays.copyOf(cigar, size * 2);
+                    }
+                    cigar[size++] = Cigars.pack(operation, length);
+                }
+                operation = columnOperation;
+                length = 1;
+            }
+        }
+        if (length > 0) {
+            if (size == cigar.length) {
+                cigar = Arrays.copyOf(cigar, size * 2);
+            }
+            cigar[size++] = Cigars.pack(operation, length);
+        }
+        cigar = Arrays.copyOf(cigar, size);
+
+        // biojava coordinates are 1-based, fully closed
+        long queryStart = alignmentPair.getQueryStart() - 1L;
+        long subjectStart = alignmentPair.getSubjectStart() - 1L;
+        return new CompactAlignment(alignmentPair.getQuery().getName(),
+                                    alignmentPair.getSubject().getName(),
+                                    queryStart,
+                                    queryStart + Cigars.queryLength(cigar),
+                                    subjectStart,
+                                    subjectStart + Cigars.referenceLength(cigar),
+                                    alignmentPair.getScore(),
+                                    cigar);
+    }
+
+    /**
+     * Return a new compact alignment parsed from the specified value.
+     *
+     * @param value value to parse, must not be null
+     * @return a new compact alignment parsed from the specified value
+     * @throws IllegalArgumentException if the value is not valid compact alignment format
+     * @throws NumberFormatException if a number valued field cannot be parsed as a number
+     */
+    public static CompactAlignment valueOf(final String value) {
+        checkNotNull(value);
+        List<String> tokens = Splitter.on("\t").trimResults().splitToList(value);
+        if (tokens.size() != 8) {
+            throw new IllegalArgumentException("value must have eight fields");
+        }
+        String query = tokens.get(0);
+        String subject = tokens.get(1);
+        long queryStart = Long.parseLong(tokens.get(2));
+        long queryEnd = Long.parseLong(tokens.get(3));
+        long subjectStart = Long.parseLong(tokens.get(4));
+        long subjectEnd = Long.parseLong(tokens.get(5));
+        int score = Integer.parseInt(tokens.get(6));
+        int[] cigar = Cigars.valueOf(tokens.get(7));
+        return create(query, subject, queryStart, queryEnd, subjectStart, subjectEnd, score, cigar);
+    }
+
+    /**
+     * Return the number of soft clipped query symbols in the specified packed CIGAR.
+     *
+     * @param cigar packed CIGAR
+     * @return the number of soft clipped query symbols in the specified packed CIGAR
+     */
+    private static long clipped(final int[] cigar) {
+        long clipped = 0L;
+        for (int packed : cigar) {
+            if (Cigars.operation(packed) == Cigars.SOFT_CLIP) {
+                clipped += Cigars.length(packed);
+            }
+        }
+        return clipped;
+    }
+
+    private static final long serialVersionUID = 1L;
+}
@@ -183,4 +183,57 @@ public interface PairwiseAlignment {
      *    with the default global alignment gap penalties
      */
     Iterable<AlignmentPair> global(List<Sequence> queries, List<Sequence> subjects, GapPenalties gapPenalties);
+
+    /**
+     * Return compact alignments from local alignment of the query and subject DNA sequences
+     * with the default local alignment gap penalties.
+     *
+     * <p>
+     * Each alignment pair is converted to a compact alignment as it is created, so that
+     * large batch alignments need not retain gapped symbol lists for every result.
+     * </p>
+     *
+     * @see #DEFAULT_LOCAL_GAP_PENALTIES
+     * @param queries list of query DNA sequences, must not be null
+     * @param subjects list of subject DNA sequences, must not be null
+     * @return zero or more compact alignments from local alignment of the query and subject DNA sequences
+     *    with the default local alignment gap penalties
+     */
+    Iterable<CompactAlignment> localCompact(List<Sequence> queries, List<Sequence> subjects);
+
+    /**
+     * Return compact alignments from local alignment of the query and subject DNA sequences
+     * with the specified gap penalties.
+     *
+     * @param queries list of query DNA sequences, must not be null
+     * @param subjects list of subject DNA sequences, must not be null
+     * @param gapPenalties gap penalties, must not be null
+     * @return zero or more compact alignments from local alignment of the query and subject DNA sequences
+     *    with the specified gap penalties
+     */
+    Iterable<CompactAlignment> localCompact(List<Sequence> queries, List<Sequence> subjects, GapPenalties gapPenalties);
+
+    /**
+     * Return compact alignments from global alignment of the query and subject DNA sequences
+     * with the default global alignment gap penalties.
+     *
+     * @see #DEFAULT_GLOBAL_GAP_PENALTIES
+     * @param queries list of query DNA sequences, must not be null
+     * @param subjects list of subject DNA sequences, must not be null
+     * @return zero or more compact alignments from global alignment of the query and subject DNA sequences
+     *    with the default global alignment gap penalties
+     */
+    Iterable<CompactAlignment> globalCompact(List<Sequence> queries, List<Sequence> subjects);
+
+    /**
+     * Return compact alignments from global alignment of the query and subject DNA sequences
+     * with the specified gap penalties.
+     *
+     * @param queries list of query DNA sequences, must not be null
+     * @param subjects list of subject DNA sequences, must not be null
+     * @param gapPenalties gap penalties, must not be null
+     * @return zero or more compact alignments from global alignment of the query and subject DNA sequences
+     *    with the specified gap penalties
+     */
+    Iterable<CompactAlignment> globalCompact(List<Sequence> queries, List<Sequence> subjects, GapPenalties gapPenalties);
 }
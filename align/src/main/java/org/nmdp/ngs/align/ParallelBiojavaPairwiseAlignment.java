@@ -123,6 +123,92 @@ public final class ParallelBiojavaPairwiseAlignment extends AbstractPairwiseAlig
         return alignmentPairs;
     }
 
+    @Override
+    public Iterable<CompactAlignment> localCompact(final List<Sequence> queries,
+                                                   final List<Sequence> subjects,
+                                                   final GapPenalties gapPenalties) {
+        checkNotNull(queries);
+        checkNotNull(subjects);
+        checkNotNull(gapPenalties);
+
+        if (queries.isEmpty() || subjects.isEmpty()) {
+            return Collections.<CompactAlignment>emptyList();
+        }
+
+        List<CompactTask> tasks = Lists.newArrayListWithExpectedSize(queries.size() * subjects.size());
+        for (Sequence query : queries) {
+            for (Sequence subject : subjects) {
+                tasks.add(new CompactTask(new SmithWatermanTask(query, subject, gapPenalties, getSubstitutionMatrix())));
+            }
+        }
+        return invokeAll(tasks);
+    }
+
+    @Override
+    public Iterable<CompactAlignment> globalCompact(final List<Sequence> queries,
+                                                    final List<Sequence> subjects,
+                                                    final GapPenalties gapPenalties) {
+        checkNotNull(queries);
+        checkNotNull(subjects);
+        checkNotNull(gapPenalties);
+
+        if (queries.isEmpty() || subjects.isEmpty()) {
+            return Collections.<CompactAlignment>emptyList();
+        }
+
+        List<CompactTask> tasks = Lists.newArrayListWithExpectedSize(queries.size() * subjects.size());
+        for (Sequence query : queries) {
+            for (Sequence subject : subjects) {
+                tasks.add(new CompactTask(new NeedlemanWunschTask(query, subject, gapPenalties, getSubstitutionMatrix())));
+            }
+        }
+        return invokeAll(tasks);
+    }
+
+    /**
+     * Invoke the specified compact alignment tasks and return their results.
+     *
+     * @param tasks compact alignment tasks
+     * @return the results of the specified compact alignment tasks
+     * @throws RuntimeException if any task fails or the current thread is interrupted,
+     *    so that partial results are never returned
+     */
+    private List<CompactAlignment> invokeAll(final List<CompactTask> tasks) {
+        List<CompactAlignment> compactAlignments = Lists.newArrayListWithExpectedSize(tasks.size());
+        try {
+            List<Future<CompactAlignment>> futures = executorService.invokeAll(tasks);
+
+            for (Future<CompactAlignment> future : futures) {
+                compactAlignments.add(future.get());
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("interrupted while aligning", e);
+        }
+        catch (ExecutionException e) {
+            throw new RuntimeException("could not align", e.getCause());
+        }
+        return compactAlignments;
+    }
+
+    /**
+     * Compact alignment task, converts the alignment pair from the wrapped task to a compact
+     * alignment on the worker thread.
+     */
+    private static final class CompactTask implements Callable<CompactAlignment> {
+        private final Callable<AlignmentPair> task;
+
+        private CompactTask(final Callable<AlignmentPair> task) {
+            this.task = task;
+        }
+
+        @Override
+        public CompactAlignment call() throws Exception {
+            return CompactAlignment.create(task.call());
+        }
+    }
+
     /**
      * Smith-Waterman task.
      */
@@ -22,6 +22,7 @@
 */
 package org.nmdp.ngs.align;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
 import java.io.BufferedReader;
@@ -231,6 +232,74 @@ public abstract class AbstractPairwiseAlignmentTest {
         }
     }
 
+    @Test(expected=NullPointerException.class)
+    public void testLocalCompactNullQueries() {
+        align.localCompact(null, subjects);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testLocalCompactNullSubjects() {
+        align.localCompact(queries, null);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testLocalCompactNullGapPenalties() {
+        align.localCompact(queries, subjects, null);
+    }
+
+    @Test
+    public void testLocalCompact() {
+        int count = 0;
+        for (CompactAlignment compactAlignment : align.localCompact(queries, subjects)) {
+            assertNotNull(compactAlignment);
+            count++;
+        }
+        assertEquals(4, count);
+    }
+
+    @Test
+    public void testLocalCompactGapPenalties() {
+        for (CompactAlignment compactAlignment : align.localCompact(queries, subjects, gapPenalties)) {
+            assertNotNull(compactAlignment);
+        }
+    }
+
+    @Test
+    public void testLocalCompactConsistentWithLocal() {
+        AlignmentPair alignmentPair = align.local(query, subject).iterator().next();
+        CompactAlignment compactAlignment = align.localCompact(ImmutableList.of(query), ImmutableList.of(subject)).iterator().next();
+        assertEquals(CompactAlignment.create(alignmentPair), compactAlignment);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testGlobalCompactNullQueries() {
+        align.globalCompact(null, subjects);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testGlobalCompactNullSubjects() {
+        align.globalCompact(queries, null);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testGlobalCompactNullGapPenalties() {
+        align.globalCompact(queries, subjects, null);
+    }
+
+    @Test
+    public void testGlobalCompact() {
+        for (CompactAlignment compactAlignment : align.globalCompact(queries, subjects)) {
+            assertNotNull(compactAlignment);
+        }
+    }
+
+    @Test
+    public void testGlobalCompactGapPenalties() {
+        for (CompactAlignment compactAlignment : align.globalCompact(queries, subjects, gapPenalties)) {
+            assertNotNull(compactAlignment);
+        }
+    }
+
     private static Sequence read(final String name) throws Exception {
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(AbstractPairwiseAlignmentTest.class.getResourceAsStream(name)))) {
             SequenceIterator sequences = SeqIOTools.readFastaDNA(reader);
@@ -0,0 +1,117 @@
+/*
+
+    ngs-align  Sequence alignment.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.align;
+
+import static org.junit.Assert.assertEquals;
+
+import static org.nmdp.ngs.align.AlignmentFeatures.extract;
+
+import com.google.common.collect.Range;
+
+import org.biojava.bio.alignment.AlignmentPair;
+import org.biojava.bio.alignment.SubstitutionMatrix;
+
+import org.biojava.bio.seq.DNATools;
+import org.biojava.bio.seq.GappedSequence;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for AlignmentFeatures.
+ */
+public final class AlignmentFeaturesTest {
+    private AlignmentPair alignmentPair;
+
+    @Before
+    public void setUp() throws Exception {
+        GappedSequence subject = DNATools.createGappedDNASequence("aaaattttaaaattttaaaa", "subject");
+        GappedSequence query = DNATools.createGappedDNASequence("aaaaccccaaaa----aaaa", "query");
+        alignmentPair = new AlignmentPair(query, subject, SubstitutionMatrix.getNuc4_4());
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testExtractNullAlignmentPair() {
+        extract((AlignmentPair) null);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testExtractNullCigar() {
+        extract((int[]) null);
+    }
+
+    @Test
+    public void testExtractAlignmentPair() {
+        AlignmentFeatures features = extract(alignmentPair);
+        assertEquals(20L, features.columns());
+        assertEquals(3, features.count(AlignmentFeatures.Type.MATCH));
+        assertEquals(1, features.count(AlignmentFeatures.Type.MISMATCH));
+        assertEquals(1, features.count(AlignmentFeatures.Type.GAP));
+        assertEquals(12L, features.length(AlignmentFeatures.Type.MATCH));
+        assertEquals(4L, features.length(AlignmentFeatures.Type.MISMATCH));
+        assertEquals(4L, features.length(AlignmentFeatures.Type.GAP));
+        assertEquals(4L, features.maximumLength(AlignmentFeatures.Type.MATCH));
+        assertEquals(12L, features.start(AlignmentFeatures.Type.GAP, 0));
+        assertEquals(16L, features.end(AlignmentFeatures.Type.GAP, 0));
+        assertEquals(Range.closedOpen(12L, 16L), features.ranges(AlignmentFeatures.Type.GAP).get(0));
+    }
+
+    @Test
+    public void testExtractAlignmentPairConsistentWithAlignments() {
+        AlignmentFeatures features = extract(alignmentPair);
+        assertEquals(Alignments.matches(alignmentPair), features.ranges(AlignmentFeatures.Type.MATCH));
+        assertEquals(Alignments.mismatches(alignmentPair), features.ranges(AlignmentFeatures.Type.MISMATCH));
+    }
+
+    @Test
+    public void testExtractCigar() {
+        AlignmentFeatures features = extract(Cigars.valueOf("4=4X4=4D4="));
+        assertEquals(extract(alignmentPair).ranges(AlignmentFeatures.Type.MATCH), features.ranges(AlignmentFeatures.Type.MATCH));
+        assertEquals(extract(alignmentPair).ranges(AlignmentFeatures.Type.MISMATCH), features.ranges(AlignmentFeatures.Type.MISMATCH));
+        assertEquals(extract(alignmentPair).ranges(AlignmentFeatures.Type.GAP), features.ranges(AlignmentFeatures.Type.GAP));
+    }
+
+    @Test
+    public void testExtractCigarCoalescesAdjacentRuns() {
+        AlignmentFeatures features = extract(Cigars.valueOf("2S4M4=1I1D2H"));
+        assertEquals(10L, features.columns());
+        assertEquals(1, features.count(AlignmentFeatures.Type.MATCH));
+        assertEquals(Range.closedOpen(0L, 8L), features.ranges(AlignmentFeatures.Type.MATCH).get(0));
+        assertEquals(1, features.count(AlignmentFeatures.Type.GAP));
+        assertEquals(Range.closedOpen(8L, 10L), features.ranges(AlignmentFeatures.Type.GAP).get(0));
+    }
+
+    @Test
+    public void testExtractEmptyCigar() {
+        AlignmentFeatures features = extract(new int[0]);
+        assertEquals(0L, features.columns());
+        assertEquals(0, features.count(AlignmentFeatures.Type.MATCH));
+        assertEquals(-1L, features.maximumLength(AlignmentFeatures.Type.MATCH));
+        assertEquals(0L, features.length(AlignmentFeatures.Type.GAP));
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void testStartIndexOutOfBounds() {
+        extract(new int[0]).start(AlignmentFeatures.Type.MATCH, 0);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+
+    ngs-align  Sequence alignment.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.align;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import static org.nmdp.ngs.align.BedFields.parseLong;
+import static org.nmdp.ngs.align.BedFields.parseLongArray;
+
+import org.junit.Test;
+
+/**
+ * Unit test for BedFields.
+ */
+public final class BedFieldsTest {
+
+    private static char[] chars(final String value) {
+        return value.toCharArray();
+    }
+
+    @Test
+    public void testParseLong() {
+        assertEquals(0L, parseLong(chars("0"), 0, 1));
+        assertEquals(42L, parseLong(chars("x42x"), 1, 3));
+        assertEquals(-42L, parseLong(chars("-42"), 0, 3));
+        assertEquals(42L, parseLong(chars("+42"), 0, 3));
+        assertEquals(Long.MAX_VALUE, parseLong(chars(String.valueOf(Long.MAX_VALUE)), 0, 19));
+    }
+
+    @Test(expected=NumberFormatException.class)
+    public void testParseLongEmpty() {
+        parseLong(chars(""), 0, 0);
+    }
+
+    @Test(expected=NumberFormatException.class)
+    public void testParseLongInvalid() {
+        parseLong(chars("4x2"), 0, 3);
+    }
+
+    @Test(expected=NumberFormatException.class)
+    public void testParseLongOverflow() {
+        parseLong(chars("99999999999999999999"), 0, 20);
+    }
+
+    @Test
+    public void testParseLongArray() {
+        assertArrayEquals(new long[0], parseLongArray(chars(""), 0, 0));
+        assertArrayEquals(new long[] { 354L, 109L, 1189L }, parseLongArray(chars("354,109,1189,"), 0, 13));
+        assertArrayEquals(new long[] { 354L, 109L }, parseLongArray(chars(" 354 ,, 109"), 0, 11));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testDecodeTooFewFields() {
+        new BedFields().decode(chars("chr1\t1"), 0, 6, 1L);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testDecodeInvalidFieldCount() {
+        new BedFields().decode(chars("chr1\t1\t2\t3\t4\t+\t7"), 0, 16, 1L);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testDecodeEndBeforeStart() {
+        new BedFields().decode(chars("chr1\t2\t1"), 0, 8, 1L);
+    }
+
+    @Test
+    public void testDecodeToRecord() {
+        String value = "chr1\t11873\t14409\tuc001aaa.3\t0\t+\t11873\t11873\t0\t3\t354,109,1189,\t0,739,1347,";
+        BedFields fields = new BedFields();
+        fields.decode(chars(value), 0, value.length(), 1L);
+        assertEquals(12, fields.fieldCount());
+        // BedRecord equality compares block arrays by reference, compare text form instead
+        assertEquals(BedRecord.valueOf(value).toString(), fields.toRecord().toString());
+    }
+}
@@ -22,14 +22,25 @@
 */
 package org.nmdp.ngs.align;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 import static org.nmdp.ngs.align.BedReader.read;
 import static org.nmdp.ngs.align.BedReader.stream;
+import static org.nmdp.ngs.align.BedReader.streamFields;
 
 import java.io.IOException;
 import java.io.StringReader;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.collect.ImmutableList;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -86,4 +97,113 @@ public final class BedReaderTest {
                 }
             });
     }
+
+    @Test(expected=NullPointerException.class)
+    public void testStreamFieldsNullReadable() throws Exception {
+        streamFields(null, new BedFieldsListener() {
+                @Override
+                public boolean fields(final BedFields fields) {
+                    return true;
+                }
+            });
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testStreamFieldsNullListener() throws Exception {
+        streamFields(readable, null);
+    }
+
+    @Test(expected=IOException.class)
+    public void testStreamFieldsInvalid() throws Exception {
+        streamFields(new StringReader("chr1\t11873"), new BedFieldsListener() {
+                @Override
+                public boolean fields(final BedFields fields) {
+                    return true;
+                }
+            });
+    }
+
+    @Test(expected=IOException.class)
+    public void testStreamFieldsInvalidStart() throws Exception {
+        streamFields(new StringReader("chr1\tinvalid\t14409"), new BedFieldsListener() {
+                @Override
+                public boolean fields(final BedFields fields) {
+                    return true;
+                }
+            });
+    }
+
+    @Test
+    public void testStreamFields() throws Exception {
+        final List<String> chroms = new ArrayList<String>();
+        streamFields(new StringReader("chr1\t11873\t14409\r\nchr1\t14409\t15000\tname\t0\t-\n"), new BedFieldsListener() {
+                @Override
+                public boolean fields(final BedFields fields) {
+                    chroms.add(fields.chrom());
+                    if (fields.lineNumber() == 1L) {
+                        assertEquals(3, fields.fieldCount());
+                        assertEquals(11873L, fields.start());
+                        assertEquals(14409L, fields.end());
+                        assertNull(fields.name());
+                        assertEquals('.', fields.strandChar());
+                    }
+                    else {
+                        assertEquals(6, fields.fieldCount());
+                        assertEquals("name", fields.name());
+                        assertEquals("0", fields.score());
+                        assertEquals("-", fields.strand());
+                        assertEquals('-', fields.strandChar());
+                    }
+                    return true;
+                }
+            });
+        assertEquals(2, chroms.size());
+        // chrom instances are reused while the chrom does not change
+        assertSame(chroms.get(0), chroms.get(1));
+    }
+
+    @Test
+    public void testStreamFieldsStop() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        streamFields(new StringReader("chr1\t1\t2\nchr1\t2\t3\ninvalid"), new BedFieldsListener() {
+                @Override
+                public boolean fields(final BedFields fields) {
+                    return count.incrementAndGet() < 2;
+                }
+            });
+        assertEquals(2, count.get());
+    }
+
+    @Test
+    public void testStreamConsistentWithValueOf() throws Exception {
+        List<String> lines = ImmutableList.of("chr1\t11873\t14409",
+                                              "chr1\t11873\t14409\tuc001aaa.3",
+                                              "chr1 \t 11873\t14409\tuc001aaa.3\t0 ",
+                                              "chr2\t11873\t14409\tuc001aaa.3\t0\t+",
+                                              "chr2\t11873\t14409\tuc001aaa.3\t0\t+\t11873\t11873\t0\t3\t354,109,1189,\t0,739,1347,");
+        StringBuilder sb = new StringBuilder();
+        List<String> expected = new ArrayList<String>();
+        // enough lines to span several buffer refills
+        for (int i = 0; i < 10000; i++) {
+            String line = lines.get(i % lines.size());
+            sb.append(line);
+            sb.append("\n");
+            expected.add(BedRecord.valueOf(line).toString());
+        }
+        List<String> observed = new ArrayList<String>();
+        for (BedRecord record : read(new StringReader(sb.toString()))) {
+            observed.add(record.toString());
+        }
+        assertEquals(expected, observed);
+    }
+
+    @Test
+    public void testStreamLongLine() throws Exception {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            name.append("n");
+        }
+        BedRecord record = read(new StringReader("chr1\t1\t2\t" + name + "\n")).iterator().next();
+        assertEquals(name.toString(), record.name());
+    }
 }
@@ -0,0 +1,222 @@
+/*
+
+    ngs-align  Sequence alignment.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.align;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Range;
+import com.google.common.collect.RangeSet;
+import com.google.common.collect.TreeRangeSet;
+
+import org.junit.Test;
+
+/**
+ * Unit test for BedTable.
+ */
+public final class BedTableTest {
+
+    private static BedTable table(final String value) throws Exception {
+        return BedTable.read(new StringReader(value));
+    }
+
+    private static String write(final BedTable table) {
+        StringWriter stringWriter = new StringWriter();
+        PrintWriter writer = new PrintWriter(stringWriter);
+        table.write(writer);
+        writer.flush();
+        return stringWriter.toString().replace(System.getProperty("line.separator"), "\n");
+    }
+
+    @Test
+    public void testBuilder() {
+        BedTable table = BedTable.builder()
+            .add("chr1", 10L, 20L)
+            .add("chr1", 30L, 40L, "name", null, null)
+            .add("chr2", 0L, 5L, "name", "0", null)
+            .add(new BedRecord("chr2", 5L, 10L, "other", "1", "-"))
+            .build();
+
+        assertEquals(4, table.size());
+        assertFalse(table.isEmpty());
+        assertEquals(ImmutableList.of("chr1", "chr2"), table.chroms());
+        assertEquals("chr1", table.chrom(0));
+        assertEquals(10L, table.start(0));
+        assertEquals(20L, table.end(0));
+        assertNull(table.name(0));
+        assertEquals("name", table.name(1));
+        assertNull(table.score(1));
+        assertEquals("0", table.score(2));
+        assertNull(table.strand(2));
+        assertEquals("-", table.strand(3));
+        assertSame(table.name(1), table.name(2));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testBuilderInvalidStrand() {
+        BedTable.builder().add("chr1", 0L, 1L, "name", "0", "x");
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testBuilderEndBeforeStart() {
+        BedTable.builder().add("chr1", 2L, 1L);
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void testStartOutOfBounds() {
+        BedTable.builder().build().start(0);
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        BedTable table = table("");
+        assertTrue(table.isEmpty());
+        assertTrue(table.isSorted());
+        assertEquals(0, table.merge().size());
+        assertEquals("chr1\t0\t100\n", write(table.complement(ImmutableMap.of("chr1", 100L))));
+    }
+
+    @Test
+    public void testReadWrite() throws Exception {
+        String value = "chr1\t10\t20\nchr1\t30\t40\tname\nchr2\t0\t5\tname\t0\nchr2\t5\t10\tother\t1\t-\n";
+        BedTable table = table(value);
+        assertEquals(value, write(table));
+        for (int i = 0; i < table.size(); i++) {
+            assertEquals(BedRecord.valueOf(value.split("\n")[i]).toString(), table.toRecord(i).toString());
+        }
+    }
+
+    @Test
+    public void testReadBed12() throws Exception {
+        BedTable table = table("chr1\t11873\t14409\tuc001aaa.3\t0\t+\t11873\t11873\t0\t3\t354,109,1189,\t0,739,1347,\n");
+        assertEquals("chr1\t11873\t14409\tuc001aaa.3\t0\t+\n", write(table));
+    }
+
+    @Test
+    public void testSort() throws Exception {
+        BedTable table = table("chr2\t5\t10\tb\t0\t+\nchr1\t30\t40\nchr1\t10\t50\nchr1\t10\t20\tc\t1\t-\n");
+        assertFalse(table.isSorted());
+        BedTable sorted = table.sort();
+        assertTrue(sorted.isSorted());
+        assertSame(sorted, sorted.sort());
+        assertEquals("chr1\t10\t20\tc\t1\t-\nchr1\t10\t50\nchr1\t30\t40\nchr2\t5\t10\tb\t0\t+\n", write(sorted));
+    }
+
+    @Test
+    public void testMerge() throws Exception {
+        BedTable table = table("chr1\t30\t40\nchr2\t0\t5\nchr1\t10\t20\nchr1\t20\t25\nchr1\t35\t60\nchr1\t100\t200\n");
+        assertEquals("chr1\t10\t25\nchr1\t30\t60\nchr1\t100\t200\nchr2\t0\t5\n", write(table.merge()));
+    }
+
+    @Test
+    public void testComplement() throws Exception {
+        BedTable table = table("chr1\t30\t40\nchr1\t0\t10\nchr1\t35\t60\n");
+        Map<String, Long> lengths = ImmutableMap.of("chr1", 100L, "chr2", 50L);
+        assertEquals("chr1\t10\t30\nchr1\t60\t100\nchr2\t0\t50\n", write(table.complement(lengths)));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testComplementMissingChrom() throws Exception {
+        table("chr3\t0\t10\n").complement(ImmutableMap.of("chr1", 100L));
+    }
+
+    @Test
+    public void testSlop() throws Exception {
+        BedTable table = table("chr1\t5\t10\tname\t0\t+\nchr1\t90\t95\n");
+        assertEquals("chr1\t0\t20\tname\t0\t+\nchr1\t80\t105\n", write(table.slop(10L, 10L)));
+        assertEquals("chr1\t0\t20\tname\t0\t+\nchr1\t80\t100\n", write(table.slop(10L, 10L, ImmutableMap.of("chr1", 100L))));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testSlopNegative() throws Exception {
+        table("chr1\t5\t10\n").slop(-1L, 0L);
+    }
+
+    @Test
+    public void testRangeSets() throws Exception {
+        BedTable table = table("chr1\t30\t40\nchr2\t0\t5\nchr1\t10\t20\nchr1\t20\t25\n");
+        RangeSet<Long> expected = TreeRangeSet.create();
+        expected.add(Range.closedOpen(10L, 25L));
+        expected.add(Range.closedOpen(30L, 40L));
+        assertEquals(expected, table.rangeSet("chr1"));
+        assertTrue(table.rangeSet("chr3").isEmpty());
+        assertEquals(ImmutableList.of("chr1", "chr2"), ImmutableList.copyOf(table.rangeSets().keySet()));
+        assertEquals(expected, table.rangeSets().get("chr1"));
+    }
+
+    @Test
+    public void testIndex() throws Exception {
+        BedTable table = table("chr2\t0\t5\nchr1\t10\t100\nchr1\t20\t30\nchr1\t40\t50\n");
+        BedTable.Index index = table.index();
+        assertTrue(index.intersects("chr1", 45L, 46L));
+        assertTrue(index.intersects("chr2", 4L, 10L));
+        assertFalse(index.intersects("chr2", 5L, 10L));
+        assertFalse(index.intersects("chr1", 0L, 10L));
+        assertFalse(index.intersects("chr3", 0L, 10L));
+
+        int[] overlapping = index.overlapping("chr1", 25L, 45L);
+        Arrays.sort(overlapping);
+        assertArrayEquals(new int[] { 1, 2, 3 }, overlapping);
+        assertArrayEquals(new int[0], index.overlapping("chr1", 100L, 200L));
+    }
+
+    @Test
+    public void testIndexConsistentWithRangeSet() {
+        Random random = new Random(42L);
+        BedTable.Builder builder = BedTable.builder();
+        for (int i = 0; i < 1000; i++) {
+            long start = random.nextInt(100000);
+            builder.add(random.nextBoolean() ? "chr1" : "chr2", start, start + 1 + random.nextInt(500));
+        }
+        BedTable table = builder.build();
+        BedTable.Index index = table.index();
+        for (int i = 0; i < 1000; i++) {
+            String chrom = random.nextBoolean() ? "chr1" : "chr2";
+            long start = random.nextInt(100000);
+            long end = start + 1 + random.nextInt(100);
+            int expected = 0;
+            for (int j = 0; j < table.size(); j++) {
+                if (chrom.equals(table.chrom(j)) && table.start(j) < end && table.end(j) > start) {
+                    expected++;
+                }
+            }
+            assertEquals(expected > 0, index.intersects(chrom, start, end));
+            assertEquals(expected, index.overlapping(chrom, start, end).length);
+            assertEquals(expected > 0, !table.rangeSet(chrom).subRangeSet(Range.closedOpen(start, end)).isEmpty());
+        }
+    }
+}
@@ -22,9 +22,22 @@
 */
 package org.nmdp.ngs.align;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
 import static org.nmdp.ngs.align.Blastn.blastn;
+import static org.nmdp.ngs.align.Blastn.isCompressed;
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import java.util.zip.GZIPOutputStream;
+
+import com.google.common.base.Charsets;
+
+import com.google.common.io.Files;
 
 import org.junit.After;
 import org.junit.Before;
@@ -58,4 +71,45 @@ public final class BlastnTest {
     public void testBlastnNullTargetFile() throws Exception {
         blastn(sourceFile, null);
     }
+
+    @Test(expected=NullPointerException.class)
+    public void testBlastnListenerNullSourceFile() throws Exception {
+        blastn(null, targetFile, new HspListener() {
+                @Override
+                public boolean hsp(final HighScoringPair hsp) {
+                    return true;
+                }
+            });
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testBlastnListenerNullTargetFile() throws Exception {
+        blastn(sourceFile, null, new HspListener() {
+                @Override
+                public boolean hsp(final HighScoringPair hsp) {
+                    return true;
+                }
+            });
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testBlastnNullListener() throws Exception {
+        blastn(sourceFile, targetFile, null);
+    }
+
+    @Test
+    public void testIsCompressed() throws Exception {
+        Files.write(">source\nactg\n", sourceFile, Charsets.UTF_8);
+        assertFalse(isCompressed(sourceFile));
+
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(targetFile)), Charsets.UTF_8)) {
+            writer.write(">target\nactg\n");
+        }
+        assertTrue(isCompressed(targetFile));
+    }
+
+    @Test
+    public void testIsCompressedEmpty() throws Exception {
+        assertFalse(isCompressed(sourceFile));
+    }
 }
@@ -0,0 +1,143 @@
+/*
+
+    ngs-align  Sequence alignment.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.align;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import static org.nmdp.ngs.align.Cigars.consumesQuery;
+import static org.nmdp.ngs.align.Cigars.consumesReference;
+import static org.nmdp.ngs.align.Cigars.length;
+import static org.nmdp.ngs.align.Cigars.operation;
+import static org.nmdp.ngs.align.Cigars.pack;
+import static org.nmdp.ngs.align.Cigars.queryLength;
+import static org.nmdp.ngs.align.Cigars.referenceLength;
+import static org.nmdp.ngs.align.Cigars.valueOf;
+
+import org.junit.Test;
+
+/**
+ * Unit test for Cigars.
+ */
+public final class CigarsTest {
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testPackInvalidOperation() {
+        pack(9, 1);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testPackNegativeLength() {
+        pack(Cigars.MATCH, -1);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testPackLengthTooLarge() {
+        pack(Cigars.MATCH, 1 << 28);
+    }
+
+    @Test
+    public void testPack() {
+        int packed = pack(Cigars.DELETION, 42);
+        assertEquals(Cigars.DELETION, operation(packed));
+        assertEquals(42, length(packed));
+    }
+
+    @Test
+    public void testPackMaximumLength() {
+        int packed = pack(Cigars.SEQUENCE_MISMATCH, (1 << 28) - 1);
+        assertEquals(Cigars.SEQUENCE_MISMATCH, operation(packed));
+        assertEquals((1 << 28) - 1, length(packed));
+    }
+
+    @Test
+    public void testConsumes() {
+        assertTrue(consumesQuery(Cigars.MATCH));
+        assertTrue(consumesReference(Cigars.MATCH));
+        assertTrue(consumesQuery(Cigars.INSERTION));
+        assertFalse(consumesReference(Cigars.INSERTION));
+        assertFalse(consumesQuery(Cigars.DELETION));
+        assertTrue(consumesReference(Cigars.DELETION));
+        assertTrue(consumesQuery(Cigars.SOFT_CLIP));
+        assertFalse(consumesReference(Cigars.SOFT_CLIP));
+        assertFalse(consumesQuery(Cigars.HARD_CLIP));
+        assertFalse(consumesReference(Cigars.HARD_CLIP));
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testValueOfNull() {
+        valueOf(null);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testValueOfInvalidOperation() {
+        valueOf("10M2Q");
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testValueOfMissingLength() {
+        valueOf("10MI");
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testValueOfMissingOperation() {
+        valueOf("10M2");
+    }
+
+    @Test
+    public void testValueOfEmpty() {
+        assertEquals(0, valueOf("").length);
+        assertEquals(0, valueOf("*").length);
+    }
+
+    @Test
+    public void testValueOf() {
+        int[] cigar = valueOf("2S10M1I5M2D3=1X4H");
+        assertArrayEquals(new int[] { pack(Cigars.SOFT_CLIP, 2), pack(Cigars.MATCH, 10), pack(Cigars.INSERTION, 1),
+                                      pack(Cigars.MATCH, 5), pack(Cigars.DELETION, 2), pack(Cigars.SEQUENCE_MATCH, 3),
+                                      pack(Cigars.SEQUENCE_MISMATCH, 1), pack(Cigars.HARD_CLIP, 4) }, cigar);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testToStringNull() {
+        Cigars.toString(null);
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("*", Cigars.toString(new int[0]));
+        assertEquals("2S10M1I5M2D3=1X4H", Cigars.toString(valueOf("2S10M1I5M2D3=1X4H")));
+    }
+
+    @Test
+    public void testQueryLength() {
+        assertEquals(22L, queryLength(valueOf("2S10M1I5M2D3=1X4H")));
+    }
+
+    @Test
+    public void testReferenceLength() {
+        assertEquals(21L, referenceLength(valueOf("2S10M1I5M2D3=1X4H")));
+    }
+}
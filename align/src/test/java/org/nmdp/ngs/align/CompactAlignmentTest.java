@@ -0,0 +1,191 @@
+/*
+
+    ngs-align  Sequence alignment.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.align;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import static org.nmdp.ngs.align.CompactAlignment.create;
+import static org.nmdp.ngs.align.CompactAlignment.valueOf;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.biojava.bio.alignment.AlignmentPair;
+import org.biojava.bio.alignment.SmithWaterman;
+import org.biojava.bio.alignment.SubstitutionMatrix;
+
+import org.biojava.bio.seq.DNATools;
+import org.biojava.bio.seq.Sequence;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for CompactAlignment.
+ */
+public final class CompactAlignmentTest {
+    private Sequence query;
+    private Sequence subject;
+    private SubstitutionMatrix substitutionMatrix;
+    private AlignmentPair alignmentPair;
+
+    @Before
+    public void setUp() throws Exception {
+        query = DNATools.createDNASequence("ccaaaaccccaaaaaaaa", "query");
+        subject = DNATools.createDNASequence("aaaattttaaaattttaaaa", "subject");
+        substitutionMatrix = SubstitutionMatrix.getNuc4_4();
+        SmithWaterman smithWaterman = new SmithWaterman((short) -1, (short) 3, (short) 2, (short) 2, (short) 1, substitutionMatrix);
+        alignmentPair = smithWaterman.pairwiseAlignment(query, subject);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testCreateNullQuery() {
+        create(null, "subject", 0L, 4L, 0L, 4L, 0, Cigars.valueOf("4M"));
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testCreateNullSubject() {
+        create("query", null, 0L, 4L, 0L, 4L, 0, Cigars.valueOf("4M"));
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testCreateNullCigar() {
+        create("query", "subject", 0L, 4L, 0L, 4L, 0, null);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testCreateNegativeQueryStart() {
+        create("query", "subject", -1L, 3L, 0L, 4L, 0, Cigars.valueOf("4M"));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testCreateQueryLengthMismatch() {
+        create("query", "subject", 0L, 5L, 0L, 4L, 0, Cigars.valueOf("4M"));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testCreateSubjectLengthMismatch() {
+        create("query", "subject", 0L, 4L, 0L, 5L, 0, Cigars.valueOf("4M"));
+    }
+
+    @Test
+    public void testCreate() {
+        CompactAlignment compactAlignment = create("query", "subject", 2L, 8L, 10L, 15L, 42, Cigars.valueOf("2S3M1I2M"));
+        assertEquals("query", compactAlignment.query());
+        assertEquals("subject", compactAlignment.subject());
+        assertEquals(2L, compactAlignment.queryStart());
+        assertEquals(8L, compactAlignment.queryEnd());
+        assertEquals(10L, compactAlignment.subjectStart());
+        assertEquals(15L, compactAlignment.subjectEnd());
+        assertEquals(42, compactAlignment.score());
+        assertEquals("2S3M1I2M", Cigars.toString(compactAlignment.cigar()));
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testCreateNullAlignmentPair() {
+        create(null);
+    }
+
+    @Test
+    public void testCreateAlignmentPair() {
+        CompactAlignment compactAlignment = create(alignmentPair);
+        assertEquals("query", compactAlignment.query());
+        assertEquals("subject", compactAlignment.subject());
+        assertEquals(alignmentPair.getQueryStart() - 1L, compactAlignment.queryStart());
+        assertEquals((long) alignmentPair.getQueryEnd(), compactAlignment.queryEnd());
+        assertEquals(alignmentPair.getSubjectStart() - 1L, compactAlignment.subjectStart());
+        assertEquals((long) alignmentPair.getSubjectEnd(), compactAlignment.subjectEnd());
+        assertEquals(alignmentPair.getScore(), compactAlignment.score());
+    }
+
+    @Test
+    public void testFeaturesConsistentWithAlignmentPair() {
+        CompactAlignment compactAlignment = create(alignmentPair);
+        AlignmentFeatures expected = AlignmentFeatures.extract(alignmentPair);
+        AlignmentFeatures features = compactAlignment.features();
+        assertEquals(expected.ranges(AlignmentFeatures.Type.MATCH), features.ranges(AlignmentFeatures.Type.MATCH));
+        assertEquals(expected.ranges(AlignmentFeatures.Type.MISMATCH), features.ranges(AlignmentFeatures.Type.MISMATCH));
+        assertEquals(expected.ranges(AlignmentFeatures.Type.GAP), features.ranges(AlignmentFeatures.Type.GAP));
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testToAlignmentPairNullQuerySequence() throws Exception {
+        create(alignmentPair).toAlignmentPair(null, subject, substitutionMatrix);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testToAlignmentPairNullSubjectSequence() throws Exception {
+        create(alignmentPair).toAlignmentPair(query, null, substitutionMatrix);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testToAlignmentPairNullSubstitutionMatrix() throws Exception {
+        create(alignmentPair).toAlignmentPair(query, subject, null);
+    }
+
+    @Test
+    public void testToAlignmentPairRoundTrip() throws Exception {
+        CompactAlignment compactAlignment = create(alignmentPair);
+        AlignmentPair converted = compactAlignment.toAlignmentPair(query, subject, substitutionMatrix);
+        assertNotNull(converted);
+        assertEquals(alignmentPair.getScore(), converted.getScore());
+        assertEquals(Alignments.matches(alignmentPair).size(), Alignments.matches(converted).size());
+        assertEquals(Alignments.mismatches(alignmentPair).size(), Alignments.mismatches(converted).size());
+        assertEquals(alignmentPair.getQueryStart(), converted.getQueryStart());
+        assertEquals(alignmentPair.getQueryEnd(), converted.getQueryEnd());
+        assertEquals(alignmentPair.getSubjectStart(), converted.getSubjectStart());
+        assertEquals(alignmentPair.getSubjectEnd(), converted.getSubjectEnd());
+        assertEquals(compactAlignment, create(converted));
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testValueOfNull() {
+        valueOf(null);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testValueOfInvalid() {
+        valueOf("invalid");
+    }
+
+    @Test
+    public void testValueOfToString() {
+        CompactAlignment compactAlignment = create(alignmentPair);
+        assertEquals(compactAlignment, valueOf(compactAlignment.toString()));
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        CompactAlignment compactAlignment = create(alignmentPair);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(buffer)) {
+            out.writeObject(compactAlignment);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(buffer.toByteArray()))) {
+            assertEquals(compactAlignment, in.readObject());
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+
+    ngs-fca  Formal concept analysis for genomics.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.fca;
+
+import java.util.Arrays;
+
+/**
+ * Array-backed lattice store.  Labels, colors and covers are held in arrays
+ * indexed by node id.  Cover arrays are exact length and copied on write, so
+ * they can be iterated while the store changes.
+ * @param <E> element type
+ */
+final class ArrayLatticeStore<E extends PartiallyOrdered> implements LatticeStore<E> {
+    private static final int[] EMPTY = new int[0];
+    private Object[] labels;
+    private int[] colors;
+    private int[][] uppers, lowers;
+    private int size, order;
+
+    /**
+     * Construct an empty array-backed lattice store.
+     */
+    ArrayLatticeStore() {
+        labels = new Object[16];
+        colors = new int[16];
+        uppers = new int[16][];
+        lowers = new int[16][];
+        size = 0;
+        order = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int order() {
+        return order;
+    }
+
+    @Override
+    public int add(final E label, final int color) {
+        if (size == labels.length) {
+            int capacity = size * 2;
+            labels = Arrays.copyOf(labels, capacity);
+            colors = Arrays.copyOf(colors, capacity);
+            uppers = Arrays.copyOf(uppers, capacity);
+            lowers = Arrays.copyOf(lowers, capacity);
+        }
+        labels[size] = label;
+        colors[size] = color;
+        uppers[size] = EMPTY;
+        lowers[size] = EMPTY;
+        return size++;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E label(final int node) {
+        return (E) labels[node];
+    }
+
+    @Override
+    public int color(final int node) {
+        return colors[node];
+    }
+
+    @Override
+    public void color(final int node, final int color) {
+        colors[node] = color;
+    }
+
+    @Override
+    public int[] upper(final int node) {
+        return uppers[node];
+    }
+
+    @Override
+    public int[] lower(final int node) {
+        return lowers[node];
+    }
+
+    @Override
+    public void addCover(final int upper, final int lower) {
+        uppers[lower] = append(uppers[lower], upper);
+        lowers[upper] = append(lowers[upper], lower);
+        ++order;
+    }
+
+    @Override
+    public void removeCover(final int upper, final int lower) {
+        int[] removed = remove(uppers[lower], upper);
+        if (removed != uppers[lower]) {
+            uppers[lower] = removed;
+            lowers[upper] = remove(lowers[upper], lower);
+            --order;
+        }
+    }
+
+    private static int[] append(final int[] nodes, final int node) {
+        int[] appended = Arrays.copyOf(nodes, nodes.length + 1);
+        appended[nodes.length] = node;
+        return appended;
+    }
+
+    private static int[] remove(final int[] nodes, final int node) {
+        for (int i = 0; i < nodes.length; i++) {
+            if (nodes[i] == node) {
+                int[] removed = new int[nodes.length - 1];
+                System.arraycopy(nodes, 0, removed, 0, i);
+                System.arraycopy(nodes, i + 1, removed, i, nodes.length - i - 1);
+                return removed;
+            }
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,304 @@
+/*
+
+    ngs-fca  Formal concept analysis for genomics.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.fca;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import static org.nmdp.ngs.fca.ParallelConceptLattice.bitSet;
+import static org.nmdp.ngs.fca.ParallelConceptLattice.ones;
+import static org.nmdp.ngs.fca.ParallelConceptLattice.words;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.dishevelled.bitset.MutableBitSet;
+
+/**
+ * Close-by-One enumeration of the formal concepts of a cross table, without
+ * building a concept lattice.
+ *
+ * <p>
+ * Concepts are generated depth first from the concept of all objects.  Each
+ * branch adds an attribute to the current intent, closes the resulting extent
+ * and keeps the new concept only if the closure adds no attribute before the
+ * one added (the canonicity test), so that every concept is generated exactly
+ * once.  Extents and intents are <code>long[]</code> words, with scratch words
+ * for each depth reused across branches; only concepts passed to the listener
+ * are copied into bitsets.  The branches of the top-level attributes are
+ * independent, and may be run in parallel on a fork-join pool.
+ * </p>
+ */
+public final class CloseByOne {
+
+    /**
+     * Private no-arg constructor.
+     */
+    private CloseByOne() {
+        // empty
+    }
+
+
+    /**
+     * Enumerate the concepts of the specified cross table.
+     * @param table cross table, must not be null
+     * @param listener concept listener, must not be null
+     */
+    public static void enumerate(final CrossTable table, final ConceptListener listener) {
+        checkNotNull(table);
+        checkNotNull(listener);
+        Search search = new Search(table, listener);
+        if (search.emit(search.extent, search.intent)) {
+            new Branch(search, 0, -1).generate();
+        }
+    }
+
+    /**
+     * Enumerate the concepts of the specified cross table, running the branches of
+     * the top-level attributes in parallel on the specified fork-join pool.  The
+     * listener is called concurrently and must be thread safe.  Concepts are not
+     * passed to the listener in any particular order, and once the listener returns
+     * false, concepts already being generated may still be passed to it.
+     * @param table cross table, must not be null
+     * @param pool fork-join pool, must not be null
+     * @param listener concept listener, must not be null
+     */
+    public static void enumerate(final CrossTable table, final ForkJoinPool pool, final ConceptListener listener) {
+        checkNotNull(table);
+        checkNotNull(pool);
+        checkNotNull(listener);
+        final Search search = new Search(table, listener);
+        if (search.emit(search.extent, search.intent)) {
+            final List<Branch> branches = new ArrayList<Branch>();
+            for (int j = 0; j < search.attributes; j++) {
+                if (!contains(search.intent, j)) {
+                    branches.add(new Branch(search, 1, j));
+                }
+            }
+            pool.invoke(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        invokeAll(branches);
+                    }
+                });
+        }
+    }
+
+    /**
+     * Return true if the specified words contain the specified bit.
+     * @param words words
+     * @param bit bit
+     * @return true if the specified words contain the specified bit
+     */
+    static boolean contains(final long[] words, final int bit) {
+        return (words[bit >>> 6] & (1L << bit)) != 0L;
+    }
+
+    /**
+     * Return true if the specified words agree on all bits before the specified bit.
+     * @param left words
+     * @param right words
+     * @param bit bit
+     * @return true if the specified words agree on all bits before the specified bit
+     */
+    static boolean equalBefore(final long[] left, final long[] right, final int bit) {
+        int w = bit >>> 6;
+        for (int i = 0; i < w; i++) {
+            if (left[i] != right[i]) {
+                return false;
+            }
+        }
+        long mask = (1L << bit) - 1L;
+        return (bit & 63) == 0 || ((left[w] ^ right[w]) & mask) == 0L;
+    }
+
+    /**
+     * Immutable search state shared by all branches.
+     */
+    private static final class Search {
+        final int objects;
+        final int attributes;
+        final int gwords;
+        final int nwords;
+        final long[][] rows;
+        final long[][] columns;
+        final long[] ones;
+        final long[] extent;
+        final long[] intent;
+        final ConceptListener listener;
+        final AtomicBoolean stopped = new AtomicBoolean(false);
+
+        Search(final CrossTable table, final ConceptListener listener) {
+            this.listener = listener;
+            objects = (int) table.getNumberOfRows();
+            attributes = (int) table.getNumberOfColumns();
+            gwords = words(objects);
+            nwords = words(attributes);
+            ones = ones(attributes);
+
+            rows = new long[objects][nwords];
+            columns = new long[attributes][gwords];
+            for (int g = 0; g < objects; g++) {
+                MutableBitSet bits = table.getRow(g).intent;
+                for (long m = bits.nextSetBit(0); m >= 0 && m < attributes; m = bits.nextSetBit(m + 1)) {
+                    rows[g][(int) (m >>> 6)] |= 1L << m;
+                    columns[(int) m][g >>> 6] |= 1L << g;
+                }
+            }
+
+            // the concept of all objects
+            extent = ones(objects);
+            intent = ones.clone();
+            for (int g = 0; g < objects; g++) {
+                for (int k = 0; k < nwords; k++) {
+                    intent[k] &= rows[g][k];
+                }
+            }
+        }
+
+        /**
+         * Pass a copy of the specified concept to the listener.
+         * @param extent extent words
+         * @param intent intent words
+         * @return true to continue enumerating concepts
+         */
+        boolean emit(final long[] extent, final long[] intent) {
+            if (stopped.get()) {
+                return false;
+            }
+            if (!listener.concept(new Concept(bitSet(extent, gwords), bitSet(intent, nwords)))) {
+                stopped.set(true);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Branch of the search, with its own scratch words for each depth.
+     */
+    private static final class Branch extends RecursiveAction {
+        private final Search search;
+        private final int first;
+        private final int attribute;
+        private final long[][] extents;
+        private final long[][] intents;
+
+        /**
+         * Create a new branch.
+         * @param search search state
+         * @param first first depth
+         * @param attribute top-level attribute, or <code>-1</code> for all attributes
+         */
+        Branch(final Search search, final int first, final int attribute) {
+            this.search = search;
+            this.first = first;
+            this.attribute = attribute;
+            // each depth adds at least one attribute
+            int depths = search.attributes + 2;
+            extents = new long[depths][];
+            intents = new long[depths][];
+            extents[0] = search.extent;
+            intents[0] = search.intent;
+        }
+
+        @Override
+        protected void compute() {
+            generate();
+        }
+
+        /**
+         * Generate the concepts of this branch.
+         */
+        void generate() {
+            if (first == 0) {
+                generate(0, 0);
+            }
+            else if (close(0, attribute) && search.emit(extents[1], intents[1])) {
+                generate(1, attribute + 1);
+            }
+        }
+
+        /**
+         * Generate the concepts below the concept at the specified depth, adding
+         * attributes from the specified attribute on.
+         * @param depth depth
+         * @param from first attribute to add
+         * @return true to continue enumerating concepts
+         */
+        private boolean generate(final int depth, final int from) {
+            long[] intent = intents[depth];
+            for (int j = from; j < search.attributes; j++) {
+                if (search.stopped.get()) {
+                    return false;
+                }
+                if (contains(intent, j) || !close(depth, j)) {
+                    continue;
+                }
+                if (!search.emit(extents[depth + 1], intents[depth + 1])) {
+                    return false;
+                }
+                if (!generate(depth + 1, j + 1)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Close the concept at the specified depth plus the specified attribute into
+         * the scratch words of the next depth.
+         * @param depth depth
+         * @param j attribute to add
+         * @return true if the closure passes the canonicity test
+         */
+        private boolean close(final int depth, final int j) {
+            if (extents[depth + 1] == null) {
+                extents[depth + 1] = new long[search.gwords];
+                intents[depth + 1] = new long[search.nwords];
+            }
+            long[] extent = extents[depth];
+            long[] closedExtent = extents[depth + 1];
+            long[] closedIntent = intents[depth + 1];
+
+            long[] column = search.columns[j];
+            for (int k = 0; k < closedExtent.length; k++) {
+                closedExtent[k] = extent[k] & column[k];
+            }
+            System.arraycopy(search.ones, 0, closedIntent, 0, closedIntent.length);
+            for (int w = 0; w < closedExtent.length; w++) {
+                for (long word = closedExtent[w]; word != 0L; word &= word - 1L) {
+                    long[] row = search.rows[(w << 6) + Long.numberOfTrailingZeros(word)];
+                    for (int k = 0; k < closedIntent.length; k++) {
+                        closedIntent[k] &= row[k];
+                    }
+                }
+            }
+            return equalBefore(closedIntent, intents[depth], j);
+        }
+    }
+}
@@ -28,24 +28,23 @@ import java.util.ArrayList;
 import java.util.Collection;
 
 import com.tinkerpop.blueprints.Graph;
-import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.Vertex;
-import com.tinkerpop.blueprints.Direction;
-import com.tinkerpop.blueprints.impls.tg.TinkerGraph;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
 
 /**
- * Complete Lattice.
+ * Complete Lattice. Elements are stored either as vertices of a Blueprints
+ * graph or, with less overhead, in arrays indexed by int node ids; an array
+ * backed lattice can be exported to a graph with {@link #asGraph(Graph)}.
  * @param <E> element type
  * @see <a href="https://en.wikipedia.org/wiki/Complete_lattice">complete
  * lattice </a>
  */
 public abstract class CompleteLattice<E extends PartiallyOrdered> implements Lattice<E> {
-    protected Graph graph;
-    protected Vertex top, bottom;
-    protected int color, size, order;
+    final LatticeStore<E> store;
+    protected int top, bottom;
+    protected int color;
 
     protected static final String LABEL = "label";
     protected static final String COLOR = "color";
@@ -56,33 +55,44 @@ public abstract class CompleteLattice<E extends PartiallyOrdered> implements Lat
      * @param top element
      */
     protected CompleteLattice(final Graph graph, PartiallyOrdered top) {
-        checkNotNull(graph, top);
-        this.graph = graph;
-        order = 0;
+        this(new GraphLatticeStore<E>(checkNotNull(graph)), top);
+    }
+
+    /**
+     * Construct an array-backed complete lattice.
+     * @param top element
+     */
+    protected CompleteLattice(PartiallyOrdered top) {
+        this(new ArrayLatticeStore<E>(), top);
+    }
+
+    private CompleteLattice(final LatticeStore<E> store, PartiallyOrdered top) {
+        checkNotNull(top);
+        this.store = store;
         color = 0;
-        
-        this.top = graph.addVertex(null);
-        this.top.setProperty(LABEL, top);
-        this.top.setProperty(COLOR, color);
+
+        this.top = store.add((E) top, color);
         bottom = this.top;
-        size = 1;
     }
     
     public class Iterator<E extends PartiallyOrdered> implements java.util.Iterator<E> {
-        private final java.util.Iterator<Vertex> vertices;
+        private int node;
 
-        public Iterator(final Graph graph) {
-            vertices = graph.getVertices().iterator();
+        public Iterator() {
+            node = 0;
         }
 
         @Override
         public boolean hasNext() {
-            return vertices.hasNext();
+            return node < store.size();
         }
 
         @Override
         public E next() {
-            return vertices.next().getProperty(LABEL);
+            if (!hasNext()) {
+                throw new java.util.NoSuchElementException();
+            }
+            return (E) store.label(node++);
         }
         
         @Override
@@ -91,24 +101,25 @@ public abstract class CompleteLattice<E extends PartiallyOrdered> implements Lat
         }
     }
 
-    protected boolean filter(final Vertex source, final Vertex target) {
-        E sourceConcept = source.getProperty(LABEL);
-        E targetConcept = target.getProperty(LABEL);
-        return filter(sourceConcept, targetConcept);
+    /**
+     * Get the element of a node.
+     * @param node id
+     * @return element
+     */
+    protected final E label(final int node) {
+        return store.label(node);
     }
 
-    private boolean filter(final Vertex source, final E right) {
-        if(source.getProperty(LABEL) == null) {
-            return false;
-        }
-        
-        E sourceConcept = source.getProperty(LABEL);
-        return filter(sourceConcept, right);
+    protected boolean filter(final int source, final int target) {
+        return filter(label(source), label(target));
+    }
+
+    private boolean filter(final int source, final E right) {
+        return filter(label(source), right);
     }
 
-    private boolean filter(final E left, final Vertex target) {
-        E targetConcept = target.getProperty(LABEL);
-        return filter(left, targetConcept);
+    private boolean filter(final E left, final int target) {
+        return filter(left, label(target));
     }
 
     private boolean filter(final E right, final E left) {
@@ -118,21 +129,14 @@ public abstract class CompleteLattice<E extends PartiallyOrdered> implements Lat
     /**
      * Find the supremum or least upper bound.
      * @param proposed element
-     * @param generator element
-     * @return supremum vertex
+     * @param generator node
+     * @return supremum node
      */
-    protected final Vertex supremum(final E proposed, Vertex generator) {
+    protected final int supremum(final E proposed, int generator) {
         boolean max = true;
         while (max) {
             max = false;
-            for (Edge edge : generator.getEdges(Direction.BOTH)) {
-                Vertex target = edge.getVertex(Direction.OUT);
-
-                if (filter(target, generator)) {
-                    continue;
-                }
-                //Concept proposed = new Concept(new MutableBitSet(), proposed.intent);
-
+            for (int target : store.lower(generator)) {
                 if (filter(target, proposed)) {
                     generator = target;
                     max = true;
@@ -170,14 +174,14 @@ public abstract class CompleteLattice<E extends PartiallyOrdered> implements Lat
     
     @Override
     public final boolean covers(final E left, final E right) {
-        Vertex found = this.supremum(left, top);
+        int found = this.supremum(left, top);
 
         if(found != bottom) {
-            for(Edge edge : found.getEdges(Direction.IN)) {
-                Vertex target = edge.getVertex(Direction.OUT);
-
-                if(target.getProperty(LABEL).equals(right)) {
-                    return right.isLessThan(left);
+            for(int[] neighbors : new int[][] { store.upper(found), store.lower(found) }) {
+                for(int target : neighbors) {
+                    if(label(target).equals(right)) {
+                        return right.isLessThan(left);
+                    }
                 }
             }
         }
@@ -187,72 +191,53 @@ public abstract class CompleteLattice<E extends PartiallyOrdered> implements Lat
     
     @Override
     public final Iterator iterator() {
-        return new Iterator(graph);
+        return new Iterator();
     }
 
-    private Vertex insert(final E label) {
-        Vertex child = graph.addVertex(null);
-        child.setProperty("label", label);
-        child.setProperty("color", color);
-        ++size;
-        return child;
-    }
-
-    private Edge addUndirectedEdge(final Vertex source, final Vertex target, final String weight) {
-        graph.addEdge(null, source, target, weight);
-        Edge edge = graph.addEdge(null, target, source, weight);
-        ++order;
-        return edge;
+    /**
+     * Add a new node for the specified element, without adding any covers.
+     * @param label element
+     * @return new added node
+     */
+    protected final int addNode(final E label) {
+        return store.add(label, color);
     }
 
-    private void removeUndirectedEdge(final Vertex source, final Vertex target) {
-        for (Edge edge : source.getEdges(Direction.BOTH)) {
-            if (edge.getVertex(Direction.OUT).equals(target)) {
-                graph.removeEdge(edge);
-                break;
-            }
-
-            if (edge.getVertex(Direction.IN).equals(target)) {
-                graph.removeEdge(edge);
-                break;
-            }
-        }
-        --order;
+    /**
+     * Add a cover pair.
+     * @param upper node
+     * @param lower node, covered by upper
+     */
+    protected final void addCover(final int upper, final int lower) {
+        store.addCover(upper, lower);
     }
 
     /**
      * Add a new element dynamically to the lattice.
      * @param proposed element
-     * @param generator vertex
-     * @return new added vertex or generator if the proposed element already
+     * @param generator node
+     * @return new added node or generator if the proposed element already
      * exists
      */
-    protected final Vertex addIntent(final E proposed, Vertex generator) {
+    protected final int addIntent(final E proposed, int generator) {
         generator = supremum(proposed, generator);
 
         if (filter(generator, proposed) && filter(proposed, generator)) {
             return generator;
         }
         
-        List parents = new ArrayList<>();
-        for (Edge edge : generator.getEdges(Direction.BOTH)) {
-            Vertex target = edge.getVertex(Direction.OUT);
-            if (filter(target, generator)) {
-                continue;
-            }
-
-            Vertex candidate = target;
+        List<Integer> parents = new ArrayList<>();
+        for (int target : store.lower(generator)) {
+            int candidate = target;
             if (!filter(target, proposed) && !filter(proposed, target)) {
-                E targetElement = target.getProperty(LABEL);
+                E targetElement = label(target);
                 E intersect = (E) targetElement.intersect(proposed);
                 candidate = addIntent(intersect, candidate);
             }
 
             boolean add = true;
-            List doomed = new ArrayList<>();
-            for (java.util.Iterator it = parents.iterator(); it.hasNext();) {
-                Vertex parent = (Vertex) it.next();
-
+            List<Integer> doomed = new ArrayList<>();
+            for (int parent : parents) {
                 if (filter(parent, candidate)) {
                     add = false;
                     break;
@@ -262,28 +247,24 @@ public abstract class CompleteLattice<E extends PartiallyOrdered> implements Lat
                 }
             }
 
-            for (java.util.Iterator it = doomed.iterator(); it.hasNext();) {
-                Vertex vertex = (Vertex) it.next();
-                parents.remove(vertex);
-            }
+            parents.removeAll(doomed);
 
             if (add) {
                 parents.add(candidate);
             }
         }
 
-        E generatorLabel = generator.getProperty(LABEL);
+        E generatorLabel = label(generator);
 
-        Vertex child = insert((E) proposed.union(generatorLabel));
-        addUndirectedEdge(generator, child, ""); 
+        int child = addNode((E) proposed.union(generatorLabel));
+        addCover(generator, child);
         
         bottom = filter(bottom, proposed) ? child : bottom;
 
-        for (java.util.Iterator it = parents.iterator(); it.hasNext();) {
-            Vertex parent = (Vertex) it.next();
-            if (!parent.equals(generator)) {
-                removeUndirectedEdge(parent, generator);
-                addUndirectedEdge(parent, child, "");
+        for (int parent : parents) {
+            if (parent != generator) {
+                store.removeCover(generator, parent);
+                addCover(child, parent);
             }
         }
         return child;
@@ -295,7 +276,7 @@ public abstract class CompleteLattice<E extends PartiallyOrdered> implements Lat
      */
     @Override
     public final int size() {
-        return size;
+        return store.size();
     }
     
     /**
@@ -303,7 +284,7 @@ public abstract class CompleteLattice<E extends PartiallyOrdered> implements Lat
      * @return the number of edges
      */
     public final int order() {
-        return order;
+        return store.order();
     }
 
     /**
@@ -312,7 +293,7 @@ public abstract class CompleteLattice<E extends PartiallyOrdered> implements Lat
      */
     @Override
     public final E bottom() {
-        return bottom.getProperty(LABEL);
+        return label(bottom);
     }
 
     /**
@@ -321,17 +302,17 @@ public abstract class CompleteLattice<E extends PartiallyOrdered> implements Lat
      */
     @Override
     public final E top() {
-        return top.getProperty(LABEL);
+        return label(top);
     }
 
     @Override
     public E join(final E left, final E right) {
-        return supremum((E) left.union(right), top).getProperty(LABEL);
+        return label(supremum((E) left.union(right), top));
     }
 
     @Override
     public E meet(final E left, final E right) {
-        return supremum((E) left.intersect(right), top).getProperty(LABEL);
+        return label(supremum((E) left.intersect(right), top));
     }
 
     @Override
@@ -339,28 +320,45 @@ public abstract class CompleteLattice<E extends PartiallyOrdered> implements Lat
         return (double) join(left, right).measure() /
                         meet(right, top()).measure();
     }
+
+    /**
+     * Export this lattice to a graph, as a vertex per element with label and
+     * color properties and a pair of directed edges per cover pair.
+     * @param graph to export to
+     * @return the specified graph
+     */
+    public final Graph asGraph(final Graph graph) {
+        checkNotNull(graph);
+        Vertex[] vertices = new Vertex[store.size()];
+        for (int node = 0; node < vertices.length; node++) {
+            vertices[node] = graph.addVertex(null);
+            vertices[node].setProperty(LABEL, label(node));
+            vertices[node].setProperty(COLOR, store.color(node));
+        }
+        for (int node = 0; node < vertices.length; node++) {
+            for (int upper : store.upper(node)) {
+                graph.addEdge(null, vertices[upper], vertices[node], "");
+                graph.addEdge(null, vertices[node], vertices[upper], "");
+            }
+        }
+        return graph;
+    }
     
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder("digraph {\n");
        
-        for (Vertex vertex : graph.getVertices()) {
-            for (Edge edge : vertex.getEdges(Direction.BOTH)) {
-                Vertex target = edge.getVertex(Direction.OUT);
-                
-                E sourceElement = vertex.getProperty(LABEL);
-                E targetElement = target.getProperty(LABEL);
+        for (int node = 0; node < store.size(); node++) {
+            for (int target : store.upper(node)) {
+                E sourceElement = label(node);
+                E targetElement = label(target);
                 
                 if (!sourceElement.equals(targetElement)) {
-                    if (!filter(sourceElement, targetElement)) {
-                        sb.append(" \"")
-                          .append(sourceElement)
-                          .append("\" -> \"")
-                          .append(targetElement)
-                          .append("\"[label=\"")
-                          .append(edge.getLabel())
-                          .append("\"]\n");
-                    }
+                    sb.append(" \"")
+                      .append(sourceElement)
+                      .append("\" -> \"")
+                      .append(targetElement)
+                      .append("\"[label=\"\"]\n");
                 }
             }
         }
@@ -375,7 +373,7 @@ public abstract class CompleteLattice<E extends PartiallyOrdered> implements Lat
     
     @Override
     public final Object[] toArray() {
-        return this.toArray(new Object[size]);
+        return this.toArray(new Object[size()]);
     }
     
     @Override
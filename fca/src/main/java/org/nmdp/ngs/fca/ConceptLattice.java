@@ -22,13 +22,7 @@
 */
 package org.nmdp.ngs.fca;
 
-import java.util.List;
-import java.util.ArrayList;
-
-import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.Graph;
-import com.tinkerpop.blueprints.Vertex;
-import com.tinkerpop.blueprints.Direction;
 
 import org.dishevelled.bitset.MutableBitSet;
 
@@ -47,36 +41,42 @@ public class ConceptLattice extends CompleteLattice<Concept> {
         super(graph, new Concept(new MutableBitSet(), ones(numBits)));
     }
     
+    /**
+     * Construct an array-backed concept lattice.
+     * @param numBits number of attributes
+     */
+    public ConceptLattice(long numBits) {
+        super(new Concept(new MutableBitSet(), ones(numBits)));
+    }
+    
     public Concept insert(final Concept concept) {
-        Vertex added = super.addIntent(concept, top);
+        int added = super.addIntent(concept, top);
 
-        List queue = new ArrayList();
-        added.setProperty(COLOR, ++color);
-        queue.add(added);
+        // breadth first over lower covers, each node is queued at most once
+        int[] queue = new int[size()];
+        int head = 0, tail = 0;
+        store.color(added, ++color);
+        queue[tail++] = added;
 
-        while (!queue.isEmpty()) {
-            Vertex visiting = (Vertex) queue.remove(0);
-            Concept visitingConcept = visiting.getProperty(LABEL);
+        while (head < tail) {
+            int visiting = queue[head++];
+            Concept visitingConcept = label(visiting);
             visitingConcept.extent().or(concept.extent());
 
-            for (Edge edge : visiting.getEdges(Direction.BOTH)) {
-                Vertex target = edge.getVertex(Direction.OUT);
-
-                if ((int) target.getProperty(COLOR) != color) {
-                    if (filter(visiting, target)) {
-                        target.setProperty(COLOR, color);
-                        queue.add(target);
-                    }
+            for (int target : store.lower(visiting)) {
+                if (store.color(target) != color) {
+                    store.color(target, color);
+                    queue[tail++] = target;
                 }
             }
         }
-        return added.getProperty(LABEL);
+        return label(added);
     }
     
     @Override
     public final Concept join(final Concept left, final Concept right) {
         MutableBitSet bits = (MutableBitSet) new MutableBitSet().or(left.intent()).or(right.intent());
         Concept query = new Concept(new MutableBitSet(), bits);
-        return supremum(query, top).getProperty(LABEL);
+        return label(supremum(query, top));
     }
 }
@@ -29,6 +29,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import org.dishevelled.bitset.MutableBitSet;
 import org.nmdp.ngs.fca.partial.Equal;
 import org.nmdp.ngs.fca.partial.LessOrEqual;
@@ -157,8 +158,18 @@ public final class Context<G extends Relatable, M extends Relatable> {
      * @return concept lattice
      */
     public ConceptLattice asConceptLattice(final Graph graph) {
-        ConceptLattice lattice = new ConceptLattice(graph, attributes.size());
-        
+        return insertRows(new ConceptLattice(graph, attributes.size()));
+    }
+    
+    /**
+     * Get the array-backed concept lattice for this context.
+     * @return concept lattice
+     */
+    public ConceptLattice asConceptLattice() {
+        return insertRows(new ConceptLattice(attributes.size()));
+    }
+    
+    private ConceptLattice insertRows(final ConceptLattice lattice) {
         Iterator it = this.asCrossTable().iterator();
         while(it.hasNext()) {
             CrossTable.Row row = (CrossTable.Row) it.next();
@@ -168,6 +179,32 @@ public final class Context<G extends Relatable, M extends Relatable> {
         return lattice;
     }
     
+    /**
+     * Get the concept lattice for this context, built in parallel by
+     * divide-and-conquer over partitions of the objects.
+     * @param graph backend
+     * @param pool fork-join pool
+     * @return concept lattice with the same concepts and edges as
+     * {@link #asConceptLattice(Graph)}
+     */
+    public ConceptLattice asConceptLattice(final Graph graph, final ForkJoinPool pool) {
+        checkNotNull(graph);
+        checkNotNull(pool);
+        return ParallelConceptLattice.build(new ConceptLattice(graph, attributes.size()), this.asCrossTable(), attributes.size(), pool);
+    }
+    
+    /**
+     * Get the array-backed concept lattice for this context, built in
+     * parallel by divide-and-conquer over partitions of the objects.
+     * @param pool fork-join pool
+     * @return concept lattice with the same concepts and edges as
+     * {@link #asConceptLattice()}
+     */
+    public ConceptLattice asConceptLattice(final ForkJoinPool pool) {
+        checkNotNull(pool);
+        return ParallelConceptLattice.build(new ConceptLattice(attributes.size()), this.asCrossTable(), attributes.size(), pool);
+    }
+    
     /**
      * Calculate the isomorphic down lattice.
      * @param <G> element type
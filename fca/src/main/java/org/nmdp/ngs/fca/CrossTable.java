@@ -36,6 +36,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import org.dishevelled.bitset.AbstractBitSet;
 import static org.nmdp.ngs.fca.Poset.MAGIC;
 
@@ -237,8 +238,18 @@ public final class CrossTable implements Iterable<CrossTable.Row> {
     }
     
     public ConceptLattice asConceptLattice(final Graph graph) {
-        ConceptLattice lattice = new ConceptLattice(graph, ncol);
-        
+        return insertRows(new ConceptLattice(graph, ncol));
+    }
+    
+    /**
+     * Get the array-backed concept lattice for this cross table.
+     * @return concept lattice
+     */
+    public ConceptLattice asConceptLattice() {
+        return insertRows(new ConceptLattice(ncol));
+    }
+    
+    private ConceptLattice insertRows(final ConceptLattice lattice) {
         Iterator it = this.iterator();
         while(it.hasNext()) {
             CrossTable.Row row = (CrossTable.Row) it.next();
@@ -247,6 +258,30 @@ public final class CrossTable implements Iterable<CrossTable.Row> {
         
         return lattice;
     }
+    
+    /**
+     * Get the concept lattice for this cross table, built in parallel.
+     * @param graph backend
+     * @param pool fork-join pool
+     * @return concept lattice with the same concepts and edges as
+     * {@link #asConceptLattice(Graph)}
+     */
+    public ConceptLattice asConceptLattice(final Graph graph, final ForkJoinPool pool) {
+        checkNotNull(graph);
+        checkNotNull(pool);
+        return ParallelConceptLattice.build(new ConceptLattice(graph, ncol), this, ncol, pool);
+    }
+    
+    /**
+     * Get the array-backed concept lattice for this cross table, built in parallel.
+     * @param pool fork-join pool
+     * @return concept lattice with the same concepts and edges as
+     * {@link #asConceptLattice()}
+     */
+    public ConceptLattice asConceptLattice(final ForkJoinPool pool) {
+        checkNotNull(pool);
+        return ParallelConceptLattice.build(new ConceptLattice(ncol), this, ncol, pool);
+    }
 
     
     @Override
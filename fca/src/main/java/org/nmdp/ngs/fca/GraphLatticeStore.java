@@ -0,0 +1,152 @@
+/*
+
+    ngs-fca  Formal concept analysis for genomics.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.fca;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Graph;
+import com.tinkerpop.blueprints.Vertex;
+
+import static org.nmdp.ngs.fca.CompleteLattice.COLOR;
+import static org.nmdp.ngs.fca.CompleteLattice.LABEL;
+
+/**
+ * Blueprints graph lattice store.  Each node is a vertex with label and color
+ * properties, and each cover pair is a pair of directed edges.  Upper and lower
+ * covers are told apart by comparing labels.
+ * @param <E> element type
+ */
+final class GraphLatticeStore<E extends PartiallyOrdered> implements LatticeStore<E> {
+    private final Graph graph;
+    private final List<Vertex> vertices;
+    private final Map<Object, Integer> nodes;
+    private int order;
+
+    /**
+     * Construct a lattice store assigned to a designated graph.
+     * @param graph assignment
+     */
+    GraphLatticeStore(final Graph graph) {
+        this.graph = graph;
+        vertices = new ArrayList<>();
+        nodes = new HashMap<>();
+        order = 0;
+    }
+
+    @Override
+    public int size() {
+        return vertices.size();
+    }
+
+    @Override
+    public int order() {
+        return order;
+    }
+
+    @Override
+    public int add(final E label, final int color) {
+        Vertex vertex = graph.addVertex(null);
+        vertex.setProperty(LABEL, label);
+        vertex.setProperty(COLOR, color);
+        nodes.put(vertex.getId(), vertices.size());
+        vertices.add(vertex);
+        return vertices.size() - 1;
+    }
+
+    @Override
+    public E label(final int node) {
+        return vertices.get(node).getProperty(LABEL);
+    }
+
+    @Override
+    public int color(final int node) {
+        return (int) vertices.get(node).getProperty(COLOR);
+    }
+
+    @Override
+    public void color(final int node, final int color) {
+        vertices.get(node).setProperty(COLOR, color);
+    }
+
+    @Override
+    public int[] upper(final int node) {
+        return neighbors(node, true);
+    }
+
+    @Override
+    public int[] lower(final int node) {
+        return neighbors(node, false);
+    }
+
+    private int[] neighbors(final int node, final boolean upper) {
+        E label = label(node);
+        List<Integer> neighbors = new ArrayList<>();
+        for (Edge edge : vertices.get(node).getEdges(Direction.OUT)) {
+            Vertex target = edge.getVertex(Direction.IN);
+            E targetLabel = target.getProperty(LABEL);
+            if (targetLabel.isGreaterOrEqualTo(label) == upper) {
+                neighbors.add(nodes.get(target.getId()));
+            }
+        }
+        int[] array = new int[neighbors.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = neighbors.get(i);
+        }
+        return array;
+    }
+
+    @Override
+    public void addCover(final int upper, final int lower) {
+        Vertex source = vertices.get(upper);
+        Vertex target = vertices.get(lower);
+        graph.addEdge(null, source, target, "");
+        graph.addEdge(null, target, source, "");
+        ++order;
+    }
+
+    @Override
+    public void removeCover(final int upper, final int lower) {
+        Vertex source = vertices.get(upper);
+        Vertex target = vertices.get(lower);
+        List<Edge> doomed = new ArrayList<>();
+        for (Edge edge : source.getEdges(Direction.BOTH)) {
+            if (edge.getVertex(Direction.OUT).equals(target) ||
+                edge.getVertex(Direction.IN).equals(target)) {
+                doomed.add(edge);
+            }
+        }
+
+        // remove both directed edges, if the vertices are adjacent
+        for (Edge edge : doomed) {
+            graph.removeEdge(edge);
+        }
+        if (!doomed.isEmpty()) {
+            --order;
+        }
+    }
+}
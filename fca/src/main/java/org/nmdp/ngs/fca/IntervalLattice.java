@@ -30,8 +30,15 @@ public class IntervalLattice<C extends Comparable<?>> extends CompleteLattice<In
         super(graph, Interval.MAGIC);
     }
     
+    /**
+     * Construct an array-backed lattice.
+     */
+    public IntervalLattice() {
+        super(Interval.MAGIC);
+    }
+    
     public Interval<C> insert(final Interval<C> interval) {
-        return super.addIntent(interval, top).getProperty(LABEL);
+        return label(super.addIntent(interval, top));
     }
     
     /*
@@ -0,0 +1,103 @@
+/*
+
+    ngs-fca  Formal concept analysis for genomics.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.fca;
+
+/**
+ * Lattice store.  Lattice elements are stored as nodes with int ids, assigned
+ * in insertion order, each with a label, a color used to mark nodes during
+ * traversal, and the node ids of their upper and lower covers.
+ * @param <E> element type
+ */
+interface LatticeStore<E extends PartiallyOrdered> {
+
+    /**
+     * Get the number of nodes.
+     * @return the number of nodes
+     */
+    int size();
+
+    /**
+     * Get the number of cover pairs.
+     * @return the number of cover pairs
+     */
+    int order();
+
+    /**
+     * Add a new node without any covers.
+     * @param label element
+     * @param color color
+     * @return id of the new node
+     */
+    int add(E label, int color);
+
+    /**
+     * Get the label of a node.
+     * @param node id
+     * @return element
+     */
+    E label(int node);
+
+    /**
+     * Get the color of a node.
+     * @param node id
+     * @return color
+     */
+    int color(int node);
+
+    /**
+     * Set the color of a node.
+     * @param node id
+     * @param color color
+     */
+    void color(int node, int color);
+
+    /**
+     * Get the upper covers of a node.  The returned array must not be
+     * modified, and is not changed by later changes to the store.
+     * @param node id
+     * @return node ids of the upper covers
+     */
+    int[] upper(int node);
+
+    /**
+     * Get the lower covers of a node.  The returned array must not be
+     * modified, and is not changed by later changes to the store.
+     * @param node id
+     * @return node ids of the lower covers
+     */
+    int[] lower(int node);
+
+    /**
+     * Add a cover pair.
+     * @param upper node id
+     * @param lower node id, covered by upper
+     */
+    void addCover(int upper, int lower);
+
+    /**
+     * Remove a cover pair, if present.
+     * @param upper node id
+     * @param lower node id
+     */
+    void removeCover(int upper, int lower);
+}
@@ -0,0 +1,406 @@
+/*
+
+    ngs-fca  Formal concept analysis for genomics.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.fca;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+import org.dishevelled.bitset.MutableBitSet;
+
+/**
+ * Fork-join concept lattice construction from a cross table.
+ *
+ * <p>
+ * Rows of the cross table are partitioned recursively.  The intents of each
+ * partition are found incrementally, and the intents of two partitions are
+ * merged as all pairwise intersections, since every intent of the union is the
+ * intersection of an intent of each part (including the all-attributes intent).
+ * Extents are then found as intersections of attribute columns, and the covers
+ * of each concept by the neighbor algorithm of Lindig, all on
+ * <code>long[]</code> words.  The Hasse diagram is then added to the lattice in
+ * one pass, giving the same concepts and edges as inserting each row with
+ * {@link ConceptLattice#insert(Concept)}.
+ * </p>
+ */
+final class ParallelConceptLattice {
+    /** Maximum number of rows for which intents are found sequentially. */
+    static final int ROW_THRESHOLD = 256;
+
+    /** Maximum number of pairwise intersections per merge task. */
+    static final int MERGE_THRESHOLD = 1 << 16;
+
+    /** Maximum number of concepts per extent or cover task. */
+    static final int CONCEPT_THRESHOLD = 256;
+
+
+    /**
+     * Private no-arg constructor.
+     */
+    private ParallelConceptLattice() {
+        // empty
+    }
+
+
+    /**
+     * Build a concept lattice from the specified cross table.
+     *
+     * @param lattice empty concept lattice to build
+     * @param table cross table
+     * @param numBits number of attributes of the lattice, at least the number of columns of the cross table
+     * @param pool fork-join pool
+     * @return the specified concept lattice, built from the specified cross table
+     */
+    static ConceptLattice build(final ConceptLattice lattice, final CrossTable table, final long numBits, final ForkJoinPool pool) {
+
+        int attributes = (int) numBits;
+        int objects = (int) table.getNumberOfRows();
+        if (objects == 0) {
+            return lattice;
+        }
+        int nwords = words(attributes);
+        int gwords = words(objects);
+
+        long[][] rows = new long[objects][];
+        long[][] columns = new long[attributes][gwords];
+        for (int g = 0; g < objects; g++) {
+            MutableBitSet intent = table.getRow(g).intent;
+            rows[g] = new long[nwords];
+            for (long m = intent.nextSetBit(0); m >= 0 && m < attributes; m = intent.nextSetBit(m + 1)) {
+                rows[g][(int) (m >>> 6)] |= 1L << m;
+                columns[(int) m][g >>> 6] |= 1L << g;
+            }
+        }
+
+        Set<Key> found = pool.invoke(new IntentTask(rows, 0, objects, ones(attributes)));
+        Key[] intents = found.toArray(new Key[found.size()]);
+
+        long[][] extents = new long[intents.length][];
+        pool.invoke(new ExtentTask(intents, columns, extents, ones(objects), 0, intents.length));
+
+        Map<Key, Integer> concepts = new HashMap<Key, Integer>(intents.length * 2);
+        for (int i = 0; i < intents.length; i++) {
+            concepts.put(new Key(extents[i]), i);
+        }
+
+        int[][] covers = new int[intents.length][];
+        pool.invoke(new CoverTask(intents, extents, columns, attributes, concepts, covers, 0, intents.length));
+
+        int[] nodes = new int[intents.length];
+        int bottom = 0;
+        for (int i = 0; i < intents.length; i++) {
+            if (intents[i].cardinality == attributes) {
+                lattice.top().extent().or(bitSet(extents[i], gwords));
+                nodes[i] = lattice.top;
+            }
+            else {
+                nodes[i] = lattice.addNode(new Concept(bitSet(extents[i], gwords), bitSet(intents[i].words, nwords)));
+            }
+            if (intents[i].cardinality < intents[bottom].cardinality) {
+                bottom = i;
+            }
+        }
+        lattice.bottom = nodes[bottom];
+
+        for (int i = 0; i < intents.length; i++) {
+            for (int j : covers[i]) {
+                lattice.addCover(nodes[j], nodes[i]);
+            }
+        }
+        return lattice;
+    }
+
+    /**
+     * Return the number of words needed for the specified number of bits.
+     *
+     * @param numBits number of bits
+     * @return the number of words needed for the specified number of bits
+     */
+    static int words(final int numBits) {
+        return (numBits + 63) >>> 6;
+    }
+
+    /**
+     * Return words with the specified number of low bits set.
+     *
+     * @param numBits number of bits
+     * @return words with the specified number of low bits set
+     */
+    static long[] ones(final int numBits) {
+        long[] words = new long[words(numBits)];
+        Arrays.fill(words, -1L);
+        if ((numBits & 63) != 0) {
+            words[words.length - 1] = -1L >>> (64 - (numBits & 63));
+        }
+        return words;
+    }
+
+    /**
+     * Return a new bitset with a copy of the specified words.
+     *
+     * @param words words
+     * @param nwords number of words
+     * @return a new bitset with a copy of the specified words
+     */
+    static MutableBitSet bitSet(final long[] words, final int nwords) {
+        return new MutableBitSet(Arrays.copyOf(words, nwords), nwords);
+    }
+
+    /**
+     * Return the intersection of the specified words as new words.
+     *
+     * @param left words
+     * @param right words
+     * @return the intersection of the specified words as new words
+     */
+    private static long[] and(final long[] left, final long[] right) {
+        long[] and = new long[left.length];
+        for (int i = 0; i < and.length; i++) {
+            and[i] = left[i] & right[i];
+        }
+        return and;
+    }
+
+    /**
+     * Hash key of words.
+     */
+    static final class Key {
+        final long[] words;
+        final int cardinality;
+        private final int hashCode;
+
+        Key(final long[] words) {
+            this.words = words;
+            int cardinality = 0;
+            for (long word : words) {
+                cardinality += Long.bitCount(word);
+            }
+            this.cardinality = cardinality;
+            this.hashCode = Arrays.hashCode(words);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object that) {
+            if (!(that instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) that;
+            return hashCode == key.hashCode && Arrays.equals(words, key.words);
+        }
+    }
+
+    /**
+     * Find the intents of a range of rows, including the all-attributes intent.
+     */
+    private static final class IntentTask extends RecursiveTask<Set<Key>> {
+        private final long[][] rows;
+        private final int start;
+        private final int end;
+        private final long[] ones;
+
+        IntentTask(final long[][] rows, final int start, final int end, final long[] ones) {
+            this.rows = rows;
+            this.start = start;
+            this.end = end;
+            this.ones = ones;
+        }
+
+        @Override
+        protected Set<Key> compute() {
+            if (end - start <= ROW_THRESHOLD) {
+                Set<Key> intents = new HashSet<Key>();
+                intents.add(new Key(ones));
+                List<Key> added = new ArrayList<Key>();
+                for (int g = start; g < end; g++) {
+                    added.clear();
+                    for (Key intent : intents) {
+                        added.add(new Key(and(intent.words, rows[g])));
+                    }
+                    intents.addAll(added);
+                }
+                return intents;
+            }
+            int mid = (start + end) >>> 1;
+            IntentTask left = new IntentTask(rows, start, mid, ones);
+            left.fork();
+            Set<Key> right = new IntentTask(rows, mid, end, ones).compute();
+            Key[] lefts = left.join().toArray(new Key[0]);
+            Key[] rights = right.toArray(new Key[right.size()]);
+            return new MergeTask(lefts, rights, 0, lefts.length).compute();
+        }
+    }
+
+    /**
+     * Merge intents as the pairwise intersections of a range of left intents with all right intents.
+     */
+    private static final class MergeTask extends RecursiveTask<Set<Key>> {
+        private final Key[] lefts;
+        private final Key[] rights;
+        private final int start;
+        private final int end;
+
+        MergeTask(final Key[] lefts, final Key[] rights, final int start, final int end) {
+            this.lefts = lefts;
+            this.rights = rights;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Set<Key> compute() {
+            if (end - start <= 1 || (long) (end - start) * rights.length <= MERGE_THRESHOLD) {
+                Set<Key> intents = new HashSet<Key>();
+                for (int i = start; i < end; i++) {
+                    for (Key right : rights) {
+                        intents.add(new Key(and(lefts[i].words, right.words)));
+                    }
+                }
+                return intents;
+            }
+            int mid = (start + end) >>> 1;
+            MergeTask left = new MergeTask(lefts, rights, start, mid);
+            left.fork();
+            Set<Key> intents = new MergeTask(lefts, rights, mid, end).compute();
+            intents.addAll(left.join());
+            return intents;
+        }
+    }
+
+    /**
+     * Find the extents of a range of intents as intersections of attribute columns.
+     */
+    private static final class ExtentTask extends RecursiveAction {
+        private final Key[] intents;
+        private final long[][] columns;
+        private final long[][] extents;
+        private final long[] ones;
+        private final int start;
+        private final int end;
+
+        ExtentTask(final Key[] intents, final long[][] columns, final long[][] extents, final long[] ones, final int start, final int end) {
+            this.intents = intents;
+            this.columns = columns;
+            this.extents = extents;
+            this.ones = ones;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= CONCEPT_THRESHOLD) {
+                for (int i = start; i < end; i++) {
+                    long[] intent = intents[i].words;
+                    long[] extent = ones.clone();
+                    for (int w = 0; w < intent.length; w++) {
+                        for (long word = intent[w]; word != 0L; word &= word - 1L) {
+                            long[] column = columns[(w << 6) + Long.numberOfTrailingZeros(word)];
+                            for (int k = 0; k < extent.length; k++) {
+                                extent[k] &= column[k];
+                            }
+                        }
+                    }
+                    extents[i] = extent;
+                }
+                return;
+            }
+            int mid = (start + end) >>> 1;
+            invokeAll(new ExtentTask(intents, columns, extents, ones, start, mid),
+                      new ExtentTask(intents, columns, extents, ones, mid, end));
+        }
+    }
+
+    /**
+     * Find the upper covers (concepts with the next larger intents) of a range of concepts.
+     */
+    private static final class CoverTask extends RecursiveAction {
+        private final Key[] intents;
+        private final long[][] extents;
+        private final long[][] columns;
+        private final int attributes;
+        private final Map<Key, Integer> concepts;
+        private final int[][] covers;
+        private final int start;
+        private final int end;
+
+        CoverTask(final Key[] intents, final long[][] extents, final long[][] columns, final int attributes,
+                  final Map<Key, Integer> concepts, final int[][] covers, final int start, final int end) {
+            this.intents = intents;
+            this.extents = extents;
+            this.columns = columns;
+            this.attributes = attributes;
+            this.concepts = concepts;
+            this.covers = covers;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= CONCEPT_THRESHOLD) {
+                Map<Integer, Integer> counts = new HashMap<Integer, Integer>();
+                for (int i = start; i < end; i++) {
+                    counts.clear();
+                    long[] intent = intents[i].words;
+                    long[] extent = extents[i];
+                    for (int m = 0; m < attributes; m++) {
+                        if ((intent[m >>> 6] & (1L << m)) == 0L) {
+                            // the concept generated by intent + m is found by its extent
+                            Integer j = concepts.get(new Key(and(extent, columns[m])));
+                            Integer count = counts.get(j);
+                            counts.put(j, count == null ? 1 : count + 1);
+                        }
+                    }
+                    // neighbors are generated by each of the attributes they add
+                    List<Integer> neighbors = new ArrayList<Integer>();
+                    for (Map.Entry<Integer, Integer> entry : counts.entrySet()) {
+                        if (entry.getValue() == intents[entry.getKey()].cardinality - intents[i].cardinality) {
+                            neighbors.add(entry.getKey());
+                        }
+                    }
+                    covers[i] = new int[neighbors.size()];
+                    for (int k = 0; k < covers[i].length; k++) {
+                        covers[i][k] = neighbors.get(k);
+                    }
+                }
+                return;
+            }
+            int mid = (start + end) >>> 1;
+            invokeAll(new CoverTask(intents, extents, columns, attributes, concepts, covers, start, mid),
+                      new CoverTask(intents, extents, columns, attributes, concepts, covers, mid, end));
+        }
+    }
+}
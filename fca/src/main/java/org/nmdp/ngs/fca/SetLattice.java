@@ -23,7 +23,6 @@
 package org.nmdp.ngs.fca;
 
 import com.tinkerpop.blueprints.Graph;
-import static org.nmdp.ngs.fca.CompleteLattice.LABEL;
 
 public class SetLattice<C extends Comparable<?>> extends CompleteLattice<Poset<C>> {
     
@@ -31,7 +30,14 @@ public class SetLattice<C extends Comparable<?>> extends CompleteLattice<Poset<C
         super(graph, Poset.MAGIC);
     }
     
+    /**
+     * Construct an array-backed lattice.
+     */
+    public SetLattice() {
+        super(Poset.MAGIC);
+    }
+    
     public Poset<C> insert(final Poset<C> poset) {
-        return super.addIntent(poset, top).getProperty(LABEL);
+        return label(super.addIntent(poset, top));
     }
 }
\ No newline at end of file
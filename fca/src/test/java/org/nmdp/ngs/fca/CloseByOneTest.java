@@ -0,0 +1,222 @@
+/*
+
+    ngs-fca  Formal concept analysis for genomics.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.fca;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import static org.nmdp.ngs.fca.TestUtil.bits;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import java.util.concurrent.ForkJoinPool;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.dishevelled.bitset.MutableBitSet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for CloseByOne.
+ */
+public final class CloseByOneTest {
+    private ForkJoinPool pool;
+
+    @Before
+    public void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testNullTable() {
+        CloseByOne.enumerate(null, new Collect());
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testNullListener() {
+        CloseByOne.enumerate(new CrossTable(), null);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testParallelNullTable() {
+        CloseByOne.enumerate(null, pool, new Collect());
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testParallelNullPool() {
+        CloseByOne.enumerate(new CrossTable(), null, new Collect());
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testParallelNullListener() {
+        CloseByOne.enumerate(new CrossTable(), pool, null);
+    }
+
+    @Test
+    public void testEmpty() {
+        assertSameConcepts(new CrossTable());
+    }
+
+    @Test
+    public void testNoAttributes() {
+        CrossTable table = new CrossTable();
+        table.addRow(bits());
+        table.addRow(bits());
+        assertSameConcepts(table);
+    }
+
+    /*
+     * From Davey and Priestly "Introduction to Lattices and Order" second
+     * edition, page 77.
+     */
+    @Test
+    public void testDaveyPriestly() {
+        CrossTable table = new CrossTable();
+        table.addRow(bits(0, 1, 3, 5));
+        table.addRow(bits(0, 1, 3, 4));
+        table.addRow(bits(0, 1, 3, 4, 5, 6));
+        table.addRow(bits(0, 2, 4, 5));
+        table.addRow(bits(1, 3));
+        table.addRow(bits(0, 5));
+
+        Collect collect = new Collect();
+        CloseByOne.enumerate(table, collect);
+        assertEquals(12, collect.concepts.size());
+        assertEquals(new Concept(bits(0, 1, 2, 3, 4, 5), bits()), collect.concepts.get(0));
+        assertTrue(collect.concepts.contains(new Concept(bits(), bits(0, 1, 2, 3, 4, 5, 6))));
+        assertSameConcepts(table);
+    }
+
+    @Test
+    public void testContexts() {
+        List<Poset<String>> abc = Poset.singletons(Arrays.asList("a", "b", "c"));
+        for (Context context : Arrays.asList(Context.powerset(abc), Context.antichain(abc))) {
+            assertSameConcepts(context.asCrossTable());
+        }
+    }
+
+    @Test
+    public void testRandom() {
+        Random random = new Random(42L);
+        for (int i = 0; i < 20; i++) {
+            assertSameConcepts(randomTable(random, 1 + random.nextInt(40), 1 + random.nextInt(12), 0.4d));
+        }
+    }
+
+    @Test
+    public void testManyAttributes() {
+        assertSameConcepts(randomTable(new Random(7L), 12, 130, 0.9d));
+    }
+
+    @Test
+    public void testManyObjects() {
+        assertSameConcepts(randomTable(new Random(11L), 200, 8, 0.5d));
+    }
+
+    @Test
+    public void testStop() {
+        CrossTable table = randomTable(new Random(5L), 30, 10, 0.5d);
+        Stop stop = new Stop(3);
+        CloseByOne.enumerate(table, stop);
+        assertEquals(3, stop.count.get());
+    }
+
+    @Test
+    public void testParallelStop() {
+        CrossTable table = randomTable(new Random(5L), 30, 10, 0.5d);
+        Stop stop = new Stop(1);
+        CloseByOne.enumerate(table, pool, stop);
+        assertEquals(1, stop.count.get());
+    }
+
+    private static CrossTable randomTable(final Random random, final int rows, final int columns, final double density) {
+        CrossTable table = new CrossTable();
+        for (int i = 0; i < rows; i++) {
+            MutableBitSet bits = new MutableBitSet(columns);
+            for (int j = 0; j < columns; j++) {
+                if (random.nextDouble() < density) {
+                    bits.set(j);
+                }
+            }
+            table.addRow(bits);
+        }
+        return table;
+    }
+
+    private void assertSameConcepts(final CrossTable table) {
+        Set<Concept> expected = new HashSet<Concept>();
+        for (Concept concept : table.asConceptLattice()) {
+            expected.add(concept);
+        }
+
+        Collect sequential = new Collect();
+        CloseByOne.enumerate(table, sequential);
+        assertEquals(expected.size(), sequential.concepts.size());
+        assertEquals(expected, new HashSet<Concept>(sequential.concepts));
+
+        Collect parallel = new Collect();
+        CloseByOne.enumerate(table, pool, parallel);
+        assertEquals(expected.size(), parallel.concepts.size());
+        assertEquals(expected, new HashSet<Concept>(parallel.concepts));
+    }
+
+    private static final class Collect implements ConceptListener {
+        final List<Concept> concepts = Collections.synchronizedList(new ArrayList<Concept>());
+
+        @Override
+        public boolean concept(final Concept concept) {
+            concepts.add(concept);
+            return true;
+        }
+    }
+
+    private static final class Stop implements ConceptListener {
+        final int limit;
+        final AtomicInteger count = new AtomicInteger();
+
+        Stop(final int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public boolean concept(final Concept concept) {
+            assertFalse(count.get() >= limit);
+            return count.incrementAndGet() < limit;
+        }
+    }
+}
@@ -27,28 +27,49 @@ import static org.junit.Assert.assertEquals;
 import static org.nmdp.ngs.fca.TestUtil.list;
 import static org.nmdp.ngs.fca.TestUtil.bits;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
+import com.tinkerpop.blueprints.Graph;
 import com.tinkerpop.blueprints.impls.tg.TinkerGraph;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
 
 /**
- * Unit tests for ConceptLattice.
+ * Unit tests for ConceptLattice, against graph and array backends.
  */
+@RunWith(Parameterized.class)
 public final class ConceptLatticeTest {
+    private final String backend;
     private ConceptLattice lattice;
     
+    public ConceptLatticeTest(final String backend) {
+        this.backend = backend;
+    }
+    
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> backends() {
+        return Arrays.asList(new Object[][] { { "graph" }, { "array" } });
+    }
+    
+    private ConceptLattice createLattice(final long numBits) {
+        return "graph".equals(backend) ? new ConceptLattice(new TinkerGraph(), numBits) : new ConceptLattice(numBits);
+    }
+    
     /*
      * From Davey and Priestly "Introduction to Lattices and Order" second
      * edition, page 77.
      */
     @Before
     public void setUp() {
-        lattice = new ConceptLattice(new TinkerGraph(), 7);
+        lattice = createLattice(7);
 
         lattice.insert(new Concept(bits(0), bits(0, 1, 3, 5)));
         lattice.insert(new Concept(bits(1), bits(0, 1, 3, 4)));
@@ -114,13 +135,13 @@ public final class ConceptLatticeTest {
     
     @Test
     public void testSize() {
-        assertEquals(new ConceptLattice(new TinkerGraph(), 7).size(), 1);
+        assertEquals(createLattice(7).size(), 1);
         assertEquals(lattice.size(), 12);
     }
     
     @Test
     public void testIsEmpty() {
-        assertTrue(new ConceptLattice(new TinkerGraph(), 7).isEmpty());
+        assertTrue(createLattice(7).isEmpty());
         assertFalse(lattice.isEmpty());
     }
     
@@ -160,6 +181,23 @@ public final class ConceptLatticeTest {
         assertFalse(lattice.covers(STUW, STUW));
     }
     
+    @Test
+    public void testAsGraph() {
+        Graph graph = lattice.asGraph(new TinkerGraph());
+        int vertices = 0;
+        for (Object vertex : graph.getVertices()) { vertices++; }
+        int edges = 0;
+        for (Object edge : graph.getEdges()) { edges++; }
+        assertEquals(lattice.size(), vertices);
+        assertEquals(2 * lattice.order(), edges);
+    }
+    
+    @Test
+    public void testOrder() {
+        assertEquals(createLattice(7).order(), 0);
+        assertEquals(lattice.order(), 18);
+    }
+    
     @Test
     public void testToArray() {
         Object[] concepts = lattice.toArray();
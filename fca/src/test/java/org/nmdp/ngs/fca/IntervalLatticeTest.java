@@ -26,17 +26,37 @@ import com.google.common.collect.Range;
 
 import com.tinkerpop.blueprints.impls.tg.TinkerGraph;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
 
+@RunWith(Parameterized.class)
 public final class IntervalLatticeTest {
+    private final String backend;
     private IntervalLattice<Integer> intervals;
     
+    public IntervalLatticeTest(final String backend) {
+        this.backend = backend;
+    }
+    
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> backends() {
+        return Arrays.asList(new Object[][] { { "graph" }, { "array" } });
+    }
+    
+    private <C extends Comparable<?>> IntervalLattice<C> createLattice() {
+        return "graph".equals(backend) ? new IntervalLattice<C>(new TinkerGraph()) : new IntervalLattice<C>();
+    }
+    
     @Before
     public void setUp() {
-        intervals = new IntervalLattice<>(new TinkerGraph());
+        intervals = createLattice();
         
         Interval<Integer> x = new Interval<>(1, Range.closed(9, 12));
         Interval<Integer> y = new Interval<>(1, Range.closed(10, 14));
@@ -56,7 +76,7 @@ public final class IntervalLatticeTest {
     
     @Test
     public void testSetup() {
-        IntervalLattice<Date> dates = new IntervalLattice<>(new TinkerGraph());
+        IntervalLattice<Date> dates = createLattice();
         
         
         Date d1 = new Date(2015, 11, 15, 0, 0);
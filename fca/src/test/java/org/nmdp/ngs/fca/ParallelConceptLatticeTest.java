@@ -0,0 +1,212 @@
+/*
+
+    ngs-fca  Formal concept analysis for genomics.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.fca;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import static org.nmdp.ngs.fca.TestUtil.bits;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import java.util.concurrent.ForkJoinPool;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Vertex;
+
+import com.tinkerpop.blueprints.impls.tg.TinkerGraph;
+
+import org.dishevelled.bitset.MutableBitSet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for ParallelConceptLattice.
+ */
+public final class ParallelConceptLatticeTest {
+    private ForkJoinPool pool;
+
+    @Before
+    public void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testNullGraph() {
+        new CrossTable().asConceptLattice(null, pool);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testNullPool() {
+        new CrossTable().asConceptLattice(new TinkerGraph(), null);
+    }
+
+    @Test
+    public void testEmpty() {
+        ConceptLattice lattice = new CrossTable().asConceptLattice(new TinkerGraph(), pool);
+        assertEquals(1, lattice.size());
+        assertTrue(lattice.isEmpty());
+    }
+
+    /*
+     * From Davey and Priestly "Introduction to Lattices and Order" second
+     * edition, page 77.
+     */
+    @Test
+    public void testDaveyPriestly() {
+        CrossTable table = new CrossTable();
+        table.addRow(bits(0, 1, 3, 5));
+        table.addRow(bits(0, 1, 3, 4));
+        table.addRow(bits(0, 1, 3, 4, 5, 6));
+        table.addRow(bits(0, 2, 4, 5));
+        table.addRow(bits(1, 3));
+        table.addRow(bits(0, 5));
+
+        ConceptLattice lattice = table.asConceptLattice(new TinkerGraph(), pool);
+        assertEquals(12, lattice.size());
+        assertEquals(bits(0, 1, 2, 3, 4, 5, 6), lattice.top().intent());
+        assertEquals(bits(), lattice.top().extent());
+        assertEquals(bits(), lattice.bottom().intent());
+        assertEquals(bits(0, 1, 2, 3, 4, 5), lattice.bottom().extent());
+        assertSameLattice(table.asConceptLattice(new TinkerGraph()), lattice);
+    }
+
+    @Test
+    public void testContexts() {
+        List<Poset<String>> abc = Poset.singletons(Arrays.asList("a", "b", "c"));
+        for (Context context : Arrays.asList(Context.powerset(abc), Context.antichain(abc))) {
+            assertSameLattice(context.asConceptLattice(new TinkerGraph()), context.asConceptLattice(new TinkerGraph(), pool));
+        }
+        Context downset = Context.downset(Context.powerset(abc).asConceptLattice(new TinkerGraph()));
+        ConceptLattice lattice = downset.asConceptLattice(new TinkerGraph(), pool);
+        assertEquals(20, lattice.size());
+        assertSameLattice(downset.asConceptLattice(new TinkerGraph()), lattice);
+    }
+
+    @Test
+    public void testObjectWithAllAttributes() {
+        CrossTable table = new CrossTable();
+        table.addRow(bits(0, 1, 2));
+        table.addRow(bits(0));
+        table.addRow(bits(1));
+        assertSameLattice(table.asConceptLattice(new TinkerGraph()), table.asConceptLattice(new TinkerGraph(), pool));
+    }
+
+    @Test
+    public void testRandom() {
+        Random random = new Random(42L);
+        for (int i = 0; i < 10; i++) {
+            CrossTable table = randomTable(random, 1 + random.nextInt(40), 1 + random.nextInt(10), 0.4d);
+            assertSameLattice(table.asConceptLattice(new TinkerGraph()), table.asConceptLattice(new TinkerGraph(), pool));
+        }
+    }
+
+    @Test
+    public void testManyAttributes() {
+        CrossTable table = randomTable(new Random(7L), 12, 130, 0.9d);
+        assertSameLattice(table.asConceptLattice(new TinkerGraph()), table.asConceptLattice(new TinkerGraph(), pool));
+    }
+
+    @Test
+    public void testManyObjects() {
+        CrossTable table = randomTable(new Random(11L), 3 * ParallelConceptLattice.ROW_THRESHOLD, 8, 0.5d);
+        assertSameLattice(table.asConceptLattice(new TinkerGraph()), table.asConceptLattice(new TinkerGraph(), pool));
+    }
+
+    @Test
+    public void testArrayBackend() {
+        Random random = new Random(17L);
+        for (int i = 0; i < 10; i++) {
+            CrossTable table = randomTable(random, 1 + random.nextInt(40), 1 + random.nextInt(10), 0.4d);
+            ConceptLattice expected = table.asConceptLattice(new TinkerGraph());
+            assertSameLattice(expected, table.asConceptLattice());
+            assertSameLattice(expected, table.asConceptLattice(pool));
+        }
+    }
+
+    @Test
+    public void testInsertAfterBuild() {
+        CrossTable table = randomTable(new Random(13L), 20, 8, 0.5d);
+        ConceptLattice expected = table.asConceptLattice(new TinkerGraph());
+        ConceptLattice observed = table.asConceptLattice(new TinkerGraph(), pool);
+        expected.insert(new Concept(bits(20), bits(1, 2, 5)));
+        observed.insert(new Concept(bits(20), bits(1, 2, 5)));
+        assertSameLattice(expected, observed);
+    }
+
+    private static CrossTable randomTable(final Random random, final int rows, final int columns, final double density) {
+        CrossTable table = new CrossTable();
+        for (int i = 0; i < rows; i++) {
+            MutableBitSet bits = new MutableBitSet(columns);
+            for (int j = 0; j < columns; j++) {
+                if (random.nextDouble() < density) {
+                    bits.set(j);
+                }
+            }
+            table.addRow(bits);
+        }
+        return table;
+    }
+
+    private static void assertSameLattice(final ConceptLattice expected, final ConceptLattice observed) {
+        assertEquals(expected.size(), observed.size());
+        assertEquals(expected.order(), observed.order());
+        assertEquals(expected.top(), observed.top());
+        assertEquals(expected.bottom(), observed.bottom());
+        assertEquals(concepts(expected), concepts(observed));
+        assertEquals(edges(expected), edges(observed));
+        assertEquals(edges(observed).size(), 2 * observed.order());
+    }
+
+    private static Set<Concept> concepts(final ConceptLattice lattice) {
+        Set<Concept> concepts = new HashSet<Concept>();
+        for (Concept concept : lattice) {
+            concepts.add(concept);
+        }
+        return concepts;
+    }
+
+    private static Set<List<Concept>> edges(final ConceptLattice lattice) {
+        Set<List<Concept>> edges = new HashSet<List<Concept>>();
+        for (Vertex vertex : lattice.asGraph(new TinkerGraph()).getVertices()) {
+            for (Edge edge : vertex.getEdges(Direction.OUT)) {
+                Concept source = vertex.getProperty("label");
+                Concept target = edge.getVertex(Direction.IN).getProperty("label");
+                edges.add(Arrays.asList(source, target));
+            }
+        }
+        return edges;
+    }
+}
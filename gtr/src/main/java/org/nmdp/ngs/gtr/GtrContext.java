@@ -0,0 +1,180 @@
+/*
+
+    ngs-gtr  Mapping for GTR XSDs.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.gtr;
+
+import java.net.URL;
+
+import javax.xml.XMLConstants;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+
+import javax.xml.stream.XMLInputFactory;
+
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+
+import org.nmdp.ngs.gtr.jaxb.GTRPublicData;
+
+import org.xml.sax.SAXException;
+
+/**
+ * Shared cache of the JAXB context and compiled schema for GTR public data xml, with per-thread pooled
+ * unmarshallers and marshallers.
+ *
+ * <p>
+ * JAXB contexts and compiled schemas are thread safe and expensive to create, so they are created once
+ * on first use.  Unmarshallers and marshallers are cheap to create from a context but are not thread safe,
+ * so each thread reuses its own.
+ * </p>
+ */
+final class GtrContext {
+    /** Schema resource. */
+    static final String SCHEMA = "/org/nmdp/ngs/gtr/xsd/GTRPublicData.xsd";
+
+    /** Cached JAXB context, guarded by class lock. */
+    private static JAXBContext context;
+
+    /** Cached compiled schema, guarded by class lock. */
+    private static Schema schema;
+
+    /** Per-thread unmarshaller. */
+    private static final ThreadLocal<Unmarshaller> UNMARSHALLER = new ThreadLocal<Unmarshaller>();
+
+    /** Per-thread marshaller. */
+    private static final ThreadLocal<Marshaller> MARSHALLER = new ThreadLocal<Marshaller>();
+
+    /** Per-thread non-validating record unmarshaller. */
+    private static final ThreadLocal<Unmarshaller> RECORD_UNMARSHALLER = new ThreadLocal<Unmarshaller>();
+
+    /** Per-thread StAX input factory. */
+    private static final ThreadLocal<XMLInputFactory> XML_INPUT_FACTORY = new ThreadLocal<XMLInputFactory>();
+
+
+    /**
+     * Private no-arg constructor.
+     */
+    private GtrContext() {
+        // empty
+    }
+
+
+    /**
+     * Return the shared JAXB context for GTR public data xml.
+     *
+     * @return the shared JAXB context for GTR public data xml
+     * @throws JAXBException if the JAXB context could not be created
+     */
+    static synchronized JAXBContext context() throws JAXBException {
+        if (context == null) {
+            context = JAXBContext.newInstance(GTRPublicData.class);
+        }
+        return context;
+    }
+
+    /**
+     * Return the shared compiled schema for GTR public data xml.
+     *
+     * @return the shared compiled schema for GTR public data xml
+     * @throws SAXException if the schema could not be compiled
+     */
+    static synchronized Schema schema() throws SAXException {
+        if (schema == null) {
+            SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+            URL schemaURL = GtrContext.class.getResource(SCHEMA);
+            schema = schemaFactory.newSchema(schemaURL);
+        }
+        return schema;
+    }
+
+    /**
+     * Return the validating unmarshaller for GTR public data xml for the current thread.
+     *
+     * @return the validating unmarshaller for GTR public data xml for the current thread
+     * @throws JAXBException if the unmarshaller could not be created
+     * @throws SAXException if the schema could not be compiled
+     */
+    static Unmarshaller unmarshaller() throws JAXBException, SAXException {
+        Unmarshaller unmarshaller = UNMARSHALLER.get();
+        if (unmarshaller == null) {
+            unmarshaller = context().createUnmarshaller();
+            unmarshaller.setSchema(schema());
+            UNMARSHALLER.set(unmarshaller);
+        }
+        return unmarshaller;
+    }
+
+    /**
+     * Return the validating, formatting marshaller for GTR public data xml for the current thread.
+     *
+     * @return the validating, formatting marshaller for GTR public data xml for the current thread
+     * @throws JAXBException if the marshaller could not be created
+     * @throws SAXException if the schema could not be compiled
+     */
+    static Marshaller marshaller() throws JAXBException, SAXException {
+        Marshaller marshaller = MARSHALLER.get();
+        if (marshaller == null) {
+            marshaller = context().createMarshaller();
+            marshaller.setSchema(schema());
+            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+            MARSHALLER.set(marshaller);
+        }
+        return marshaller;
+    }
+
+    /**
+     * Return the non-validating unmarshaller for GTR public data records for the current thread.  The
+     * GTR public data schema only declares the <code>GTRPublicData</code> root element globally, so
+     * records unmarshalled on their own can not be validated against it.
+     *
+     * @return the non-validating unmarshaller for GTR public data records for the current thread
+     * @throws JAXBException if the unmarshaller could not be created
+     */
+    static Unmarshaller recordUnmarshaller() throws JAXBException {
+        Unmarshaller unmarshaller = RECORD_UNMARSHALLER.get();
+        if (unmarshaller == null) {
+            unmarshaller = context().createUnmarshaller();
+            RECORD_UNMARSHALLER.set(unmarshaller);
+        }
+        return unmarshaller;
+    }
+
+    /**
+     * Return the StAX input factory for GTR public data xml for the current thread.  DTDs and external
+     * entities are not supported.
+     *
+     * @return the StAX input factory for GTR public data xml for the current thread
+     */
+    static XMLInputFactory xmlInputFactory() {
+        XMLInputFactory xmlInputFactory = XML_INPUT_FACTORY.get();
+        if (xmlInputFactory == null) {
+            xmlInputFactory = XMLInputFactory.newInstance();
+            xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            XML_INPUT_FACTORY.set(xmlInputFactory);
+        }
+        return xmlInputFactory;
+    }
+}
@@ -0,0 +1,575 @@
+/*
+
+    ngs-gtr  Mapping for GTR XSDs.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.gtr;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import java.nio.charset.Charset;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.bind.JAXBException;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.google.common.base.Charsets;
+
+import org.nmdp.ngs.gtr.jaxb.GTRPublicData.GTRLabData.GTRLabTest;
+
+/**
+ * On-disk index of the lab tests in a GTR public data export by GTR accession.
+ *
+ * <p>
+ * Building an index scans the export once at the byte level, without parsing, and records the byte
+ * offset and length of each <code>GTRLabTest</code> element.  Lookups then seek to a single lab test
+ * and unmarshal only that element.  The index file records the length and last modified time of the
+ * export, so that an out of date index is detected when it is read.  Lab tests read from the index
+ * are not validated against the GTR public data schema.
+ * </p>
+ *
+ * <p>
+ * Index lookups are thread safe.  Indexes hold the export open for reading once the first lookup
+ * is made and should be closed when no longer needed.
+ * </p>
+ */
+public final class GtrIndex implements Closeable {
+    /** Index file magic number, <code>GTRI</code>. */
+    private static final int MAGIC = 0x47545249;
+
+    /** Index file format version. */
+    private static final int VERSION = 1;
+
+    /** Lab test element name. */
+    private static final String LAB_TEST = "GTRLabTest";
+
+    /** GTR accession attribute pattern. */
+    private static final Pattern ACCESSION = Pattern.compile("(?:^|\\s)GTRAccession\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)')");
+
+    /** XML declaration encoding pattern. */
+    private static final Pattern ENCODING = Pattern.compile("^xml\\s.*encoding\\s*=\\s*[\"']([A-Za-z0-9._-]+)[\"']");
+
+    /** GTR public data export. */
+    private final File file;
+
+    /** Character encoding of the export. */
+    private final Charset charset;
+
+    /** GTR accessions, sorted. */
+    private final String[] accessions;
+
+    /** Byte offsets of lab test elements, in accession order. */
+    private final long[] offsets;
+
+    /** Byte lengths of lab test elements, in accession order. */
+    private final int[] lengths;
+
+    /** Random access file for lookups, guarded by this. */
+    private RandomAccessFile randomAccessFile;
+
+
+    /**
+     * Create a new GTR index.
+     *
+     * @param file GTR public data export
+     * @param charset character encoding of the export
+     * @param accessions GTR accessions, sorted
+     * @param offsets byte offsets of lab test elements, in accession order
+     * @param lengths byte lengths of lab test elements, in accession order
+     */
+    private GtrIndex(final File file, final Charset charset, final String[] accessions, final long[] offsets, final int[] lengths) {
+        this.file = file;
+        this.charset = charset;
+        this.accessions = accessions;
+        this.offsets = offsets;
+        this.lengths = lengths;
+    }
+
+
+    /**
+     * Return the number of lab tests in this index.
+     *
+     * @return the number of lab tests in this index
+     */
+    public int size() {
+        return accessions.length;
+    }
+
+    /**
+     * Return the GTR accessions in this index, sorted.
+     *
+     * @return the GTR accessions in this index, sorted
+     */
+    public List<String> accessions() {
+        return Collections.unmodifiableList(Arrays.asList(accessions));
+    }
+
+    /**
+     * Return true if this index contains a lab test with the specified GTR accession.
+     *
+     * @param accession GTR accession, must not be null
+     * @return true if this index contains a lab test with the specified GTR accession
+     */
+    public boolean contains(final String accession) {
+        checkNotNull(accession);
+        return Arrays.binarySearch(accessions, accession) >= 0;
+    }
+
+    /**
+     * Return the lab test with the specified GTR accession, if any.
+     *
+     * @param accession GTR accession, must not be null
+     * @return the lab test with the specified GTR accession, or <code>null</code> if this index
+     *    does not contain a lab test with the specified GTR accession
+     * @throws IOException if an I/O error occurs
+     */
+    public GTRLabTest get(final String accession) throws IOException {
+        checkNotNull(accession);
+        int i = Arrays.binarySearch(accessions, accession);
+        if (i < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[lengths[i]];
+        synchronized (this) {
+            if (randomAccessFile == null) {
+                randomAccessFile = new RandomAccessFile(file, "r");
+            }
+            randomAccessFile.seek(offsets[i]);
+            randomAccessFile.readFully(bytes);
+        }
+
+        XMLStreamReader xmlStreamReader = null;
+        try {
+            xmlStreamReader = GtrContext.xmlInputFactory().createXMLStreamReader(new InputStreamReader(new ByteArrayInputStream(bytes), charset));
+            xmlStreamReader.nextTag();
+            return GtrContext.recordUnmarshaller().unmarshal(xmlStreamReader, GTRLabTest.class).getValue();
+        }
+        catch (XMLStreamException | JAXBException e) {
+            throw new IOException("could not unmarshal GTRLabTest " + accession + ", index may be out of date", e);
+        }
+        finally {
+            GtrReader.close(xmlStreamReader);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (randomAccessFile != null) {
+            randomAccessFile.close();
+            randomAccessFile = null;
+        }
+    }
+
+
+    /**
+     * Build an index of the lab tests in the specified GTR public data export and write it to the specified index file.
+     * Lab tests without a GTR accession are not indexed.  If a GTR accession is repeated, only the first lab test
+     * with that accession is indexed.
+     *
+     * @param file GTR public data export, must not be null
+     * @param indexFile index file to write, must not be null
+     * @return the index of the lab tests in the specified GTR public data export
+     * @throws IOException if an I/O error occurs
+     */
+    public static GtrIndex build(final File file, final File indexFile) throws IOException {
+        checkNotNull(file);
+        checkNotNull(indexFile);
+
+        // stat before scanning, so that changes during the scan make the index out of date
+        long length = file.length();
+        long lastModified = file.lastModified();
+        List<Entry> entries = new ArrayList<Entry>();
+        Charset charset;
+        try (InputStream inputStream = new FileInputStream(file)) {
+            charset = scan(new Scanner(inputStream), entries);
+        }
+
+        // stable sort, so the first of any repeated accessions comes first
+        Collections.sort(entries, new Comparator<Entry>() {
+                @Override
+                public int compare(final Entry entry0, final Entry entry1) {
+                    return entry0.accession.compareTo(entry1.accession);
+                }
+            });
+        List<Entry> distinct = new ArrayList<Entry>(entries.size());
+        for (Entry entry : entries) {
+            if (distinct.isEmpty() || !distinct.get(distinct.size() - 1).accession.equals(entry.accession)) {
+                distinct.add(entry);
+            }
+        }
+
+        int size = distinct.size();
+        String[] accessions = new String[size];
+        long[] offsets = new long[size];
+        int[] lengths = new int[size];
+        try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile)))) {
+            outputStream.writeInt(MAGIC);
+            outputStream.writeInt(VERSION);
+            outputStream.writeLong(length);
+            outputStream.writeLong(lastModified);
+            outputStream.writeUTF(charset.name());
+            outputStream.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                Entry entry = distinct.get(i);
+                accessions[i] = entry.accession;
+                offsets[i] = entry.offset;
+                lengths[i] = entry.length;
+                outputStream.writeUTF(entry.accession);
+                outputStream.writeLong(entry.offset);
+                outputStream.writeInt(entry.length);
+            }
+        }
+        return new GtrIndex(file, charset, accessions, offsets, lengths);
+    }
+
+    /**
+     * Read an index of the lab tests in the specified GTR public data export from the specified index file.
+     *
+     * @param file GTR public data export, must not be null
+     * @param indexFile index file to read, must not be null
+     * @return the index of the lab tests in the specified GTR public data export
+     * @throws IOException if an I/O error occurs, or if the index file is not valid or is out of date
+     */
+    public static GtrIndex read(final File file, final File indexFile) throws IOException {
+        checkNotNull(file);
+        checkNotNull(indexFile);
+        try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (inputStream.readInt() != MAGIC || inputStream.readInt() != VERSION) {
+                throw new IOException("could not read GTR index " + indexFile + ", not a valid index file");
+            }
+            if (inputStream.readLong() != file.length() || inputStream.readLong() != file.lastModified()) {
+                throw new IOException("could not read GTR index " + indexFile + ", index is out of date");
+            }
+            Charset charset = Charset.forName(inputStream.readUTF());
+            int size = inputStream.readInt();
+            String[] accessions = new String[size];
+            long[] offsets = new long[size];
+            int[] lengths = new int[size];
+            for (int i = 0; i < size; i++) {
+                accessions[i] = inputStream.readUTF();
+                offsets[i] = inputStream.readLong();
+                lengths[i] = inputStream.readInt();
+            }
+            return new GtrIndex(file, charset, accessions, offsets, lengths);
+        }
+    }
+
+    /**
+     * Open an index of the lab tests in the specified GTR public data export, reading it from the specified
+     * index file if that is up to date, or otherwise building it and writing it to the specified index file.
+     *
+     * @param file GTR public data export, must not be null
+     * @param indexFile index file, must not be null
+     * @return the index of the lab tests in the specified GTR public data export
+     * @throws IOException if an I/O error occurs
+     */
+    public static GtrIndex open(final File file, final File indexFile) throws IOException {
+        checkNotNull(file);
+        checkNotNull(indexFile);
+        if (indexFile.exists()) {
+            try {
+                return read(file, indexFile);
+            }
+            catch (IOException e) {
+                // rebuild
+            }
+        }
+        return build(file, indexFile);
+    }
+
+    /**
+     * Scan the specified GTR public data export for lab test elements.
+     *
+     * @param scanner scanner over the export
+     * @param entries list of entries to add to
+     * @return the character encoding of the export
+     * @throws IOException if an I/O error occurs
+     */
+    private static Charset scan(final Scanner scanner, final List<Entry> entries) throws IOException {
+        Charset charset = Charsets.UTF_8;
+        StringBuilder sb = new StringBuilder(256);
+        String accession = null;
+        long start = -1L;
+        int c;
+        while ((c = scanner.read()) != -1) {
+            if (c != '<') {
+                continue;
+            }
+            long tagStart = scanner.position() - 1L;
+            c = scanner.read();
+            if (c == '!') {
+                c = scanner.read();
+                if (c == '-') {
+                    scanner.skipPast("-->");
+                }
+                else if (c == '[') {
+                    scanner.skipPast("]]>");
+                }
+                else {
+                    scanner.skipTag();
+                }
+            }
+            else if (c == '?') {
+                sb.setLength(0);
+                scanner.readPast("?>", sb);
+                if (tagStart == 0L) {
+                    Matcher matcher = ENCODING.matcher(sb);
+                    if (matcher.find()) {
+                        charset = Charset.forName(matcher.group(1));
+                        if (charset.name().startsWith("UTF-16") || charset.name().startsWith("UTF-32")) {
+                            throw new IOException("could not index GTR public data, " + charset + " encoding is not supported");
+                        }
+                    }
+                }
+            }
+            else if (c == '/') {
+                sb.setLength(0);
+                c = scanner.readName(sb);
+                if (c != '>') {
+                    scanner.skipTag();
+                }
+                if (start >= 0L && LAB_TEST.contentEquals(sb)) {
+                    if (accession != null) {
+                        entries.add(new Entry(accession, start, scanner.position() - start));
+                    }
+                    start = -1L;
+                }
+            }
+            else if (c != -1) {
+                sb.setLength(0);
+                sb.append((char) c);
+                c = scanner.readName(sb);
+                if (LAB_TEST.contentEquals(sb)) {
+                    sb.setLength(0);
+                    if (c == '/') {
+                        sb.append('/');
+                    }
+                    if (c != '>') {
+                        scanner.readTag(sb);
+                    }
+                    Matcher matcher = ACCESSION.matcher(sb);
+                    accession = matcher.find() ? (matcher.group(1) != null ? matcher.group(1) : matcher.group(2)) : null;
+                    boolean empty = sb.length() > 0 && sb.charAt(sb.length() - 1) == '/';
+                    if (empty) {
+                        if (accession != null) {
+                            entries.add(new Entry(accession, tagStart, scanner.position() - tagStart));
+                        }
+                    }
+                    else {
+                        start = tagStart;
+                    }
+                }
+                else if (c != '>') {
+                    scanner.skipTag();
+                }
+            }
+        }
+        return charset;
+    }
+
+    /**
+     * Index entry.
+     */
+    private static final class Entry {
+        private final String accession;
+        private final long offset;
+        private final int length;
+
+        Entry(final String accession, final long offset, final long length) {
+            if (length > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("lab test " + accession + " is too long to index");
+            }
+            this.accession = accession;
+            this.offset = offset;
+            this.length = (int) length;
+        }
+    }
+
+    /**
+     * Buffered byte scanner that tracks its position.
+     */
+    private static final class Scanner {
+        private final InputStream inputStream;
+        private final byte[] buffer = new byte[65536];
+        private int index = 0;
+        private int limit = 0;
+        private long position = 0L;
+
+        Scanner(final InputStream inputStream) {
+            this.inputStream = inputStream;
+        }
+
+        /**
+         * Return the position of the next byte.
+         *
+         * @return the position of the next byte
+         */
+        long position() {
+            return position;
+        }
+
+        /**
+         * Read the next byte.
+         *
+         * @return the next byte, or <code>-1</code> at the end of the stream
+         * @throws IOException if an I/O error occurs
+         */
+        int read() throws IOException {
+            if (index == limit) {
+                limit = inputStream.read(buffer, 0, buffer.length);
+                index = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            position++;
+            return buffer[index++] & 0xff;
+        }
+
+        /**
+         * Read a name into the specified string builder, returning the byte that ended it.
+         *
+         * @param sb string builder
+         * @return the byte that ended the name, or <code>-1</code> at the end of the stream
+         * @throws IOException if an I/O error occurs
+         */
+        int readName(final StringBuilder sb) throws IOException {
+            int c;
+            while ((c = read()) != -1) {
+                if (c == '>' || c == '/' || c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+                    return c;
+                }
+                sb.append((char) c);
+            }
+            return c;
+        }
+
+        /**
+         * Read the remainder of a tag into the specified string builder, up to but not including the
+         * closing <code>&gt;</code>, ignoring <code>&gt;</code> in quoted attribute values.
+         *
+         * @param sb string builder
+         * @throws IOException if an I/O error occurs
+         */
+        void readTag(final StringBuilder sb) throws IOException {
+            int quote = -1;
+            int c;
+            while ((c = read()) != -1) {
+                if (quote == -1) {
+                    if (c == '>') {
+                        return;
+                    }
+                    if (c == '"' || c == '\'') {
+                        quote = c;
+                    }
+                }
+                else if (c == quote) {
+                    quote = -1;
+                }
+                sb.append((char) c);
+            }
+        }
+
+        /**
+         * Skip the remainder of a tag, up to and including the closing <code>&gt;</code>,
+         * ignoring <code>&gt;</code> in quoted attribute values.
+         *
+         * @throws IOException if an I/O error occurs
+         */
+        void skipTag() throws IOException {
+            int quote = -1;
+            int c;
+            while ((c = read()) != -1) {
+                if (quote == -1) {
+                    if (c == '>') {
+                        return;
+                    }
+                    if (c == '"' || c == '\'') {
+                        quote = c;
+                    }
+                }
+                else if (c == quote) {
+                    quote = -1;
+                }
+            }
+        }
+
+        /**
+         * Skip past the specified terminator.
+         *
+         * @param terminator terminator
+         * @throws IOException if an I/O error occurs
+         */
+        void skipPast(final String terminator) throws IOException {
+            readPast(terminator, null);
+        }
+
+        /**
+         * Read past the specified terminator, appending bytes before it to the specified string builder, if any.
+         *
+         * @param terminator terminator
+         * @param sb string builder, if any
+         * @throws IOException if an I/O error occurs
+         */
+        void readPast(final String terminator, final StringBuilder sb) throws IOException {
+            int last = terminator.charAt(terminator.length() - 1);
+            int n = terminator.length();
+            StringBuilder window = new StringBuilder(n);
+            int c;
+            while ((c = read()) != -1) {
+                window.append((char) c);
+                if (window.length() > n) {
+                    if (sb != null) {
+                        sb.append(window.charAt(0));
+                    }
+                    window.deleteCharAt(0);
+                }
+                if (c == last && window.length() == n && terminator.contentEquals(window)) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -26,33 +26,43 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.net.URL;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.IOException;
 import java.io.Reader;
 
-import javax.xml.XMLConstants;
-
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
 
-import javax.xml.validation.Schema;
-import javax.xml.validation.SchemaFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import com.google.common.base.Charsets;
 
 import com.google.common.io.Resources;
 
+import org.nmdp.ngs.gtr.jaxb.GTROrgType;
 import org.nmdp.ngs.gtr.jaxb.GTRPublicData;
+import org.nmdp.ngs.gtr.jaxb.GTRPublicData.GTRLabData.GTRLabTest;
 
 import org.xml.sax.SAXException;
 
 /**
  * Reader for GTR public data xml.
+ *
+ * <p>
+ * The <code>read</code> methods unmarshal and validate an entire GTR public data export into memory.
+ * The <code>stream</code> methods walk the export with StAX and unmarshal one lab and one lab test at
+ * a time, so that memory use is proportional to the largest lab test rather than to the whole export.
+ * Streamed records are not validated against the GTR public data schema, which only declares the root
+ * element globally.  See {@link GtrIndex} for lookup of single lab tests by accession.
+ * </p>
  */
 public final class GtrReader {
 
@@ -74,14 +84,7 @@ public final class GtrReader {
     public static GTRPublicData read(final Reader reader) throws IOException {
         checkNotNull(reader);
         try {
-            // todo:  may want to cache some of this for performance reasons
-            JAXBContext context = JAXBContext.newInstance(GTRPublicData.class);
-            Unmarshaller unmarshaller = context.createUnmarshaller();
-            SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-            URL schemaURL = GtrReader.class.getResource("/org/nmdp/ngs/gtr/xsd/GTRPublicData.xsd");
-            Schema schema = schemaFactory.newSchema(schemaURL);
-            unmarshaller.setSchema(schema);
-            return (GTRPublicData) unmarshaller.unmarshal(reader);
+            return (GTRPublicData) GtrContext.unmarshaller().unmarshal(reader);
         }
         catch (JAXBException | SAXException e) {
             throw new IOException("could not unmarshal GTRPublicData", e);
@@ -129,4 +132,153 @@ public final class GtrReader {
             return read(reader);
         }
     }
+
+
+    /**
+     * Stream the lab tests in the GTR public data read from the specified reader to the specified lab test listener.
+     * Labs are unmarshalled once and passed to the listener with each of their lab tests; research tests are skipped.
+     *
+     * @param reader reader to stream from, must not be null
+     * @param listener lab test listener, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public static void stream(final Reader reader, final GtrLabTestListener listener) throws IOException {
+        checkNotNull(reader);
+        checkNotNull(listener);
+        XMLStreamReader xmlStreamReader = null;
+        try {
+            xmlStreamReader = GtrContext.xmlInputFactory().createXMLStreamReader(reader);
+            stream(xmlStreamReader, listener);
+        }
+        catch (XMLStreamException e) {
+            throw new IOException("could not stream GTRPublicData", e);
+        }
+        finally {
+            close(xmlStreamReader);
+        }
+    }
+
+    /**
+     * Stream the lab tests in the GTR public data read from the specified file to the specified lab test listener.
+     * Labs are unmarshalled once and passed to the listener with each of their lab tests; research tests are skipped.
+     *
+     * @param file file to stream from, must not be null
+     * @param listener lab test listener, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public static void stream(final File file, final GtrLabTestListener listener) throws IOException {
+        checkNotNull(file);
+        checkNotNull(listener);
+        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file))) {
+            stream(inputStream, listener);
+        }
+    }
+
+    /**
+     * Stream the lab tests in the GTR public data read from the specified URL to the specified lab test listener.
+     * Labs are unmarshalled once and passed to the listener with each of their lab tests; research tests are skipped.
+     *
+     * @param url URL to stream from, must not be null
+     * @param listener lab test listener, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public static void stream(final URL url, final GtrLabTestListener listener) throws IOException {
+        checkNotNull(url);
+        checkNotNull(listener);
+        try (InputStream inputStream = new BufferedInputStream(url.openStream())) {
+            stream(inputStream, listener);
+        }
+    }
+
+    /**
+     * Stream the lab tests in the GTR public data read from the specified input stream to the specified lab test listener.
+     * Labs are unmarshalled once and passed to the listener with each of their lab tests; research tests are skipped.
+     *
+     * @param inputStream input stream to stream from, must not be null
+     * @param listener lab test listener, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public static void stream(final InputStream inputStream, final GtrLabTestListener listener) throws IOException {
+        checkNotNull(inputStream);
+        checkNotNull(listener);
+        XMLStreamReader xmlStreamReader = null;
+        try {
+            xmlStreamReader = GtrContext.xmlInputFactory().createXMLStreamReader(inputStream);
+            stream(xmlStreamReader, listener);
+        }
+        catch (XMLStreamException e) {
+            throw new IOException("could not stream GTRPublicData", e);
+        }
+        finally {
+            close(xmlStreamReader);
+        }
+    }
+
+    /**
+     * Stream the lab tests in the GTR public data read from the specified XML stream reader to the specified lab test listener.
+     *
+     * @param xmlStreamReader XML stream reader positioned at the start of the document
+     * @param listener lab test listener
+     * @throws IOException if an I/O error occurs
+     * @throws XMLStreamException if the xml is not well formed
+     */
+    private static void stream(final XMLStreamReader xmlStreamReader, final GtrLabTestListener listener) throws IOException, XMLStreamException {
+        xmlStreamReader.nextTag();
+        if (!"GTRPublicData".equals(xmlStreamReader.getLocalName())) {
+            throw new IOException("could not stream GTRPublicData, expected GTRPublicData root element but found " + xmlStreamReader.getLocalName());
+        }
+        try {
+            Unmarshaller unmarshaller = GtrContext.recordUnmarshaller();
+            GTROrgType lab = null;
+            int depth = 1;
+            xmlStreamReader.next();
+            while (depth > 0) {
+                int event = xmlStreamReader.getEventType();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    // unmarshal leaves the stream reader at the event following the end element
+                    if (depth == 2 && "GTRLab".equals(xmlStreamReader.getLocalName())) {
+                        lab = unmarshaller.unmarshal(xmlStreamReader, GTROrgType.class).getValue();
+                        continue;
+                    }
+                    if (depth == 2 && "GTRLabTest".equals(xmlStreamReader.getLocalName())) {
+                        GTRLabTest labTest = unmarshaller.unmarshal(xmlStreamReader, GTRLabTest.class).getValue();
+                        if (!listener.labTest(lab, labTest)) {
+                            return;
+                        }
+                        continue;
+                    }
+                    depth++;
+                }
+                else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                    if (depth == 1) {
+                        lab = null;
+                    }
+                }
+                if (depth > 0) {
+                    xmlStreamReader.next();
+                }
+            }
+        }
+        catch (JAXBException e) {
+            throw new IOException("could not unmarshal GTRLabTest", e);
+        }
+    }
+
+    /**
+     * Close the specified XML stream reader, if any, ignoring errors.  This does not close the
+     * underlying source.
+     *
+     * @param xmlStreamReader XML stream reader to close, if any
+     */
+    static void close(final XMLStreamReader xmlStreamReader) {
+        if (xmlStreamReader != null) {
+            try {
+                xmlStreamReader.close();
+            }
+            catch (XMLStreamException e) {
+                // ignore
+            }
+        }
+    }
 }
@@ -24,8 +24,6 @@ package org.nmdp.ngs.gtr;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import java.net.URL;
-
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
@@ -34,14 +32,7 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 
-import javax.xml.XMLConstants;
-
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
-
-import javax.xml.validation.Schema;
-import javax.xml.validation.SchemaFactory;
 
 import org.nmdp.ngs.gtr.jaxb.GTRPublicData;
 
@@ -72,15 +63,7 @@ public final class GtrWriter {
         checkNotNull(writer);
 
         try {
-            // todo:  may want to cache some of this for performance reasons
-            JAXBContext context = JAXBContext.newInstance(GTRPublicData.class);
-            Marshaller marshaller = context.createMarshaller();
-            SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-            URL schemaURL = GtrReader.class.getResource("/org/nmdp/ngs/gtr/xsd/GTRPublicData.xsd");
-            Schema schema = schemaFactory.newSchema(schemaURL);
-            marshaller.setSchema(schema);
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-            marshaller.marshal(data, writer);
+            GtrContext.marshaller().marshal(data, writer);
         }
         catch (JAXBException | SAXException e) {
             throw new IOException("could not marshal GTRPublicData", e);
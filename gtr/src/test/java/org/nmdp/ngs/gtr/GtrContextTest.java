@@ -0,0 +1,117 @@
+/*
+
+    ngs-gtr  Mapping for GTR XSDs.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.gtr;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.InputStream;
+
+import java.util.List;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.bind.Unmarshaller;
+
+import com.google.common.collect.Lists;
+
+import org.nmdp.ngs.gtr.jaxb.GTRPublicData;
+
+import org.junit.Test;
+
+/**
+ * Unit test for GtrContext.
+ */
+public final class GtrContextTest {
+
+    @Test
+    public void testContext() throws Exception {
+        assertNotNull(GtrContext.context());
+        assertSame(GtrContext.context(), GtrContext.context());
+    }
+
+    @Test
+    public void testSchema() throws Exception {
+        assertNotNull(GtrContext.schema());
+        assertSame(GtrContext.schema(), GtrContext.schema());
+    }
+
+    @Test
+    public void testUnmarshaller() throws Exception {
+        assertNotNull(GtrContext.unmarshaller());
+        assertSame(GtrContext.unmarshaller(), GtrContext.unmarshaller());
+        assertSame(GtrContext.schema(), GtrContext.unmarshaller().getSchema());
+    }
+
+    @Test
+    public void testMarshaller() throws Exception {
+        assertNotNull(GtrContext.marshaller());
+        assertSame(GtrContext.marshaller(), GtrContext.marshaller());
+        assertSame(GtrContext.schema(), GtrContext.marshaller().getSchema());
+    }
+
+    @Test
+    public void testUnmarshallerPerThread() throws Exception {
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            Unmarshaller other = executorService.submit(new Callable<Unmarshaller>() {
+                    @Override
+                    public Unmarshaller call() throws Exception {
+                        return GtrContext.unmarshaller();
+                    }
+                }).get();
+            assertNotSame(GtrContext.unmarshaller(), other);
+        }
+        finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testConcurrentUnmarshal() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<GTRPublicData>> futures = Lists.newArrayList();
+            for (int i = 0; i < 32; i++) {
+                futures.add(executorService.submit(new Callable<GTRPublicData>() {
+                        @Override
+                        public GTRPublicData call() throws Exception {
+                            try (InputStream inputStream = getClass().getResourceAsStream("/org/nmdp/ngs/gtr/gtr-minimal.xml")) {
+                                return (GTRPublicData) GtrContext.unmarshaller().unmarshal(inputStream);
+                            }
+                        }
+                    }));
+            }
+            for (Future<GTRPublicData> future : futures) {
+                assertNotNull(future.get());
+            }
+        }
+        finally {
+            executorService.shutdown();
+        }
+    }
+}
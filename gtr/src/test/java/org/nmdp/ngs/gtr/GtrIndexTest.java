@@ -0,0 +1,232 @@
+/*
+
+    ngs-gtr  Mapping for GTR XSDs.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.gtr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import static org.nmdp.ngs.gtr.GtrIndex.build;
+import static org.nmdp.ngs.gtr.GtrIndex.open;
+import static org.nmdp.ngs.gtr.GtrIndex.read;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.base.Charsets;
+
+import com.google.common.io.Files;
+import com.google.common.io.Resources;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.nmdp.ngs.gtr.jaxb.GTROrgType;
+import org.nmdp.ngs.gtr.jaxb.GTRPublicData.GTRLabData.GTRLabTest;
+
+/**
+ * Unit test for GtrIndex.
+ */
+public final class GtrIndexTest {
+    private File file;
+    private File indexFile;
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile("gtrIndexTest", ".xml");
+        Files.write(Resources.toByteArray(getClass().getResource("gtr-example.xml")), file);
+        indexFile = File.createTempFile("gtrIndexTest", ".idx");
+        indexFile.delete();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        file.delete();
+        indexFile.delete();
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testBuildNullFile() throws Exception {
+        build(null, indexFile);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testBuildNullIndexFile() throws Exception {
+        build(file, null);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testReadNullFile() throws Exception {
+        read(null, indexFile);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testReadNullIndexFile() throws Exception {
+        read(file, null);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testOpenNullFile() throws Exception {
+        open(null, indexFile);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testOpenNullIndexFile() throws Exception {
+        open(file, null);
+    }
+
+    @Test
+    public void testBuild() throws Exception {
+        try (GtrIndex index = build(file, indexFile)) {
+            assertTrue(indexFile.exists());
+            validate(index);
+        }
+    }
+
+    @Test
+    public void testRead() throws Exception {
+        build(file, indexFile).close();
+        try (GtrIndex index = read(file, indexFile)) {
+            validate(index);
+        }
+    }
+
+    @Test(expected=IOException.class)
+    public void testReadMissingIndexFile() throws Exception {
+        read(file, indexFile);
+    }
+
+    @Test(expected=IOException.class)
+    public void testReadInvalidIndexFile() throws Exception {
+        Files.write("not an index", indexFile, Charsets.UTF_8);
+        read(file, indexFile);
+    }
+
+    @Test(expected=IOException.class)
+    public void testReadOutOfDateIndexFile() throws Exception {
+        build(file, indexFile).close();
+        Files.append("\n", file, Charsets.UTF_8);
+        read(file, indexFile);
+    }
+
+    @Test
+    public void testOpen() throws Exception {
+        try (GtrIndex index = open(file, indexFile)) {
+            assertTrue(indexFile.exists());
+            validate(index);
+        }
+        try (GtrIndex index = open(file, indexFile)) {
+            validate(index);
+        }
+    }
+
+    @Test
+    public void testOpenOutOfDateIndexFile() throws Exception {
+        build(file, indexFile).close();
+        Files.append("\n", file, Charsets.UTF_8);
+        try (GtrIndex index = open(file, indexFile)) {
+            validate(index);
+        }
+        read(file, indexFile).close();
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testContainsNullAccession() throws Exception {
+        try (GtrIndex index = build(file, indexFile)) {
+            index.contains(null);
+        }
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testGetNullAccession() throws Exception {
+        try (GtrIndex index = build(file, indexFile)) {
+            index.get(null);
+        }
+    }
+
+    @Test
+    public void testGetMissingAccession() throws Exception {
+        try (GtrIndex index = build(file, indexFile)) {
+            assertFalse(index.contains("GTR000000000"));
+            assertNull(index.get("GTR000000000"));
+        }
+    }
+
+    @Test
+    public void testBuildMinimal() throws Exception {
+        Files.write(Resources.toByteArray(getClass().getResource("gtr-minimal.xml")), file);
+        try (GtrIndex index = build(file, indexFile)) {
+            assertEquals(0, index.size());
+        }
+    }
+
+    @Test
+    public void testBuildCommentsEmptyElementsAndDuplicates() throws Exception {
+        Files.write("<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>\n"
+                    + "<GTRPublicData Version=\"1.0\">\n"
+                    + "  <!-- <GTRLabTest GTRAccession=\"GTR000000001\"> -->\n"
+                    + "  <GTRLabData>\n"
+                    + "    <GTRLabTest GTRAccession='GTR000000003' Version=\"1\" note=\"a > b\"/>\n"
+                    + "    <GTRLabTest GTRAccession=\"GTR000000002\" Version=\"1\"><![CDATA[</GTRLabTest>]]></GTRLabTest>\n"
+                    + "    <GTRLabTest GTRAccession=\"GTR000000002\" Version=\"2\"/>\n"
+                    + "    <GTRLabTestNot GTRAccession=\"GTR000000004\"/>\n"
+                    + "    <GTRLabTest Version=\"1\"/>\n"
+                    + "  </GTRLabData>\n"
+                    + "</GTRPublicData>\n", file, Charsets.ISO_8859_1);
+
+        try (GtrIndex index = build(file, indexFile)) {
+            assertEquals(2, index.size());
+            assertEquals("GTR000000002", index.accessions().get(0));
+            assertEquals("GTR000000003", index.accessions().get(1));
+            assertEquals("GTR000000003", index.get("GTR000000003").getGTRAccession());
+            assertEquals("1", index.get("GTR000000002").getVersion().toString());
+        }
+    }
+
+    private void validate(final GtrIndex index) throws IOException {
+        final List<GTRLabTest> labTests = new ArrayList<GTRLabTest>();
+        GtrReader.stream(file, new GtrLabTestListener() {
+                @Override
+                public boolean labTest(final GTROrgType lab, final GTRLabTest labTest) {
+                    labTests.add(labTest);
+                    return true;
+                }
+            });
+
+        assertEquals(labTests.size(), index.size());
+        for (GTRLabTest labTest : labTests) {
+            assertTrue(index.contains(labTest.getGTRAccession()));
+            GTRLabTest indexed = index.get(labTest.getGTRAccession());
+            assertNotNull(indexed);
+            assertEquals(labTest.getGTRAccession(), indexed.getGTRAccession());
+            assertEquals(labTest.getId(), indexed.getId());
+            assertEquals(labTest.getTestName(), indexed.getTestName());
+        }
+    }
+}
@@ -24,8 +24,10 @@ package org.nmdp.ngs.gtr;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import static org.nmdp.ngs.gtr.GtrReader.read;
+import static org.nmdp.ngs.gtr.GtrReader.stream;
 
 import java.net.URL;
 
@@ -33,13 +35,19 @@ import java.io.File;
 import java.io.InputStream;
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import com.google.common.io.Files;
 import com.google.common.io.Resources;
 
 import org.junit.Test;
 
+import org.nmdp.ngs.gtr.jaxb.GTROrgType;
 import org.nmdp.ngs.gtr.jaxb.GTRPublicData;
+import org.nmdp.ngs.gtr.jaxb.GTRPublicData.GTRLabData.GTRLabTest;
 
 /**
  * Unit test for GtrReader.
@@ -96,6 +104,111 @@ public final class GtrReaderTest {
         validate(read(createInputStream("gtr-example.xml")));
     }
 
+    @Test(expected=NullPointerException.class)
+    public void testStreamNullReader() throws Exception {
+        stream((Reader) null, new Collect());
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testStreamNullFile() throws Exception {
+        stream((File) null, new Collect());
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testStreamNullURL() throws Exception {
+        stream((URL) null, new Collect());
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testStreamNullInputStream() throws Exception {
+        stream((InputStream) null, new Collect());
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testStreamNullListener() throws Exception {
+        stream(createFile("gtr-example.xml"), null);
+    }
+
+    @Test
+    public void testStreamFile() throws Exception {
+        validate(collect(createFile("gtr-example.xml")));
+    }
+
+    @Test
+    public void testStreamURL() throws Exception {
+        Collect collect = new Collect();
+        stream(createURL("gtr-example.xml"), collect);
+        validate(collect);
+    }
+
+    @Test
+    public void testStreamInputStream() throws Exception {
+        Collect collect = new Collect();
+        stream(createInputStream("gtr-example.xml"), collect);
+        validate(collect);
+    }
+
+    @Test
+    public void testStreamMinimalFile() throws Exception {
+        assertEquals(0, collect(createFile("gtr-minimal.xml")).labTests.size());
+    }
+
+    @Test
+    public void testStreamStop() throws Exception {
+        final List<GTRLabTest> labTests = new ArrayList<GTRLabTest>();
+        stream(createFile("gtr-example.xml"), new GtrLabTestListener() {
+                @Override
+                public boolean labTest(final GTROrgType lab, final GTRLabTest labTest) {
+                    labTests.add(labTest);
+                    return false;
+                }
+            });
+        assertEquals(1, labTests.size());
+    }
+
+    @Test(expected=IOException.class)
+    public void testStreamEmptyFile() throws Exception {
+        collect(createFile("empty.xml"));
+    }
+
+    @Test(expected=IOException.class)
+    public void testStreamInvalidSyntaxFile() throws Exception {
+        collect(createFile("invalid-syntax.xml"));
+    }
+
+    @Test(expected=IOException.class)
+    public void testStreamWrongRootElement() throws Exception {
+        stream(new StringReader("<GTRLabData/>"), new Collect());
+    }
+
+    private static Collect collect(final File file) throws IOException {
+        Collect collect = new Collect();
+        stream(file, collect);
+        return collect;
+    }
+
+    private static void validate(final Collect collect) {
+        assertEquals(3, collect.labTests.size());
+        for (int i = 0; i < collect.labTests.size(); i++) {
+            assertNotNull(collect.labs.get(i));
+            assertEquals("PreventionGenetics", collect.labs.get(i).getOrganization().getName());
+            assertNotNull(collect.labTests.get(i).getGTRAccession());
+            assertTrue(collect.labTests.get(i).getGTRAccession().startsWith("GTR"));
+        }
+    }
+
+    static final class Collect implements GtrLabTestListener {
+        final List<GTROrgType> labs = new ArrayList<GTROrgType>();
+        final List<GTRLabTest> labTests = new ArrayList<GTRLabTest>();
+
+        @Override
+        public boolean labTest(final GTROrgType lab, final GTRLabTest labTest) {
+            labs.add(lab);
+            labTests.add(labTest);
+            return true;
+        }
+    }
+
     private static void validate(final GTRPublicData data) {
         assertNotNull(data);
         assertEquals("1.0", data.getVersion());
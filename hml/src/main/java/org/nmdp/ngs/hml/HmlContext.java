@@ -0,0 +1,181 @@
+/*
+
+    ngs-hml  Mapping for HML XSDs.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.hml;
+
+import java.net.URL;
+
+import javax.xml.XMLConstants;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+
+import org.nmdp.ngs.hml.jaxb.Hml;
+
+import org.xml.sax.SAXException;
+
+/**
+ * Shared cache of the JAXB context and compiled schema for HML xml, with per-thread pooled
+ * unmarshallers and marshallers.
+ *
+ * <p>
+ * JAXB contexts and compiled schemas are thread safe and expensive to create, so they are created once
+ * on first use.  Unmarshallers and marshallers are cheap to create from a context but are not thread safe,
+ * so each thread reuses its own.
+ * </p>
+ */
+final class HmlContext {
+    /** Schema resource. */
+    static final String SCHEMA = "/org/nmdp/ngs/hml/xsd/hml-1.0.1.xsd";
+
+    /** HML namespace. */
+    static final String NAMESPACE = "http://schemas.nmdp.org/spec/hml/1.0.1";
+
+    /** Cached JAXB context, guarded by class lock. */
+    private static JAXBContext context;
+
+    /** Cached compiled schema, guarded by class lock. */
+    private static Schema schema;
+
+    /** Per-thread unmarshaller. */
+    private static final ThreadLocal<Unmarshaller> UNMARSHALLER = new ThreadLocal<Unmarshaller>();
+
+    /** Per-thread marshaller. */
+    private static final ThreadLocal<Marshaller> MARSHALLER = new ThreadLocal<Marshaller>();
+
+    /** Per-thread StAX input factory. */
+    private static final ThreadLocal<XMLInputFactory> XML_INPUT_FACTORY = new ThreadLocal<XMLInputFactory>();
+
+    /** Per-thread StAX output factory. */
+    private static final ThreadLocal<XMLOutputFactory> XML_OUTPUT_FACTORY = new ThreadLocal<XMLOutputFactory>();
+
+
+    /**
+     * Private no-arg constructor.
+     */
+    private HmlContext() {
+        // empty
+    }
+
+
+    /**
+     * Return the shared JAXB context for HML xml.
+     *
+     * @return the shared JAXB context for HML xml
+     * @throws JAXBException if the JAXB context could not be created
+     */
+    static synchronized JAXBContext context() throws JAXBException {
+        if (context == null) {
+            context = JAXBContext.newInstance(Hml.class);
+        }
+        return context;
+    }
+
+    /**
+     * Return the shared compiled schema for HML xml.
+     *
+     * @return the shared compiled schema for HML xml
+     * @throws SAXException if the schema could not be compiled
+     */
+    static synchronized Schema schema() throws SAXException {
+        if (schema == null) {
+            SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+            URL schemaURL = HmlContext.class.getResource(SCHEMA);
+            schema = schemaFactory.newSchema(schemaURL);
+        }
+        return schema;
+    }
+
+    /**
+     * Return the validating unmarshaller for HML xml for the current thread.
+     *
+     * @return the validating unmarshaller for HML xml for the current thread
+     * @throws JAXBException if the unmarshaller could not be created
+     * @throws SAXException if the schema could not be compiled
+     */
+    static Unmarshaller unmarshaller() throws JAXBException, SAXException {
+        Unmarshaller unmarshaller = UNMARSHALLER.get();
+        if (unmarshaller == null) {
+            unmarshaller = context().createUnmarshaller();
+            unmarshaller.setSchema(schema());
+            UNMARSHALLER.set(unmarshaller);
+        }
+        return unmarshaller;
+    }
+
+    /**
+     * Return the validating, formatting marshaller for HML xml for the current thread.
+     *
+     * @return the validating, formatting marshaller for HML xml for the current thread
+     * @throws JAXBException if the marshaller could not be created
+     * @throws SAXException if the schema could not be compiled
+     */
+    static Marshaller marshaller() throws JAXBException, SAXException {
+        Marshaller marshaller = MARSHALLER.get();
+        if (marshaller == null) {
+            marshaller = context().createMarshaller();
+            marshaller.setSchema(schema());
+            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+            MARSHALLER.set(marshaller);
+        }
+        return marshaller;
+    }
+
+    /**
+     * Return the StAX input factory for HML xml for the current thread.  DTDs and external
+     * entities are not supported.
+     *
+     * @return the StAX input factory for HML xml for the current thread
+     */
+    static XMLInputFactory xmlInputFactory() {
+        XMLInputFactory xmlInputFactory = XML_INPUT_FACTORY.get();
+        if (xmlInputFactory == null) {
+            xmlInputFactory = XMLInputFactory.newInstance();
+            xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            XML_INPUT_FACTORY.set(xmlInputFactory);
+        }
+        return xmlInputFactory;
+    }
+
+    /**
+     * Return the StAX output factory for HML xml for the current thread.
+     *
+     * @return the StAX output factory for HML xml for the current thread
+     */
+    static XMLOutputFactory xmlOutputFactory() {
+        XMLOutputFactory xmlOutputFactory = XML_OUTPUT_FACTORY.get();
+        if (xmlOutputFactory == null) {
+            xmlOutputFactory = XMLOutputFactory.newInstance();
+            XML_OUTPUT_FACTORY.set(xmlOutputFactory);
+        }
+        return xmlOutputFactory;
+    }
+}
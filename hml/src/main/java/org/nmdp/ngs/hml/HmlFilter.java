@@ -0,0 +1,206 @@
+/*
+
+    ngs-hml  Mapping for HML XSDs.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.hml;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.namespace.QName;
+
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLStreamException;
+
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+
+import com.google.common.base.Predicate;
+
+/**
+ * Streaming filter for HML xml.
+ *
+ * <p>
+ * Filtering copies StAX events from input to output without binding them to JAXB objects,
+ * so memory use is constant regardless of the size of the document.  Unlike {@link HmlReader#read(Reader)}
+ * and {@link HmlReader#stream(Reader, SampleListener)}, the input is not validated against the HML schema.
+ * </p>
+ */
+public final class HmlFilter {
+    /** HML element name. */
+    private static final QName HML = new QName(HmlContext.NAMESPACE, "hml");
+
+    /** Sample element name. */
+    private static final QName SAMPLE = new QName(HmlContext.NAMESPACE, "sample");
+
+    /** Sample id attribute name. */
+    private static final QName ID = new QName("id");
+
+
+    /**
+     * Private no-arg constructor.
+     */
+    private HmlFilter() {
+        // empty
+    }
+
+
+    /**
+     * Filter the samples in the HML read from the specified reader by sample id, writing the HML
+     * with only the accepted samples to the specified writer.  All other xml, including comments
+     * and whitespace, is copied as is.  Since HML requires at least one sample, nothing is written
+     * if no samples are accepted.
+     *
+     * @param reader reader to read from, must not be null
+     * @param writer writer to write to, must not be null
+     * @param sampleIds sample id predicate, must not be null
+     * @return the number of samples written
+     * @throws IOException if an I/O error occurs
+     */
+    public static int filterSamples(final Reader reader, final Writer writer, final Predicate<String> sampleIds) throws IOException {
+        checkNotNull(reader);
+        checkNotNull(writer);
+        checkNotNull(sampleIds);
+
+        XMLEventReader eventReader = null;
+        XMLEventWriter eventWriter = null;
+        try {
+            eventReader = HmlContext.xmlInputFactory().createXMLEventReader(reader);
+            eventWriter = HmlContext.xmlOutputFactory().createXMLEventWriter(writer);
+
+            // events are held until the first sample is accepted, then written directly
+            List<XMLEvent> pending = new ArrayList<XMLEvent>();
+            // whitespace between top level elements is held so that it can be dropped with a sample
+            List<XMLEvent> whitespace = new ArrayList<XMLEvent>();
+            int samples = 0;
+            int depth = 0;
+            while (eventReader.hasNext()) {
+                XMLEvent event = eventReader.nextEvent();
+                if (depth == 1 && event.isCharacters() && event.asCharacters().isWhiteSpace()) {
+                    whitespace.add(event);
+                    continue;
+                }
+                if (event.isStartElement()) {
+                    StartElement startElement = event.asStartElement();
+                    if (depth == 0 && !HML.equals(startElement.getName())) {
+                        throw new IOException("could not filter HML, expected hml root element but found " + startElement.getName());
+                    }
+                    if (depth == 1 && SAMPLE.equals(startElement.getName())) {
+                        Attribute id = startElement.getAttributeByName(ID);
+                        if (id == null || !sampleIds.apply(id.getValue())) {
+                            whitespace.clear();
+                            skip(eventReader);
+                            continue;
+                        }
+                        if (samples == 0) {
+                            for (XMLEvent e : pending) {
+                                eventWriter.add(e);
+                            }
+                            pending = null;
+                        }
+                        samples++;
+                    }
+                    depth++;
+                }
+                else if (event.isEndElement()) {
+                    depth--;
+                }
+
+                for (XMLEvent e : whitespace) {
+                    add(e, pending, eventWriter);
+                }
+                whitespace.clear();
+                add(event, pending, eventWriter);
+            }
+            if (samples > 0) {
+                eventWriter.flush();
+            }
+            return samples;
+        }
+        catch (XMLStreamException e) {
+            throw new IOException("could not filter HML", e);
+        }
+        finally {
+            if (eventReader != null) {
+                try {
+                    eventReader.close();
+                }
+                catch (XMLStreamException e) {
+                    // ignore
+                }
+            }
+            // does not close the underlying writer
+            if (eventWriter != null) {
+                try {
+                    eventWriter.close();
+                }
+                catch (XMLStreamException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    /**
+     * Add the specified event to the list of pending events, if any, otherwise write it.
+     *
+     * @param event event to add
+     * @param pending list of pending events, if any
+     * @param eventWriter event writer
+     * @throws XMLStreamException if an error occurs
+     */
+    private static void add(final XMLEvent event, final List<XMLEvent> pending, final XMLEventWriter eventWriter) throws XMLStreamException {
+        if (pending == null) {
+            eventWriter.add(event);
+        }
+        else {
+            pending.add(event);
+        }
+    }
+
+    /**
+     * Skip events from the specified event reader up to and including the end element matching
+     * the start element just read.
+     *
+     * @param eventReader event reader
+     * @throws XMLStreamException if an error occurs
+     */
+    private static void skip(final XMLEventReader eventReader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            XMLEvent event = eventReader.nextEvent();
+            if (event.isStartElement()) {
+                depth++;
+            }
+            else if (event.isEndElement()) {
+                depth--;
+            }
+        }
+    }
+}
@@ -26,33 +26,40 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.net.URL;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.IOException;
 import java.io.Reader;
 
-import javax.xml.XMLConstants;
-
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
 
-import javax.xml.validation.Schema;
-import javax.xml.validation.SchemaFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import com.google.common.base.Charsets;
 
 import com.google.common.io.Resources;
 
 import org.nmdp.ngs.hml.jaxb.Hml;
+import org.nmdp.ngs.hml.jaxb.Sample;
 
 import org.xml.sax.SAXException;
 
 /**
  * Reader for HML xml.
+ *
+ * <p>
+ * The <code>read</code> methods unmarshal an entire HML document into memory.  The <code>stream</code>
+ * methods walk the document with StAX and unmarshal and validate one <code>sample</code> element at a time,
+ * so that memory use is proportional to the largest sample rather than to the whole document.
+ * </p>
  */
 public final class HmlReader {
 
@@ -73,18 +80,17 @@ public final class HmlReader {
      */
     public static Hml read(final Reader reader) throws IOException {
         checkNotNull(reader);
+        Object root;
         try {
-            JAXBContext context = JAXBContext.newInstance(Hml.class);
-            Unmarshaller unmarshaller = context.createUnmarshaller();
-            SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-            URL schemaURL = HmlReader.class.getResource("/org/nmdp/ngs/hml/xsd/hml-1.0.1.xsd");
-            Schema schema = schemaFactory.newSchema(schemaURL);
-            unmarshaller.setSchema(schema);
-            return (Hml) unmarshaller.unmarshal(reader);
+            root = HmlContext.unmarshaller().unmarshal(reader);
         }
         catch (JAXBException | SAXException e) {
             throw new IOException("could not unmarshal HML", e);
         }
+        if (!(root instanceof Hml)) {
+            throw new IOException("could not unmarshal HML, root element is not hml");
+        }
+        return (Hml) root;
     }
 
     /**
@@ -128,4 +134,167 @@ public final class HmlReader {
             return read(reader);
         }
     }
+
+
+    /**
+     * Stream the samples in the HML read from the specified reader to the specified sample listener.
+     * Each sample is validated against the HML schema as it is unmarshalled; elements outside of
+     * samples are not unmarshalled.
+     *
+     * @param reader reader to stream from, must not be null
+     * @param listener sample listener, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public static void stream(final Reader reader, final SampleListener listener) throws IOException {
+        checkNotNull(reader);
+        checkNotNull(listener);
+        XMLStreamReader xmlStreamReader = null;
+        try {
+            xmlStreamReader = HmlContext.xmlInputFactory().createXMLStreamReader(reader);
+            stream(xmlStreamReader, listener);
+        }
+        catch (XMLStreamException e) {
+            throw new IOException("could not stream HML", e);
+        }
+        finally {
+            close(xmlStreamReader);
+        }
+    }
+
+    /**
+     * Stream the samples in the HML read from the specified file to the specified sample listener.
+     * Each sample is validated against the HML schema as it is unmarshalled; elements outside of
+     * samples are not unmarshalled.
+     *
+     * @param file file to stream from, must not be null
+     * @param listener sample listener, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public static void stream(final File file, final SampleListener listener) throws IOException {
+        checkNotNull(file);
+        checkNotNull(listener);
+        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file))) {
+            stream(inputStream, listener);
+        }
+    }
+
+    /**
+     * Stream the samples in the HML read from the specified URL to the specified sample listener.
+     * Each sample is validated against the HML schema as it is unmarshalled; elements outside of
+     * samples are not unmarshalled.
+     *
+     * @param url URL to stream from, must not be null
+     * @param listener sample listener, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public static void stream(final URL url, final SampleListener listener) throws IOException {
+        checkNotNull(url);
+        checkNotNull(listener);
+        try (InputStream inputStream = new BufferedInputStream(url.openStream())) {
+            stream(inputStream, listener);
+        }
+    }
+
+    /**
+     * Stream the samples in the HML read from the specified input stream to the specified sample listener.
+     * Each sample is validated against the HML schema as it is unmarshalled; elements outside of
+     * samples are not unmarshalled.  The character encoding is taken from the xml declaration, if any.
+     *
+     * @param inputStream input stream to stream from, must not be null
+     * @param listener sample listener, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public static void stream(final InputStream inputStream, final SampleListener listener) throws IOException {
+        checkNotNull(inputStream);
+        checkNotNull(listener);
+        XMLStreamReader xmlStreamReader = null;
+        try {
+            xmlStreamReader = HmlContext.xmlInputFactory().createXMLStreamReader(inputStream);
+            stream(xmlStreamReader, listener);
+        }
+        catch (XMLStreamException e) {
+            throw new IOException("could not stream HML", e);
+        }
+        finally {
+            close(xmlStreamReader);
+        }
+    }
+
+    /**
+     * Stream the samples in the HML read from the specified XML stream reader to the specified sample listener.
+     *
+     * @param xmlStreamReader XML stream reader positioned at the start of the document
+     * @param listener sample listener
+     * @throws IOException if an I/O error occurs
+     * @throws XMLStreamException if the HML is not well formed
+     */
+    private static void stream(final XMLStreamReader xmlStreamReader, final SampleListener listener) throws IOException, XMLStreamException {
+        xmlStreamReader.nextTag();
+        if (!isElement(xmlStreamReader, "hml")) {
+            throw new IOException("could not stream HML, expected hml root element but found " + xmlStreamReader.getName());
+        }
+        try {
+            Unmarshaller unmarshaller = HmlContext.unmarshaller();
+            int samples = 0;
+            int depth = 1;
+            xmlStreamReader.next();
+            while (depth > 0) {
+                int event = xmlStreamReader.getEventType();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    if (depth == 1 && isElement(xmlStreamReader, "sample")) {
+                        // leaves the stream reader at the event following the sample end element
+                        Sample sample = unmarshaller.unmarshal(xmlStreamReader, Sample.class).getValue();
+                        samples++;
+                        if (!listener.sample(sample)) {
+                            return;
+                        }
+                        continue;
+                    }
+                    depth++;
+                }
+                else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                }
+                if (depth > 0) {
+                    xmlStreamReader.next();
+                }
+            }
+            if (samples == 0) {
+                throw new IOException("could not stream HML, expected at least one sample element");
+            }
+        }
+        catch (JAXBException | SAXException e) {
+            throw new IOException("could not stream HML", e);
+        }
+    }
+
+    /**
+     * Return true if the specified XML stream reader is positioned at an element in the HML
+     * namespace with the specified local name.
+     *
+     * @param xmlStreamReader XML stream reader
+     * @param localName local name
+     * @return true if the specified XML stream reader is positioned at an element in the HML
+     *    namespace with the specified local name
+     */
+    private static boolean isElement(final XMLStreamReader xmlStreamReader, final String localName) {
+        return localName.equals(xmlStreamReader.getLocalName()) && HmlContext.NAMESPACE.equals(xmlStreamReader.getNamespaceURI());
+    }
+
+    /**
+     * Close the specified XML stream reader, if any, ignoring errors.  This does not close the
+     * underlying source.
+     *
+     * @param xmlStreamReader XML stream reader to close, if any
+     */
+    private static void close(final XMLStreamReader xmlStreamReader) {
+        if (xmlStreamReader != null) {
+            try {
+                xmlStreamReader.close();
+            }
+            catch (XMLStreamException e) {
+                // ignore
+            }
+        }
+    }
 }
@@ -58,6 +58,26 @@ import org.nmdp.ngs.hml.jaxb.Sequence;
  * Static utility methods for creating HML model classes.
  */
 public final class HmlUtils {
+    /** Marker for whitespace in the DNA symbol table. */
+    private static final char WHITESPACE = ' ';
+
+    /** DNA symbol table, mapping IUPAC DNA symbols to lower case and whitespace to the whitespace marker. */
+    private static final char[] DNA = new char[128];
+
+    static {
+        for (char c : "acgtnrykmswbdhv-".toCharArray()) {
+            DNA[c] = c;
+            DNA[Character.toUpperCase(c)] = c;
+        }
+        // biojava also parses '.' and '~' as gaps and 'x' as any
+        DNA['.'] = '-';
+        DNA['~'] = '~';
+        DNA['x'] = 'n';
+        DNA['X'] = 'n';
+        for (char c : " \t\n\u000B\f\r".toCharArray()) {
+            DNA[c] = WHITESPACE;
+        }
+    }
 
     /**
      * Private no-arg constructor.
@@ -170,4 +190,32 @@ public final class HmlUtils {
         checkNotNull(sequence);
         return DNATools.createDNA(sequence.getValue().replaceAll("\\s+", ""));
     }
+
+    /**
+     * Convert the specified HML Sequence element into a lower case IUPAC DNA string, with whitespace removed.
+     * Equivalent to <code>toDnaSymbolList(sequence).seqString()</code> without the intermediate regular expression
+     * replacement and symbol list.
+     *
+     * @param sequence HML Sequence element, must not be null
+     * @return the specified HML Sequence element converted into a lower case IUPAC DNA string
+     * @throws IllegalSymbolException if an illegal symbol is found
+     */
+    public static String toDnaString(final Sequence sequence) throws IllegalSymbolException {
+        checkNotNull(sequence);
+        String value = sequence.getValue();
+        int length = value.length();
+        char[] dna = new char[length];
+        int n = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            char symbol = c < DNA.length ? DNA[c] : 0;
+            if (symbol == 0) {
+                throw new IllegalSymbolException("illegal DNA symbol '" + c + "' at position " + i);
+            }
+            if (symbol != WHITESPACE) {
+                dna[n++] = symbol;
+            }
+        }
+        return new String(dna, 0, n);
+    }
 }
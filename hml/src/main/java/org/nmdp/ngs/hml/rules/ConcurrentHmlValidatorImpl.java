@@ -0,0 +1,114 @@
+/*
+
+    ngs-hml  Mapping for HML XSDs.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.hml.rules;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import com.google.common.collect.ImmutableSet;
+
+import org.nmdp.ngs.hml.HmlValidationException;
+import org.nmdp.ngs.hml.HmlValidationRule;
+import org.nmdp.ngs.hml.HmlValidator;
+
+import org.nmdp.ngs.hml.jaxb.Hml;
+
+/**
+ * HML validator implementation that evaluates independent validation rules concurrently.
+ *
+ * <p>
+ * Validation rules must not modify the HML document.  If more than one validation rule fails,
+ * the exception from the first failing rule in iteration order is thrown, as in the sequential
+ * implementation.  The executor service should not be the same one used to run this validator,
+ * or validation may deadlock waiting for rules queued behind it.
+ * </p>
+ */
+final class ConcurrentHmlValidatorImpl implements HmlValidator {
+    private final Set<HmlValidationRule> validationRules;
+    private final ExecutorService executorService;
+
+
+    /**
+     * Create a new concurrent HML validator with the specified validation rules.
+     *
+     * @param validationRules set of validation rules, must not be null
+     * @param executorService executor service, must not be null
+     */
+    ConcurrentHmlValidatorImpl(final Set<HmlValidationRule> validationRules, final ExecutorService executorService) {
+        checkNotNull(validationRules);
+        checkNotNull(executorService);
+        this.validationRules = ImmutableSet.copyOf(validationRules);
+        this.executorService = executorService;
+    }
+
+
+    @Override
+    public boolean validate(final Hml hml) throws HmlValidationException {
+        checkNotNull(hml);
+        if (validationRules.size() < 2) {
+            for (HmlValidationRule validationRule : validationRules) {
+                validationRule.validate(hml);
+            }
+            return true;
+        }
+
+        List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>(validationRules.size());
+        for (final HmlValidationRule validationRule : validationRules) {
+            futures.add(executorService.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() throws HmlValidationException {
+                        return validationRule.validate(hml);
+                    }
+                }));
+        }
+        try {
+            for (Future<Boolean> future : futures) {
+                future.get();
+            }
+            return true;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HmlValidationException("interrupted while validating HML", e);
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof HmlValidationException) {
+                throw (HmlValidationException) e.getCause();
+            }
+            throw new HmlValidationException("could not validate HML", e.getCause());
+        }
+        finally {
+            for (Future<Boolean> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+}
@@ -26,6 +26,8 @@ import static org.nmdp.ngs.hml.HmlUtils.getHmlid;
 
 import java.util.Set;
 
+import java.util.concurrent.ExecutorService;
+
 import com.google.common.collect.ImmutableSet;
 
 import org.nmdp.ngs.hml.HmlValidationException;
@@ -76,4 +78,16 @@ public final class HmlValidationRules {
     public static HmlValidator miring() {
         return new HmlValidatorImpl(miringRules());
     }
+
+    /**
+     * Return an HML validator based on the set of HML validation rules that implement the MIRING specification,
+     * evaluating the rules concurrently with the specified executor service.
+     *
+     * @param executorService executor service, must not be null
+     * @return an HML validator based on the set of HML validation rules that implement the MIRING specification,
+     *    evaluating the rules concurrently with the specified executor service
+     */
+    public static HmlValidator miring(final ExecutorService executorService) {
+        return new ConcurrentHmlValidatorImpl(miringRules(), executorService);
+    }
 }
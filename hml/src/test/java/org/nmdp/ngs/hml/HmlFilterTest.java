@@ -0,0 +1,144 @@
+/*
+
+    ngs-hml  Mapping for HML XSDs.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.hml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import static org.nmdp.ngs.hml.HmlFilter.filterSamples;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
+
+import com.google.common.collect.ImmutableSet;
+
+import com.google.common.io.Resources;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.nmdp.ngs.hml.jaxb.Hml;
+
+/**
+ * Unit test for HmlFilter.
+ */
+public final class HmlFilterTest {
+    private Writer writer;
+    private Predicate<String> sampleIds;
+
+    @Before
+    public void setUp() {
+        writer = new StringWriter();
+        sampleIds = Predicates.alwaysTrue();
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testFilterSamplesNullReader() throws Exception {
+        filterSamples(null, writer, sampleIds);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testFilterSamplesNullWriter() throws Exception {
+        filterSamples(createReader("samples.xml"), null, sampleIds);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testFilterSamplesNullSampleIds() throws Exception {
+        filterSamples(createReader("samples.xml"), writer, null);
+    }
+
+    @Test
+    public void testFilterSamplesAll() throws Exception {
+        assertEquals(3, filterSamples(createReader("samples.xml"), writer, sampleIds));
+        Hml hml = HmlReader.read(new StringReader(writer.toString()));
+        assertEquals(3, hml.getSample().size());
+    }
+
+    @Test
+    public void testFilterSamplesNone() throws Exception {
+        assertEquals(0, filterSamples(createReader("samples.xml"), writer, Predicates.<String>alwaysFalse()));
+        assertEquals("", writer.toString());
+    }
+
+    @Test
+    public void testFilterSamplesFirst() throws Exception {
+        assertEquals(1, filterSamples(createReader("samples.xml"), writer, Predicates.in(ImmutableSet.of("123456789"))));
+        Hml hml = HmlReader.read(new StringReader(writer.toString()));
+        assertEquals(1, hml.getSample().size());
+        assertEquals("123456789", hml.getSample().get(0).getId());
+    }
+
+    @Test
+    public void testFilterSamplesSubset() throws Exception {
+        assertEquals(2, filterSamples(createReader("samples.xml"), writer, Predicates.in(ImmutableSet.of("223456789", "323456789", "missing"))));
+        Hml hml = HmlReader.read(new StringReader(writer.toString()));
+        assertEquals(2, hml.getSample().size());
+        assertEquals("223456789", hml.getSample().get(0).getId());
+        assertEquals("323456789", hml.getSample().get(1).getId());
+        assertEquals("789", hml.getReportingCenter().getReportingCenterId());
+    }
+
+    @Test
+    public void testFilterSamplesCopiesComments() throws Exception {
+        filterSamples(createReader("samples.xml"), writer, Predicates.in(ImmutableSet.of("323456789")));
+        String output = writer.toString();
+        assertTrue(output.contains("<!-- NOTE: This is a brief example"));
+        assertTrue(output.contains("<!-- glstring using a URI reference: -->"));
+        assertTrue(output.contains("id=\"323456789\""));
+        assertFalse(output.contains("id=\"123456789\""));
+    }
+
+    @Test
+    public void testFilterSamplesDoesNotBindSamples() throws Exception {
+        // invalid samples are copied or dropped without schema validation
+        assertEquals(1, filterSamples(createReader("invalid-sample.xml"), writer, Predicates.in(ImmutableSet.of("123456789"))));
+        HmlReader.read(new StringReader(writer.toString()));
+    }
+
+    @Test(expected=IOException.class)
+    public void testFilterSamplesEmpty() throws Exception {
+        filterSamples(createReader("empty.xml"), writer, sampleIds);
+    }
+
+    @Test(expected=IOException.class)
+    public void testFilterSamplesInvalidSyntax() throws Exception {
+        filterSamples(createReader("invalid-syntax.xml"), writer, sampleIds);
+    }
+
+    @Test(expected=IOException.class)
+    public void testFilterSamplesNotHml() throws Exception {
+        filterSamples(new StringReader("<?xml version=\"1.0\"?><foo/>"), writer, sampleIds);
+    }
+
+    private static Reader createReader(final String name) throws IOException {
+        return new StringReader(Resources.toString(HmlFilterTest.class.getResource(name), Charsets.UTF_8));
+    }
+}
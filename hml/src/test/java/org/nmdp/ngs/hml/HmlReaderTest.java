@@ -22,9 +22,12 @@
 */
 package org.nmdp.ngs.hml;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
 
 import static org.nmdp.ngs.hml.HmlReader.read;
+import static org.nmdp.ngs.hml.HmlReader.stream;
 
 import java.net.URL;
 
@@ -32,6 +35,12 @@ import java.io.File;
 import java.io.InputStream;
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.base.Charsets;
 
 import com.google.common.io.Files;
 import com.google.common.io.Resources;
@@ -39,6 +48,7 @@ import com.google.common.io.Resources;
 import org.junit.Test;
 
 import org.nmdp.ngs.hml.jaxb.Hml;
+import org.nmdp.ngs.hml.jaxb.Sample;
 
 /**
  * Unit test for HmlReader.
@@ -85,6 +95,11 @@ public final class HmlReaderTest {
         read(createFile("invalid-schema.xml"));
     }
 
+    @Test(expected=IOException.class)
+    public void testReadSampleRootFile() throws Exception {
+        read(createFile("sample-root.xml"));
+    }
+
     @Test
     public void testReadURL() throws Exception {
         validate(read(createURL("hml-example.xml")));
@@ -95,6 +110,173 @@ public final class HmlReaderTest {
         validate(read(createInputStream("hml-example.xml")));
     }
 
+    @Test
+    public void testReadAfterInvalidSchema() throws Exception {
+        try {
+            read(createInputStream("invalid-schema.xml"));
+        }
+        catch (IOException e) {
+            // expected
+        }
+        validate(read(createInputStream("hml-example.xml")));
+    }
+
+
+    @Test(expected=NullPointerException.class)
+    public void testStreamNullReader() throws Exception {
+        stream((Reader) null, new Collect());
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testStreamNullFile() throws Exception {
+        stream((File) null, new Collect());
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testStreamNullURL() throws Exception {
+        stream((URL) null, new Collect());
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testStreamNullInputStream() throws Exception {
+        stream((InputStream) null, new Collect());
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testStreamNullListener() throws Exception {
+        stream(createInputStream("hml-example.xml"), null);
+    }
+
+    @Test
+    public void testStreamFile() throws Exception {
+        Collect collect = new Collect();
+        stream(createFile("hml-example.xml"), collect);
+        assertEquals(1, collect.samples.size());
+        assertEquals("123456789", collect.samples.get(0).getId());
+    }
+
+    @Test
+    public void testStreamURL() throws Exception {
+        Collect collect = new Collect();
+        stream(createURL("samples.xml"), collect);
+        assertEquals(3, collect.samples.size());
+    }
+
+    @Test
+    public void testStreamInputStream() throws Exception {
+        Collect collect = new Collect();
+        stream(createInputStream("samples.xml"), collect);
+        assertEquals(3, collect.samples.size());
+        assertEquals("123456789", collect.samples.get(0).getId());
+        assertEquals("223456789", collect.samples.get(1).getId());
+        assertEquals("323456789", collect.samples.get(2).getId());
+    }
+
+    @Test
+    public void testStreamReader() throws Exception {
+        Collect collect = new Collect();
+        stream(new StringReader(Resources.toString(createURL("samples.xml"), Charsets.UTF_8)), collect);
+        assertEquals(3, collect.samples.size());
+    }
+
+    @Test
+    public void testStreamMatchesRead() throws Exception {
+        Collect collect = new Collect();
+        stream(createInputStream("hml-example.xml"), collect);
+        Sample expected = read(createInputStream("hml-example.xml")).getSample().get(0);
+        Sample observed = collect.samples.get(0);
+        assertEquals(expected.getId(), observed.getId());
+        assertEquals(expected.getCenterCode(), observed.getCenterCode());
+        assertEquals(expected.getTyping().size(), observed.getTyping().size());
+        assertEquals(expected.getTyping().get(0).getConsensusSequence().get(0).getConsensusSequenceBlock().size(),
+                     observed.getTyping().get(0).getConsensusSequence().get(0).getConsensusSequenceBlock().size());
+    }
+
+    @Test
+    public void testStreamStop() throws Exception {
+        final List<Sample> samples = new ArrayList<Sample>();
+        stream(createInputStream("samples.xml"), new SampleListener() {
+                @Override
+                public boolean sample(final Sample sample) {
+                    samples.add(sample);
+                    return samples.size() < 2;
+                }
+            });
+        assertEquals(2, samples.size());
+    }
+
+    @Test
+    public void testStreamInvalidSample() throws Exception {
+        Collect collect = new Collect();
+        try {
+            stream(createInputStream("invalid-sample.xml"), collect);
+            fail("expected IOException");
+        }
+        catch (IOException e) {
+            // expected
+        }
+        assertEquals(1, collect.samples.size());
+    }
+
+    @Test(expected=IOException.class)
+    public void testStreamEmptyFile() throws Exception {
+        stream(createFile("empty.xml"), new Collect());
+    }
+
+    @Test(expected=IOException.class)
+    public void testStreamInvalidSyntaxFile() throws Exception {
+        stream(createFile("invalid-syntax.xml"), new Collect());
+    }
+
+    @Test(expected=IOException.class)
+    public void testStreamInvalidSchemaFile() throws Exception {
+        stream(createFile("invalid-schema.xml"), new Collect());
+    }
+
+    @Test
+    public void testStreamAfterInvalidSample() throws Exception {
+        try {
+            stream(createInputStream("invalid-sample.xml"), new Collect());
+        }
+        catch (IOException e) {
+            // expected
+        }
+        Collect collect = new Collect();
+        stream(createInputStream("samples.xml"), collect);
+        assertEquals(3, collect.samples.size());
+    }
+
+
+    // methods for benchmarking
+    protected static final int N = 1000;
+
+    @Test
+    public void testReadMany() throws Exception {
+        for (int i = 0; i < N; i++) {
+            validate(read(createInputStream("hml-example.xml")));
+        }
+    }
+
+    @Test
+    public void testStreamMany() throws Exception {
+        for (int i = 0; i < N; i++) {
+            stream(createInputStream("hml-example.xml"), new Collect());
+        }
+    }
+
+    /**
+     * Sample listener that collects samples.
+     */
+    private static final class Collect implements SampleListener {
+        private final List<Sample> samples = new ArrayList<Sample>();
+
+        @Override
+        public boolean sample(final Sample sample) {
+            samples.add(sample);
+            return true;
+        }
+    }
+
     private static void validate(final Hml data) {
         assertNotNull(data);
     }
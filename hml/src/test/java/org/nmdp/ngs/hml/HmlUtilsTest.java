@@ -29,6 +29,7 @@ import static org.junit.Assert.assertTrue;
 import static org.nmdp.ngs.hml.HmlUtils.createSequence;
 import static org.nmdp.ngs.hml.HmlUtils.createSequences;
 import static org.nmdp.ngs.hml.HmlUtils.getHmlid;
+import static org.nmdp.ngs.hml.HmlUtils.toDnaString;
 import static org.nmdp.ngs.hml.HmlUtils.toDnaSymbolList;
 
 import java.net.URL;
@@ -149,6 +150,69 @@ public final class HmlUtilsTest {
         assertEquals("actg", toDnaSymbolList(sequence).seqString());
     }
 
+    @Test(expected=NullPointerException.class)
+    public void testToDnaStringNullSequence() throws Exception {
+        toDnaString(null);
+    }
+
+    @Test(expected=IllegalSymbolException.class)
+    public void testToDnaStringIllegalSymbol() throws Exception {
+        Sequence sequence = new Sequence();
+        sequence.setValue("1234");
+        toDnaString(sequence);
+    }
+
+    @Test(expected=IllegalSymbolException.class)
+    public void testToDnaStringIllegalNonAsciiSymbol() throws Exception {
+        Sequence sequence = new Sequence();
+        sequence.setValue("ac\u00e9tg");
+        toDnaString(sequence);
+    }
+
+    @Test
+    public void testToDnaString() throws Exception {
+        Sequence sequence = new Sequence();
+        sequence.setValue("actg");
+        assertEquals("actg", toDnaString(sequence));
+    }
+
+    @Test
+    public void testToDnaStringWhitespace() throws Exception {
+        Sequence sequence = new Sequence();
+        sequence.setValue("\t\n a  c\t\nt  g\t\n");
+        assertEquals("actg", toDnaString(sequence));
+    }
+
+    @Test
+    public void testToDnaStringUpperCaseAmbiguity() throws Exception {
+        Sequence sequence = new Sequence();
+        sequence.setValue("ACGTNRYKMSWBDHV-");
+        assertEquals("acgtnrykmswbdhv-", toDnaString(sequence));
+    }
+
+    @Test
+    public void testToDnaStringMatchesToDnaSymbolList() throws Exception {
+        for (char c = 0; c < 256; c++) {
+            Sequence sequence = new Sequence();
+            sequence.setValue("a" + c + "t");
+            String expected = null;
+            try {
+                expected = toDnaSymbolList(sequence).seqString();
+            }
+            catch (IllegalSymbolException e) {
+                // expected remains null
+            }
+            String observed = null;
+            try {
+                observed = toDnaString(sequence);
+            }
+            catch (IllegalSymbolException e) {
+                // observed remains null
+            }
+            assertEquals("symbol " + (int) c, expected, observed);
+        }
+    }
+
     private static Hml read(final String name) throws Exception {
         return HmlReader.read(HmlUtilsTest.class.getResourceAsStream(name));
     }
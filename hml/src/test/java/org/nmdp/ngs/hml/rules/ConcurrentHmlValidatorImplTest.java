@@ -0,0 +1,181 @@
+/*
+
+    ngs-hml  Mapping for HML XSDs.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.hml.rules;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Set;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableSet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.nmdp.ngs.hml.HmlValidationException;
+import org.nmdp.ngs.hml.HmlValidationRule;
+
+import org.nmdp.ngs.hml.jaxb.Hml;
+
+/**
+ * Unit test for ConcurrentHmlValidatorImpl.
+ */
+public final class ConcurrentHmlValidatorImplTest {
+    private Hml hml;
+    private ExecutorService executorService;
+    private HmlValidationRule validationRule = new HmlValidationRule() {
+            @Override
+            public boolean validate(final Hml hml) throws HmlValidationException {
+                return true;
+            }
+        };
+
+    @Before
+    public void setUp() {
+        hml = new Hml();
+        executorService = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testConstructorNullValidationRules() {
+        new ConcurrentHmlValidatorImpl(null, executorService);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testConstructorNullExecutorService() {
+        new ConcurrentHmlValidatorImpl(ImmutableSet.of(validationRule), null);
+    }
+
+    @Test
+    public void testConstructor() {
+        assertNotNull(new ConcurrentHmlValidatorImpl(ImmutableSet.of(validationRule), executorService));
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testValidateNullHml() throws Exception {
+        new ConcurrentHmlValidatorImpl(ImmutableSet.of(validationRule), executorService).validate(null);
+    }
+
+    @Test
+    public void testValidateEmpty() throws Exception {
+        assertTrue(new ConcurrentHmlValidatorImpl(ImmutableSet.<HmlValidationRule>of(), executorService).validate(hml));
+    }
+
+    @Test
+    public void testValidateConcurrently() throws Exception {
+        // each rule waits for the other, so both must be running at the same time
+        final CountDownLatch latch = new CountDownLatch(2);
+        HmlValidationRule rule = new Await(latch);
+        HmlValidationRule other = new Await(latch);
+        Set<HmlValidationRule> validationRules = ImmutableSet.of(rule, other);
+        assertTrue(new ConcurrentHmlValidatorImpl(validationRules, executorService).validate(hml));
+        assertEquals(0, latch.getCount());
+    }
+
+    @Test
+    public void testValidateFirstFailure() throws Exception {
+        HmlValidationRule first = new Fail("first");
+        HmlValidationRule second = new Fail("second");
+        Set<HmlValidationRule> validationRules = ImmutableSet.of(validationRule, first, second);
+        try {
+            new ConcurrentHmlValidatorImpl(validationRules, executorService).validate(hml);
+            fail("expected HmlValidationException");
+        }
+        catch (HmlValidationException e) {
+            assertEquals("first", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testValidateRuntimeException() throws Exception {
+        final RuntimeException cause = new RuntimeException("cause");
+        HmlValidationRule error = new HmlValidationRule() {
+                @Override
+                public boolean validate(final Hml hml) throws HmlValidationException {
+                    throw cause;
+                }
+            };
+        try {
+            new ConcurrentHmlValidatorImpl(ImmutableSet.of(validationRule, error), executorService).validate(hml);
+            fail("expected HmlValidationException");
+        }
+        catch (HmlValidationException e) {
+            assertSame(cause, e.getCause());
+        }
+    }
+
+    /**
+     * Validation rule that waits on a latch.
+     */
+    private static final class Await implements HmlValidationRule {
+        private final CountDownLatch latch;
+
+        Await(final CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        public boolean validate(final Hml hml) throws HmlValidationException {
+            latch.countDown();
+            try {
+                if (!latch.await(10L, TimeUnit.SECONDS)) {
+                    throw new HmlValidationException("rules were not evaluated concurrently");
+                }
+            }
+            catch (InterruptedException e) {
+                throw new HmlValidationException("interrupted", e);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Validation rule that always fails.
+     */
+    private static final class Fail implements HmlValidationRule {
+        private final String message;
+
+        Fail(final String message) {
+            this.message = message;
+        }
+
+        @Override
+        public boolean validate(final Hml hml) throws HmlValidationException {
+            throw new HmlValidationException(message);
+        }
+    }
+}
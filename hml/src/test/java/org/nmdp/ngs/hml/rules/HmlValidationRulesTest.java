@@ -29,6 +29,9 @@ import static org.nmdp.ngs.hml.rules.HmlValidationRules.HMLID_ELEMENT_REQUIRED;
 import static org.nmdp.ngs.hml.rules.HmlValidationRules.miring;
 import static org.nmdp.ngs.hml.rules.HmlValidationRules.miringRules;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import org.junit.Test;
 
 import org.nmdp.ngs.hml.HmlReader;
@@ -51,6 +54,22 @@ public final class HmlValidationRulesTest {
         assertNotNull(miring());
     }
 
+    @Test(expected=NullPointerException.class)
+    public void testMiringNullExecutorService() {
+        miring(null);
+    }
+
+    @Test
+    public void testMiringExecutorService() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            assertTrue(miring(executorService).validate(read("hmlid.xml")));
+        }
+        finally {
+            executorService.shutdown();
+        }
+    }
+
     @Test
     public void testHmlidElementRequired() throws Exception {
         assertTrue(HMLID_ELEMENT_REQUIRED.validate(read("hmlid.xml")));
@@ -28,8 +28,6 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import java.io.Flushable;
 import java.io.IOException;
 
-import java.util.Iterator;
-
 import org.apache.commons.math3.distribution.IntegerDistribution;
 import org.apache.commons.math3.distribution.RealDistribution;
 import org.apache.commons.math3.distribution.UniformIntegerDistribution;
@@ -41,13 +39,8 @@ import org.biojava.bio.program.fastq.FastqBuilder;
 import org.biojava.bio.program.fastq.FastqVariant;
 import org.biojava.bio.program.fastq.FastqWriter;
 
-import org.biojava.bio.seq.DNATools;
 import org.biojava.bio.seq.Sequence;
 
-import org.biojava.bio.symbol.IllegalSymbolException;
-import org.biojava.bio.symbol.Symbol;
-import org.biojava.bio.symbol.SymbolList;
-
 /**
  * Generate paired-end next generation sequencing (NGS/HTS) reads.
  */
@@ -80,7 +73,13 @@ public final class GeneratePairedEndReads implements Runnable {
     private final double mutationRate;
 
     /** Mutation strategy. */
-    private final MutationStrategy mutation;
+    private final ByteMutationStrategy mutation;
+
+    /** Reference bases. */
+    private final byte[] bases;
+
+    /** Sequence buffer. */
+    private final SequenceBuffer sequence = new SequenceBuffer();
 
     /** First appendable. */
     private final Appendable first;
@@ -143,11 +142,13 @@ public final class GeneratePairedEndReads implements Runnable {
         this.quality = quality;
         this.coverage = coverage;
         this.mutationRate = mutationRate;
-        this.mutation = mutation;
+        this.mutation = Simulation.bytes(mutation);
         this.first = first;
         this.second = second;
         this.writer = writer;
 
+        bases = Simulation.bases(reference);
+
         int flanking = (int) (length.getNumericalMean() + length.getNumericalVariance() + insertSize.getNumericalMean() + insertSize.getNumericalVariance());
         location = new UniformIntegerDistribution(this.random, 1 - flanking, this.reference.length() + flanking);
     }
@@ -185,67 +186,24 @@ public final class GeneratePairedEndReads implements Runnable {
         // truncate on both ends
         int s = Math.max(1, start);
         int e = Math.min(reference.length() + 1, end);
-        SymbolList read = reference.subList(s, e - 1);
 
         // mutate and build sequence
-        StringBuilder sequence = new StringBuilder();
-        for (Iterator<Symbol> i = read.iterator(); i.hasNext(); ) {
-            Symbol symbol = i.next();
-            if (random.nextDouble() < mutationRate) {
-                for (Iterator<Symbol> j = mutation.mutate(symbol).iterator(); j.hasNext(); ) {
-                    Symbol mutated = j.next();
-                    try {
-                        sequence.append(DNATools.dnaToken(mutated));
-                    }
-                    catch (IllegalSymbolException ex) {
-                        // ignore
-                    }
-                }
-            }
-            else {
-                try {
-                    sequence.append(DNATools.dnaToken(symbol));
-                }
-                catch (IllegalSymbolException ex) {
-                    // ignore
-                }
-            }
-        }
+        sequence.clear();
+        Simulation.mutate(bases, s - 1, e - 1, random, mutationRate, mutation, sequence);
 
         if (reverse) {
-            // reverse orientation
-            sequence.reverse();
-
-            // ...and reverse complement
-            for (int index = 0; index < sequence.length(); index++) {
-                if (sequence.charAt(index) == 'a') {
-                    sequence.setCharAt(index, 't');
-                }
-                else if (sequence.charAt(index) == 't') {
-                    sequence.setCharAt(index, 'a');
-                }
-                else if (sequence.charAt(index) == 'g') {
-                    sequence.setCharAt(index, 'c');
-                }
-                else if (sequence.charAt(index) == 'c') {
-                    sequence.setCharAt(index, 'g');
-                }
-            }
+            sequence.reverseComplement();
         }
 
         // apply quality scores
-        StringBuilder qualityScores = new StringBuilder();
-        for (int i = 0, size = sequence.length(); i < size; i++) {
-            double qualityScore = quality.qualityScore(i, size);
-            qualityScores.append(variant.quality(Math.max(Math.min((int) qualityScore, variant.maximumQualityScore()), variant.minimumQualityScore())));
-        }
+        String qualityScores = Simulation.quality(sequence.length(), quality, variant);
 
         // write fastq
         Fastq fastq = new FastqBuilder()
             .withVariant(variant)
             .withDescription(reference.getName() + "-" + count + suffix)
             .withSequence(sequence.toString())
-            .withQuality(qualityScores.toString())
+            .withQuality(qualityScores)
             .build();
 
         try {
@@ -260,6 +218,6 @@ public final class GeneratePairedEndReads implements Runnable {
         }
 
         // update coverage
-        coverage.add(reference, s, Math.min(reference.length() + 1, s + read.length()));
+        coverage.add(reference, s, e);
     }
 }
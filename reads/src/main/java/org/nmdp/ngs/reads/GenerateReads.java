@@ -28,8 +28,6 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import java.io.Flushable;
 import java.io.IOException;
 
-import java.util.Iterator;
-
 import org.apache.commons.math3.distribution.IntegerDistribution;
 import org.apache.commons.math3.distribution.RealDistribution;
 import org.apache.commons.math3.distribution.UniformIntegerDistribution;
@@ -41,13 +39,8 @@ import org.biojava.bio.program.fastq.FastqBuilder;
 import org.biojava.bio.program.fastq.FastqVariant;
 import org.biojava.bio.program.fastq.FastqWriter;
 
-import org.biojava.bio.seq.DNATools;
 import org.biojava.bio.seq.Sequence;
 
-import org.biojava.bio.symbol.IllegalSymbolException;
-import org.biojava.bio.symbol.Symbol;
-import org.biojava.bio.symbol.SymbolList;
-
 /**
  * Generate next generation sequencing (NGS/HTS) reads.
  */
@@ -77,7 +70,13 @@ public final class GenerateReads implements Runnable {
     private final double mutationRate;
 
     /** Mutation strategy. */
-    private final MutationStrategy mutation;
+    private final ByteMutationStrategy mutation;
+
+    /** Reference bases. */
+    private final byte[] bases;
+
+    /** Sequence buffer. */
+    private final SequenceBuffer sequence = new SequenceBuffer();
 
     /** Appendable. */
     private final Appendable appendable;
@@ -130,10 +129,12 @@ public final class GenerateReads implements Runnable {
         this.quality = quality;
         this.coverage = coverage;
         this.mutationRate = mutationRate;
-        this.mutation = mutation;
+        this.mutation = Simulation.bytes(mutation);
         this.appendable = appendable;
         this.writer = writer;
 
+        bases = Simulation.bases(reference);
+
         int flanking = (int) (length.getNumericalMean() + length.getNumericalVariance());
         location = new UniformIntegerDistribution(this.random, 1 - flanking, this.reference.length() + flanking);
     }
@@ -161,46 +162,20 @@ public final class GenerateReads implements Runnable {
         // truncate on both ends
         int s = Math.max(1, start);
         int e = Math.min(reference.length() + 1, end);
-        SymbolList read = reference.subList(s, e - 1);
 
         // mutate and build sequence
-        StringBuilder sequence = new StringBuilder();
-        for (Iterator<Symbol> i = read.iterator(); i.hasNext(); ) {
-            Symbol symbol = i.next();
-            if (random.nextDouble() < mutationRate) {
-                for (Iterator<Symbol> j = mutation.mutate(symbol).iterator(); j.hasNext(); ) {
-                    Symbol mutated = j.next();
-                    try {
-                        sequence.append(DNATools.dnaToken(mutated));
-                    }
-                    catch (IllegalSymbolException ex) {
-                        // ignore
-                    }
-                }
-            }
-            else {
-                try {
-                    sequence.append(DNATools.dnaToken(symbol));
-                }
-                catch (IllegalSymbolException ex) {
-                    // ignore
-                }
-            }
-        }
+        sequence.clear();
+        Simulation.mutate(bases, s - 1, e - 1, random, mutationRate, mutation, sequence);
 
         // apply quality scores
-        StringBuilder qualityScores = new StringBuilder();
-        for (int i = 0, size = sequence.length(); i < size; i++) {
-            double qualityScore = quality.qualityScore(i, size);
-            qualityScores.append(variant.quality(Math.max(Math.min((int) qualityScore, variant.maximumQualityScore()), variant.minimumQualityScore())));
-        }
+        String qualityScores = Simulation.quality(sequence.length(), quality, variant);
 
         // write fastq
         Fastq fastq = new FastqBuilder()
             .withVariant(variant)
             .withDescription(reference.getName() + "-" + count)
             .withSequence(sequence.toString())
-            .withQuality(qualityScores.toString())
+            .withQuality(qualityScores)
             .build();
 
         try {
@@ -215,6 +190,6 @@ public final class GenerateReads implements Runnable {
         }
 
         // update coverage
-        coverage.add(reference, s, Math.min(reference.length() + 1, s + read.length()));
+        coverage.add(reference, s, e);
     }
 }
@@ -0,0 +1,339 @@
+/*
+
+    ngs-reads  Next generation sequencing (NGS/HTS) reads.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.reads;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.Flushable;
+import java.io.IOException;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import com.google.common.base.Function;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.apache.commons.math3.distribution.IntegerDistribution;
+import org.apache.commons.math3.distribution.RealDistribution;
+import org.apache.commons.math3.distribution.UniformIntegerDistribution;
+
+import org.apache.commons.math3.random.MersenneTwister;
+import org.apache.commons.math3.random.RandomGenerator;
+
+import org.biojava.bio.program.fastq.Fastq;
+import org.biojava.bio.program.fastq.FastqBuilder;
+import org.biojava.bio.program.fastq.FastqVariant;
+import org.biojava.bio.program.fastq.FastqWriter;
+
+import org.biojava.bio.seq.Sequence;
+
+/**
+ * Generate next generation sequencing (NGS/HTS) reads in parallel.
+ *
+ * <p>
+ * Read generation is partitioned into batches of read attempts.  Each batch draws from its own
+ * random stream, split from the seed by batch index, and is generated on a worker thread.  Batches
+ * are written in order by the calling thread, which also tracks coverage, so the reads generated
+ * for a given seed and batch size are the same regardless of the number of threads.
+ * </p>
+ */
+public final class ParallelGenerateReads implements Runnable {
+    /** Reference. */
+    private final Sequence reference;
+
+    /** Reference bases. */
+    private final byte[] bases;
+
+    /** FASTQ variant. */
+    private final FastqVariant variant;
+
+    /** Seed. */
+    private final long seed;
+
+    /** Number of worker threads. */
+    private final int threads;
+
+    /** Number of read attempts per batch. */
+    private final int batchSize;
+
+    /** Length distribution function. */
+    private final Function<? super RandomGenerator, ? extends RealDistribution> length;
+
+    /** Quality strategy function. */
+    private final Function<? super RandomGenerator, ? extends QualityStrategy> quality;
+
+    /** Coverage strategy. */
+    private final CoverageStrategy coverage;
+
+    /** Mutation rate. */
+    private final double mutationRate;
+
+    /** Mutation strategy function. */
+    private final Function<? super RandomGenerator, ? extends MutationStrategy> mutation;
+
+    /** Appendable. */
+    private final Appendable appendable;
+
+    /** FASTQ writer. */
+    private final FastqWriter writer;
+
+    /** Default number of read attempts per batch, <code>1000</code>. */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+
+    /**
+     * Generate next generation sequencing (NGS/HTS) reads in parallel.
+     *
+     * @param reference reference, must not be null
+     * @param variant FASTQ variant, must not be null
+     * @param seed seed
+     * @param threads number of worker threads, must be at least one
+     * @param batchSize number of read attempts per batch, must be at least one
+     * @param length length distribution function, must not be null
+     * @param quality quality strategy function, must not be null
+     * @param coverage coverage strategy, must not be null
+     * @param mutationRate mutation rate, must be between <code>0.0</code> and <code>1.0</code>, inclusive
+     * @param mutation mutation strategy function, must not be null
+     * @param appendable appendable, must not be null
+     * @param writer FASTQ writer, must not be null
+     */
+    public ParallelGenerateReads(final Sequence reference,
+                                 final FastqVariant variant,
+                                 final long seed,
+                                 final int threads,
+                                 final int batchSize,
+                                 final Function<? super RandomGenerator, ? extends RealDistribution> length,
+                                 final Function<? super RandomGenerator, ? extends QualityStrategy> quality,
+                                 final CoverageStrategy coverage,
+                                 final double mutationRate,
+                                 final Function<? super RandomGenerator, ? extends MutationStrategy> mutation,
+                                 final Appendable appendable,
+                                 final FastqWriter writer) {
+
+        checkNotNull(reference, "reference must not be null");
+        checkNotNull(variant, "variant must not be null");
+        checkArgument(threads > 0, "threads must be at least one");
+        checkArgument(batchSize > 0, "batchSize must be at least one");
+        checkNotNull(length, "length must not be null");
+        checkNotNull(quality, "quality must not be null");
+        checkNotNull(coverage, "coverage must not be null");
+        checkArgument(mutationRate >= 0.0d, "mutationRate must be greater than or equal to 0.0d");
+        checkArgument(mutationRate <= 1.0d, "mutationRate must be less than or equal to 1.0d");
+        checkNotNull(mutation, "mutation must not be null");
+        checkNotNull(appendable, "appendable must not be null");
+        checkNotNull(writer, "writer must not be null");
+
+        this.reference = reference;
+        this.variant = variant;
+        this.seed = seed;
+        this.threads = threads;
+        this.batchSize = batchSize;
+        this.length = length;
+        this.quality = quality;
+        this.coverage = coverage;
+        this.mutationRate = mutationRate;
+        this.mutation = mutation;
+
+        bases = Simulation.bases(reference);
+        this.appendable = appendable;
+        this.writer = writer;
+    }
+
+
+    @Override
+    public void run() {
+        ThreadFactory threadFactory = new ThreadFactoryBuilder().setDaemon(true).setNameFormat("generate-reads-%d").build();
+        ExecutorService executorService = Executors.newFixedThreadPool(threads, threadFactory);
+        try {
+            Deque<Future<Read[]>> batches = new ArrayDeque<Future<Read[]>>(2 * threads);
+            long index = 0L;
+
+            // while coverage not met
+            while (true) {
+                // keep at most two batches per worker in flight
+                while (batches.size() < 2 * threads) {
+                    batches.add(executorService.submit(new Batch(index)));
+                    index++;
+                }
+                for (Read read : Futures.getUnchecked(batches.removeFirst())) {
+                    if (coverage.evaluate(reference)) {
+                        return;
+                    }
+                    if (read != null) {
+                        write(read);
+                    }
+                }
+            }
+        }
+        finally {
+            executorService.shutdownNow();
+
+            if (appendable instanceof Flushable) {
+                try {
+                    ((Flushable) appendable).flush();
+                }
+                catch (IOException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    /**
+     * Write the specified read and update coverage.
+     *
+     * @param read read to write
+     */
+    private void write(final Read read) {
+        try {
+            writer.append(appendable, read.fastq);
+        }
+        catch (IOException e) {
+            // ignore
+        }
+        coverage.add(reference, read.start, read.end);
+    }
+
+
+    /**
+     * Simulated read.
+     */
+    private static final class Read {
+        /** FASTQ formatted read. */
+        private final Fastq fastq;
+
+        /** Covered region start, 1-based coordinate, inclusive. */
+        private final int start;
+
+        /** Covered region end, 1-based coordinate, exclusive. */
+        private final int end;
+
+
+        /**
+         * Create a new simulated read.
+         *
+         * @param fastq FASTQ formatted read
+         * @param start covered region start, 1-based coordinate, inclusive
+         * @param end covered region end, 1-based coordinate, exclusive
+         */
+        private Read(final Fastq fastq, final int start, final int end) {
+            this.fastq = fastq;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * Batch of read attempts drawn from a single random stream.
+     */
+    private final class Batch implements Callable<Read[]> {
+        /** Batch index. */
+        private final long index;
+
+
+        /**
+         * Create a new batch with the specified index.
+         *
+         * @param index batch index
+         */
+        private Batch(final long index) {
+            this.index = index;
+        }
+
+
+        @Override
+        public Read[] call() {
+            RandomGenerator random = new MersenneTwister(Simulation.split(seed, index));
+            RealDistribution lengthDistribution = length.apply(random);
+            QualityStrategy qualityStrategy = quality.apply(random);
+            ByteMutationStrategy mutationStrategy = Simulation.bytes(mutation.apply(random));
+            SequenceBuffer sequence = new SequenceBuffer();
+
+            int flanking = (int) (lengthDistribution.getNumericalMean() + lengthDistribution.getNumericalVariance());
+            IntegerDistribution location = new UniformIntegerDistribution(random, 1 - flanking, reference.length() + flanking);
+
+            Read[] reads = new Read[batchSize];
+            for (int i = 0; i < batchSize; i++) {
+                // sample location
+                int start = location.sample();
+                int end = start + (int) lengthDistribution.sample();
+
+                // if valid location
+                if (start < reference.length() && end > 1) {
+                    reads[i] = read(start, end, index * batchSize + i, random, qualityStrategy, mutationStrategy, sequence);
+                }
+            }
+            return reads;
+        }
+
+        /**
+         * Simulate a read.
+         *
+         * @param start start
+         * @param end end
+         * @param count read count
+         * @param random random
+         * @param qualityStrategy quality strategy
+         * @param mutationStrategy mutation strategy
+         * @param sequence sequence buffer
+         * @return a simulated read
+         */
+        private Read read(final int start,
+                          final int end,
+                          final long count,
+                          final RandomGenerator random,
+                          final QualityStrategy qualityStrategy,
+                          final ByteMutationStrategy mutationStrategy,
+                          final SequenceBuffer sequence) {
+
+            // truncate on both ends
+            int s = Math.max(1, start);
+            int e = Math.min(reference.length() + 1, end);
+
+            // mutate and build sequence
+            sequence.clear();
+            Simulation.mutate(bases, s - 1, e - 1, random, mutationRate, mutationStrategy, sequence);
+
+            // apply quality scores
+            String qualityScores = Simulation.quality(sequence.length(), qualityStrategy, variant);
+
+            Fastq fastq = new FastqBuilder()
+                .withVariant(variant)
+                .withDescription(reference.getName() + "-" + count)
+                .withSequence(sequence.toString())
+                .withQuality(qualityScores)
+                .build();
+
+            return new Read(fastq, s, e);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*
+
+    ngs-reads  Next generation sequencing (NGS/HTS) reads.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.reads;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.Arrays;
+
+/**
+ * Growable buffer of nucleotide bases, one byte per base.
+ */
+public final class SequenceBuffer {
+    /** Bases. */
+    private byte[] bases;
+
+    /** Length. */
+    private int length;
+
+    /** Default capacity, <code>256</code>. */
+    static final int DEFAULT_CAPACITY = 256;
+
+
+    /**
+     * Create a new empty sequence buffer with the default capacity.
+     */
+    public SequenceBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a new empty sequence buffer with the specified capacity.
+     *
+     * @param capacity capacity, must be at least zero
+     */
+    public SequenceBuffer(final int capacity) {
+        checkArgument(capacity >= 0, "capacity must be at least zero");
+        bases = new byte[capacity];
+    }
+
+
+    /**
+     * Ensure this sequence buffer can hold at least the specified number of bases.
+     *
+     * @param capacity capacity
+     */
+    private void ensureCapacity(final int capacity) {
+        if (capacity > bases.length) {
+            bases = Arrays.copyOf(bases, Math.max(capacity, 2 * bases.length + 1));
+        }
+    }
+
+    /**
+     * Append the specified base to this sequence buffer.
+     *
+     * @param base base to append
+     * @return this sequence buffer
+     */
+    public SequenceBuffer append(final byte base) {
+        ensureCapacity(length + 1);
+        bases[length++] = base;
+        return this;
+    }
+
+    /**
+     * Append the specified range of bases to this sequence buffer.
+     *
+     * @param src bases to append, must not be null
+     * @param offset offset into <code>src</code>
+     * @param count number of bases to append
+     * @return this sequence buffer
+     */
+    public SequenceBuffer append(final byte[] src, final int offset, final int count) {
+        checkNotNull(src);
+        checkPositionIndexes(offset, offset + count, src.length);
+        ensureCapacity(length + count);
+        System.arraycopy(src, offset, bases, length, count);
+        length += count;
+        return this;
+    }
+
+    /**
+     * Return the number of bases in this sequence buffer.
+     *
+     * @return the number of bases in this sequence buffer
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Return the base at the specified index.
+     *
+     * @param index index
+     * @return the base at the specified index
+     */
+    public byte byteAt(final int index) {
+        checkElementIndex(index, length);
+        return bases[index];
+    }
+
+    /**
+     * Clear this sequence buffer.
+     *
+     * @return this sequence buffer
+     */
+    public SequenceBuffer clear() {
+        length = 0;
+        return this;
+    }
+
+    /**
+     * Reverse complement this sequence buffer in place.  Only the unambiguous
+     * lowercase bases <code>a</code>, <code>c</code>, <code>g</code>, and <code>t</code>
+     * are complemented, other bases are only reversed.
+     *
+     * @return this sequence buffer
+     */
+    public SequenceBuffer reverseComplement() {
+        for (int i = 0, j = length - 1; i <= j; i++, j--) {
+            byte b = complement(bases[i]);
+            bases[i] = complement(bases[j]);
+            bases[j] = b;
+        }
+        return this;
+    }
+
+    /**
+     * Return the complement of the specified base.
+     *
+     * @param base base
+     * @return the complement of the specified base
+     */
+    private static byte complement(final byte base) {
+        switch (base) {
+        case 'a':
+            return 't';
+        case 't':
+            return 'a';
+        case 'c':
+            return 'g';
+        case 'g':
+            return 'c';
+        default:
+            return base;
+        }
+    }
+
+    /**
+     * Return the bases in this sequence buffer as a new byte array.
+     *
+     * @return the bases in this sequence buffer as a new byte array
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bases, length);
+    }
+
+    @Override
+    public String toString() {
+        return new String(bases, 0, length, StandardCharsets.US_ASCII);
+    }
+}
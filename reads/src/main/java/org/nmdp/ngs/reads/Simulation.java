@@ -0,0 +1,185 @@
+/*
+
+    ngs-reads  Next generation sequencing (NGS/HTS) reads.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.reads;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.apache.commons.math3.random.RandomGenerator;
+
+import org.biojava.bio.program.fastq.FastqVariant;
+
+import org.biojava.bio.seq.DNATools;
+import org.biojava.bio.seq.Sequence;
+
+import org.biojava.bio.symbol.IllegalSymbolException;
+import org.biojava.bio.symbol.Symbol;
+
+/**
+ * Read simulation utility methods shared by the read generators.
+ */
+final class Simulation {
+    /** Quality score characters by FASTQ variant, indexed from the minimum quality score. */
+    private static final Map<FastqVariant, char[]> QUALITIES = new EnumMap<FastqVariant, char[]>(FastqVariant.class);
+
+    static {
+        for (FastqVariant variant : FastqVariant.values()) {
+            char[] qualities = new char[variant.maximumQualityScore() - variant.minimumQualityScore() + 1];
+            for (int i = 0; i < qualities.length; i++) {
+                qualities[i] = variant.quality(variant.minimumQualityScore() + i);
+            }
+            QUALITIES.put(variant, qualities);
+        }
+    }
+
+    /**
+     * Private no-arg constructor.
+     */
+    private Simulation() {
+        // empty
+    }
+
+
+    /**
+     * Return the bases of the specified reference sequence as lowercase IUPAC nucleotide tokens.
+     *
+     * @param reference reference sequence
+     * @return the bases of the specified reference sequence as lowercase IUPAC nucleotide tokens
+     */
+    static byte[] bases(final Sequence reference) {
+        return reference.seqString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Return the specified mutation strategy as a byte mutation strategy, adapting it if necessary.
+     *
+     * @param mutation mutation strategy
+     * @return the specified mutation strategy as a byte mutation strategy
+     */
+    static ByteMutationStrategy bytes(final MutationStrategy mutation) {
+        if (mutation instanceof ByteMutationStrategy) {
+            return (ByteMutationStrategy) mutation;
+        }
+        return new ByteMutationStrategy() {
+            @Override
+            public void mutate(final byte base, final SequenceBuffer sequence) {
+                try {
+                    for (Iterator<Symbol> i = mutation.mutate(DNATools.forSymbol((char) base)).iterator(); i.hasNext(); ) {
+                        sequence.append((byte) DNATools.dnaToken(i.next()));
+                    }
+                }
+                catch (IllegalSymbolException e) {
+                    // ignore
+                }
+            }
+        };
+    }
+
+    /**
+     * Mutate the bases in the specified range at the specified mutation rate, appending them to the specified sequence.
+     *
+     * <p>
+     * Rather than drawing a random number per base, the number of bases between mutations is drawn
+     * from a geometric distribution with the mutation rate as its probability of success, and the
+     * unmutated bases between mutations are copied in bulk.
+     * </p>
+     *
+     * @param bases bases
+     * @param start range start, 0-based coordinate, inclusive
+     * @param end range end, 0-based coordinate, exclusive
+     * @param random random
+     * @param mutationRate mutation rate
+     * @param mutation byte mutation strategy
+     * @param sequence sequence to append to
+     */
+    static void mutate(final byte[] bases,
+                       final int start,
+                       final int end,
+                       final RandomGenerator random,
+                       final double mutationRate,
+                       final ByteMutationStrategy mutation,
+                       final SequenceBuffer sequence) {
+
+        if (end <= start) {
+            return;
+        }
+        if (mutationRate <= 0.0d) {
+            sequence.append(bases, start, end - start);
+            return;
+        }
+        double logFailure = Math.log1p(-mutationRate);
+        int i = start;
+        while (i < end) {
+            double skip = Math.log(1.0d - random.nextDouble()) / logFailure;
+            if (skip >= end - i) {
+                sequence.append(bases, i, end - i);
+                return;
+            }
+            int next = i + (int) skip;
+            sequence.append(bases, i, next - i);
+            mutation.mutate(bases[next], sequence);
+            i = next + 1;
+        }
+    }
+
+    /**
+     * Return quality scores for a read of the specified size.
+     *
+     * @param size read size
+     * @param quality quality strategy
+     * @param variant FASTQ variant
+     * @return quality scores for a read of the specified size
+     */
+    static String quality(final int size, final QualityStrategy quality, final FastqVariant variant) {
+        char[] qualities = QUALITIES.get(variant);
+        int minimum = variant.minimumQualityScore();
+        int maximum = variant.maximumQualityScore();
+        char[] qualityScores = new char[size];
+        for (int i = 0; i < size; i++) {
+            double qualityScore = quality.qualityScore(i, size);
+            qualityScores[i] = qualities[Math.max(Math.min((int) qualityScore, maximum), minimum) - minimum];
+        }
+        return new String(qualityScores);
+    }
+
+    /**
+     * Return the seed for the random stream at the specified index split from the specified seed.
+     *
+     * <p>
+     * Uses the SplitMix64 finalizer, so that streams at adjacent indices are statistically independent.
+     * </p>
+     *
+     * @param seed seed
+     * @param index random stream index
+     * @return the seed for the random stream at the specified index split from the specified seed
+     */
+    static long split(final long seed, final long index) {
+        long z = seed + (index + 1L) * 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -22,41 +22,29 @@
 */
 package org.nmdp.ngs.reads.coverage;
 
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 
 import org.biojava.bio.seq.Sequence;
 
-import org.biojava.bio.symbol.Edit;
-import org.biojava.bio.symbol.IllegalAlphabetException;
-import org.biojava.bio.symbol.IllegalSymbolException;
-import org.biojava.bio.symbol.IntegerAlphabet;
-import org.biojava.bio.symbol.SimpleSymbolList;
-import org.biojava.bio.symbol.SymbolList;
-
 import org.nmdp.ngs.reads.CoverageStrategy;
 
 /**
- * Abstract coverage strategy.
+ * Abstract coverage strategy, tracking coverage per reference sequence in primitive arrays.
+ *
+ * @param <C> coverage type
  */
-abstract class AbstractCoverageStrategy implements CoverageStrategy {
+abstract class AbstractCoverageStrategy<C> implements CoverageStrategy {
     /** Coverages. */
-    private final LoadingCache<Sequence, SimpleSymbolList> coverages = CacheBuilder.newBuilder()
-        .build(new CacheLoader<Sequence, SimpleSymbolList>()
+    private final LoadingCache<Sequence, C> coverages = CacheBuilder.newBuilder()
+        .build(new CacheLoader<Sequence, C>()
                {
                    @Override
-                   public SimpleSymbolList load(final Sequence reference) {
-                       SimpleSymbolList coverage = new SimpleSymbolList(IntegerAlphabet.INSTANCE);
-                       for (int i = 1, size = reference.length() + 1; i < size; i++) {
-                           try {
-                               coverage.addSymbol(IntegerAlphabet.INSTANCE.getSymbol(0));
-                           }
-                           catch (IllegalSymbolException e) {
-                               // ignore
-                           }
-                       }
-                       return coverage;
+                   public C load(final Sequence reference) {
+                       return createCoverage(reference.length());
                    }
                });
 
@@ -70,36 +58,67 @@ abstract class AbstractCoverageStrategy implements CoverageStrategy {
 
 
     /**
-     * Return true if the specified reference sequence has enough coverage given
-     * the specified coverage scores.
+     * Create and return a new empty coverage for a reference sequence of the specified length.
+     *
+     * @param length reference sequence length
+     * @return a new empty coverage for a reference sequence of the specified length
+     */
+    protected abstract C createCoverage(int length);
+
+    /**
+     * Return true if the specified coverage is enough.
+     *
+     * @param coverage coverage
+     * @return true if the specified coverage is enough
+     */
+    protected abstract boolean evaluate(C coverage);
+
+    /**
+     * Add coverage for the region defined by <code>[start, end)</code> to the specified coverage.
+     *
+     * @param coverage coverage
+     * @param start region start, 0-based coordinate, inclusive
+     * @param end region end, 0-based coordinate, exclusive
+     */
+    protected abstract void add(C coverage, int start, int end);
+
+    /**
+     * Return the per-base coverage for the specified coverage.
      *
-     * @param reference reference sequence to evaluate
-     * @param coverage coverage scores
-     * @return true if the specified reference sequence has enough coverage given
-     *    the specified coverage scores
+     * @param coverage coverage
+     * @return the per-base coverage for the specified coverage
      */
-    protected abstract boolean evaluate(final Sequence reference, final SymbolList coverage);
+    protected abstract int[] coverage(C coverage);
 
     @Override
     public final boolean evaluate(final Sequence reference) {
-        return evaluate(reference, coverages.getUnchecked(reference));
+        return evaluate(coverages.getUnchecked(reference));
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Callers pass <code>end</code> as an exclusive bound, so coverage is added for the region
+     * defined by <code>[start, end)</code>.
+     * </p>
+     */
     @Override
     public final void add(final Sequence reference, final int start, final int end) {
-        SymbolList coverage = coverages.getUnchecked(reference);
-
-        for (int i = start; i < end; i++) {
-            int c = ((IntegerAlphabet.IntegerSymbol) coverage.symbolAt(i)).intValue();
-            try {
-                coverage.edit(new Edit(i, IntegerAlphabet.INSTANCE, IntegerAlphabet.INSTANCE.getSymbol(c + 1)));
-            }
-            catch (IllegalAlphabetException e) {
-                // ignore
-            }
-            catch (IllegalSymbolException e) {
-                // ignore
-            }
+        if (end <= start) {
+            return;
         }
+        checkPositionIndexes(start - 1, end - 1, reference.length());
+        add(coverages.getUnchecked(reference), start - 1, end - 1);
+    }
+
+    /**
+     * Return the per-base coverage for the specified reference sequence.
+     *
+     * @param reference reference sequence
+     * @return the per-base coverage for the specified reference sequence
+     */
+    final int[] coverage(final Sequence reference) {
+        return coverage(coverages.getUnchecked(reference));
     }
 }
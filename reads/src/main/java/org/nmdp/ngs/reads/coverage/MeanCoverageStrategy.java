@@ -22,17 +22,15 @@
 */
 package org.nmdp.ngs.reads.coverage;
 
-import org.apache.commons.math3.stat.descriptive.SummaryStatistics;
-
-import org.biojava.bio.seq.Sequence;
-
-import org.biojava.bio.symbol.IntegerAlphabet;
-import org.biojava.bio.symbol.SymbolList;
-
 /**
  * Mean coverage strategy.
+ *
+ * <p>
+ * Coverage is tracked as an <code>int[]</code> difference array and a running sum, so that
+ * both adding coverage and evaluating the mean are constant time.
+ * </p>
  */
-public final class MeanCoverageStrategy extends AbstractCoverageStrategy {
+public final class MeanCoverageStrategy extends AbstractCoverageStrategy<MeanCoverageStrategy.Coverage> {
     /** Mean coverage. */
     private final double meanCoverage;
 
@@ -49,12 +47,55 @@ public final class MeanCoverageStrategy extends AbstractCoverageStrategy {
 
 
     @Override
-    protected boolean evaluate(final Sequence reference, final SymbolList coverage) {
-        SummaryStatistics summaryStatistics = new SummaryStatistics();
-        for (int i = 1, size = coverage.length() + 1; i < size; i++) {
-            int c = ((IntegerAlphabet.IntegerSymbol) coverage.symbolAt(i)).intValue();
-            summaryStatistics.addValue((double) c);
+    protected Coverage createCoverage(final int length) {
+        return new Coverage(length);
+    }
+
+    @Override
+    protected boolean evaluate(final Coverage coverage) {
+        return ((double) coverage.sum / coverage.length) >= meanCoverage;
+    }
+
+    @Override
+    protected void add(final Coverage coverage, final int start, final int end) {
+        coverage.differences[start]++;
+        coverage.differences[end]--;
+        coverage.sum += end - start;
+    }
+
+    @Override
+    protected int[] coverage(final Coverage coverage) {
+        int[] perBase = new int[coverage.length];
+        int c = 0;
+        for (int i = 0; i < coverage.length; i++) {
+            c += coverage.differences[i];
+            perBase[i] = c;
+        }
+        return perBase;
+    }
+
+    /**
+     * Coverage difference array and running sum for a reference sequence.
+     */
+    static final class Coverage {
+        /** Reference sequence length. */
+        private final int length;
+
+        /** Coverage differences. */
+        private final int[] differences;
+
+        /** Sum of coverage over all bases. */
+        private long sum;
+
+
+        /**
+         * Create a new coverage for a reference sequence of the specified length.
+         *
+         * @param length reference sequence length
+         */
+        Coverage(final int length) {
+            this.length = length;
+            this.differences = new int[length + 1];
         }
-        return summaryStatistics.getMean() >= meanCoverage;
     }
 }
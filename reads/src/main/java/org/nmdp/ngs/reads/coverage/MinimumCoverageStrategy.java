@@ -24,15 +24,15 @@ package org.nmdp.ngs.reads.coverage;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
-import org.biojava.bio.seq.Sequence;
-
-import org.biojava.bio.symbol.IntegerAlphabet;
-import org.biojava.bio.symbol.SymbolList;
-
 /**
  * Minimum coverage strategy.
+ *
+ * <p>
+ * Coverage is tracked as an <code>int[]</code> per-base count along with a count of the bases
+ * below the minimum coverage, maintained as coverage is added, so that evaluating is constant time.
+ * </p>
  */
-public final class MinimumCoverageStrategy extends AbstractCoverageStrategy {
+public final class MinimumCoverageStrategy extends AbstractCoverageStrategy<MinimumCoverageStrategy.Coverage> {
     /** Minimum coverage. */
     private final int minimumCoverage;
 
@@ -49,14 +49,49 @@ public final class MinimumCoverageStrategy extends AbstractCoverageStrategy {
 
 
     @Override
-    protected boolean evaluate(final Sequence reference, final SymbolList coverage) {
-        int min = Integer.MAX_VALUE;
-        for (int i = 1, size = coverage.length() + 1; i < size; i++) {
-            int c = ((IntegerAlphabet.IntegerSymbol) coverage.symbolAt(i)).intValue();
-            if (c < min) {
-                min = c;
+    protected Coverage createCoverage(final int length) {
+        return new Coverage(length);
+    }
+
+    @Override
+    protected boolean evaluate(final Coverage coverage) {
+        return coverage.below == 0;
+    }
+
+    @Override
+    protected void add(final Coverage coverage, final int start, final int end) {
+        int[] counts = coverage.counts;
+        for (int i = start; i < end; i++) {
+            if (++counts[i] == minimumCoverage) {
+                coverage.below--;
             }
         }
-        return min >= minimumCoverage;
+    }
+
+    @Override
+    protected int[] coverage(final Coverage coverage) {
+        return coverage.counts.clone();
+    }
+
+    /**
+     * Per-base coverage counts and count of bases below the minimum coverage for a reference sequence.
+     */
+    static final class Coverage {
+        /** Per-base coverage counts. */
+        private final int[] counts;
+
+        /** Number of bases below the minimum coverage. */
+        private int below;
+
+
+        /**
+         * Create a new coverage for a reference sequence of the specified length.
+         *
+         * @param length reference sequence length
+         */
+        Coverage(final int length) {
+            this.counts = new int[length];
+            this.below = length;
+        }
     }
 }
@@ -0,0 +1,281 @@
+/*
+
+    ngs-reads  Next generation sequencing (NGS/HTS) reads.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.reads.fastq;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.Arrays;
+
+import org.biojava.bio.program.fastq.Fastq;
+import org.biojava.bio.program.fastq.FastqVariant;
+
+/**
+ * Reusable mutable view of a FASTQ record, backed by offsets into a byte buffer.
+ */
+public final class FastqRecord {
+    /** Sanger FASTQ quality score offset. */
+    static final int QUALITY_OFFSET = 33;
+
+    /** Buffer. */
+    private byte[] buffer;
+
+    /** Description start, inclusive, after the <code>@</code> character. */
+    private int descriptionStart;
+
+    /** Description end, exclusive. */
+    private int descriptionEnd;
+
+    /** Sequence start, inclusive. */
+    private int sequenceStart;
+
+    /** Quality start, inclusive. */
+    private int qualityStart;
+
+    /** Sequence and quality length. */
+    private int length;
+
+    /** Line number of the description line. */
+    private long lineNumber;
+
+
+    /**
+     * Create a new empty FASTQ record.
+     */
+    FastqRecord() {
+        buffer = new byte[0];
+    }
+
+
+    /**
+     * Point this FASTQ record at the specified regions of the specified buffer.
+     *
+     * @param buffer buffer
+     * @param descriptionStart description start, inclusive
+     * @param descriptionEnd description end, exclusive
+     * @param sequenceStart sequence start, inclusive
+     * @param qualityStart quality start, inclusive
+     * @param length sequence and quality length
+     * @param lineNumber line number of the description line
+     */
+    void wrap(final byte[] buffer, final int descriptionStart, final int descriptionEnd,
+              final int sequenceStart, final int qualityStart, final int length, final long lineNumber) {
+        this.buffer = buffer;
+        this.descriptionStart = descriptionStart;
+        this.descriptionEnd = descriptionEnd;
+        this.sequenceStart = sequenceStart;
+        this.qualityStart = qualityStart;
+        this.length = length;
+        this.lineNumber = lineNumber;
+    }
+
+    /**
+     * Return the buffer backing this FASTQ record.
+     *
+     * @return the buffer backing this FASTQ record
+     */
+    byte[] buffer() {
+        return buffer;
+    }
+
+    /**
+     * Return the description start offset into the buffer backing this FASTQ record.
+     *
+     * @return the description start offset into the buffer backing this FASTQ record
+     */
+    int descriptionStart() {
+        return descriptionStart;
+    }
+
+    /**
+     * Return the sequence start offset into the buffer backing this FASTQ record.
+     *
+     * @return the sequence start offset into the buffer backing this FASTQ record
+     */
+    int sequenceStart() {
+        return sequenceStart;
+    }
+
+    /**
+     * Return the quality start offset into the buffer backing this FASTQ record.
+     *
+     * @return the quality start offset into the buffer backing this FASTQ record
+     */
+    int qualityStart() {
+        return qualityStart;
+    }
+
+
+    /**
+     * Return the line number of the description line of this FASTQ record.
+     *
+     * @return the line number of the description line of this FASTQ record
+     */
+    public long lineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Return the length of the description of this FASTQ record.
+     *
+     * @return the length of the description of this FASTQ record
+     */
+    public int descriptionLength() {
+        return descriptionEnd - descriptionStart;
+    }
+
+    /**
+     * Return the length of the sequence and quality of this FASTQ record.
+     *
+     * @return the length of the sequence and quality of this FASTQ record
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Return the description byte at the specified index.
+     *
+     * @param index index
+     * @return the description byte at the specified index
+     */
+    public byte descriptionAt(final int index) {
+        checkElementIndex(index, descriptionLength());
+        return buffer[descriptionStart + index];
+    }
+
+    /**
+     * Return the sequence byte at the specified index.
+     *
+     * @param index index
+     * @return the sequence byte at the specified index
+     */
+    public byte sequenceAt(final int index) {
+        checkElementIndex(index, length);
+        return buffer[sequenceStart + index];
+    }
+
+    /**
+     * Return the quality byte at the specified index, in Sanger FASTQ encoding.
+     *
+     * @param index index
+     * @return the quality byte at the specified index
+     */
+    public byte qualityAt(final int index) {
+        checkElementIndex(index, length);
+        return buffer[qualityStart + index];
+    }
+
+    /**
+     * Return the Phred quality score at the specified index.
+     *
+     * @param index index
+     * @return the Phred quality score at the specified index
+     */
+    public int qualityScoreAt(final int index) {
+        return qualityAt(index) - QUALITY_OFFSET;
+    }
+
+    /**
+     * Return the description of this FASTQ record as a new string.
+     *
+     * @return the description of this FASTQ record as a new string
+     */
+    public String description() {
+        return new String(buffer, descriptionStart, descriptionLength(), StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Return the sequence of this FASTQ record as a new string.
+     *
+     * @return the sequence of this FASTQ record as a new string
+     */
+    public String sequence() {
+        return new String(buffer, sequenceStart, length, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Return the quality of this FASTQ record as a new string, in Sanger FASTQ encoding.
+     *
+     * @return the quality of this FASTQ record as a new string
+     */
+    public String quality() {
+        return new String(buffer, qualityStart, length, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Return a copy of this FASTQ record backed by its own buffer.
+     *
+     * @return a copy of this FASTQ record backed by its own buffer
+     */
+    public FastqRecord copy() {
+        int descriptionLength = descriptionLength();
+        byte[] copy = new byte[descriptionLength + 2 * length];
+        System.arraycopy(buffer, descriptionStart, copy, 0, descriptionLength);
+        System.arraycopy(buffer, sequenceStart, copy, descriptionLength, length);
+        System.arraycopy(buffer, qualityStart, copy, descriptionLength + length, length);
+        FastqRecord record = new FastqRecord();
+        record.wrap(copy, 0, descriptionLength, descriptionLength, descriptionLength + length, length, lineNumber);
+        return record;
+    }
+
+    /**
+     * Return this FASTQ record as a new biojava Sanger variant FASTQ.
+     *
+     * @return this FASTQ record as a new biojava Sanger variant FASTQ
+     */
+    public Fastq toFastq() {
+        return Fastq.builder()
+            .withVariant(FastqVariant.FASTQ_SANGER)
+            .withDescription(description())
+            .withSequence(sequence())
+            .withQuality(quality())
+            .build();
+    }
+
+    /**
+     * Return a new FASTQ record backed by its own buffer for the specified biojava FASTQ.
+     *
+     * @param fastq biojava FASTQ, must not be null
+     * @return a new FASTQ record backed by its own buffer for the specified biojava FASTQ
+     */
+    public static FastqRecord valueOf(final Fastq fastq) {
+        checkNotNull(fastq);
+        byte[] description = fastq.getDescription().getBytes(StandardCharsets.US_ASCII);
+        byte[] sequence = fastq.getSequence().getBytes(StandardCharsets.US_ASCII);
+        byte[] quality = fastq.getQuality().getBytes(StandardCharsets.US_ASCII);
+        byte[] buffer = Arrays.copyOf(description, description.length + sequence.length + quality.length);
+        System.arraycopy(sequence, 0, buffer, description.length, sequence.length);
+        System.arraycopy(quality, 0, buffer, description.length + sequence.length, quality.length);
+        FastqRecord record = new FastqRecord();
+        record.wrap(buffer, 0, description.length, description.length, description.length + sequence.length, sequence.length, 0L);
+        return record;
+    }
+
+    @Override
+    public String toString() {
+        return "@" + description() + "\n" + sequence() + "\n+\n" + quality();
+    }
+}
@@ -0,0 +1,39 @@
+/*
+
+    ngs-reads  Next generation sequencing (NGS/HTS) reads.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.reads.fastq;
+
+/**
+ * FASTQ record listener.
+ */
+public interface FastqRecordListener {
+
+    /**
+     * Notify this listener of a FASTQ record.  The specified FASTQ record is a reusable
+     * view that is only valid for the duration of this call, use {@link FastqRecord#copy()}
+     * to retain it.
+     *
+     * @param record FASTQ record
+     * @return true to continue streaming, false to stop
+     */
+    boolean record(FastqRecord record);
+}
@@ -0,0 +1,219 @@
+/*
+
+    ngs-reads  Next generation sequencing (NGS/HTS) reads.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.reads.fastq;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.util.Arrays;
+
+import org.biojava.bio.program.fastq.StreamListener;
+
+/**
+ * High-throughput FASTQ reader.
+ *
+ * <p>
+ * Bytes are scanned directly from a reusable buffer into a reusable {@link FastqRecord} view,
+ * so no per-record strings or biojava <code>Fastq</code> objects are created unless requested
+ * by the listener.  Records must be in the common four line layout, with the sequence and quality
+ * each on a single line.
+ * </p>
+ */
+public final class FastqRecordReader {
+    /** Initial buffer size. */
+    static final int BUFFER_SIZE = 65536;
+
+
+    /**
+     * Private no-arg constructor.
+     */
+    private FastqRecordReader() {
+        // empty
+    }
+
+
+    /**
+     * Stream zero or more FASTQ records from the specified input stream.
+     *
+     * @param inputStream input stream to stream from, must not be null
+     * @param listener FASTQ record listener, must not be null
+     * @throws IOException if an I/O error occurs or the input is not valid FASTQ format
+     */
+    public static void stream(final InputStream inputStream, final FastqRecordListener listener) throws IOException {
+        checkNotNull(inputStream);
+        checkNotNull(listener);
+
+        FastqRecord record = new FastqRecord();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int[] lineEnds = new int[4];
+        int lines = 0;
+        int start = 0;
+        int scan = 0;
+        int limit = 0;
+        long lineNumber = 0L;
+        boolean eof = false;
+
+        while (true) {
+            // skip blank lines between records
+            while (lines == 0 && start < limit && (buffer[start] == '\n' || buffer[start] == '\r')) {
+                if (buffer[start] == '\n') {
+                    lineNumber++;
+                }
+                start++;
+                scan = start;
+            }
+            while (lines < 4) {
+                int newline = indexOf(buffer, scan, limit);
+                if (newline < 0) {
+                    break;
+                }
+                lineEnds[lines++] = newline;
+                scan = newline + 1;
+            }
+            if (lines == 3 && eof) {
+                lineEnds[lines++] = limit;
+                scan = limit;
+            }
+            if (lines == 4) {
+                decode(buffer, start, lineEnds, lineNumber + 1, record);
+                lineNumber += 4;
+                start = Math.min(lineEnds[3] + 1, limit);
+                scan = start;
+                lines = 0;
+                if (!listener.record(record)) {
+                    return;
+                }
+                continue;
+            }
+            if (eof) {
+                if (start < limit) {
+                    throw new IOException("truncated FASTQ record at line " + (lineNumber + 1));
+                }
+                return;
+            }
+
+            // compact the partial record to the start of the buffer, growing the buffer if necessary
+            if (start > 0) {
+                System.arraycopy(buffer, start, buffer, 0, limit - start);
+                for (int i = 0; i < lines; i++) {
+                    lineEnds[i] -= start;
+                }
+                scan -= start;
+                limit -= start;
+                start = 0;
+            }
+            if (limit == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            int read = inputStream.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                eof = true;
+            }
+            else {
+                limit += read;
+            }
+        }
+    }
+
+    /**
+     * Stream zero or more FASTQ records from the specified input stream to the specified
+     * biojava stream listener, for compatibility with existing biojava FASTQ code.
+     *
+     * @param inputStream input stream to stream from, must not be null
+     * @param listener biojava stream listener, must not be null
+     * @throws IOException if an I/O error occurs or the input is not valid FASTQ format
+     */
+    public static void stream(final InputStream inputStream, final StreamListener listener) throws IOException {
+        checkNotNull(inputStream);
+        checkNotNull(listener);
+        stream(inputStream, new FastqRecordListener() {
+                @Override
+                public boolean record(final FastqRecord record) {
+                    listener.fastq(record.toFastq());
+                    return true;
+                }
+            });
+    }
+
+    /**
+     * Decode the FASTQ record with the specified line ends into the specified FASTQ record.
+     *
+     * @param buffer buffer
+     * @param start record start
+     * @param lineEnds line ends
+     * @param lineNumber line number of the description line
+     * @param record FASTQ record to decode into
+     * @throws IOException if the record is not valid FASTQ format
+     */
+    private static void decode(final byte[] buffer, final int start, final int[] lineEnds, final long lineNumber, final FastqRecord record) throws IOException {
+        int descriptionEnd = trim(buffer, start, lineEnds[0]);
+        int sequenceStart = lineEnds[0] + 1;
+        int sequenceEnd = trim(buffer, sequenceStart, lineEnds[1]);
+        int separatorStart = lineEnds[1] + 1;
+        int qualityStart = lineEnds[2] + 1;
+        int qualityEnd = trim(buffer, qualityStart, lineEnds[3]);
+
+        if (descriptionEnd == start || buffer[start] != '@') {
+            throw new IOException("could not read FASTQ record at line " + lineNumber + ", description line must start with @");
+        }
+        if (separatorStart == lineEnds[2] || buffer[separatorStart] != '+') {
+            throw new IOException("could not read FASTQ record at line " + lineNumber + ", separator line must start with +");
+        }
+        int length = sequenceEnd - sequenceStart;
+        if (qualityEnd - qualityStart != length) {
+            throw new IOException("could not read FASTQ record at line " + lineNumber + ", sequence and quality lengths must match");
+        }
+        record.wrap(buffer, start + 1, descriptionEnd, sequenceStart, qualityStart, length, lineNumber);
+    }
+
+    /**
+     * Return the specified line end, less a trailing carriage return, if any.
+     *
+     * @param buffer buffer
+     * @param lineStart line start
+     * @param lineEnd line end
+     * @return the specified line end, less a trailing carriage return, if any
+     */
+    private static int trim(final byte[] buffer, final int lineStart, final int lineEnd) {
+        return (lineEnd > lineStart && buffer[lineEnd - 1] == '\r') ? lineEnd - 1 : lineEnd;
+    }
+
+    /**
+     * Return the index of the next newline in the specified range of the specified buffer, or <code>-1</code>.
+     *
+     * @param buffer buffer
+     * @param from from, inclusive
+     * @param to to, exclusive
+     * @return the index of the next newline in the specified range of the specified buffer, or <code>-1</code>
+     */
+    private static int indexOf(final byte[] buffer, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
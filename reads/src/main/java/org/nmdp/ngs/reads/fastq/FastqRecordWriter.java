@@ -0,0 +1,191 @@
+/*
+
+    ngs-reads  Next generation sequencing (NGS/HTS) reads.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.reads.fastq;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.biojava.bio.program.fastq.Fastq;
+
+/**
+ * High-throughput FASTQ writer.
+ *
+ * <p>
+ * Records are copied in bulk into a reusable byte buffer, which is written to the
+ * underlying output stream when full.  Not thread safe.
+ * </p>
+ */
+public final class FastqRecordWriter implements Closeable, Flushable {
+    /** Default buffer size. */
+    static final int BUFFER_SIZE = 65536;
+
+    /** Output stream. */
+    private final OutputStream outputStream;
+
+    /** Buffer. */
+    private final byte[] buffer;
+
+    /** Number of bytes in the buffer. */
+    private int count;
+
+
+    /**
+     * Create a new FASTQ writer with the specified output stream.
+     *
+     * @param outputStream output stream, must not be null
+     */
+    public FastqRecordWriter(final OutputStream outputStream) {
+        this(outputStream, BUFFER_SIZE);
+    }
+
+    /**
+     * Create a new FASTQ writer with the specified output stream and buffer size.
+     *
+     * @param outputStream output stream, must not be null
+     * @param bufferSize buffer size, must be at least one
+     */
+    public FastqRecordWriter(final OutputStream outputStream, final int bufferSize) {
+        checkNotNull(outputStream);
+        checkArgument(bufferSize > 0, "bufferSize must be at least one");
+        this.outputStream = outputStream;
+        this.buffer = new byte[bufferSize];
+    }
+
+
+    /**
+     * Write the specified FASTQ record.
+     *
+     * @param record FASTQ record to write, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public void write(final FastqRecord record) throws IOException {
+        checkNotNull(record);
+        byte[] source = record.buffer();
+        put((byte) '@');
+        put(source, record.descriptionStart(), record.descriptionLength());
+        put((byte) '\n');
+        put(source, record.sequenceStart(), record.length());
+        put((byte) '\n');
+        put((byte) '+');
+        put((byte) '\n');
+        put(source, record.qualityStart(), record.length());
+        put((byte) '\n');
+    }
+
+    /**
+     * Write the specified biojava FASTQ.
+     *
+     * @param fastq biojava FASTQ to write, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public void write(final Fastq fastq) throws IOException {
+        checkNotNull(fastq);
+        put((byte) '@');
+        put(fastq.getDescription());
+        put((byte) '\n');
+        put(fastq.getSequence());
+        put((byte) '\n');
+        put((byte) '+');
+        put((byte) '\n');
+        put(fastq.getQuality());
+        put((byte) '\n');
+    }
+
+    /**
+     * Put the specified byte into the buffer.
+     *
+     * @param b byte
+     * @throws IOException if an I/O error occurs
+     */
+    private void put(final byte b) throws IOException {
+        if (count == buffer.length) {
+            flushBuffer();
+        }
+        buffer[count++] = b;
+    }
+
+    /**
+     * Put the specified range of bytes into the buffer.
+     *
+     * @param source source
+     * @param offset offset
+     * @param length length
+     * @throws IOException if an I/O error occurs
+     */
+    private void put(final byte[] source, final int offset, final int length) throws IOException {
+        if (length > buffer.length - count) {
+            flushBuffer();
+            if (length > buffer.length) {
+                outputStream.write(source, offset, length);
+                return;
+            }
+        }
+        System.arraycopy(source, offset, buffer, count, length);
+        count += length;
+    }
+
+    /**
+     * Put the specified ASCII string into the buffer.
+     *
+     * @param value string
+     * @throws IOException if an I/O error occurs
+     */
+    private void put(final String value) throws IOException {
+        for (int i = 0, length = value.length(); i < length; i++) {
+            put((byte) value.charAt(i));
+        }
+    }
+
+    /**
+     * Write the buffer to the output stream.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            outputStream.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        outputStream.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBuffer();
+        }
+        finally {
+            outputStream.close();
+        }
+    }
+}
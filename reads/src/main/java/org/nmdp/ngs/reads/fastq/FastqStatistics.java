@@ -0,0 +1,569 @@
+/*
+
+    ngs-reads  Next generation sequencing (NGS/HTS) reads.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.reads.fastq;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+
+/**
+ * Single pass FASTQ statistics accumulator, for per-cycle quality, per-cycle base composition,
+ * length histogram, GC content, and duplicate rate.
+ *
+ * <p>
+ * All statistics are accumulated into primitive histograms, so memory use depends only on the
+ * maximum read length and the duplicate sample size, not on the number of records.  Accumulators
+ * are not thread safe; instead each thread should accumulate into its own instance, and the
+ * instances merged at the end with {@link #merge(FastqStatistics)}.  Merged results do not depend on
+ * how the records were partitioned between instances.
+ * </p>
+ *
+ * <p>
+ * The number of distinct sequences is counted exactly until the duplicate sample fills, and is
+ * estimated from an adaptive hash sample (keeping only sequence hashes with at least <i>level</i>
+ * trailing zero bits) thereafter.
+ * </p>
+ */
+public final class FastqStatistics implements FastqRecordListener {
+    /** Maximum Phred quality score, Sanger FASTQ encoding. */
+    public static final int MAXIMUM_QUALITY_SCORE = 93;
+
+    /** Default duplicate sample size. */
+    public static final int DEFAULT_DUPLICATE_SAMPLE_SIZE = 65536;
+
+    /** Base symbols, in base index order. */
+    private static final char[] BASES = { 'A', 'C', 'G', 'T', 'N' };
+
+    /** Number of quality score bins per cycle. */
+    private static final int QUALITIES = MAXIMUM_QUALITY_SCORE + 1;
+
+    /** Base index by sequence byte, <code>4</code> for N and any other symbol. */
+    private static final byte[] BASE_INDEX = new byte[256];
+
+    /** Initial number of cycles. */
+    private static final int INITIAL_CYCLES = 128;
+
+    static {
+        Arrays.fill(BASE_INDEX, (byte) 4);
+        for (int i = 0; i < 4; i++) {
+            BASE_INDEX[BASES[i]] = (byte) i;
+            BASE_INDEX[Character.toLowerCase(BASES[i])] = (byte) i;
+        }
+    }
+
+    /** Number of records. */
+    private long count;
+
+    /** Number of bases. */
+    private long bases;
+
+    /** Number of G or C bases. */
+    private long gc;
+
+    /** Maximum length. */
+    private int maximumLength;
+
+    /** Minimum length. */
+    private int minimumLength = Integer.MAX_VALUE;
+
+    /** Length histogram, indexed by length. */
+    private long[] lengths = new long[INITIAL_CYCLES + 1];
+
+    /** Per-cycle quality score histograms, indexed by <code>cycle * QUALITIES + score</code>. */
+    private long[] qualities = new long[INITIAL_CYCLES * QUALITIES];
+
+    /** Per-cycle base histograms, indexed by <code>cycle * BASES.length + base index</code>. */
+    private long[] composition = new long[INITIAL_CYCLES * BASES.length];
+
+    /** Per-record GC content histogram, in percent. */
+    private final long[] gcContent = new long[101];
+
+    /** Duplicate sample. */
+    private final HashSample duplicates;
+
+
+    /**
+     * Create a new FASTQ statistics accumulator with the specified duplicate sample size.
+     *
+     * @param duplicateSampleSize duplicate sample size, must be at least one
+     */
+    private FastqStatistics(final int duplicateSampleSize) {
+        duplicates = new HashSample(duplicateSampleSize);
+    }
+
+
+    @Override
+    public boolean record(final FastqRecord record) {
+        checkNotNull(record);
+        add(record.buffer(), record.sequenceStart(), record.qualityStart(), record.length());
+        return true;
+    }
+
+    /**
+     * Add the specified sequence and quality to this accumulator.
+     *
+     * @param buffer buffer
+     * @param sequenceStart sequence start offset into the buffer
+     * @param qualityStart quality start offset into the buffer
+     * @param length sequence and quality length
+     */
+    private void add(final byte[] buffer, final int sequenceStart, final int qualityStart, final int length) {
+        ensureCycles(length);
+        count++;
+        bases += length;
+        lengths[length]++;
+        maximumLength = Math.max(maximumLength, length);
+        minimumLength = Math.min(minimumLength, length);
+
+        int gcCount = 0;
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0, q = 0, b = 0; i < length; i++, q += QUALITIES, b += BASES.length) {
+            int base = buffer[sequenceStart + i] & 0xff;
+            int index = BASE_INDEX[base];
+            composition[b + index]++;
+            if (index == 1 || index == 2) {
+                gcCount++;
+            }
+            int score = buffer[qualityStart + i] - FastqRecord.QUALITY_OFFSET;
+            qualities[q + Math.max(0, Math.min(score, MAXIMUM_QUALITY_SCORE))]++;
+
+            // FNV-1a, case insensitive
+            hash ^= (base >= 'a' && base <= 'z') ? base - 32 : base;
+            hash *= 0x100000001b3L;
+        }
+        gc += gcCount;
+        if (length > 0) {
+            gcContent[(int) ((200L * gcCount + length) / (2L * length))]++;
+        }
+        duplicates.add(mix(hash));
+    }
+
+    /**
+     * Ensure this accumulator has room for at least the specified number of cycles.
+     *
+     * @param cycles number of cycles
+     */
+    private void ensureCycles(final int cycles) {
+        if (cycles >= lengths.length) {
+            int capacity = Math.max(cycles + 1, lengths.length * 2);
+            lengths = Arrays.copyOf(lengths, capacity);
+            qualities = Arrays.copyOf(qualities, capacity * QUALITIES);
+            composition = Arrays.copyOf(composition, capacity * BASES.length);
+        }
+    }
+
+    /**
+     * Merge the specified FASTQ statistics accumulator into this one.
+     *
+     * @param other FASTQ statistics accumulator to merge, must not be null
+     * @return this FASTQ statistics accumulator
+     */
+    public FastqStatistics merge(final FastqStatistics other) {
+        checkNotNull(other);
+        checkArgument(other != this, "cannot merge with self");
+        ensureCycles(other.maximumLength);
+        count += other.count;
+        bases += other.bases;
+        gc += other.gc;
+        maximumLength = Math.max(maximumLength, other.maximumLength);
+        minimumLength = Math.min(minimumLength, other.minimumLength);
+        add(lengths, other.lengths, other.maximumLength + 1);
+        add(qualities, other.qualities, other.maximumLength * QUALITIES);
+        add(composition, other.composition, other.maximumLength * BASES.length);
+        add(gcContent, other.gcContent, gcContent.length);
+        duplicates.merge(other.duplicates);
+        return this;
+    }
+
+    /**
+     * Add the first <code>length</code> values of the specified source to the specified target.
+     *
+     * @param target target
+     * @param source source
+     * @param length length
+     */
+    private static void add(final long[] target, final long[] source, final int length) {
+        for (int i = 0; i < length; i++) {
+            target[i] += source[i];
+        }
+    }
+
+
+    /**
+     * Return the number of records.
+     *
+     * @return the number of records
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Return the number of bases.
+     *
+     * @return the number of bases
+     */
+    public long bases() {
+        return bases;
+    }
+
+    /**
+     * Return the number of cycles, that is the maximum length.
+     *
+     * @return the number of cycles
+     */
+    public int cycles() {
+        return maximumLength;
+    }
+
+    /**
+     * Return the minimum length, or <code>0</code> if no records have been accumulated.
+     *
+     * @return the minimum length
+     */
+    public int minimumLength() {
+        return count == 0L ? 0 : minimumLength;
+    }
+
+    /**
+     * Return the maximum length, or <code>0</code> if no records have been accumulated.
+     *
+     * @return the maximum length
+     */
+    public int maximumLength() {
+        return maximumLength;
+    }
+
+    /**
+     * Return the mean length, or <code>0.0</code> if no records have been accumulated.
+     *
+     * @return the mean length
+     */
+    public double meanLength() {
+        return count == 0L ? 0.0d : (double) bases / count;
+    }
+
+    /**
+     * Return the number of records with the specified length.
+     *
+     * @param length length, must be at least zero
+     * @return the number of records with the specified length
+     */
+    public long lengthCount(final int length) {
+        checkArgument(length >= 0, "length must be at least zero");
+        return length > maximumLength ? 0L : lengths[length];
+    }
+
+    /**
+     * Return the fraction of G or C bases, or <code>0.0</code> if no bases have been accumulated.
+     *
+     * @return the fraction of G or C bases
+     */
+    public double gcContent() {
+        return bases == 0L ? 0.0d : (double) gc / bases;
+    }
+
+    /**
+     * Return the number of records with the specified GC content, rounded to the nearest percent.
+     *
+     * @param percent GC content percent, <code>[0, 100]</code>
+     * @return the number of records with the specified GC content
+     */
+    public long gcContentCount(final int percent) {
+        checkElementIndex(percent, gcContent.length);
+        return gcContent[percent];
+    }
+
+    /**
+     * Return the number of records at the specified cycle, that is with length greater than the specified cycle.
+     *
+     * @param cycle zero-based cycle, <code>[0, cycles())</code>
+     * @return the number of records at the specified cycle
+     */
+    public long cycleCount(final int cycle) {
+        checkElementIndex(cycle, maximumLength);
+        long cycleCount = 0L;
+        for (int i = 0, offset = cycle * BASES.length; i < BASES.length; i++) {
+            cycleCount += composition[offset + i];
+        }
+        return cycleCount;
+    }
+
+    /**
+     * Return the number of bases at the specified cycle with the specified Phred quality score.
+     * Quality scores outside of <code>[0, MAXIMUM_QUALITY_SCORE]</code> are counted at the nearest bound.
+     *
+     * @param cycle zero-based cycle, <code>[0, cycles())</code>
+     * @param qualityScore Phred quality score, <code>[0, MAXIMUM_QUALITY_SCORE]</code>
+     * @return the number of bases at the specified cycle with the specified Phred quality score
+     */
+    public long qualityCount(final int cycle, final int qualityScore) {
+        checkElementIndex(cycle, maximumLength);
+        checkElementIndex(qualityScore, QUALITIES);
+        return qualities[cycle * QUALITIES + qualityScore];
+    }
+
+    /**
+     * Return the mean Phred quality score at the specified cycle.
+     *
+     * @param cycle zero-based cycle, <code>[0, cycles())</code>
+     * @return the mean Phred quality score at the specified cycle
+     */
+    public double meanQuality(final int cycle) {
+        checkElementIndex(cycle, maximumLength);
+        long n = 0L;
+        long sum = 0L;
+        for (int i = 0, offset = cycle * QUALITIES; i < QUALITIES; i++) {
+            n += qualities[offset + i];
+            sum += i * qualities[offset + i];
+        }
+        return n == 0L ? 0.0d : (double) sum / n;
+    }
+
+    /**
+     * Return the Phred quality score at the specified quantile at the specified cycle, that is the
+     * smallest quality score with at least the specified fraction of bases at or below it.
+     *
+     * @param cycle zero-based cycle, <code>[0, cycles())</code>
+     * @param quantile quantile, <code>[0.0, 1.0]</code>
+     * @return the Phred quality score at the specified quantile at the specified cycle
+     */
+    public int qualityQuantile(final int cycle, final double quantile) {
+        checkArgument(quantile >= 0.0d && quantile <= 1.0d, "quantile must be in the range [0.0, 1.0]");
+        long n = cycleCount(cycle);
+        double threshold = quantile * n;
+        long cumulative = 0L;
+        for (int i = 0, offset = cycle * QUALITIES; i < QUALITIES; i++) {
+            cumulative += qualities[offset + i];
+            if (cumulative > 0L && cumulative >= threshold) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Return the number of the specified base at the specified cycle.
+     *
+     * @param cycle zero-based cycle, <code>[0, cycles())</code>
+     * @param base base, one of <code>A</code>, <code>C</code>, <code>G</code>, <code>T</code>, or
+     *    <code>N</code> for N and any other symbol, case insensitive
+     * @return the number of the specified base at the specified cycle
+     */
+    public long baseCount(final int cycle, final char base) {
+        checkElementIndex(cycle, maximumLength);
+        char upper = Character.toUpperCase(base);
+        int index = (upper < 256) ? BASE_INDEX[upper] : 4;
+        checkArgument(index < 4 || upper == 'N', "base must be one of A, C, G, T, or N");
+        return composition[cycle * BASES.length + index];
+    }
+
+    /**
+     * Return the number of distinct sequences, exact until the duplicate sample fills and estimated thereafter.
+     *
+     * @return the number of distinct sequences
+     */
+    public long distinct() {
+        return duplicates.estimate();
+    }
+
+    /**
+     * Return true if the number of distinct sequences is exact, that is the duplicate sample has not filled.
+     *
+     * @return true if the number of distinct sequences is exact
+     */
+    public boolean isDistinctExact() {
+        return duplicates.level == 0;
+    }
+
+    /**
+     * Return the duplicate rate, the fraction of records with a sequence seen in a previous record.
+     *
+     * @return the duplicate rate
+     */
+    public double duplicateRate() {
+        return count == 0L ? 0.0d : Math.max(0.0d, 1.0d - (double) distinct() / count);
+    }
+
+
+    /**
+     * Create and return a new FASTQ statistics accumulator with the default duplicate sample size.
+     *
+     * @return a new FASTQ statistics accumulator with the default duplicate sample size
+     */
+    public static FastqStatistics create() {
+        return create(DEFAULT_DUPLICATE_SAMPLE_SIZE);
+    }
+
+    /**
+     * Create and return a new FASTQ statistics accumulator with the specified duplicate sample size.
+     *
+     * @param duplicateSampleSize duplicate sample size, must be at least one
+     * @return a new FASTQ statistics accumulator with the specified duplicate sample size
+     */
+    public static FastqStatistics create(final int duplicateSampleSize) {
+        checkArgument(duplicateSampleSize > 0, "duplicate sample size must be at least one");
+        return new FastqStatistics(duplicateSampleSize);
+    }
+
+    /**
+     * Return the specified hash with its bits well mixed (murmur3 64-bit finalizer).
+     *
+     * @param hash hash
+     * @return the specified hash with its bits well mixed
+     */
+    static long mix(final long hash) {
+        long h = hash;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Adaptive sample of distinct hashes in an open addressing primitive hash set.
+     */
+    static final class HashSample {
+        /** Sample size. */
+        private final int sampleSize;
+
+        /** Open addressing table, <code>0L</code> marks an empty slot. */
+        private long[] table;
+
+        /** Number of hashes in the table. */
+        private int size;
+
+        /** True if the zero hash has been seen. */
+        private boolean zero;
+
+        /** Sampling level, minimum number of trailing zero bits in sampled hashes. */
+        private int level;
+
+
+        /**
+         * Create a new hash sample with the specified sample size.
+         *
+         * @param sampleSize sample size
+         */
+        HashSample(final int sampleSize) {
+            this.sampleSize = sampleSize;
+            table = new long[Math.max(16, Integer.highestOneBit(sampleSize) * 4)];
+        }
+
+
+        /**
+         * Add the specified hash to this sample.
+         *
+         * @param hash hash
+         */
+        void add(final long hash) {
+            if (Long.numberOfTrailingZeros(hash) < level) {
+                return;
+            }
+            if (hash == 0L) {
+                if (!zero) {
+                    zero = true;
+                    size++;
+                }
+            }
+            else {
+                int mask = table.length - 1;
+                int slot = (int) (hash >>> 32) & mask;
+                while (table[slot] != 0L) {
+                    if (table[slot] == hash) {
+                        return;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = hash;
+                size++;
+            }
+            while (size > sampleSize) {
+                level++;
+                prune();
+            }
+        }
+
+        /**
+         * Remove hashes below the current level from this sample.
+         */
+        private void prune() {
+            long[] previous = table;
+            table = new long[previous.length];
+            size = zero ? 1 : 0;
+            for (long hash : previous) {
+                if (hash != 0L && Long.numberOfTrailingZeros(hash) >= level) {
+                    insert(hash);
+                }
+            }
+        }
+
+        /**
+         * Insert the specified non-zero hash known not to be in the table.
+         *
+         * @param hash hash
+         */
+        private void insert(final long hash) {
+            int mask = table.length - 1;
+            int slot = (int) (hash >>> 32) & mask;
+            while (table[slot] != 0L) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = hash;
+            size++;
+        }
+
+        /**
+         * Merge the specified hash sample into this one.
+         *
+         * @param other hash sample to merge
+         */
+        void merge(final HashSample other) {
+            if (other.level > level) {
+                level = other.level;
+                prune();
+            }
+            if (other.zero) {
+                add(0L);
+            }
+            for (long hash : other.table) {
+                if (hash != 0L) {
+                    add(hash);
+                }
+            }
+        }
+
+        /**
+         * Return the estimated number of distinct hashes.
+         *
+         * @return the estimated number of distinct hashes
+         */
+        long estimate() {
+            return ((long) size) << level;
+        }
+    }
+}
@@ -22,34 +22,26 @@
 */
 package org.nmdp.ngs.reads.mutation;
 
-import org.biojava.bio.seq.DNATools;
-
-import org.biojava.bio.symbol.IllegalSymbolException;
-import org.biojava.bio.symbol.SimpleSymbolList;
 import org.biojava.bio.symbol.Symbol;
 import org.biojava.bio.symbol.SymbolList;
 
+import org.nmdp.ngs.reads.ByteMutationStrategy;
 import org.nmdp.ngs.reads.MutationStrategy;
+import org.nmdp.ngs.reads.SequenceBuffer;
 
 /**
  * Ambiguous substitution mutation strategy, replaces unambiguous base with <code>n</code>.
  */
-public final class AmbiguousSubstitutionMutationStrategy implements MutationStrategy
+public final class AmbiguousSubstitutionMutationStrategy implements MutationStrategy, ByteMutationStrategy
 {
-    /** Ambiguous symbol list. */
-    private static final SimpleSymbolList N = new SimpleSymbolList(DNATools.getDNA());
-
-    static {
-        try {
-            N.addSymbol(DNATools.n());
-        }
-        catch (IllegalSymbolException e) {
-            // ignore
-        }
-    }
 
     @Override
     public SymbolList mutate(final Symbol symbol) {
-        return N;
+        return Mutations.mutate(this, symbol);
+    }
+
+    @Override
+    public void mutate(final byte base, final SequenceBuffer sequence) {
+        sequence.append((byte) 'n');
     }
 }
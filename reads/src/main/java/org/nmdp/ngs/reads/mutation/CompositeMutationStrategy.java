@@ -30,12 +30,14 @@ import org.apache.commons.math3.random.RandomGenerator;
 import org.biojava.bio.symbol.Symbol;
 import org.biojava.bio.symbol.SymbolList;
 
+import org.nmdp.ngs.reads.ByteMutationStrategy;
 import org.nmdp.ngs.reads.MutationStrategy;
+import org.nmdp.ngs.reads.SequenceBuffer;
 
 /**
  * Composite mutation strategy.
  */
-public final class CompositeMutationStrategy implements MutationStrategy {
+public final class CompositeMutationStrategy implements MutationStrategy, ByteMutationStrategy {
     /** Random. */
     private final RandomGenerator random;
 
@@ -89,13 +91,20 @@ public final class CompositeMutationStrategy implements MutationStrategy {
 
     @Override
     public SymbolList mutate(final Symbol symbol) {
+        return Mutations.mutate(this, symbol);
+    }
+
+    @Override
+    public void mutate(final byte base, final SequenceBuffer sequence) {
         double d = random.nextDouble();
         if (d < substitutionRate) {
-            return substitution.mutate(symbol);
+            substitution.mutate(base, sequence);
+        }
+        else if (d < (substitutionRate + indelRate)) {
+            indel.mutate(base, sequence);
         }
-        if (d < (substitutionRate + indelRate)) {
-            return indel.mutate(symbol);
+        else {
+            ambiguous.mutate(base, sequence);
         }
-        return ambiguous.mutate(symbol);
     }
 }
@@ -22,23 +22,25 @@
 */
 package org.nmdp.ngs.reads.mutation;
 
-import org.biojava.bio.seq.DNATools;
-
-import org.biojava.bio.symbol.SimpleSymbolList;
 import org.biojava.bio.symbol.Symbol;
 import org.biojava.bio.symbol.SymbolList;
 
+import org.nmdp.ngs.reads.ByteMutationStrategy;
 import org.nmdp.ngs.reads.MutationStrategy;
+import org.nmdp.ngs.reads.SequenceBuffer;
 
 /**
  * Deletion mutation strategy.
  */
-public final class DeletionMutationStrategy implements MutationStrategy {
-    /** Empty symbol list. */
-    private static final SymbolList EMPTY = new SimpleSymbolList(DNATools.getDNA());
+public final class DeletionMutationStrategy implements MutationStrategy, ByteMutationStrategy {
 
     @Override
     public SymbolList mutate(final Symbol symbol) {
-        return EMPTY;
+        return Mutations.mutate(this, symbol);
+    }
+
+    @Override
+    public void mutate(final byte base, final SequenceBuffer sequence) {
+        // empty
     }
 }
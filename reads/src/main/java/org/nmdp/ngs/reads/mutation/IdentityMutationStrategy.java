@@ -22,29 +22,25 @@
 */
 package org.nmdp.ngs.reads.mutation;
 
-import org.biojava.bio.seq.DNATools;
-
-import org.biojava.bio.symbol.IllegalSymbolException;
-import org.biojava.bio.symbol.SimpleSymbolList;
 import org.biojava.bio.symbol.Symbol;
 import org.biojava.bio.symbol.SymbolList;
 
+import org.nmdp.ngs.reads.ByteMutationStrategy;
 import org.nmdp.ngs.reads.MutationStrategy;
+import org.nmdp.ngs.reads.SequenceBuffer;
 
 /**
  * Identity mutation strategy.
  */
-public final class IdentityMutationStrategy implements MutationStrategy {
+public final class IdentityMutationStrategy implements MutationStrategy, ByteMutationStrategy {
 
     @Override
     public SymbolList mutate(final Symbol symbol) {
-        SimpleSymbolList symbolList = new SimpleSymbolList(DNATools.getDNA());
-        try {
-            symbolList.addSymbol(symbol);
-        }
-        catch (IllegalSymbolException e) {
-            // ignore
-        }
-        return symbolList;
+        return Mutations.mutate(this, symbol);
+    }
+
+    @Override
+    public void mutate(final byte base, final SequenceBuffer sequence) {
+        sequence.append(base);
     }
 }
@@ -30,12 +30,14 @@ import org.apache.commons.math3.random.RandomGenerator;
 import org.biojava.bio.symbol.Symbol;
 import org.biojava.bio.symbol.SymbolList;
 
+import org.nmdp.ngs.reads.ByteMutationStrategy;
 import org.nmdp.ngs.reads.MutationStrategy;
+import org.nmdp.ngs.reads.SequenceBuffer;
 
 /**
  * Indel mutation strategy.
  */
-public final class IndelMutationStrategy implements MutationStrategy {
+public final class IndelMutationStrategy implements MutationStrategy, ByteMutationStrategy {
     /** Random. */
     private final RandomGenerator random;
 
@@ -72,6 +74,16 @@ public final class IndelMutationStrategy implements MutationStrategy {
 
     @Override
     public SymbolList mutate(final Symbol symbol) {
-        return random.nextDouble() < insertionRate ? insertion.mutate(symbol) : deletion.mutate(symbol);
+        return Mutations.mutate(this, symbol);
+    }
+
+    @Override
+    public void mutate(final byte base, final SequenceBuffer sequence) {
+        if (random.nextDouble() < insertionRate) {
+            insertion.mutate(base, sequence);
+        }
+        else {
+            deletion.mutate(base, sequence);
+        }
     }
 }
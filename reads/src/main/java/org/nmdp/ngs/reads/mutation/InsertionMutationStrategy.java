@@ -25,26 +25,19 @@ package org.nmdp.ngs.reads.mutation;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import java.util.List;
-
-import com.google.common.collect.ImmutableList;
-
 import org.apache.commons.math3.random.RandomGenerator;
 
-import org.biojava.bio.seq.DNATools;
-
-import org.biojava.bio.symbol.AtomicSymbol;
-import org.biojava.bio.symbol.IllegalSymbolException;
-import org.biojava.bio.symbol.SimpleSymbolList;
 import org.biojava.bio.symbol.Symbol;
 import org.biojava.bio.symbol.SymbolList;
 
+import org.nmdp.ngs.reads.ByteMutationStrategy;
 import org.nmdp.ngs.reads.MutationStrategy;
+import org.nmdp.ngs.reads.SequenceBuffer;
 
 /**
  * Insertion mutation strategy.
  */
-public final class InsertionMutationStrategy implements MutationStrategy {
+public final class InsertionMutationStrategy implements MutationStrategy, ByteMutationStrategy {
     /** Random. */
     private final RandomGenerator random;
 
@@ -55,9 +48,6 @@ public final class InsertionMutationStrategy implements MutationStrategy {
     /** Maximum insertion length. */
     private final int maximumInsertionLength;
 
-    /** List of DNA symbols. */
-    private static final List<AtomicSymbol> SYMBOLS = ImmutableList.of(DNATools.a(), DNATools.c(), DNATools.g(), DNATools.t());
-
 
     /**
      * Create a new insertion mutation strategy with the specified parameters.
@@ -77,25 +67,17 @@ public final class InsertionMutationStrategy implements MutationStrategy {
 
     @Override
     public SymbolList mutate(final Symbol symbol) {
-        SimpleSymbolList symbolList = new SimpleSymbolList(DNATools.getDNA());
-        try {
-            symbolList.addSymbol(symbol);
-        }
-        catch (IllegalSymbolException e) {
-            // ignore
-        }
-        while (symbolList.length() < maximumInsertionLength) {
+        return Mutations.mutate(this, symbol);
+    }
+
+    @Override
+    public void mutate(final byte base, final SequenceBuffer sequence) {
+        sequence.append(base);
+        for (int length = 1; length < maximumInsertionLength; length++) {
             if (random.nextDouble() < insertionRate) {
                 break;
             }
-            int index = random.nextInt(SYMBOLS.size());
-            try {
-                symbolList.addSymbol(SYMBOLS.get(index));
-            }
-            catch (IllegalSymbolException e) {
-                // ignore
-            }
+            sequence.append(Mutations.BASES[random.nextInt(Mutations.BASES.length)]);
         }
-        return symbolList;
     }
 }
@@ -0,0 +1,68 @@
+/*
+
+    ngs-reads  Next generation sequencing (NGS/HTS) reads.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.reads.mutation;
+
+import org.biojava.bio.seq.DNATools;
+
+import org.biojava.bio.symbol.IllegalSymbolException;
+import org.biojava.bio.symbol.SimpleSymbolList;
+import org.biojava.bio.symbol.Symbol;
+import org.biojava.bio.symbol.SymbolList;
+
+import org.nmdp.ngs.reads.ByteMutationStrategy;
+import org.nmdp.ngs.reads.SequenceBuffer;
+
+/**
+ * Mutation strategy utility methods.
+ */
+final class Mutations {
+    /** Unambiguous DNA bases. */
+    static final byte[] BASES = { 'a', 'c', 'g', 't' };
+
+
+    /**
+     * Private no-arg constructor.
+     */
+    private Mutations() {
+        // empty
+    }
+
+
+    /**
+     * Mutate the specified symbol with the specified byte mutation strategy.
+     *
+     * @param mutation byte mutation strategy
+     * @param symbol symbol to mutate
+     * @return a symbol list of zero or more mutated symbols
+     */
+    static SymbolList mutate(final ByteMutationStrategy mutation, final Symbol symbol) {
+        SequenceBuffer sequence = new SequenceBuffer(4);
+        try {
+            mutation.mutate((byte) DNATools.dnaToken(symbol), sequence);
+            return DNATools.createDNA(sequence.toString());
+        }
+        catch (IllegalSymbolException e) {
+            return new SimpleSymbolList(DNATools.getDNA());
+        }
+    }
+}
@@ -24,32 +24,22 @@ package org.nmdp.ngs.reads.mutation;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import java.util.List;
-
-import com.google.common.collect.ImmutableList;
-
 import org.apache.commons.math3.random.RandomGenerator;
 
-import org.biojava.bio.seq.DNATools;
-
-import org.biojava.bio.symbol.AtomicSymbol;
-import org.biojava.bio.symbol.IllegalSymbolException;
-import org.biojava.bio.symbol.SimpleSymbolList;
 import org.biojava.bio.symbol.Symbol;
 import org.biojava.bio.symbol.SymbolList;
 
+import org.nmdp.ngs.reads.ByteMutationStrategy;
 import org.nmdp.ngs.reads.MutationStrategy;
+import org.nmdp.ngs.reads.SequenceBuffer;
 
 /**
  * Substitution mutation strategy.
  */
-public final class SubstitutionMutationStrategy implements MutationStrategy {
+public final class SubstitutionMutationStrategy implements MutationStrategy, ByteMutationStrategy {
     /** Random. */
     private final RandomGenerator random;
 
-    /** List of DNA symbols. */
-    private static final List<AtomicSymbol> SYMBOLS = ImmutableList.of(DNATools.a(), DNATools.c(), DNATools.g(), DNATools.t());
-
 
     /**
      * Create a new substitution mutation strategy.
@@ -64,14 +54,11 @@ public final class SubstitutionMutationStrategy implements MutationStrategy {
 
     @Override
     public SymbolList mutate(final Symbol symbol) {
-        SimpleSymbolList symbolList = new SimpleSymbolList(DNATools.getDNA());
-        int index = random.nextInt(SYMBOLS.size());
-        try {
-            symbolList.addSymbol(SYMBOLS.get(index));
-        }
-        catch (IllegalSymbolException e) {
-            // ignore
-        }
-        return symbolList;
+        return Mutations.mutate(this, symbol);
+    }
+
+    @Override
+    public void mutate(final byte base, final SequenceBuffer sequence) {
+        sequence.append(Mutations.BASES[random.nextInt(Mutations.BASES.length)]);
     }
 }
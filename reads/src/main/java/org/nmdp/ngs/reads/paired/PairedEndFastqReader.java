@@ -22,14 +22,24 @@
 */
 package org.nmdp.ngs.reads.paired;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
 
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentHashMap;
@@ -45,12 +55,23 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Ordering;
 import com.google.common.collect.Lists;
 
+import com.google.common.io.Files;
+
 import org.biojava.bio.program.fastq.Fastq;
 import org.biojava.bio.program.fastq.SangerFastqReader;
 import org.biojava.bio.program.fastq.StreamListener;
 
+import org.nmdp.ngs.reads.fastq.FastqRecordReader;
+import org.nmdp.ngs.reads.fastq.FastqRecordWriter;
+
 /**
  * Paired end FASTQ reads reader.
+ *
+ * <p>
+ * Methods that accept input streams parse FASTQ with the byte-level {@link FastqRecordReader}, which requires
+ * the common four line layout.  Methods that accept readables are character based, so they parse FASTQ with
+ * biojava <code>SangerFastqReader</code>, which also accepts multi-line sequence and quality.
+ * </p>
  */
 public final class PairedEndFastqReader {
     /** Pattern for the left or first read of a paired end read, relies on convention of "<code> 1</code>" or "<code>\1</code>" in the description line. */
@@ -62,6 +83,15 @@ public final class PairedEndFastqReader {
     /** Pattern for capturing the prefix of a paired end read name, relies on convention of "<code> 1</code>", "<code>\1</code>", "<code> 2</code>", or "<code>\2</code>" in the description line. */
     static final Pattern PREFIX = Pattern.compile("^(.+)[ \\\\][12].*$");
 
+    /** Default look-ahead window size for lock-step streaming, in reads. */
+    static final int DEFAULT_WINDOW_SIZE = 100000;
+
+    /** Capacity of the queue between each FASTQ parser thread and the lock-step pairing loop, in reads. */
+    static final int QUEUE_CAPACITY = 1024;
+
+    /** Number of spill file partitions per input for lock-step streaming. */
+    static final int SPILL_PARTITIONS = 64;
+
 
     /**
      * Private no-arg constructor.
@@ -183,6 +213,38 @@ public final class PairedEndFastqReader {
         checkNotNull(firstReadable);
         checkNotNull(secondReadable);
         checkNotNull(listener);
+        streamPaired(source(firstReadable), source(secondReadable), listener);
+    }
+
+    /**
+     * Stream the specified paired end reads.  RAM usage is minimal if the paired end reads are sorted.
+     *
+     * @param firstInputStream first input stream, must not be null
+     * @param secondInputStream second input stream, must not be null
+     * @param listener paired end listener, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public static void streamPaired(final InputStream firstInputStream,
+                                    final InputStream secondInputStream,
+                                    final PairedEndListener listener) throws IOException {
+
+        checkNotNull(firstInputStream);
+        checkNotNull(secondInputStream);
+        checkNotNull(listener);
+        streamPaired(source(firstInputStream), source(secondInputStream), listener);
+    }
+
+    /**
+     * Stream the specified paired end reads.
+     *
+     * @param firstSource first FASTQ source
+     * @param secondSource second FASTQ source
+     * @param listener paired end listener
+     * @throws IOException if an I/O error occurs
+     */
+    private static void streamPaired(final FastqSource firstSource,
+                                     final FastqSource secondSource,
+                                     final PairedEndListener listener) throws IOException {
 
         final ConcurrentMap<String, Fastq> keyedByPrefix = new ConcurrentHashMap<>();
 
@@ -211,14 +273,14 @@ public final class PairedEndFastqReader {
             Callable<Void> task1 = new Callable<Void>() {
                 @Override
                 public Void call() throws IOException {
-                    new SangerFastqReader().stream(firstReadable, streamListener);
+                    firstSource.stream(streamListener);
                     return null;
                 }
             };
             Callable<Void> task2 = new Callable<Void>() {
                 @Override
                 public Void call() throws IOException {
-                    new SangerFastqReader().stream(secondReadable, streamListener);
+                    secondSource.stream(streamListener);
                     return null;
                 }
             };
@@ -243,6 +305,547 @@ public final class PairedEndFastqReader {
         }
     }
 
+    /**
+     * Stream the specified paired end reads in lock-step, reading one read from each readable in tandem
+     * and pairing them if their prefixes match.  RAM usage is constant if the paired end reads are in the
+     * same order in both readables, as is the case for Illumina output.  Reads that are out of order are
+     * held in a look-ahead window of {@link #DEFAULT_WINDOW_SIZE} reads, spilling to disk if necessary.
+     *
+     * @param firstReadable first readable, must not be null
+     * @param secondReadable second readable, must not be null
+     * @param listener paired end listener, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public static void streamPairedLockstep(final Readable firstReadable,
+                                            final Readable secondReadable,
+                                            final PairedEndListener listener) throws IOException {
+        streamPairedLockstep(firstReadable, secondReadable, DEFAULT_WINDOW_SIZE, listener);
+    }
+
+    /**
+     * Stream the specified paired end reads in lock-step, reading one read from each readable in tandem
+     * and pairing them if their prefixes match.  RAM usage is constant if the paired end reads are in the
+     * same order in both readables, as is the case for Illumina output.  Reads that are out of order are
+     * held in a look-ahead window of at most <code>windowSize</code> reads, beyond which the oldest reads
+     * are spilled to temporary files partitioned by prefix and paired after both readables are exhausted.
+     *
+     * @param firstReadable first readable, must not be null
+     * @param secondReadable second readable, must not be null
+     * @param windowSize look-ahead window size, in reads, must be at least one
+     * @param listener paired end listener, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public static void streamPairedLockstep(final Readable firstReadable,
+                                            final Readable secondReadable,
+                                            final int windowSize,
+                                            final PairedEndListener listener) throws IOException {
+
+        checkNotNull(firstReadable);
+        checkNotNull(secondReadable);
+        checkArgument(windowSize > 0, "windowSize must be at least one");
+        checkNotNull(listener);
+        streamPairedLockstep(source(firstReadable), source(secondReadable), windowSize, listener);
+    }
+
+    /**
+     * Stream the specified paired end reads in lock-step, reading one read from each input stream in tandem
+     * and pairing them if their prefixes match.  RAM usage is constant if the paired end reads are in the
+     * same order in both input streams, as is the case for Illumina output.  Reads that are out of order are
+     * held in a look-ahead window of {@link #DEFAULT_WINDOW_SIZE} reads, spilling to disk if necessary.
+     *
+     * @param firstInputStream first input stream, must not be null
+     * @param secondInputStream second input stream, must not be null
+     * @param listener paired end listener, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public static void streamPairedLockstep(final InputStream firstInputStream,
+                                            final InputStream secondInputStream,
+                                            final PairedEndListener listener) throws IOException {
+        streamPairedLockstep(firstInputStream, secondInputStream, DEFAULT_WINDOW_SIZE, listener);
+    }
+
+    /**
+     * Stream the specified paired end reads in lock-step, reading one read from each input stream in tandem
+     * and pairing them if their prefixes match.  RAM usage is constant if the paired end reads are in the
+     * same order in both input streams, as is the case for Illumina output.  Reads that are out of order are
+     * held in a look-ahead window of at most <code>windowSize</code> reads, beyond which the oldest reads
+     * are spilled to temporary files partitioned by prefix and paired after both input streams are exhausted.
+     *
+     * @param firstInputStream first input stream, must not be null
+     * @param secondInputStream second input stream, must not be null
+     * @param windowSize look-ahead window size, in reads, must be at least one
+     * @param listener paired end listener, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public static void streamPairedLockstep(final InputStream firstInputStream,
+                                            final InputStream secondInputStream,
+                                            final int windowSize,
+                                            final PairedEndListener listener) throws IOException {
+
+        checkNotNull(firstInputStream);
+        checkNotNull(secondInputStream);
+        checkArgument(windowSize > 0, "windowSize must be at least one");
+        checkNotNull(listener);
+        streamPairedLockstep(source(firstInputStream), source(secondInputStream), windowSize, listener);
+    }
+
+    /**
+     * Stream the specified paired end reads in lock-step.
+     *
+     * @param firstSource first FASTQ source
+     * @param secondSource second FASTQ source
+     * @param windowSize look-ahead window size, in reads
+     * @param listener paired end listener
+     * @throws IOException if an I/O error occurs
+     */
+    private static void streamPairedLockstep(final FastqSource firstSource,
+                                             final FastqSource secondSource,
+                                             final int windowSize,
+                                             final PairedEndListener listener) throws IOException {
+
+        FastqQueue firstQueue = new FastqQueue(firstSource);
+        FastqQueue secondQueue = new FastqQueue(secondSource);
+        Window window = new Window(windowSize, listener);
+        try {
+            Fastq first = firstQueue.next();
+            Fastq second = secondQueue.next();
+            while (first != null || second != null) {
+                if (first != null && second != null) {
+                    String firstPrefix = prefix(first);
+                    String secondPrefix = prefix(second);
+                    if (firstPrefix.equals(secondPrefix)) {
+                        pair(first, second, listener);
+                    }
+                    else {
+                        window.first(firstPrefix, first);
+                        window.second(secondPrefix, second);
+                    }
+                }
+                else if (first != null) {
+                    window.first(prefix(first), first);
+                }
+                else {
+                    window.second(prefix(second), second);
+                }
+                first = firstQueue.next();
+                second = secondQueue.next();
+            }
+            window.finish();
+        }
+        catch (PairedEndFastqReaderException e) {
+            throw new IOException("could not stream paired end FASTQ reads", e);
+        }
+        finally {
+            firstQueue.close();
+            secondQueue.close();
+            window.close();
+        }
+    }
+
+    /**
+     * Notify the specified listener of a paired end read from the specified reads with matching prefixes.
+     *
+     * @param fastq read
+     * @param other other read with a matching prefix
+     * @param listener paired end listener
+     */
+    private static void pair(final Fastq fastq, final Fastq other, final PairedEndListener listener) {
+        if (isLeft(fastq) && isRight(other)) {
+            listener.paired(fastq, other);
+        }
+        else if (isRight(fastq) && isLeft(other)) {
+            listener.paired(other, fastq);
+        }
+        else {
+            throw new PairedEndFastqReaderException("could not pair fastq " + fastq.getDescription() + " with other " + other.getDescription());
+        }
+    }
+
+    /**
+     * Source of FASTQ reads.
+     */
+    private interface FastqSource {
+
+        /**
+         * Stream the FASTQ reads from this source to the specified stream listener.
+         *
+         * @param streamListener stream listener
+         * @throws IOException if an I/O error occurs
+         */
+        void stream(StreamListener streamListener) throws IOException;
+    }
+
+    /**
+     * Return a FASTQ source for the specified readable, parsed with biojava.
+     *
+     * @param readable readable
+     * @return a FASTQ source for the specified readable
+     */
+    private static FastqSource source(final Readable readable) {
+        return new FastqSource() {
+            @Override
+            public void stream(final StreamListener streamListener) throws IOException {
+                new SangerFastqReader().stream(readable, streamListener);
+            }
+        };
+    }
+
+    /**
+     * Return a FASTQ source for the specified input stream, parsed with {@link FastqRecordReader}.
+     *
+     * @param inputStream input stream
+     * @return a FASTQ source for the specified input stream
+     */
+    private static FastqSource source(final InputStream inputStream) {
+        return new FastqSource() {
+            @Override
+            public void stream(final StreamListener streamListener) throws IOException {
+                FastqRecordReader.stream(inputStream, streamListener);
+            }
+        };
+    }
+
+    /**
+     * Bounded queue of FASTQ reads parsed from a FASTQ source on a separate thread.
+     */
+    private static final class FastqQueue {
+        /** End of stream marker. */
+        private static final Object END = new Object();
+
+        /** Queue of reads, the end of stream marker, or an exception. */
+        private final BlockingQueue<Object> queue = new ArrayBlockingQueue<Object>(QUEUE_CAPACITY);
+
+        /** Parser thread. */
+        private final Thread thread;
+
+        /** True if the end of stream has been reached. */
+        private boolean done;
+
+
+        /**
+         * Create a new FASTQ queue and start parsing the specified FASTQ source.
+         *
+         * @param source FASTQ source
+         */
+        FastqQueue(final FastqSource source) {
+            thread = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            source.stream(new StreamListener() {
+                                    @Override
+                                    public void fastq(final Fastq fastq) {
+                                        try {
+                                            queue.put(fastq);
+                                        }
+                                        catch (InterruptedException e) {
+                                            throw new StopException();
+                                        }
+                                    }
+                                });
+                            queue.put(END);
+                        }
+                        catch (StopException | InterruptedException e) {
+                            // closed by consumer
+                        }
+                        catch (IOException | RuntimeException e) {
+                            try {
+                                queue.put(e);
+                            }
+                            catch (InterruptedException ie) {
+                                // closed by consumer
+                            }
+                        }
+                    }
+                }, "fastq-queue");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+
+        /**
+         * Return the next read, or <code>null</code> if the end of stream has been reached.
+         *
+         * @return the next read, or <code>null</code> if the end of stream has been reached
+         * @throws IOException if an I/O error occurs
+         */
+        Fastq next() throws IOException {
+            if (done) {
+                return null;
+            }
+            Object next;
+            try {
+                next = queue.take();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("interrupted while streaming FASTQ reads", e);
+            }
+            if (next == END) {
+                done = true;
+                return null;
+            }
+            if (next instanceof IOException) {
+                done = true;
+                throw (IOException) next;
+            }
+            if (next instanceof RuntimeException) {
+                done = true;
+                throw new IOException("could not stream FASTQ reads", (RuntimeException) next);
+            }
+            return (Fastq) next;
+        }
+
+        /**
+         * Stop the parser thread.
+         */
+        void close() {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Thrown to stop a parser thread.
+     */
+    private static final class StopException extends RuntimeException {
+        // empty
+    }
+
+    /**
+     * Bounded look-ahead window of unpaired reads keyed by prefix, spilling to disk when full.
+     */
+    private static final class Window {
+        /** Maximum number of reads held in RAM. */
+        private final int size;
+
+        /** Paired end listener. */
+        private final PairedEndListener listener;
+
+        /** Unpaired reads from the first readable, keyed by prefix. */
+        private final Map<String, Fastq> firsts = new LinkedHashMap<String, Fastq>();
+
+        /** Unpaired reads from the second readable, keyed by prefix. */
+        private final Map<String, Fastq> seconds = new LinkedHashMap<String, Fastq>();
+
+        /** Spill directory, if any. */
+        private File directory;
+
+        /** Spill writers for reads from the first readable, by partition. */
+        private final FastqRecordWriter[] firstWriters = new FastqRecordWriter[SPILL_PARTITIONS];
+
+        /** Spill writers for reads from the second readable, by partition. */
+        private final FastqRecordWriter[] secondWriters = new FastqRecordWriter[SPILL_PARTITIONS];
+
+
+        /**
+         * Create a new look-ahead window.
+         *
+         * @param size maximum number of reads held in RAM
+         * @param listener paired end listener
+         */
+        Window(final int size, final PairedEndListener listener) {
+            this.size = size;
+            this.listener = listener;
+        }
+
+
+        /**
+         * Add the specified read from the first readable.
+         *
+         * @param prefix prefix
+         * @param fastq read
+         * @throws IOException if an I/O error occurs
+         */
+        void first(final String prefix, final Fastq fastq) throws IOException {
+            add(prefix, fastq, firsts, seconds);
+        }
+
+        /**
+         * Add the specified read from the second readable.
+         *
+         * @param prefix prefix
+         * @param fastq read
+         * @throws IOException if an I/O error occurs
+         */
+        void second(final String prefix, final Fastq fastq) throws IOException {
+            add(prefix, fastq, seconds, firsts);
+        }
+
+        /**
+         * Pair the specified read with a read from the other readable, or hold it in this window.
+         *
+         * @param prefix prefix
+         * @param fastq read
+         * @param same unpaired reads from the same readable
+         * @param other unpaired reads from the other readable
+         * @throws IOException if an I/O error occurs
+         */
+        private void add(final String prefix, final Fastq fastq, final Map<String, Fastq> same, final Map<String, Fastq> other) throws IOException {
+            Fastq mate = other.remove(prefix);
+            if (mate != null) {
+                pair(fastq, mate, listener);
+                return;
+            }
+            Fastq previous = same.put(prefix, fastq);
+            if (previous != null) {
+                listener.unpaired(previous);
+            }
+            if (firsts.size() + seconds.size() > size) {
+                boolean spillFirst = firsts.size() >= seconds.size();
+                Iterator<Map.Entry<String, Fastq>> eldest = (spillFirst ? firsts : seconds).entrySet().iterator();
+                Map.Entry<String, Fastq> entry = eldest.next();
+                spill(entry.getKey(), entry.getValue(), spillFirst ? firstWriters : secondWriters);
+                eldest.remove();
+            }
+        }
+
+        /**
+         * Spill the specified read to disk.
+         *
+         * @param prefix prefix
+         * @param fastq read
+         * @param writers spill writers by partition
+         * @throws IOException if an I/O error occurs
+         */
+        private void spill(final String prefix, final Fastq fastq, final FastqRecordWriter[] writers) throws IOException {
+            if (directory == null) {
+                directory = Files.createTempDir();
+            }
+            int partition = (prefix.hashCode() & Integer.MAX_VALUE) % SPILL_PARTITIONS;
+            if (writers[partition] == null) {
+                writers[partition] = new FastqRecordWriter(new FileOutputStream(spillFile(writers, partition)));
+            }
+            writers[partition].write(fastq);
+        }
+
+        /**
+         * Return the spill file for the specified writers and partition.
+         *
+         * @param writers spill writers by partition
+         * @param partition partition
+         * @return the spill file for the specified writers and partition
+         */
+        private File spillFile(final FastqRecordWriter[] writers, final int partition) {
+            return new File(directory, (writers == firstWriters ? "first-" : "second-") + partition + ".fastq");
+        }
+
+        /**
+         * Pair or report as unpaired all of the reads remaining in this window and in the spill files.
+         *
+         * @throws IOException if an I/O error occurs
+         */
+        void finish() throws IOException {
+            if (directory != null) {
+                // move the remaining reads into the spill files so that mates always share a partition
+                for (Map.Entry<String, Fastq> entry : firsts.entrySet()) {
+                    spill(entry.getKey(), entry.getValue(), firstWriters);
+                }
+                for (Map.Entry<String, Fastq> entry : seconds.entrySet()) {
+                    spill(entry.getKey(), entry.getValue(), secondWriters);
+                }
+                firsts.clear();
+                seconds.clear();
+                closeWriters();
+
+                for (int partition = 0; partition < SPILL_PARTITIONS; partition++) {
+                    finish(partition);
+                }
+            }
+            for (Fastq unpaired : firsts.values()) {
+                listener.unpaired(unpaired);
+            }
+            for (Fastq unpaired : seconds.values()) {
+                listener.unpaired(unpaired);
+            }
+            firsts.clear();
+            seconds.clear();
+        }
+
+        /**
+         * Pair or report as unpaired all of the reads in the specified spill partition.
+         *
+         * @param partition partition
+         * @throws IOException if an I/O error occurs
+         */
+        private void finish(final int partition) throws IOException {
+            final Map<String, Fastq> partitionFirsts = new LinkedHashMap<String, Fastq>();
+            File firstFile = spillFile(firstWriters, partition);
+            if (firstFile.exists()) {
+                try (InputStream inputStream = new FileInputStream(firstFile)) {
+                    FastqRecordReader.stream(inputStream, new StreamListener() {
+                            @Override
+                            public void fastq(final Fastq fastq) {
+                                Fastq previous = partitionFirsts.put(prefix(fastq), fastq);
+                                if (previous != null) {
+                                    listener.unpaired(previous);
+                                }
+                            }
+                        });
+                }
+            }
+            File secondFile = spillFile(secondWriters, partition);
+            if (secondFile.exists()) {
+                try (InputStream inputStream = new FileInputStream(secondFile)) {
+                    FastqRecordReader.stream(inputStream, new StreamListener() {
+                            @Override
+                            public void fastq(final Fastq fastq) {
+                                Fastq mate = partitionFirsts.remove(prefix(fastq));
+                                if (mate == null) {
+                                    listener.unpaired(fastq);
+                                }
+                                else {
+                                    pair(mate, fastq, listener);
+                                }
+                            }
+                        });
+                }
+            }
+            for (Fastq unpaired : partitionFirsts.values()) {
+                listener.unpaired(unpaired);
+            }
+        }
+
+        /**
+         * Close the spill writers.
+         *
+         * @throws IOException if an I/O error occurs
+         */
+        private void closeWriters() throws IOException {
+            for (int i = 0; i < SPILL_PARTITIONS; i++) {
+                if (firstWriters[i] != null) {
+                    firstWriters[i].close();
+                    firstWriters[i] = null;
+                }
+                if (secondWriters[i] != null) {
+                    secondWriters[i].close();
+                    secondWriters[i] = null;
+                }
+            }
+        }
+
+        /**
+         * Close this window, deleting the spill files, if any.
+         */
+        void close() {
+            try {
+                closeWriters();
+            }
+            catch (IOException e) {
+                // ignore
+            }
+            if (directory != null) {
+                File[] files = directory.listFiles();
+                if (files != null) {
+                    for (File file : files) {
+                        file.delete();
+                    }
+                }
+                directory.delete();
+                directory = null;
+            }
+        }
+    }
+
     /**
      * Stream the specified interleaved paired end reads.  Per the interleaved format, all reads must be sorted and paired.
      *
@@ -265,6 +868,30 @@ public final class PairedEndFastqReader {
     public static void streamInterleaved(final Readable readable, final PairedEndListener listener) throws IOException {
         checkNotNull(readable);
         checkNotNull(listener);
+        streamInterleaved(source(readable), listener);
+    }
+
+    /**
+     * Stream the specified interleaved paired end reads.  Per the interleaved format, all reads must be sorted and paired.
+     *
+     * @param inputStream input stream, must not be null
+     * @param listener paired end listener, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public static void streamInterleaved(final InputStream inputStream, final PairedEndListener listener) throws IOException {
+        checkNotNull(inputStream);
+        checkNotNull(listener);
+        streamInterleaved(source(inputStream), listener);
+    }
+
+    /**
+     * Stream the specified interleaved paired end reads.
+     *
+     * @param source FASTQ source
+     * @param listener paired end listener
+     * @throws IOException if an I/O error occurs
+     */
+    private static void streamInterleaved(final FastqSource source, final PairedEndListener listener) throws IOException {
 
         StreamListener streamListener = new StreamListener() {
                 private Fastq left;
@@ -286,7 +913,7 @@ public final class PairedEndFastqReader {
             };
 
         try {
-            new SangerFastqReader().stream(readable, streamListener);
+            source.stream(streamListener);
         }
         catch (PairedEndFastqReaderException e) {
             throw new IOException("could not stream interleaved paired end FASTQ reads", e);
@@ -0,0 +1,314 @@
+/*
+
+    ngs-reads  Next generation sequencing (NGS/HTS) reads.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.reads.quality;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+import org.apache.commons.math3.random.RandomGenerator;
+
+import org.nmdp.ngs.reads.QualityStrategy;
+
+import org.nmdp.ngs.reads.fastq.FastqRecord;
+import org.nmdp.ngs.reads.fastq.FastqRecordListener;
+import org.nmdp.ngs.reads.fastq.FastqRecordReader;
+
+/**
+ * Quality strategy which samples from empirical per-cycle quality score distributions,
+ * for example as learned from a real FASTQ file.
+ *
+ * <p>
+ * Each cycle distribution is compiled into an alias table, so that sampling a quality score is
+ * a table lookup.  Positions in reads no longer than the number of cycles map directly to cycles;
+ * positions in longer reads are scaled to cycles relative to read length.  The position to alias
+ * table mapping is computed once per read length and shared by all strategies created with
+ * {@link #withRandom(RandomGenerator)}.
+ * </p>
+ */
+public final class EmpiricalQualityStrategy implements QualityStrategy {
+    /** Quality profile. */
+    private final Profile profile;
+
+    /** Random. */
+    private final RandomGenerator random;
+
+    /** Most recent read length. */
+    private int lastLength = -1;
+
+    /** Alias tables for the most recent read length. */
+    private AliasTable[] lastTables;
+
+    /** Maximum quality score, <code>93</code>. */
+    public static final int MAXIMUM_QUALITY_SCORE = 93;
+
+
+    /**
+     * Create a new empirical quality strategy.
+     *
+     * @param profile quality profile
+     * @param random random
+     */
+    private EmpiricalQualityStrategy(final Profile profile, final RandomGenerator random) {
+        this.profile = profile;
+        this.random = random;
+    }
+
+
+    @Override
+    public double qualityScore(final int position, final int length) {
+        if (length != lastLength) {
+            lastTables = profile.tables(length);
+            lastLength = length;
+        }
+        return lastTables[position].sample(random);
+    }
+
+    /**
+     * Return the number of cycles in this empirical quality strategy.
+     *
+     * @return the number of cycles in this empirical quality strategy
+     */
+    public int cycles() {
+        return profile.cycles.length;
+    }
+
+    /**
+     * Create and return a new empirical quality strategy sharing the quality profile of this
+     * empirical quality strategy and sampling with the specified random.
+     *
+     * @param random random, must not be null
+     * @return a new empirical quality strategy sharing the quality profile of this
+     *    empirical quality strategy and sampling with the specified random
+     */
+    public EmpiricalQualityStrategy withRandom(final RandomGenerator random) {
+        checkNotNull(random);
+        return new EmpiricalQualityStrategy(profile, random);
+    }
+
+    /**
+     * Create and return a new empirical quality strategy from the specified quality score counts.
+     *
+     * @param counts quality score counts, indexed by cycle and then quality score, must not be null,
+     *    must contain at least one cycle, and each cycle must contain at least one positive count
+     * @param random random, must not be null
+     * @return a new empirical quality strategy from the specified quality score counts
+     */
+    public static EmpiricalQualityStrategy create(final long[][] counts, final RandomGenerator random) {
+        checkNotNull(counts);
+        checkNotNull(random);
+        checkArgument(counts.length > 0, "counts must contain at least one cycle");
+
+        AliasTable[] cycles = new AliasTable[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            cycles[i] = new AliasTable(counts[i]);
+        }
+        return new EmpiricalQualityStrategy(new Profile(cycles), random);
+    }
+
+    /**
+     * Learn per-cycle quality score distributions from the specified input stream in Sanger FASTQ
+     * format and return a new empirical quality strategy.  The input stream is read once and is
+     * not closed.
+     *
+     * @param inputStream input stream to learn from, must not be null
+     * @param random random, must not be null
+     * @return a new empirical quality strategy learned from the specified input stream
+     * @throws IOException if an I/O error occurs or if the input stream contains no FASTQ records
+     */
+    public static EmpiricalQualityStrategy learn(final InputStream inputStream, final RandomGenerator random) throws IOException {
+        checkNotNull(inputStream);
+        checkNotNull(random);
+
+        final List<long[]> counts = new ArrayList<long[]>();
+        FastqRecordReader.stream(inputStream, new FastqRecordListener() {
+                @Override
+                public boolean record(final FastqRecord record) {
+                    for (int i = 0, length = record.length(); i < length; i++) {
+                        if (i == counts.size()) {
+                            counts.add(new long[MAXIMUM_QUALITY_SCORE + 1]);
+                        }
+                        int qualityScore = Math.max(0, Math.min(MAXIMUM_QUALITY_SCORE, record.qualityScoreAt(i)));
+                        counts.get(i)[qualityScore]++;
+                    }
+                    return true;
+                }
+            });
+
+        if (counts.isEmpty()) {
+            throw new IOException("could not learn quality score distributions, no FASTQ records found");
+        }
+        return create(counts.toArray(new long[counts.size()][]), random);
+    }
+
+
+    /**
+     * Quality profile, per-cycle alias tables and per read length position mappings.
+     */
+    private static final class Profile {
+        /** Per-cycle alias tables. */
+        private final AliasTable[] cycles;
+
+        /** Alias tables keyed by read length. */
+        private final LoadingCache<Integer, AliasTable[]> tables = CacheBuilder.newBuilder()
+            .build(new CacheLoader<Integer, AliasTable[]>()
+                   {
+                       @Override
+                       public AliasTable[] load(final Integer length) {
+                           return map(length);
+                       }
+                   });
+
+
+        /**
+         * Create a new quality profile.
+         *
+         * @param cycles per-cycle alias tables
+         */
+        private Profile(final AliasTable[] cycles) {
+            this.cycles = cycles;
+        }
+
+
+        /**
+         * Return the alias tables for positions in a read of the specified length.
+         *
+         * @param length read length
+         * @return the alias tables for positions in a read of the specified length
+         */
+        private AliasTable[] tables(final int length) {
+            return tables.getUnchecked(length);
+        }
+
+        /**
+         * Map positions in a read of the specified length to alias tables.
+         *
+         * @param length read length
+         * @return positions in a read of the specified length mapped to alias tables
+         */
+        private AliasTable[] map(final int length) {
+            AliasTable[] mapped = new AliasTable[length];
+            for (int position = 0; position < length; position++) {
+                int cycle = length <= cycles.length ? position : (int) ((long) position * cycles.length / length);
+                mapped[position] = cycles[cycle];
+            }
+            return mapped;
+        }
+    }
+
+    /**
+     * Alias table for constant time sampling from a discrete distribution (Vose's alias method).
+     */
+    private static final class AliasTable {
+        /** Probability of keeping each column. */
+        private final double[] probability;
+
+        /** Alias for each column. */
+        private final int[] alias;
+
+
+        /**
+         * Create a new alias table from the specified counts.
+         *
+         * @param counts counts, must not be null and must contain at least one positive count
+         */
+        private AliasTable(final long[] counts) {
+            checkNotNull(counts);
+
+            int n = 0;
+            double total = 0.0d;
+            for (int i = 0; i < counts.length; i++) {
+                checkArgument(counts[i] >= 0L, "counts must not be negative");
+                if (counts[i] > 0L) {
+                    n = i + 1;
+                    total += counts[i];
+                }
+            }
+            checkArgument(n > 0, "counts must contain at least one positive count");
+
+            probability = new double[n];
+            alias = new int[n];
+
+            double[] scaled = new double[n];
+            int[] small = new int[n];
+            int[] large = new int[n];
+            int smallSize = 0;
+            int largeSize = 0;
+            for (int i = 0; i < n; i++) {
+                scaled[i] = counts[i] * n / total;
+                if (scaled[i] < 1.0d) {
+                    small[smallSize++] = i;
+                }
+                else {
+                    large[largeSize++] = i;
+                }
+            }
+            while (smallSize > 0 && largeSize > 0) {
+                int s = small[--smallSize];
+                int l = large[--largeSize];
+                probability[s] = scaled[s];
+                alias[s] = l;
+                scaled[l] = (scaled[l] + scaled[s]) - 1.0d;
+                if (scaled[l] < 1.0d) {
+                    small[smallSize++] = l;
+                }
+                else {
+                    large[largeSize++] = l;
+                }
+            }
+            while (largeSize > 0) {
+                int l = large[--largeSize];
+                probability[l] = 1.0d;
+                alias[l] = l;
+            }
+            // remaining small columns are due to rounding error
+            while (smallSize > 0) {
+                int s = small[--smallSize];
+                probability[s] = 1.0d;
+                alias[s] = s;
+            }
+        }
+
+
+        /**
+         * Sample from this alias table with a single random draw.
+         *
+         * @param random random
+         * @return a sample from this alias table
+         */
+        private int sample(final RandomGenerator random) {
+            double u = random.nextDouble() * probability.length;
+            int column = Math.min((int) u, probability.length - 1);
+            return (u - column) < probability[column] ? column : alias[column];
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+
+    ngs-reads  Next generation sequencing (NGS/HTS) reads.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.reads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Function;
+
+import org.apache.commons.math3.distribution.NormalDistribution;
+import org.apache.commons.math3.distribution.RealDistribution;
+
+import org.apache.commons.math3.random.RandomGenerator;
+
+import org.biojava.bio.program.fastq.FastqVariant;
+import org.biojava.bio.program.fastq.SangerFastqWriter;
+
+import org.biojava.bio.seq.DNATools;
+import org.biojava.bio.seq.Sequence;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.nmdp.ngs.reads.coverage.MinimumCoverageStrategy;
+
+import org.nmdp.ngs.reads.mutation.SubstitutionMutationStrategy;
+
+import org.nmdp.ngs.reads.quality.RealDistributionQualityStrategy;
+
+/**
+ * Unit test for ParallelGeneratePairedEndReads.
+ */
+public final class ParallelGeneratePairedEndReadsTest {
+    private Sequence reference;
+    private FastqVariant variant;
+    private long seed;
+    private int threads;
+    private int batchSize;
+    private Function<RandomGenerator, RealDistribution> length;
+    private Function<RandomGenerator, RealDistribution> insertSize;
+    private Function<RandomGenerator, QualityStrategy> quality;
+    private CoverageStrategy coverage;
+    private double mutationRate;
+    private Function<RandomGenerator, MutationStrategy> mutation;
+    private StringBuilder first;
+    private StringBuilder second;
+    private SangerFastqWriter writer;
+
+    @Before
+    public void setUp() throws Exception {
+        reference = DNATools.createDNASequence("actgactgactgactgactgactgactgactgactgactgactgactgactgactgactgactgactgactgactg", "reference");
+        variant = FastqVariant.FASTQ_SANGER;
+        seed = 42L;
+        threads = 4;
+        batchSize = 16;
+        length = new Function<RandomGenerator, RealDistribution>() {
+                @Override
+                public RealDistribution apply(final RandomGenerator random) {
+                    return new NormalDistribution(random, 20.0d, 2.0d, NormalDistribution.DEFAULT_INVERSE_ABSOLUTE_ACCURACY);
+                }
+            };
+        insertSize = new Function<RandomGenerator, RealDistribution>() {
+                @Override
+                public RealDistribution apply(final RandomGenerator random) {
+                    return new NormalDistribution(random, 10.0d, 2.0d, NormalDistribution.DEFAULT_INVERSE_ABSOLUTE_ACCURACY);
+                }
+            };
+        quality = new Function<RandomGenerator, QualityStrategy>() {
+                @Override
+                public QualityStrategy apply(final RandomGenerator random) {
+                    return new RealDistributionQualityStrategy(new NormalDistribution(random, 30.0d, 5.0d, NormalDistribution.DEFAULT_INVERSE_ABSOLUTE_ACCURACY));
+                }
+            };
+        coverage = new MinimumCoverageStrategy(10);
+        mutationRate = 0.05d;
+        mutation = new Function<RandomGenerator, MutationStrategy>() {
+                @Override
+                public MutationStrategy apply(final RandomGenerator random) {
+                    return new SubstitutionMutationStrategy(random);
+                }
+            };
+        first = new StringBuilder();
+        second = new StringBuilder();
+        writer = new SangerFastqWriter();
+    }
+
+    private String generate(final long seed, final int threads, final int batchSize) {
+        StringBuilder sb = new StringBuilder();
+        StringBuilder sb2 = new StringBuilder();
+        new ParallelGeneratePairedEndReads(reference, variant, seed, threads, batchSize, length, insertSize, quality, new MinimumCoverageStrategy(10), mutationRate, mutation, sb, sb2, writer).run();
+        return sb.toString() + sb2.toString();
+    }
+
+    @Test
+    public void testConstructor() {
+        assertNotNull(new ParallelGeneratePairedEndReads(reference, variant, seed, threads, batchSize, length, insertSize, quality, coverage, mutationRate, mutation, first, second, writer));
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testConstructorNullReference() {
+        new ParallelGeneratePairedEndReads(null, variant, seed, threads, batchSize, length, insertSize, quality, coverage, mutationRate, mutation, first, second, writer);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructorZeroThreads() {
+        new ParallelGeneratePairedEndReads(reference, variant, seed, 0, batchSize, length, insertSize, quality, coverage, mutationRate, mutation, first, second, writer);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructorZeroBatchSize() {
+        new ParallelGeneratePairedEndReads(reference, variant, seed, threads, 0, length, insertSize, quality, coverage, mutationRate, mutation, first, second, writer);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testConstructorNullInsertSize() {
+        new ParallelGeneratePairedEndReads(reference, variant, seed, threads, batchSize, length, null, quality, coverage, mutationRate, mutation, first, second, writer);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testConstructorNullLength() {
+        new ParallelGeneratePairedEndReads(reference, variant, seed, threads, batchSize, null, insertSize, quality, coverage, mutationRate, mutation, first, second, writer);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructorMutationRateTooLarge() {
+        new ParallelGeneratePairedEndReads(reference, variant, seed, threads, batchSize, length, insertSize, quality, coverage, 1.1d, mutation, first, second, writer);
+    }
+
+    @Test
+    public void testRun() {
+        new ParallelGeneratePairedEndReads(reference, variant, seed, threads, batchSize, length, insertSize, quality, coverage, mutationRate, mutation, first, second, writer).run();
+        assertTrue(coverage.evaluate(reference));
+        assertTrue(first.toString().startsWith("@reference-"));
+        assertTrue(first.toString().contains(" 1\n"));
+        assertTrue(second.toString().contains(" 2\n"));
+    }
+
+    @Test
+    public void testRunDeterministic() {
+        assertEquals(generate(seed, threads, batchSize), generate(seed, threads, batchSize));
+    }
+
+    @Test
+    public void testRunIndependentOfThreads() {
+        String expected = generate(seed, 1, batchSize);
+        assertEquals(expected, generate(seed, 2, batchSize));
+        assertEquals(expected, generate(seed, 8, batchSize));
+    }
+
+    @Test
+    public void testRunDifferentSeeds() {
+        assertNotEquals(generate(seed, threads, batchSize), generate(seed + 1L, threads, batchSize));
+    }
+
+    @Test
+    public void testRunCoverageAlreadyMet() {
+        for (int i = 0; i < 10; i++) {
+            coverage.add(reference, 1, reference.length() + 1);
+        }
+        new ParallelGeneratePairedEndReads(reference, variant, seed, threads, batchSize, length, insertSize, quality, coverage, mutationRate, mutation, first, second, writer).run();
+        assertFalse(first.length() > 0);
+        assertFalse(second.length() > 0);
+    }
+}
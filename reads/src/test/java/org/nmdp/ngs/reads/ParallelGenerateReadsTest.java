@@ -0,0 +1,169 @@
+/*
+
+    ngs-reads  Next generation sequencing (NGS/HTS) reads.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.reads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Function;
+
+import org.apache.commons.math3.distribution.NormalDistribution;
+import org.apache.commons.math3.distribution.RealDistribution;
+
+import org.apache.commons.math3.random.RandomGenerator;
+
+import org.biojava.bio.program.fastq.FastqVariant;
+import org.biojava.bio.program.fastq.SangerFastqWriter;
+
+import org.biojava.bio.seq.DNATools;
+import org.biojava.bio.seq.Sequence;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.nmdp.ngs.reads.coverage.MinimumCoverageStrategy;
+
+import org.nmdp.ngs.reads.mutation.SubstitutionMutationStrategy;
+
+import org.nmdp.ngs.reads.quality.RealDistributionQualityStrategy;
+
+/**
+ * Unit test for ParallelGenerateReads.
+ */
+public final class ParallelGenerateReadsTest {
+    private Sequence reference;
+    private FastqVariant variant;
+    private long seed;
+    private int threads;
+    private int batchSize;
+    private Function<RandomGenerator, RealDistribution> length;
+    private Function<RandomGenerator, QualityStrategy> quality;
+    private CoverageStrategy coverage;
+    private double mutationRate;
+    private Function<RandomGenerator, MutationStrategy> mutation;
+    private StringBuilder appendable;
+    private SangerFastqWriter writer;
+
+    @Before
+    public void setUp() throws Exception {
+        reference = DNATools.createDNASequence("actgactgactgactgactgactgactgactgactgactgactgactgactgactgactgactgactgactgactg", "reference");
+        variant = FastqVariant.FASTQ_SANGER;
+        seed = 42L;
+        threads = 4;
+        batchSize = 16;
+        length = new Function<RandomGenerator, RealDistribution>() {
+                @Override
+                public RealDistribution apply(final RandomGenerator random) {
+                    return new NormalDistribution(random, 20.0d, 2.0d, NormalDistribution.DEFAULT_INVERSE_ABSOLUTE_ACCURACY);
+                }
+            };
+        quality = new Function<RandomGenerator, QualityStrategy>() {
+                @Override
+                public QualityStrategy apply(final RandomGenerator random) {
+                    return new RealDistributionQualityStrategy(new NormalDistribution(random, 30.0d, 5.0d, NormalDistribution.DEFAULT_INVERSE_ABSOLUTE_ACCURACY));
+                }
+            };
+        coverage = new MinimumCoverageStrategy(10);
+        mutationRate = 0.05d;
+        mutation = new Function<RandomGenerator, MutationStrategy>() {
+                @Override
+                public MutationStrategy apply(final RandomGenerator random) {
+                    return new SubstitutionMutationStrategy(random);
+                }
+            };
+        appendable = new StringBuilder();
+        writer = new SangerFastqWriter();
+    }
+
+    private String generate(final long seed, final int threads, final int batchSize) {
+        StringBuilder sb = new StringBuilder();
+        new ParallelGenerateReads(reference, variant, seed, threads, batchSize, length, quality, new MinimumCoverageStrategy(10), mutationRate, mutation, sb, writer).run();
+        return sb.toString();
+    }
+
+    @Test
+    public void testConstructor() {
+        assertNotNull(new ParallelGenerateReads(reference, variant, seed, threads, batchSize, length, quality, coverage, mutationRate, mutation, appendable, writer));
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testConstructorNullReference() {
+        new ParallelGenerateReads(null, variant, seed, threads, batchSize, length, quality, coverage, mutationRate, mutation, appendable, writer);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructorZeroThreads() {
+        new ParallelGenerateReads(reference, variant, seed, 0, batchSize, length, quality, coverage, mutationRate, mutation, appendable, writer);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructorZeroBatchSize() {
+        new ParallelGenerateReads(reference, variant, seed, threads, 0, length, quality, coverage, mutationRate, mutation, appendable, writer);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testConstructorNullLength() {
+        new ParallelGenerateReads(reference, variant, seed, threads, batchSize, null, quality, coverage, mutationRate, mutation, appendable, writer);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructorMutationRateTooLarge() {
+        new ParallelGenerateReads(reference, variant, seed, threads, batchSize, length, quality, coverage, 1.1d, mutation, appendable, writer);
+    }
+
+    @Test
+    public void testRun() {
+        new ParallelGenerateReads(reference, variant, seed, threads, batchSize, length, quality, coverage, mutationRate, mutation, appendable, writer).run();
+        assertTrue(coverage.evaluate(reference));
+        assertTrue(appendable.toString().startsWith("@reference-"));
+    }
+
+    @Test
+    public void testRunDeterministic() {
+        assertEquals(generate(seed, threads, batchSize), generate(seed, threads, batchSize));
+    }
+
+    @Test
+    public void testRunIndependentOfThreads() {
+        String expected = generate(seed, 1, batchSize);
+        assertEquals(expected, generate(seed, 2, batchSize));
+        assertEquals(expected, generate(seed, 8, batchSize));
+    }
+
+    @Test
+    public void testRunDifferentSeeds() {
+        assertNotEquals(generate(seed, threads, batchSize), generate(seed + 1L, threads, batchSize));
+    }
+
+    @Test
+    public void testRunCoverageAlreadyMet() {
+        for (int i = 0; i < 10; i++) {
+            coverage.add(reference, 1, reference.length() + 1);
+        }
+        new ParallelGenerateReads(reference, variant, seed, threads, batchSize, length, quality, coverage, mutationRate, mutation, appendable, writer).run();
+        assertFalse(appendable.length() > 0);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+
+    ngs-reads  Next generation sequencing (NGS/HTS) reads.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.reads;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for SequenceBuffer.
+ */
+public final class SequenceBufferTest {
+    private SequenceBuffer sequence;
+
+    @Before
+    public void setUp() {
+        sequence = new SequenceBuffer(1);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructorNegativeCapacity() {
+        new SequenceBuffer(-1);
+    }
+
+    @Test
+    public void testEmpty() {
+        assertEquals(0, new SequenceBuffer().length());
+        assertEquals("", new SequenceBuffer().toString());
+    }
+
+    @Test
+    public void testAppend() {
+        assertSame(sequence, sequence.append((byte) 'a'));
+        sequence.append((byte) 'c').append((byte) 'g');
+        assertEquals(3, sequence.length());
+        assertEquals((byte) 'c', sequence.byteAt(1));
+        assertEquals("acg", sequence.toString());
+    }
+
+    @Test
+    public void testAppendRange() {
+        byte[] bases = "nnacgtnn".getBytes(StandardCharsets.US_ASCII);
+        sequence.append(bases, 2, 4).append(bases, 0, 0);
+        assertEquals("acgt", sequence.toString());
+        assertArrayEquals("acgt".getBytes(StandardCharsets.US_ASCII), sequence.toByteArray());
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testAppendRangeNull() {
+        sequence.append(null, 0, 0);
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void testAppendRangeOutOfBounds() {
+        sequence.append(new byte[4], 2, 4);
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void testByteAtOutOfBounds() {
+        sequence.append((byte) 'a').byteAt(1);
+    }
+
+    @Test
+    public void testClear() {
+        sequence.append((byte) 'a').append((byte) 'c');
+        assertSame(sequence, sequence.clear());
+        assertEquals(0, sequence.length());
+        assertEquals("g", sequence.append((byte) 'g').toString());
+    }
+
+    @Test
+    public void testReverseComplement() {
+        byte[] bases = "aacgtnr".getBytes(StandardCharsets.US_ASCII);
+        assertEquals("rnacgtt", sequence.append(bases, 0, bases.length).reverseComplement().toString());
+    }
+
+    @Test
+    public void testReverseComplementOddLength() {
+        byte[] bases = "acg".getBytes(StandardCharsets.US_ASCII);
+        assertEquals("cgt", sequence.append(bases, 0, bases.length).reverseComplement().toString());
+    }
+
+    @Test
+    public void testReverseComplementEmpty() {
+        assertEquals("", sequence.reverseComplement().toString());
+    }
+}
@@ -0,0 +1,159 @@
+/*
+
+    ngs-reads  Next generation sequencing (NGS/HTS) reads.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.reads;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.Arrays;
+
+import org.apache.commons.math3.random.MersenneTwister;
+import org.apache.commons.math3.random.RandomGenerator;
+
+import org.biojava.bio.program.fastq.FastqVariant;
+
+import org.biojava.bio.seq.DNATools;
+
+import org.biojava.bio.symbol.Symbol;
+import org.biojava.bio.symbol.SymbolList;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.nmdp.ngs.reads.mutation.AmbiguousSubstitutionMutationStrategy;
+import org.nmdp.ngs.reads.mutation.IdentityMutationStrategy;
+
+/**
+ * Unit test for Simulation.
+ */
+public final class SimulationTest {
+    private byte[] bases;
+    private RandomGenerator random;
+    private SequenceBuffer sequence;
+
+    @Before
+    public void setUp() {
+        bases = "acgtacgtacgtacgtacgt".getBytes(StandardCharsets.US_ASCII);
+        random = new MersenneTwister(42L);
+        sequence = new SequenceBuffer();
+    }
+
+    @Test
+    public void testBases() throws Exception {
+        assertArrayEquals("acgtnr".getBytes(StandardCharsets.US_ASCII), Simulation.bases(DNATools.createDNASequence("acgtnr", "reference")));
+    }
+
+    @Test
+    public void testBytesByteMutationStrategy() {
+        IdentityMutationStrategy identity = new IdentityMutationStrategy();
+        assertSame(identity, Simulation.bytes(identity));
+    }
+
+    @Test
+    public void testBytesAdapter() throws Exception {
+        final SymbolList gat = DNATools.createDNA("gat");
+        MutationStrategy mutation = new MutationStrategy() {
+                @Override
+                public SymbolList mutate(final Symbol symbol) {
+                    return gat;
+                }
+            };
+        Simulation.bytes(mutation).mutate((byte) 'c', sequence);
+        assertEquals("gat", sequence.toString());
+    }
+
+    @Test
+    public void testMutateZeroRate() {
+        Simulation.mutate(bases, 2, 10, random, 0.0d, new AmbiguousSubstitutionMutationStrategy(), sequence);
+        assertEquals("gtacgtac", sequence.toString());
+    }
+
+    @Test
+    public void testMutateEmptyRange() {
+        Simulation.mutate(bases, 4, 4, random, 0.5d, new AmbiguousSubstitutionMutationStrategy(), sequence);
+        Simulation.mutate(bases, 4, 2, random, 0.0d, new AmbiguousSubstitutionMutationStrategy(), sequence);
+        assertEquals(0, sequence.length());
+    }
+
+    @Test
+    public void testMutateFullRate() {
+        Simulation.mutate(bases, 0, bases.length, random, 1.0d, new AmbiguousSubstitutionMutationStrategy(), sequence);
+        assertEquals("nnnnnnnnnnnnnnnnnnnn", sequence.toString());
+    }
+
+    @Test
+    public void testMutateIdentity() {
+        Simulation.mutate(bases, 0, bases.length, random, 0.5d, new IdentityMutationStrategy(), sequence);
+        assertArrayEquals(bases, sequence.toByteArray());
+    }
+
+    @Test
+    public void testMutateRate() {
+        byte[] reference = new byte[100000];
+        Arrays.fill(reference, (byte) 'a');
+        Simulation.mutate(reference, 0, reference.length, random, 0.05d, new AmbiguousSubstitutionMutationStrategy(), sequence);
+        assertEquals(reference.length, sequence.length());
+
+        int mutated = 0;
+        for (int i = 0; i < sequence.length(); i++) {
+            if (sequence.byteAt(i) == 'n') {
+                mutated++;
+            }
+        }
+        // expected 5000, standard deviation ~69
+        assertTrue(mutated > 4600 && mutated < 5400);
+    }
+
+    @Test
+    public void testMutateDeterministic() {
+        SequenceBuffer other = new SequenceBuffer();
+        Simulation.mutate(bases, 0, bases.length, new MersenneTwister(7L), 0.3d, new AmbiguousSubstitutionMutationStrategy(), sequence);
+        Simulation.mutate(bases, 0, bases.length, new MersenneTwister(7L), 0.3d, new AmbiguousSubstitutionMutationStrategy(), other);
+        assertEquals(sequence.toString(), other.toString());
+    }
+
+    @Test
+    public void testSplit() {
+        assertEquals(Simulation.split(42L, 0L), Simulation.split(42L, 0L));
+        assertNotEquals(Simulation.split(42L, 0L), Simulation.split(42L, 1L));
+        assertNotEquals(Simulation.split(42L, 0L), Simulation.split(43L, 0L));
+    }
+
+    @Test
+    public void testQuality() {
+        QualityStrategy quality = new QualityStrategy() {
+                @Override
+                public double qualityScore(final int position, final int length) {
+                    return position * 20.0d - 10.0d;
+                }
+            };
+        // clamped to 0 for sanger, 0 and 62 for illumina
+        assertEquals("!+?Sg", Simulation.quality(5, quality, FastqVariant.FASTQ_SANGER));
+        assertEquals("@J^r~", Simulation.quality(5, quality, FastqVariant.FASTQ_ILLUMINA));
+    }
+}
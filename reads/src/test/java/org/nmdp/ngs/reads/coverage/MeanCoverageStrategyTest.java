@@ -0,0 +1,106 @@
+/*
+
+    ngs-reads  Next generation sequencing (NGS/HTS) reads.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.reads.coverage;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.biojava.bio.seq.DNATools;
+import org.biojava.bio.seq.Sequence;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for MeanCoverageStrategy.
+ */
+public final class MeanCoverageStrategyTest {
+    private Sequence reference;
+    private MeanCoverageStrategy coverage;
+
+    @Before
+    public void setUp() throws Exception {
+        reference = DNATools.createDNASequence("acgtacgtac", "reference");
+        coverage = new MeanCoverageStrategy(2.0d);
+    }
+
+    @Test
+    public void testEvaluateEmpty() {
+        assertFalse(coverage.evaluate(reference));
+        assertArrayEquals(new int[10], coverage.coverage(reference));
+    }
+
+    @Test
+    public void testAdd() {
+        coverage.add(reference, 1, 6);
+        coverage.add(reference, 3, 11);
+        assertArrayEquals(new int[] { 1, 1, 2, 2, 2, 1, 1, 1, 1, 1 }, coverage.coverage(reference));
+        assertFalse(coverage.evaluate(reference));
+    }
+
+    @Test
+    public void testEvaluate() {
+        coverage.add(reference, 1, 11);
+        assertFalse(coverage.evaluate(reference));
+        coverage.add(reference, 1, 6);
+        coverage.add(reference, 6, 10);
+        assertFalse(coverage.evaluate(reference));
+        coverage.add(reference, 10, 11);
+        assertTrue(coverage.evaluate(reference));
+    }
+
+    @Test
+    public void testEvaluateUneven() {
+        coverage.add(reference, 1, 11);
+        coverage.add(reference, 1, 11);
+        coverage.add(reference, 1, 2);
+        assertTrue(coverage.evaluate(reference));
+        assertArrayEquals(new int[] { 3, 2, 2, 2, 2, 2, 2, 2, 2, 2 }, coverage.coverage(reference));
+    }
+
+    @Test
+    public void testAddEmptyRegion() {
+        coverage.add(reference, 5, 5);
+        assertArrayEquals(new int[10], coverage.coverage(reference));
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void testAddStartOutOfBounds() {
+        coverage.add(reference, 0, 5);
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void testAddEndOutOfBounds() {
+        coverage.add(reference, 5, 12);
+    }
+
+    @Test
+    public void testReferencesIndependent() throws Exception {
+        Sequence other = DNATools.createDNASequence("acgt", "other");
+        coverage.add(reference, 1, 11);
+        coverage.add(reference, 1, 11);
+        assertTrue(coverage.evaluate(reference));
+        assertFalse(coverage.evaluate(other));
+    }
+}
@@ -0,0 +1,113 @@
+/*
+
+    ngs-reads  Next generation sequencing (NGS/HTS) reads.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.reads.coverage;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.biojava.bio.seq.DNATools;
+import org.biojava.bio.seq.Sequence;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for MinimumCoverageStrategy.
+ */
+public final class MinimumCoverageStrategyTest {
+    private Sequence reference;
+    private MinimumCoverageStrategy coverage;
+
+    @Before
+    public void setUp() throws Exception {
+        reference = DNATools.createDNASequence("acgtacgtac", "reference");
+        coverage = new MinimumCoverageStrategy(2);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructorMinimumCoverageZero() {
+        new MinimumCoverageStrategy(0);
+    }
+
+    @Test
+    public void testEvaluateEmpty() {
+        assertFalse(coverage.evaluate(reference));
+        assertArrayEquals(new int[10], coverage.coverage(reference));
+    }
+
+    @Test
+    public void testEvaluate() {
+        coverage.add(reference, 1, 11);
+        coverage.add(reference, 1, 11);
+        coverage.add(reference, 1, 11);
+        assertTrue(coverage.evaluate(reference));
+        assertArrayEquals(new int[] { 3, 3, 3, 3, 3, 3, 3, 3, 3, 3 }, coverage.coverage(reference));
+    }
+
+    @Test
+    public void testEvaluateOneBaseBelow() {
+        coverage.add(reference, 1, 11);
+        coverage.add(reference, 1, 10);
+        coverage.add(reference, 1, 10);
+        assertFalse(coverage.evaluate(reference));
+        coverage.add(reference, 10, 11);
+        assertTrue(coverage.evaluate(reference));
+    }
+
+    @Test
+    public void testEvaluateEmptyReference() throws Exception {
+        assertTrue(coverage.evaluate(DNATools.createDNASequence("", "empty")));
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void testAddEndOutOfBounds() {
+        coverage.add(reference, 5, 12);
+    }
+
+    @Test
+    public void testRandomReadsConsistentWithPerBaseCoverage() throws Exception {
+        Random random = new Random(42L);
+        Sequence longer = DNATools.createDNASequence("acgtacgtacgtacgtacgtacgtacgtacgtacgtacgt", "longer");
+        MinimumCoverageStrategy minimum = new MinimumCoverageStrategy(5);
+        MeanCoverageStrategy mean = new MeanCoverageStrategy(5.0d);
+        while (!minimum.evaluate(longer)) {
+            int start = random.nextInt(longer.length()) + 1;
+            int end = Math.min(longer.length() + 1, start + 8);
+            minimum.add(longer, start, end);
+            mean.add(longer, start, end);
+
+            int[] perBase = minimum.coverage(longer);
+            assertArrayEquals(perBase, mean.coverage(longer));
+            boolean enough = true;
+            for (int c : perBase) {
+                enough &= c >= 5;
+            }
+            assertEquals(enough, minimum.evaluate(longer));
+        }
+        assertTrue(mean.evaluate(longer));
+    }
+}
@@ -0,0 +1,280 @@
+/*
+
+    ngs-reads  Next generation sequencing (NGS/HTS) reads.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.reads.fastq;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import static org.nmdp.ngs.reads.fastq.FastqRecordReader.stream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.StringReader;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.List;
+
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.google.common.collect.Lists;
+
+import org.biojava.bio.program.fastq.Fastq;
+import org.biojava.bio.program.fastq.SangerFastqReader;
+import org.biojava.bio.program.fastq.StreamListener;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for FastqRecordReader.
+ */
+public final class FastqRecordReaderTest {
+    private FastqRecordListener listener;
+
+    @Before
+    public void setUp() {
+        listener = new FastqRecordListener() {
+                @Override
+                public boolean record(final FastqRecord record) {
+                    return true;
+                }
+            };
+    }
+
+    private static InputStream inputStream(final String value) {
+        return new ByteArrayInputStream(value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static List<String> read(final String value) throws IOException {
+        final List<String> records = Lists.newArrayList();
+        stream(inputStream(value), new FastqRecordListener() {
+                @Override
+                public boolean record(final FastqRecord record) {
+                    records.add(record.lineNumber() + ":" + record.description() + ":" + record.sequence() + ":" + record.quality());
+                    return true;
+                }
+            });
+        return records;
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testStreamNullInputStream() throws Exception {
+        stream(null, listener);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testStreamNullListener() throws Exception {
+        stream(inputStream(""), (FastqRecordListener) null);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testStreamNullStreamListener() throws Exception {
+        stream(inputStream(""), (StreamListener) null);
+    }
+
+    @Test
+    public void testStreamEmpty() throws Exception {
+        assertEquals(0, read("").size());
+        assertEquals(0, read("\n\n").size());
+    }
+
+    @Test
+    public void testStream() throws Exception {
+        List<String> records = read("@prefix 1\nacgt\n+\nIIII\n@prefix 2\nac\n+prefix 2\n!!\n");
+        assertEquals(2, records.size());
+        assertEquals("1:prefix 1:acgt:IIII", records.get(0));
+        assertEquals("5:prefix 2:ac:!!", records.get(1));
+    }
+
+    @Test
+    public void testStreamCrlfNoTrailingNewline() throws Exception {
+        List<String> records = read("@prefix 1\r\nacgt\r\n+\r\nIIII\r\n\r\n@prefix 2\r\nac\r\n+\r\n!!");
+        assertEquals(2, records.size());
+        assertEquals("1:prefix 1:acgt:IIII", records.get(0));
+        assertEquals("6:prefix 2:ac:!!", records.get(1));
+    }
+
+    @Test
+    public void testStreamEmptySequence() throws Exception {
+        assertEquals("1:empty::", read("@empty\n\n+\n").get(0));
+    }
+
+    @Test(expected=IOException.class)
+    public void testStreamInvalidDescription() throws Exception {
+        read("prefix 1\nacgt\n+\nIIII\n");
+    }
+
+    @Test(expected=IOException.class)
+    public void testStreamInvalidSeparator() throws Exception {
+        read("@prefix 1\nacgt\n-\nIIII\n");
+    }
+
+    @Test(expected=IOException.class)
+    public void testStreamLengthMismatch() throws Exception {
+        read("@prefix 1\nacgt\n+\nIII\n");
+    }
+
+    @Test(expected=IOException.class)
+    public void testStreamTruncated() throws Exception {
+        read("@prefix 1\nacgt\n");
+    }
+
+    @Test
+    public void testStreamStop() throws Exception {
+        final List<String> descriptions = Lists.newArrayList();
+        stream(inputStream("@prefix 1\nacgt\n+\nIIII\n@prefix 2\nacgt\n+\nIIII\ninvalid"), new FastqRecordListener() {
+                @Override
+                public boolean record(final FastqRecord record) {
+                    descriptions.add(record.description());
+                    return false;
+                }
+            });
+        assertEquals(1, descriptions.size());
+    }
+
+    @Test
+    public void testStreamLargerThanBuffer() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            sb.append("@read" + i + " 1\n");
+            for (int j = 0; j < 150; j++) {
+                sb.append("acgt".charAt((i + j) % 4));
+            }
+            sb.append("\n+\n");
+            for (int j = 0; j < 150; j++) {
+                sb.append((char) ('!' + ((i + j) % 41)));
+            }
+            sb.append("\n");
+        }
+        StringBuilder longSequence = new StringBuilder();
+        for (int i = 0; i < 3 * FastqRecordReader.BUFFER_SIZE; i++) {
+            longSequence.append("a");
+        }
+        sb.append("@long 1\n" + longSequence + "\n+\n" + longSequence.toString().replace('a', 'I') + "\n");
+        String value = sb.toString();
+
+        final List<Fastq> expected = Lists.newArrayList();
+        new SangerFastqReader().stream(new StringReader(value), new StreamListener() {
+                @Override
+                public void fastq(final Fastq fastq) {
+                    expected.add(fastq);
+                }
+            });
+
+        final List<Fastq> observed = Lists.newArrayList();
+        stream(inputStream(value), new StreamListener() {
+                @Override
+                public void fastq(final Fastq fastq) {
+                    observed.add(fastq);
+                }
+            });
+
+        assertEquals(expected.size(), observed.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getDescription(), observed.get(i).getDescription());
+            assertEquals(expected.get(i).getSequence(), observed.get(i).getSequence());
+            assertEquals(expected.get(i).getQuality(), observed.get(i).getQuality());
+        }
+    }
+
+    @Test
+    public void testThroughput() throws Exception {
+        // timing sensitive, run with -Dfastq.throughput=true
+        assumeTrue(Boolean.getBoolean("fastq.throughput"));
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            sb.append("@read" + i + " 1:N:0:ACGT\n");
+            for (int j = 0; j < 150; j++) {
+                sb.append("acgt".charAt((i * 7 + j * j) % 4));
+            }
+            sb.append("\n+\n");
+            for (int j = 0; j < 150; j++) {
+                sb.append((char) ('#' + ((i + j * 3) % 39)));
+            }
+            sb.append("\n");
+        }
+        byte[] bytes = sb.toString().getBytes(StandardCharsets.US_ASCII);
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (OutputStream outputStream = new GZIPOutputStream(buffer)) {
+            outputStream.write(bytes);
+        }
+        byte[] gzipped = buffer.toByteArray();
+
+        long biojava = Long.MAX_VALUE;
+        long record = Long.MAX_VALUE;
+        long biojavaGzipped = Long.MAX_VALUE;
+        long recordGzipped = Long.MAX_VALUE;
+        for (int i = 0; i < 8; i++) {
+            biojava = Math.min(biojava, biojava(new ByteArrayInputStream(bytes)));
+            record = Math.min(record, record(new ByteArrayInputStream(bytes)));
+            biojavaGzipped = Math.min(biojavaGzipped, biojava(new GZIPInputStream(new ByteArrayInputStream(gzipped))));
+            recordGzipped = Math.min(recordGzipped, record(new GZIPInputStream(new ByteArrayInputStream(gzipped))));
+        }
+
+        System.out.println("fastq throughput, 100000 x 150bp reads, best of 8 runs:");
+        System.out.println(String.format("  uncompressed: SangerFastqReader %d ms, FastqRecordReader %d ms, %.1fx", biojava / 1000000L, record / 1000000L, (double) biojava / record));
+        System.out.println(String.format("  gzipped: SangerFastqReader %d ms, FastqRecordReader %d ms, %.1fx", biojavaGzipped / 1000000L, recordGzipped / 1000000L, (double) biojavaGzipped / recordGzipped));
+
+        // parsing is at least 5x faster; gzipped input is bounded by inflate, so only require it not be slower
+        assertTrue(biojava >= 5L * record);
+        assertTrue(biojavaGzipped >= recordGzipped);
+    }
+
+    private static long biojava(final InputStream inputStream) throws IOException {
+        final int[] count = new int[1];
+        long start = System.nanoTime();
+        new SangerFastqReader().stream(new InputStreamReader(inputStream, StandardCharsets.US_ASCII), new StreamListener() {
+                @Override
+                public void fastq(final Fastq fastq) {
+                    count[0]++;
+                }
+            });
+        long elapsed = System.nanoTime() - start;
+        assertEquals(100000, count[0]);
+        return elapsed;
+    }
+
+    private static long record(final InputStream inputStream) throws IOException {
+        final int[] count = new int[1];
+        long start = System.nanoTime();
+        stream(inputStream, new FastqRecordListener() {
+                @Override
+                public boolean record(final FastqRecord record) {
+                    count[0]++;
+                    return true;
+                }
+            });
+        long elapsed = System.nanoTime() - start;
+        assertEquals(100000, count[0]);
+        return elapsed;
+    }
+}
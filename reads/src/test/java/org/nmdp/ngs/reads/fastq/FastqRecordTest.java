@@ -0,0 +1,104 @@
+/*
+
+    ngs-reads  Next generation sequencing (NGS/HTS) reads.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.reads.fastq;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+
+import org.biojava.bio.program.fastq.Fastq;
+import org.biojava.bio.program.fastq.FastqVariant;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for FastqRecord.
+ */
+public final class FastqRecordTest {
+    private Fastq fastq;
+    private FastqRecord record;
+
+    @Before
+    public void setUp() {
+        fastq = Fastq.builder().withDescription("prefix 1").withSequence("acgtn").withQuality("!+5?I").build();
+        record = FastqRecord.valueOf(fastq);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testValueOfNull() {
+        FastqRecord.valueOf(null);
+    }
+
+    @Test
+    public void testAccessors() {
+        assertEquals(8, record.descriptionLength());
+        assertEquals(5, record.length());
+        assertEquals((byte) 'p', record.descriptionAt(0));
+        assertEquals((byte) 'g', record.sequenceAt(2));
+        assertEquals((byte) 'I', record.qualityAt(4));
+        assertEquals(0, record.qualityScoreAt(0));
+        assertEquals(40, record.qualityScoreAt(4));
+        assertEquals("prefix 1", record.description());
+        assertEquals("acgtn", record.sequence());
+        assertEquals("!+5?I", record.quality());
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void testSequenceAtOutOfBounds() {
+        record.sequenceAt(5);
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void testQualityAtOutOfBounds() {
+        record.qualityAt(-1);
+    }
+
+    @Test
+    public void testCopy() {
+        byte[] buffer = "xx@prefix 1\nacgtn\n+\n!+5?I\n".getBytes(StandardCharsets.US_ASCII);
+        FastqRecord view = new FastqRecord();
+        view.wrap(buffer, 3, 11, 12, 20, 5, 1L);
+        FastqRecord copy = view.copy();
+        buffer[12] = 'n';
+        assertEquals("ncgtn", view.sequence());
+        assertEquals("acgtn", copy.sequence());
+        assertEquals("prefix 1", copy.description());
+        assertEquals("!+5?I", copy.quality());
+        assertEquals(1L, copy.lineNumber());
+    }
+
+    @Test
+    public void testToFastq() {
+        Fastq toFastq = record.toFastq();
+        assertEquals(fastq.getDescription(), toFastq.getDescription());
+        assertEquals(fastq.getSequence(), toFastq.getSequence());
+        assertEquals(fastq.getQuality(), toFastq.getQuality());
+        assertEquals(FastqVariant.FASTQ_SANGER, toFastq.getVariant());
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("@prefix 1\nacgtn\n+\n!+5?I", record.toString());
+    }
+}
@@ -0,0 +1,108 @@
+/*
+
+    ngs-reads  Next generation sequencing (NGS/HTS) reads.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.reads.fastq;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import java.nio.charset.StandardCharsets;
+
+import org.biojava.bio.program.fastq.Fastq;
+import org.biojava.bio.program.fastq.SangerFastqWriter;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for FastqRecordWriter.
+ */
+public final class FastqRecordWriterTest {
+    private Fastq fastq;
+    private ByteArrayOutputStream outputStream;
+
+    @Before
+    public void setUp() {
+        fastq = Fastq.builder().withDescription("prefix 1").withSequence("acgtn").withQuality("!+5?I").build();
+        outputStream = new ByteArrayOutputStream();
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testConstructorNullOutputStream() {
+        new FastqRecordWriter(null);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructorInvalidBufferSize() {
+        new FastqRecordWriter(outputStream, 0);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testWriteNullRecord() throws Exception {
+        new FastqRecordWriter(outputStream).write((FastqRecord) null);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testWriteNullFastq() throws Exception {
+        new FastqRecordWriter(outputStream).write((Fastq) null);
+    }
+
+    @Test
+    public void testWriteFastq() throws Exception {
+        try (FastqRecordWriter writer = new FastqRecordWriter(outputStream)) {
+            writer.write(fastq);
+        }
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        new SangerFastqWriter().write(expected, fastq);
+        assertEquals(expected.toString(), outputStream.toString());
+    }
+
+    @Test
+    public void testWriteRecord() throws Exception {
+        try (FastqRecordWriter writer = new FastqRecordWriter(outputStream)) {
+            writer.write(FastqRecord.valueOf(fastq));
+        }
+        assertEquals("@prefix 1\nacgtn\n+\n!+5?I\n", outputStream.toString());
+    }
+
+    @Test
+    public void testRoundTripSmallBuffer() throws Exception {
+        String value = "@prefix 1\nacgtn\n+\n!+5?I\n@prefix 2\nacgtnacgtnacgtn\n+\n!+5?I!+5?I!+5?I\n";
+        final FastqRecordWriter writer = new FastqRecordWriter(outputStream, 4);
+        FastqRecordReader.stream(new ByteArrayInputStream(value.getBytes(StandardCharsets.US_ASCII)), new FastqRecordListener() {
+                @Override
+                public boolean record(final FastqRecord record) {
+                    try {
+                        writer.write(record);
+                    }
+                    catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                    return true;
+                }
+            });
+        writer.flush();
+        assertEquals(value, outputStream.toString());
+    }
+}
@@ -0,0 +1,270 @@
+/*
+
+    ngs-reads  Next generation sequencing (NGS/HTS) reads.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.reads.fastq;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import static org.nmdp.ngs.reads.fastq.FastqRecordReader.stream;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for FastqStatistics.
+ */
+public final class FastqStatisticsTest {
+    private FastqStatistics statistics;
+
+    @Before
+    public void setUp() {
+        statistics = FastqStatistics.create();
+    }
+
+    private static void accumulate(final String value, final FastqStatistics statistics) throws IOException {
+        stream(new ByteArrayInputStream(value.getBytes(StandardCharsets.US_ASCII)), statistics);
+    }
+
+    private static String fastq(final String description, final String sequence, final String quality) {
+        return "@" + description + "\n" + sequence + "\n+\n" + quality + "\n";
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testCreateDuplicateSampleSizeTooSmall() {
+        FastqStatistics.create(0);
+    }
+
+    @Test
+    public void testCreate() {
+        assertNotNull(FastqStatistics.create());
+        assertNotNull(FastqStatistics.create(1));
+    }
+
+    @Test
+    public void testEmpty() {
+        assertEquals(0L, statistics.count());
+        assertEquals(0L, statistics.bases());
+        assertEquals(0, statistics.cycles());
+        assertEquals(0, statistics.minimumLength());
+        assertEquals(0, statistics.maximumLength());
+        assertEquals(0.0d, statistics.meanLength(), 0.0d);
+        assertEquals(0.0d, statistics.gcContent(), 0.0d);
+        assertEquals(0L, statistics.distinct());
+        assertEquals(0.0d, statistics.duplicateRate(), 0.0d);
+        assertTrue(statistics.isDistinctExact());
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testRecordNull() {
+        statistics.record(null);
+    }
+
+    @Test
+    public void testRecord() throws Exception {
+        accumulate(fastq("foo", "ACGT", "!+5?") + fastq("bar", "ggcc", "IIII") + fastq("baz", "AN", "II"), statistics);
+
+        assertEquals(3L, statistics.count());
+        assertEquals(10L, statistics.bases());
+        assertEquals(4, statistics.cycles());
+        assertEquals(2, statistics.minimumLength());
+        assertEquals(4, statistics.maximumLength());
+        assertEquals(10.0d / 3.0d, statistics.meanLength(), 1.0e-9);
+        assertEquals(0L, statistics.lengthCount(0));
+        assertEquals(1L, statistics.lengthCount(2));
+        assertEquals(2L, statistics.lengthCount(4));
+        assertEquals(0L, statistics.lengthCount(1000));
+
+        assertEquals(6.0d / 10.0d, statistics.gcContent(), 1.0e-9);
+        assertEquals(1L, statistics.gcContentCount(0));
+        assertEquals(1L, statistics.gcContentCount(50));
+        assertEquals(1L, statistics.gcContentCount(100));
+
+        assertEquals(3L, statistics.cycleCount(0));
+        assertEquals(2L, statistics.cycleCount(3));
+        assertEquals(2L, statistics.baseCount(0, 'A'));
+        assertEquals(1L, statistics.baseCount(0, 'g'));
+        assertEquals(1L, statistics.baseCount(1, 'N'));
+        assertEquals(1L, statistics.baseCount(1, 'C'));
+        assertEquals(1L, statistics.baseCount(1, 'G'));
+
+        assertEquals(1L, statistics.qualityCount(0, 0));
+        assertEquals(0L, statistics.qualityCount(0, 10));
+        assertEquals(1L, statistics.qualityCount(1, 10));
+        assertEquals(2L, statistics.qualityCount(0, 40));
+        assertEquals(80.0d / 3.0d, statistics.meanQuality(0), 1.0e-9);
+        assertEquals(35.0d, statistics.meanQuality(3), 1.0e-9);
+        assertEquals(40, statistics.qualityQuantile(0, 0.5d));
+        assertEquals(0, statistics.qualityQuantile(0, 0.0d));
+        assertEquals(30, statistics.qualityQuantile(3, 0.5d));
+    }
+
+    @Test
+    public void testQualityScoreClamped() throws Exception {
+        accumulate(fastq("foo", "AA", " \u007f"), statistics);
+        assertEquals(1L, statistics.qualityCount(0, 0));
+        assertEquals(1L, statistics.qualityCount(1, FastqStatistics.MAXIMUM_QUALITY_SCORE));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testBaseCountInvalidBase() throws Exception {
+        accumulate(fastq("foo", "ACGT", "IIII"), statistics);
+        statistics.baseCount(0, 'X');
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void testQualityCountCycleOutOfBounds() throws Exception {
+        accumulate(fastq("foo", "ACGT", "IIII"), statistics);
+        statistics.qualityCount(4, 0);
+    }
+
+    @Test
+    public void testLongReadsGrowCycles() throws Exception {
+        StringBuilder sequence = new StringBuilder();
+        StringBuilder quality = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sequence.append("G");
+            quality.append("I");
+        }
+        accumulate(fastq("foo", sequence.toString(), quality.toString()), statistics);
+        assertEquals(1000, statistics.cycles());
+        assertEquals(1L, statistics.baseCount(999, 'G'));
+        assertEquals(40.0d, statistics.meanQuality(999), 0.0d);
+    }
+
+    @Test
+    public void testDuplicateRate() throws Exception {
+        accumulate(fastq("foo", "ACGT", "IIII") + fastq("bar", "acgt", "IIII") + fastq("baz", "ACGA", "IIII") + fastq("qux", "ACGT", "IIII"), statistics);
+        assertEquals(2L, statistics.distinct());
+        assertTrue(statistics.isDistinctExact());
+        assertEquals(0.5d, statistics.duplicateRate(), 1.0e-9);
+    }
+
+    @Test
+    public void testDuplicateRateEstimated() throws Exception {
+        statistics = FastqStatistics.create(1024);
+        Random random = new Random(42L);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            sb.append(fastq("read" + i, randomSequence(random, 24), "IIIIIIIIIIIIIIIIIIIIIIII"));
+            if (i % 4 == 0) {
+                sb.append(fastq("duplicate" + i, "ACGTACGTACGTACGTACGTACGT", "IIIIIIIIIIIIIIIIIIIIIIII"));
+            }
+        }
+        accumulate(sb.toString(), statistics);
+        assertEquals(25000L, statistics.count());
+        assertFalse(statistics.isDistinctExact());
+        // 20001 distinct of 25000 records
+        assertEquals(0.2d, statistics.duplicateRate(), 0.05d);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testMergeNull() {
+        statistics.merge(null);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testMergeSelf() {
+        statistics.merge(statistics);
+    }
+
+    @Test
+    public void testMerge() throws Exception {
+        Random random = new Random(42L);
+        StringBuilder first = new StringBuilder();
+        StringBuilder second = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            int length = 1 + random.nextInt(200);
+            String record = fastq("read" + i, randomSequence(random, length), randomQuality(random, length));
+            (random.nextBoolean() ? first : second).append(record);
+            if (i % 3 == 0) {
+                (random.nextBoolean() ? first : second).append(record);
+            }
+        }
+        accumulate(first.toString() + second.toString(), statistics);
+
+        FastqStatistics a = FastqStatistics.create();
+        FastqStatistics b = FastqStatistics.create();
+        accumulate(first.toString(), a);
+        accumulate(second.toString(), b);
+        FastqStatistics merged = FastqStatistics.create().merge(a).merge(b);
+
+        assertEquals(statistics.count(), merged.count());
+        assertEquals(statistics.bases(), merged.bases());
+        assertEquals(statistics.cycles(), merged.cycles());
+        assertEquals(statistics.minimumLength(), merged.minimumLength());
+        assertEquals(statistics.gcContent(), merged.gcContent(), 0.0d);
+        assertEquals(statistics.distinct(), merged.distinct());
+        for (int cycle = 0; cycle < statistics.cycles(); cycle++) {
+            assertEquals(statistics.lengthCount(cycle + 1), merged.lengthCount(cycle + 1));
+            assertEquals(statistics.meanQuality(cycle), merged.meanQuality(cycle), 0.0d);
+            assertEquals(statistics.baseCount(cycle, 'N'), merged.baseCount(cycle, 'N'));
+            assertEquals(statistics.baseCount(cycle, 'G'), merged.baseCount(cycle, 'G'));
+        }
+        for (int percent = 0; percent <= 100; percent++) {
+            assertEquals(statistics.gcContentCount(percent), merged.gcContentCount(percent));
+        }
+    }
+
+    @Test
+    public void testMergeEstimatedDistinctIndependentOfPartition() throws Exception {
+        Random random = new Random(42L);
+        FastqStatistics single = FastqStatistics.create(256);
+        FastqStatistics[] parts = new FastqStatistics[] { FastqStatistics.create(256), FastqStatistics.create(256), FastqStatistics.create(256) };
+        for (int i = 0; i < 10000; i++) {
+            String record = fastq("read" + i, randomSequence(random, 32), "IIIIIIIIIIIIIIIIIIIIIIIIIIIIIIII");
+            accumulate(record, single);
+            accumulate(record, parts[random.nextInt(parts.length)]);
+        }
+        FastqStatistics merged = FastqStatistics.create(256);
+        for (FastqStatistics part : parts) {
+            merged.merge(part);
+        }
+        assertFalse(single.isDistinctExact());
+        assertEquals(single.distinct(), merged.distinct());
+    }
+
+    private static String randomSequence(final Random random, final int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append("ACGTN".charAt(random.nextInt(5)));
+        }
+        return sb.toString();
+    }
+
+    private static String randomQuality(final Random random, final int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) (33 + random.nextInt(42)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+
+    ngs-reads  Next generation sequencing (NGS/HTS) reads.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.reads.mutation;
+
+import static org.junit.Assert.assertEquals;
+
+import org.apache.commons.math3.random.MersenneTwister;
+import org.apache.commons.math3.random.RandomGenerator;
+
+import org.biojava.bio.seq.DNATools;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.nmdp.ngs.reads.SequenceBuffer;
+
+/**
+ * Unit test for CompositeMutationStrategy.
+ */
+public final class CompositeMutationStrategyTest {
+    private RandomGenerator random;
+    private SubstitutionMutationStrategy substitution;
+    private IndelMutationStrategy indel;
+    private AmbiguousSubstitutionMutationStrategy ambiguous;
+
+    @Before
+    public void setUp() {
+        random = new MersenneTwister(42L);
+        substitution = new SubstitutionMutationStrategy(random);
+        indel = new IndelMutationStrategy(random, new InsertionMutationStrategy(random, 0.5d, 4), 0.5d, new DeletionMutationStrategy(), 0.5d);
+        ambiguous = new AmbiguousSubstitutionMutationStrategy();
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testConstructorNullRandom() {
+        new CompositeMutationStrategy(null, substitution, 0.4d, indel, 0.6d, ambiguous, 0.0d);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructorRatesDoNotSum() {
+        new CompositeMutationStrategy(random, substitution, 0.4d, indel, 0.2d, ambiguous, 0.0d);
+    }
+
+    @Test
+    public void testMutateByteAmbiguous() {
+        CompositeMutationStrategy composite = new CompositeMutationStrategy(random, substitution, 0.0d, indel, 0.0d, ambiguous, 1.0d);
+        SequenceBuffer sequence = new SequenceBuffer();
+        composite.mutate((byte) 'a', sequence);
+        assertEquals("n", sequence.toString());
+    }
+
+    @Test
+    public void testMutateByteSubstitution() {
+        CompositeMutationStrategy composite = new CompositeMutationStrategy(random, substitution, 1.0d, indel, 0.0d, ambiguous, 0.0d);
+        SequenceBuffer sequence = new SequenceBuffer();
+        for (int i = 0; i < 10; i++) {
+            composite.mutate((byte) 'a', sequence);
+        }
+        assertEquals(10, sequence.length());
+    }
+
+    @Test
+    public void testMutateSymbolAmbiguous() throws Exception {
+        CompositeMutationStrategy composite = new CompositeMutationStrategy(random, substitution, 0.0d, indel, 0.0d, ambiguous, 1.0d);
+        assertEquals("n", composite.mutate(DNATools.a()).seqString());
+    }
+
+    @Test
+    public void testMutateSymbolDeletion() throws Exception {
+        IndelMutationStrategy deletion = new IndelMutationStrategy(random, new InsertionMutationStrategy(random, 0.5d, 4), 0.0d, new DeletionMutationStrategy(), 1.0d);
+        CompositeMutationStrategy composite = new CompositeMutationStrategy(random, substitution, 0.0d, deletion, 1.0d, ambiguous, 0.0d);
+        assertEquals(0, composite.mutate(DNATools.a()).length());
+    }
+}
@@ -0,0 +1,87 @@
+/*
+
+    ngs-reads  Next generation sequencing (NGS/HTS) reads.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.reads.mutation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.commons.math3.random.MersenneTwister;
+
+import org.biojava.bio.seq.DNATools;
+
+import org.junit.Test;
+
+import org.nmdp.ngs.reads.SequenceBuffer;
+
+/**
+ * Unit test for InsertionMutationStrategy.
+ */
+public final class InsertionMutationStrategyTest {
+
+    @Test(expected=NullPointerException.class)
+    public void testConstructorNullRandom() {
+        new InsertionMutationStrategy(null, 0.5d, 8);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructorNegativeMaximumInsertionLength() {
+        new InsertionMutationStrategy(new MersenneTwister(), 0.5d, -1);
+    }
+
+    @Test
+    public void testMutateByte() {
+        InsertionMutationStrategy insertion = new InsertionMutationStrategy(new MersenneTwister(42L), 0.4d, 8);
+        for (int i = 0; i < 100; i++) {
+            SequenceBuffer sequence = new SequenceBuffer();
+            insertion.mutate((byte) 'c', sequence);
+            assertTrue(sequence.length() >= 1);
+            assertTrue(sequence.length() <= 8);
+            assertEquals((byte) 'c', sequence.byteAt(0));
+            assertTrue(sequence.toString().matches("c[acgt]*"));
+        }
+    }
+
+    @Test
+    public void testMutateByteNeverExtends() {
+        InsertionMutationStrategy insertion = new InsertionMutationStrategy(new MersenneTwister(42L), 1.0d, 8);
+        SequenceBuffer sequence = new SequenceBuffer();
+        insertion.mutate((byte) 't', sequence);
+        assertEquals("t", sequence.toString());
+    }
+
+    @Test
+    public void testMutateByteMaximumInsertionLength() {
+        InsertionMutationStrategy insertion = new InsertionMutationStrategy(new MersenneTwister(42L), 0.0d, 4);
+        SequenceBuffer sequence = new SequenceBuffer();
+        insertion.mutate((byte) 't', sequence);
+        assertEquals(4, sequence.length());
+    }
+
+    @Test
+    public void testMutateSymbol() throws Exception {
+        InsertionMutationStrategy insertion = new InsertionMutationStrategy(new MersenneTwister(42L), 0.0d, 4);
+        String mutated = insertion.mutate(DNATools.t()).seqString();
+        assertEquals(4, mutated.length());
+        assertTrue(mutated.startsWith("t"));
+    }
+}
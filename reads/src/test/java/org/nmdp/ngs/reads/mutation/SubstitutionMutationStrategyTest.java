@@ -0,0 +1,84 @@
+/*
+
+    ngs-reads  Next generation sequencing (NGS/HTS) reads.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.reads.mutation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.commons.math3.random.MersenneTwister;
+import org.apache.commons.math3.random.RandomGenerator;
+
+import org.biojava.bio.seq.DNATools;
+
+import org.biojava.bio.symbol.SymbolList;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.nmdp.ngs.reads.SequenceBuffer;
+
+/**
+ * Unit test for SubstitutionMutationStrategy.
+ */
+public final class SubstitutionMutationStrategyTest {
+    private RandomGenerator random;
+    private SubstitutionMutationStrategy substitution;
+
+    @Before
+    public void setUp() {
+        random = new MersenneTwister(42L);
+        substitution = new SubstitutionMutationStrategy(random);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testConstructorNullRandom() {
+        new SubstitutionMutationStrategy(null);
+    }
+
+    @Test
+    public void testMutateByte() {
+        SequenceBuffer sequence = new SequenceBuffer();
+        for (int i = 0; i < 100; i++) {
+            substitution.mutate((byte) 'a', sequence);
+        }
+        assertEquals(100, sequence.length());
+        assertTrue(sequence.toString().matches("[acgt]+"));
+    }
+
+    @Test
+    public void testMutateSymbol() throws Exception {
+        SymbolList mutated = substitution.mutate(DNATools.a());
+        assertEquals(1, mutated.length());
+        assertTrue(mutated.seqString().matches("[acgt]"));
+    }
+
+    @Test
+    public void testMutateSymbolConsistentWithByte() {
+        SubstitutionMutationStrategy other = new SubstitutionMutationStrategy(new MersenneTwister(42L));
+        SequenceBuffer sequence = new SequenceBuffer();
+        for (int i = 0; i < 20; i++) {
+            other.mutate((byte) 'g', sequence);
+            assertEquals(sequence.toString().substring(i), substitution.mutate(DNATools.g()).seqString());
+        }
+    }
+}
@@ -33,13 +33,21 @@ import static org.nmdp.ngs.reads.paired.PairedEndFastqReader.prefix;
 import static org.nmdp.ngs.reads.paired.PairedEndFastqReader.readPaired;
 import static org.nmdp.ngs.reads.paired.PairedEndFastqReader.streamInterleaved;
 import static org.nmdp.ngs.reads.paired.PairedEndFastqReader.streamPaired;
+import static org.nmdp.ngs.reads.paired.PairedEndFastqReader.streamPairedLockstep;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringReader;
 
+import java.util.List;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 
 import org.biojava.bio.program.fastq.Fastq;
 import org.biojava.bio.program.fastq.SangerFastqWriter;
@@ -58,6 +66,9 @@ public final class PairedEndFastqReaderTest {
     private Reader firstReader;
     private Reader secondReader;
     private Reader reader;
+    private InputStream firstInputStream;
+    private InputStream secondInputStream;
+    private InputStream inputStream;
     private PairedEndListener listener;
 
     @Before
@@ -71,14 +82,17 @@ public final class PairedEndFastqReaderTest {
         ByteArrayOutputStream first = new ByteArrayOutputStream();
         new SangerFastqWriter().write(first, left);
         firstReader = new StringReader(first.toString());
+        firstInputStream = new ByteArrayInputStream(first.toByteArray());
 
         ByteArrayOutputStream second = new ByteArrayOutputStream();
         new SangerFastqWriter().write(second, right);
         secondReader = new StringReader(second.toString());
+        secondInputStream = new ByteArrayInputStream(second.toByteArray());
 
         ByteArrayOutputStream interleaved = new ByteArrayOutputStream();
         new SangerFastqWriter().write(interleaved, ImmutableList.of(left, right));
         reader = new StringReader(interleaved.toString());
+        inputStream = new ByteArrayInputStream(interleaved.toByteArray());
 
         listener = new PairedEndAdapter();
     }
@@ -258,9 +272,252 @@ public final class PairedEndFastqReaderTest {
             });
     }
 
+    @Test(expected=NullPointerException.class)
+    public void testStreamPairedLockstepNullFirstReader() throws Exception {
+        streamPairedLockstep(null, secondReader, listener);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testStreamPairedLockstepNullSecondReader() throws Exception {
+        streamPairedLockstep(firstReader, null, listener);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testStreamPairedLockstepNullListener() throws Exception {
+        streamPairedLockstep(firstReader, secondReader, null);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testStreamPairedLockstepInvalidWindowSize() throws Exception {
+        streamPairedLockstep(firstReader, secondReader, 0, listener);
+    }
+
+    @Test
+    public void testStreamPairedLockstep() throws Exception {
+        final AtomicInteger paired = new AtomicInteger();
+        streamPairedLockstep(firstReader, secondReader, new PairedEndAdapter() {
+                @Override
+                public void paired(final Fastq left, final Fastq right) {
+                    assertEquals(PairedEndFastqReaderTest.this.left.getDescription(), left.getDescription());
+                    assertEquals(PairedEndFastqReaderTest.this.right.getDescription(), right.getDescription());
+                    paired.incrementAndGet();
+                }
+
+                @Override
+                public void unpaired(final Fastq unpaired) {
+                    fail("unpaired " + unpaired);
+                }
+            });
+        assertEquals(1, paired.get());
+    }
+
+    @Test
+    public void testStreamPairedLockstepSwapped() throws Exception {
+        final AtomicInteger paired = new AtomicInteger();
+        streamPairedLockstep(secondReader, firstReader, new PairedEndAdapter() {
+                @Override
+                public void paired(final Fastq left, final Fastq right) {
+                    assertEquals(PairedEndFastqReaderTest.this.left.getDescription(), left.getDescription());
+                    assertEquals(PairedEndFastqReaderTest.this.right.getDescription(), right.getDescription());
+                    paired.incrementAndGet();
+                }
+            });
+        assertEquals(1, paired.get());
+    }
+
+    @Test(expected=IOException.class)
+    public void testStreamPairedLockstepSameReads() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new SangerFastqWriter().write(outputStream, left);
+        streamPairedLockstep(firstReader, new StringReader(outputStream.toString()), listener);
+    }
+
+    @Test(expected=IOException.class)
+    public void testStreamPairedLockstepInvalidPrefix() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new SangerFastqWriter().write(outputStream, invalidPrefix);
+        streamPairedLockstep(firstReader, new StringReader(outputStream.toString()), listener);
+    }
+
+    @Test
+    public void testStreamPairedLockstepMismatchPrefix() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new SangerFastqWriter().write(outputStream, mismatchPrefix);
+        final AtomicInteger unpaired = new AtomicInteger();
+        streamPairedLockstep(firstReader, new StringReader(outputStream.toString()), new PairedEndAdapter() {
+                @Override
+                public void paired(final Fastq left, final Fastq right) {
+                    fail("paired " + left + " " + right);
+                }
+
+                @Override
+                public void unpaired(final Fastq fastq) {
+                    assertTrue(left.getDescription().equals(fastq.getDescription()) ||
+                               mismatchPrefix.getDescription().equals(fastq.getDescription()));
+                    unpaired.incrementAndGet();
+                }
+            });
+        assertEquals(2, unpaired.get());
+    }
+
+    private static void assertFastqEquals(final Fastq expected, final Fastq observed) {
+        assertEquals(expected.getDescription(), observed.getDescription());
+        assertEquals(expected.getSequence(), observed.getSequence());
+        assertEquals(expected.getQuality(), observed.getQuality());
+    }
+
+    private static Fastq read(final int i, final int end) {
+        return Fastq.builder().withDescription("read" + i + " " + end).withSequence("aaaaa").withQuality("44444").build();
+    }
+
+    private void assertLockstep(final List<Fastq> firsts, final List<Fastq> seconds, final int windowSize, final int expectedPaired, final int expectedUnpaired) throws Exception {
+        assertLockstep(firsts, seconds, windowSize, expectedPaired, expectedUnpaired, false);
+        assertLockstep(firsts, seconds, windowSize, expectedPaired, expectedUnpaired, true);
+    }
+
+    private void assertLockstep(final List<Fastq> firsts, final List<Fastq> seconds, final int windowSize, final int expectedPaired, final int expectedUnpaired, final boolean bytes) throws Exception {
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        new SangerFastqWriter().write(first, firsts);
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+        new SangerFastqWriter().write(second, seconds);
+
+        final AtomicInteger paired = new AtomicInteger();
+        final AtomicInteger unpaired = new AtomicInteger();
+        PairedEndListener lockstepListener = new PairedEndAdapter() {
+                @Override
+                public void paired(final Fastq left, final Fastq right) {
+                    assertEquals(prefix(left), prefix(right));
+                    assertTrue(isLeft(left));
+                    assertTrue(isRight(right));
+                    paired.incrementAndGet();
+                }
+
+                @Override
+                public void unpaired(final Fastq fastq) {
+                    unpaired.incrementAndGet();
+                }
+            };
+        if (bytes) {
+            streamPairedLockstep(new ByteArrayInputStream(first.toByteArray()), new ByteArrayInputStream(second.toByteArray()), windowSize, lockstepListener);
+        }
+        else {
+            streamPairedLockstep(new StringReader(first.toString()), new StringReader(second.toString()), windowSize, lockstepListener);
+        }
+        assertEquals(expectedPaired, paired.get());
+        assertEquals(expectedUnpaired, unpaired.get());
+    }
+
+    @Test
+    public void testStreamPairedLockstepOutOfOrderWithinWindow() throws Exception {
+        List<Fastq> firsts = Lists.newArrayList();
+        List<Fastq> seconds = Lists.newArrayList();
+        for (int i = 0; i < 100; i++) {
+            firsts.add(read(i, 1));
+            // swap adjacent mates in the second file
+            seconds.add(read(i % 2 == 0 ? i + 1 : i - 1, 2));
+        }
+        assertLockstep(firsts, seconds, 4, 100, 0);
+    }
+
+    @Test
+    public void testStreamPairedLockstepSpill() throws Exception {
+        List<Fastq> firsts = Lists.newArrayList();
+        List<Fastq> seconds = Lists.newArrayList();
+        for (int i = 0; i < 500; i++) {
+            firsts.add(read(i, 1));
+            seconds.add(read(499 - i, 2));
+        }
+        assertLockstep(firsts, seconds, 8, 500, 0);
+    }
+
+    @Test
+    public void testStreamPairedLockstepSpillUnpaired() throws Exception {
+        List<Fastq> firsts = Lists.newArrayList();
+        List<Fastq> seconds = Lists.newArrayList();
+        for (int i = 0; i < 300; i++) {
+            firsts.add(read(i, 1));
+        }
+        for (int i = 299; i >= 100; i--) {
+            seconds.add(read(i, 2));
+        }
+        seconds.add(read(1000, 2));
+        assertLockstep(firsts, seconds, 8, 200, 101);
+    }
+
+    @Test
+    public void testStreamPairedLockstepDifferentLengths() throws Exception {
+        List<Fastq> firsts = Lists.newArrayList();
+        List<Fastq> seconds = Lists.newArrayList();
+        for (int i = 0; i < 10; i++) {
+            firsts.add(read(i, 1));
+            if (i < 5) {
+                seconds.add(read(i, 2));
+            }
+        }
+        assertLockstep(firsts, seconds, 2, 5, 5);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testStreamPairedNullFirstInputStream() throws Exception {
+        streamPaired((InputStream) null, secondInputStream, listener);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testStreamPairedNullSecondInputStream() throws Exception {
+        streamPaired(firstInputStream, (InputStream) null, listener);
+    }
+
+    @Test
+    public void testStreamPairedInputStreams() throws Exception {
+        final AtomicInteger paired = new AtomicInteger();
+        streamPaired(firstInputStream, secondInputStream, new PairedEndAdapter() {
+                @Override
+                public void paired(final Fastq left, final Fastq right) {
+                    assertFastqEquals(PairedEndFastqReaderTest.this.left, left);
+                    assertFastqEquals(PairedEndFastqReaderTest.this.right, right);
+                    paired.incrementAndGet();
+                }
+
+                @Override
+                public void unpaired(final Fastq unpaired) {
+                    fail("unpaired " + unpaired);
+                }
+            });
+        assertEquals(1, paired.get());
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testStreamPairedLockstepNullFirstInputStream() throws Exception {
+        streamPairedLockstep((InputStream) null, secondInputStream, listener);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testStreamPairedLockstepNullSecondInputStream() throws Exception {
+        streamPairedLockstep(firstInputStream, (InputStream) null, listener);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testStreamPairedLockstepInputStreamsInvalidWindowSize() throws Exception {
+        streamPairedLockstep(firstInputStream, secondInputStream, 0, listener);
+    }
+
+    @Test
+    public void testStreamPairedLockstepInputStreams() throws Exception {
+        final AtomicInteger paired = new AtomicInteger();
+        streamPairedLockstep(firstInputStream, secondInputStream, new PairedEndAdapter() {
+                @Override
+                public void paired(final Fastq left, final Fastq right) {
+                    assertFastqEquals(PairedEndFastqReaderTest.this.left, left);
+                    assertFastqEquals(PairedEndFastqReaderTest.this.right, right);
+                    paired.incrementAndGet();
+                }
+            });
+        assertEquals(1, paired.get());
+    }
+
     @Test(expected=NullPointerException.class)
     public void testStreamInterleavedNullReader() throws Exception {
-        streamInterleaved(null, listener);
+        streamInterleaved((Reader) null, listener);
     }
 
     @Test(expected=NullPointerException.class)
@@ -284,6 +541,30 @@ public final class PairedEndFastqReaderTest {
             });
     }
 
+    @Test(expected=NullPointerException.class)
+    public void testStreamInterleavedNullInputStream() throws Exception {
+        streamInterleaved((InputStream) null, listener);
+    }
+
+    @Test
+    public void testStreamInterleavedInputStream() throws Exception {
+        final AtomicInteger paired = new AtomicInteger();
+        streamInterleaved(inputStream, new PairedEndAdapter() {
+                @Override
+                public void paired(final Fastq left, final Fastq right) {
+                    assertFastqEquals(PairedEndFastqReaderTest.this.left, left);
+                    assertFastqEquals(PairedEndFastqReaderTest.this.right, right);
+                    paired.incrementAndGet();
+                }
+            });
+        assertEquals(1, paired.get());
+    }
+
+    @Test(expected=IOException.class)
+    public void testStreamInterleavedInputStreamUnpairedRight() throws Exception {
+        streamInterleaved(secondInputStream, listener);
+    }
+
     @Test
     public void testStreamInterleavedUnpairedLeft() throws Exception {
         streamInterleaved(firstReader, listener);
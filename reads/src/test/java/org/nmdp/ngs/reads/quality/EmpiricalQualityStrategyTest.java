@@ -0,0 +1,183 @@
+/*
+
+    ngs-reads  Next generation sequencing (NGS/HTS) reads.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.reads.quality;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.math3.random.MersenneTwister;
+import org.apache.commons.math3.random.RandomGenerator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for EmpiricalQualityStrategy.
+ */
+public final class EmpiricalQualityStrategyTest {
+    private RandomGenerator random;
+
+    @Before
+    public void setUp() {
+        random = new MersenneTwister(42L);
+    }
+
+    private static InputStream fastq(final String... qualities) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < qualities.length; i++) {
+            sb.append("@read").append(i).append("\n");
+            for (int j = 0; j < qualities[i].length(); j++) {
+                sb.append("a");
+            }
+            sb.append("\n+\n").append(qualities[i]).append("\n");
+        }
+        return new ByteArrayInputStream(sb.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testCreateNullCounts() {
+        EmpiricalQualityStrategy.create(null, random);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testCreateNullRandom() {
+        EmpiricalQualityStrategy.create(new long[][] { { 1L } }, null);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testCreateNoCycles() {
+        EmpiricalQualityStrategy.create(new long[0][], random);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testCreateEmptyCycle() {
+        EmpiricalQualityStrategy.create(new long[][] { { 1L }, { 0L, 0L } }, random);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testCreateNegativeCount() {
+        EmpiricalQualityStrategy.create(new long[][] { { 1L, -1L } }, random);
+    }
+
+    @Test
+    public void testCreateConstant() {
+        EmpiricalQualityStrategy quality = EmpiricalQualityStrategy.create(new long[][] { { 0L, 0L, 5L }, { 0L, 0L, 0L, 7L } }, random);
+        assertEquals(2, quality.cycles());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(2.0d, quality.qualityScore(0, 2), 0.0d);
+            assertEquals(3.0d, quality.qualityScore(1, 2), 0.0d);
+        }
+    }
+
+    @Test
+    public void testCreateDistribution() {
+        EmpiricalQualityStrategy quality = EmpiricalQualityStrategy.create(new long[][] { { 1L, 0L, 3L, 0L, 6L } }, random);
+        int[] counts = new int[5];
+        int n = 100000;
+        for (int i = 0; i < n; i++) {
+            counts[(int) quality.qualityScore(0, 1)]++;
+        }
+        assertEquals(0, counts[1]);
+        assertEquals(0, counts[3]);
+        assertEquals(0.1d, counts[0] / (double) n, 0.01d);
+        assertEquals(0.3d, counts[2] / (double) n, 0.01d);
+        assertEquals(0.6d, counts[4] / (double) n, 0.01d);
+    }
+
+    @Test
+    public void testLongerReadsScaleToCycles() {
+        EmpiricalQualityStrategy quality = EmpiricalQualityStrategy.create(new long[][] { { 1L }, { 0L, 1L } }, random);
+        assertEquals(0.0d, quality.qualityScore(0, 4), 0.0d);
+        assertEquals(0.0d, quality.qualityScore(1, 4), 0.0d);
+        assertEquals(1.0d, quality.qualityScore(2, 4), 0.0d);
+        assertEquals(1.0d, quality.qualityScore(3, 4), 0.0d);
+    }
+
+    @Test
+    public void testShorterReadsMapToCycles() {
+        EmpiricalQualityStrategy quality = EmpiricalQualityStrategy.create(new long[][] { { 1L }, { 0L, 1L }, { 0L, 0L, 1L } }, random);
+        assertEquals(0.0d, quality.qualityScore(0, 2), 0.0d);
+        assertEquals(1.0d, quality.qualityScore(1, 2), 0.0d);
+        assertEquals(2.0d, quality.qualityScore(2, 3), 0.0d);
+    }
+
+    @Test
+    public void testWithRandom() {
+        EmpiricalQualityStrategy quality = EmpiricalQualityStrategy.create(new long[][] { { 1L, 1L, 1L, 1L } }, random);
+        EmpiricalQualityStrategy first = quality.withRandom(new MersenneTwister(7L));
+        EmpiricalQualityStrategy second = quality.withRandom(new MersenneTwister(7L));
+        assertEquals(1, first.cycles());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(first.qualityScore(0, 1), second.qualityScore(0, 1), 0.0d);
+        }
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testWithRandomNull() {
+        EmpiricalQualityStrategy.create(new long[][] { { 1L } }, random).withRandom(null);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testLearnNullInputStream() throws Exception {
+        EmpiricalQualityStrategy.learn(null, random);
+    }
+
+    @Test(expected=IOException.class)
+    public void testLearnEmpty() throws Exception {
+        EmpiricalQualityStrategy.learn(fastq(), random);
+    }
+
+    @Test
+    public void testLearn() throws Exception {
+        // '!' is 0, '+' is 10, '5' is 20, 'I' is 40
+        EmpiricalQualityStrategy quality = EmpiricalQualityStrategy.learn(fastq("II5+", "II5", "II"), random);
+        assertEquals(4, quality.cycles());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(40.0d, quality.qualityScore(0, 4), 0.0d);
+            assertEquals(40.0d, quality.qualityScore(1, 4), 0.0d);
+            assertEquals(20.0d, quality.qualityScore(2, 4), 0.0d);
+            assertEquals(10.0d, quality.qualityScore(3, 4), 0.0d);
+        }
+    }
+
+    @Test
+    public void testLearnMixed() throws Exception {
+        EmpiricalQualityStrategy quality = EmpiricalQualityStrategy.learn(fastq("!", "I"), random);
+        boolean low = false;
+        boolean high = false;
+        for (int i = 0; i < 1000; i++) {
+            double qualityScore = quality.qualityScore(0, 1);
+            assertTrue(qualityScore == 0.0d || qualityScore == 40.0d);
+            low |= qualityScore == 0.0d;
+            high |= qualityScore == 40.0d;
+        }
+        assertTrue(low);
+        assertTrue(high);
+    }
+}
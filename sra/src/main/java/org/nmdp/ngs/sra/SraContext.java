@@ -0,0 +1,210 @@
+/*
+
+    ngs-sra  Mapping for SRA submission XSDs.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.sra;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.net.URL;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.XMLConstants;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+
+import javax.xml.stream.XMLInputFactory;
+
+import javax.xml.transform.stream.StreamSource;
+
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+
+import com.google.common.collect.ImmutableMap;
+
+import org.nmdp.ngs.sra.jaxb.analysis.Analysis;
+import org.nmdp.ngs.sra.jaxb.experiment.Experiment;
+import org.nmdp.ngs.sra.jaxb.run.RunSet;
+import org.nmdp.ngs.sra.jaxb.sample.Sample;
+import org.nmdp.ngs.sra.jaxb.study.Study;
+import org.nmdp.ngs.sra.jaxb.submission.Submission;
+
+import org.xml.sax.SAXException;
+
+/**
+ * Shared cache of JAXB contexts and compiled schemas for SRA xml, keyed by root element class, with
+ * per-thread pooled unmarshallers and marshallers.
+ *
+ * <p>
+ * JAXB contexts and compiled schemas are thread safe and expensive to create, so they are created once
+ * on first use.  Unmarshallers and marshallers are cheap to create from a context but are not thread safe,
+ * so each thread reuses its own.
+ * </p>
+ */
+final class SraContext {
+    /** Common schema resource. */
+    static final String COMMON_SCHEMA = "/org/nmdp/ngs/sra/xsd/SRA.common.xsd";
+
+    /** Schema resources keyed by root element class. */
+    static final Map<Class<?>, String> SCHEMAS = ImmutableMap.<Class<?>, String>builder()
+        .put(Analysis.class, "/org/nmdp/ngs/sra/xsd/SRA.analysis.xsd")
+        .put(Experiment.class, "/org/nmdp/ngs/sra/xsd/SRA.experiment.xsd")
+        .put(RunSet.class, "/org/nmdp/ngs/sra/xsd/SRA.run.xsd")
+        .put(Sample.class, "/org/nmdp/ngs/sra/xsd/SRA.sample.xsd")
+        .put(Study.class, "/org/nmdp/ngs/sra/xsd/SRA.study.xsd")
+        .put(Submission.class, "/org/nmdp/ngs/sra/xsd/SRA.submission.xsd")
+        .build();
+
+    /** Cached JAXB contexts keyed by root element class, guarded by class lock. */
+    private static final Map<Class<?>, JAXBContext> CONTEXTS = new HashMap<Class<?>, JAXBContext>();
+
+    /** Cached compiled schemas keyed by root element class, guarded by class lock. */
+    private static final Map<Class<?>, Schema> COMPILED_SCHEMAS = new HashMap<Class<?>, Schema>();
+
+    /** Per-thread unmarshallers keyed by root element class. */
+    private static final ThreadLocal<Map<Class<?>, Unmarshaller>> UNMARSHALLERS = new ThreadLocal<Map<Class<?>, Unmarshaller>>() {
+            @Override
+            protected Map<Class<?>, Unmarshaller> initialValue() {
+                return new HashMap<Class<?>, Unmarshaller>();
+            }
+        };
+
+    /** Per-thread marshallers keyed by root element class. */
+    private static final ThreadLocal<Map<Class<?>, Marshaller>> MARSHALLERS = new ThreadLocal<Map<Class<?>, Marshaller>>() {
+            @Override
+            protected Map<Class<?>, Marshaller> initialValue() {
+                return new HashMap<Class<?>, Marshaller>();
+            }
+        };
+
+    /** Per-thread StAX input factory. */
+    private static final ThreadLocal<XMLInputFactory> XML_INPUT_FACTORY = new ThreadLocal<XMLInputFactory>();
+
+
+    /**
+     * Private no-arg constructor.
+     */
+    private SraContext() {
+        // empty
+    }
+
+
+    /**
+     * Return the shared JAXB context for the specified root element class.
+     *
+     * @param type root element class, must be one of the SRA root element classes
+     * @return the shared JAXB context for the specified root element class
+     * @throws JAXBException if the JAXB context could not be created
+     */
+    static synchronized JAXBContext context(final Class<?> type) throws JAXBException {
+        checkNotNull(type);
+        checkArgument(SCHEMAS.containsKey(type), "type must be one of the SRA root element classes");
+        JAXBContext context = CONTEXTS.get(type);
+        if (context == null) {
+            context = JAXBContext.newInstance(type);
+            CONTEXTS.put(type, context);
+        }
+        return context;
+    }
+
+    /**
+     * Return the shared compiled schema for the specified root element class.
+     *
+     * @param type root element class, must be one of the SRA root element classes
+     * @return the shared compiled schema for the specified root element class
+     * @throws SAXException if the schema could not be compiled
+     */
+    static synchronized Schema schema(final Class<?> type) throws SAXException {
+        checkNotNull(type);
+        checkArgument(SCHEMAS.containsKey(type), "type must be one of the SRA root element classes");
+        Schema schema = COMPILED_SCHEMAS.get(type);
+        if (schema == null) {
+            SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+            URL commonSchemaURL = SraContext.class.getResource(COMMON_SCHEMA);
+            URL schemaURL = SraContext.class.getResource(SCHEMAS.get(type));
+            schema = schemaFactory.newSchema(new StreamSource[] { new StreamSource(commonSchemaURL.toString()), new StreamSource(schemaURL.toString()) });
+            COMPILED_SCHEMAS.put(type, schema);
+        }
+        return schema;
+    }
+
+    /**
+     * Return the validating unmarshaller for the specified root element class for the current thread.
+     *
+     * @param type root element class, must be one of the SRA root element classes
+     * @return the validating unmarshaller for the specified root element class for the current thread
+     * @throws JAXBException if the unmarshaller could not be created
+     * @throws SAXException if the schema could not be compiled
+     */
+    static Unmarshaller unmarshaller(final Class<?> type) throws JAXBException, SAXException {
+        Map<Class<?>, Unmarshaller> unmarshallers = UNMARSHALLERS.get();
+        Unmarshaller unmarshaller = unmarshallers.get(type);
+        if (unmarshaller == null) {
+            unmarshaller = context(type).createUnmarshaller();
+            unmarshaller.setSchema(schema(type));
+            unmarshallers.put(type, unmarshaller);
+        }
+        return unmarshaller;
+    }
+
+    /**
+     * Return the validating, formatting marshaller for the specified root element class for the current thread.
+     *
+     * @param type root element class, must be one of the SRA root element classes
+     * @return the validating, formatting marshaller for the specified root element class for the current thread
+     * @throws JAXBException if the marshaller could not be created
+     * @throws SAXException if the schema could not be compiled
+     */
+    static Marshaller marshaller(final Class<?> type) throws JAXBException, SAXException {
+        Map<Class<?>, Marshaller> marshallers = MARSHALLERS.get();
+        Marshaller marshaller = marshallers.get(type);
+        if (marshaller == null) {
+            marshaller = context(type).createMarshaller();
+            marshaller.setSchema(schema(type));
+            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+            marshallers.put(type, marshaller);
+        }
+        return marshaller;
+    }
+
+    /**
+     * Return the StAX input factory for SRA xml for the current thread.  DTDs and external
+     * entities are not supported.
+     *
+     * @return the StAX input factory for SRA xml for the current thread
+     */
+    static XMLInputFactory xmlInputFactory() {
+        XMLInputFactory xmlInputFactory = XML_INPUT_FACTORY.get();
+        if (xmlInputFactory == null) {
+            xmlInputFactory = XMLInputFactory.newInstance();
+            xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            XML_INPUT_FACTORY.set(xmlInputFactory);
+        }
+        return xmlInputFactory;
+    }
+}
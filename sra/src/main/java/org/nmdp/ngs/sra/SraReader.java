@@ -26,24 +26,22 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.net.URL;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.IOException;
 import java.io.Reader;
 
-import javax.xml.XMLConstants;
-
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
 
-import javax.xml.transform.stream.StreamSource;
-
-import javax.xml.validation.Schema;
-import javax.xml.validation.SchemaFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import com.google.common.base.Charsets;
 
@@ -51,6 +49,7 @@ import com.google.common.io.Resources;
 
 import org.nmdp.ngs.sra.jaxb.analysis.Analysis;
 import org.nmdp.ngs.sra.jaxb.experiment.Experiment;
+import org.nmdp.ngs.sra.jaxb.run.Run;
 import org.nmdp.ngs.sra.jaxb.run.RunSet;
 import org.nmdp.ngs.sra.jaxb.sample.Sample;
 import org.nmdp.ngs.sra.jaxb.study.Study;
@@ -60,6 +59,13 @@ import org.xml.sax.SAXException;
 
 /**
  * Reader for SRA xml.
+ *
+ * <p>
+ * The <code>read</code> methods unmarshal an entire document into memory.  The <code>stream</code>
+ * methods walk a <code>RUN_SET</code>, <code>EXPERIMENT_SET</code>, <code>SAMPLE_SET</code>, or
+ * <code>ANALYSIS_SET</code> document with StAX and unmarshal and validate one element at a time,
+ * so that memory use is proportional to the largest element rather than to the whole document.
+ * </p>
  */
 public final class SraReader {
 
@@ -73,14 +79,7 @@ public final class SraReader {
     public static Analysis readAnalysis(final Reader reader) throws IOException {
         checkNotNull(reader);
         try {
-            JAXBContext context = JAXBContext.newInstance(Analysis.class);
-            Unmarshaller unmarshaller = context.createUnmarshaller();
-            SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-            URL commonSchemaURL = SraReader.class.getResource("/org/nmdp/ngs/sra/xsd/SRA.common.xsd");
-            URL analysisSchemaURL = SraReader.class.getResource("/org/nmdp/ngs/sra/xsd/SRA.analysis.xsd");
-            Schema schema = schemaFactory.newSchema(new StreamSource[] { new StreamSource(commonSchemaURL.toString()), new StreamSource(analysisSchemaURL.toString()) });
-            unmarshaller.setSchema(schema);
-            return (Analysis) unmarshaller.unmarshal(reader);
+            return (Analysis) SraContext.unmarshaller(Analysis.class).unmarshal(reader);
         }
         catch (JAXBException | SAXException e) {
             throw new IOException("could not unmarshal Analysis", e);
@@ -140,14 +139,7 @@ public final class SraReader {
     public static Experiment readExperiment(final Reader reader) throws IOException {
         checkNotNull(reader);
         try {
-            JAXBContext context = JAXBContext.newInstance(Experiment.class);
-            Unmarshaller unmarshaller = context.createUnmarshaller();
-            SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-            URL commonSchemaURL = SraReader.class.getResource("/org/nmdp/ngs/sra/xsd/SRA.common.xsd");
-            URL experimentSchemaURL = SraReader.class.getResource("/org/nmdp/ngs/sra/xsd/SRA.experiment.xsd");
-            Schema schema = schemaFactory.newSchema(new StreamSource[] { new StreamSource(commonSchemaURL.toString()), new StreamSource(experimentSchemaURL.toString()) });
-            unmarshaller.setSchema(schema);
-            return (Experiment) unmarshaller.unmarshal(reader);
+            return (Experiment) SraContext.unmarshaller(Experiment.class).unmarshal(reader);
         }
         catch (JAXBException | SAXException e) {
             throw new IOException("could not unmarshal Experiment", e);
@@ -207,14 +199,7 @@ public final class SraReader {
     public static RunSet readRunSet(final Reader reader) throws IOException {
         checkNotNull(reader);
         try {
-            JAXBContext context = JAXBContext.newInstance(RunSet.class);
-            Unmarshaller unmarshaller = context.createUnmarshaller();
-            SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-            URL commonSchemaURL = SraReader.class.getResource("/org/nmdp/ngs/sra/xsd/SRA.common.xsd");
-            URL runSchemaURL = SraReader.class.getResource("/org/nmdp/ngs/sra/xsd/SRA.run.xsd");
-            Schema schema = schemaFactory.newSchema(new StreamSource[] { new StreamSource(commonSchemaURL.toString()), new StreamSource(runSchemaURL.toString()) });
-            unmarshaller.setSchema(schema);
-            return (RunSet) unmarshaller.unmarshal(reader);
+            return (RunSet) SraContext.unmarshaller(RunSet.class).unmarshal(reader);
         }
         catch (JAXBException | SAXException e) {
             throw new IOException("could not unmarshal RunSet", e);
@@ -274,14 +259,7 @@ public final class SraReader {
     public static Sample readSample(final Reader reader) throws IOException {
         checkNotNull(reader);
         try {
-            JAXBContext context = JAXBContext.newInstance(Sample.class);
-            Unmarshaller unmarshaller = context.createUnmarshaller();
-            SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-            URL commonSchemaURL = SraReader.class.getResource("/org/nmdp/ngs/sra/xsd/SRA.common.xsd");
-            URL sampleSchemaURL = SraReader.class.getResource("/org/nmdp/ngs/sra/xsd/SRA.sample.xsd");
-            Schema schema = schemaFactory.newSchema(new StreamSource[] { new StreamSource(commonSchemaURL.toString()), new StreamSource(sampleSchemaURL.toString()) });
-            unmarshaller.setSchema(schema);
-            return (Sample) unmarshaller.unmarshal(reader);
+            return (Sample) SraContext.unmarshaller(Sample.class).unmarshal(reader);
         }
         catch (JAXBException | SAXException e) {
             throw new IOException("could not unmarshal Sample", e);
@@ -341,14 +319,7 @@ public final class SraReader {
     public static Study readStudy(final Reader reader) throws IOException {
         checkNotNull(reader);
         try {
-            JAXBContext context = JAXBContext.newInstance(Study.class);
-            Unmarshaller unmarshaller = context.createUnmarshaller();
-            SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-            URL commonSchemaURL = SraReader.class.getResource("/org/nmdp/ngs/sra/xsd/SRA.common.xsd");
-            URL studySchemaURL = SraReader.class.getResource("/org/nmdp/ngs/sra/xsd/SRA.study.xsd");
-            Schema schema = schemaFactory.newSchema(new StreamSource[] { new StreamSource(commonSchemaURL.toString()), new StreamSource(studySchemaURL.toString()) });
-            unmarshaller.setSchema(schema);
-            return (Study) unmarshaller.unmarshal(reader);
+            return (Study) SraContext.unmarshaller(Study.class).unmarshal(reader);
         }
         catch (JAXBException | SAXException e) {
             throw new IOException("could not unmarshal Study", e);
@@ -408,14 +379,7 @@ public final class SraReader {
     public static Submission readSubmission(final Reader reader) throws IOException {
         checkNotNull(reader);
         try {
-            JAXBContext context = JAXBContext.newInstance(Submission.class);
-            Unmarshaller unmarshaller = context.createUnmarshaller();
-            SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-            URL commonSchemaURL = SraReader.class.getResource("/org/nmdp/ngs/sra/xsd/SRA.common.xsd");
-            URL submissionSchemaURL = SraReader.class.getResource("/org/nmdp/ngs/sra/xsd/SRA.submission.xsd");
-            Schema schema = schemaFactory.newSchema(new StreamSource[] { new StreamSource(commonSchemaURL.toString()), new StreamSource(submissionSchemaURL.toString()) });
-            unmarshaller.setSchema(schema);
-            return (Submission) unmarshaller.unmarshal(reader);
+            return (Submission) SraContext.unmarshaller(Submission.class).unmarshal(reader);
         }
         catch (JAXBException | SAXException e) {
             throw new IOException("could not unmarshal Submission", e);
@@ -463,4 +427,502 @@ public final class SraReader {
             return readSubmission(reader);
         }
     }
+
+
+    /**
+     * Stream the analyses read from the specified reader to the specified analysis listener.
+     * The document may have either a <code>ANALYSIS_SET</code> root element or a single <code>ANALYSIS</code> root element.
+     * Each analysis is validated against the SRA schema as it is unmarshalled.
+     *
+     * @param reader reader, must not be null
+     * @param listener analysis listener, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public static void streamAnalyses(final Reader reader, final AnalysisListener listener) throws IOException {
+        checkNotNull(reader);
+        checkNotNull(listener);
+        XMLStreamReader xmlStreamReader = null;
+        try {
+            xmlStreamReader = SraContext.xmlInputFactory().createXMLStreamReader(reader);
+            streamAnalyses(xmlStreamReader, listener);
+        }
+        catch (XMLStreamException e) {
+            throw new IOException("could not stream Analysis", e);
+        }
+        finally {
+            close(xmlStreamReader);
+        }
+    }
+
+    /**
+     * Stream the analyses read from the specified file to the specified analysis listener.
+     * The document may have either a <code>ANALYSIS_SET</code> root element or a single <code>ANALYSIS</code> root element.
+     * Each analysis is validated against the SRA schema as it is unmarshalled.
+     *
+     * @param file file, must not be null
+     * @param listener analysis listener, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public static void streamAnalyses(final File file, final AnalysisListener listener) throws IOException {
+        checkNotNull(file);
+        checkNotNull(listener);
+        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file))) {
+            streamAnalyses(inputStream, listener);
+        }
+    }
+
+    /**
+     * Stream the analyses read from the specified URL to the specified analysis listener.
+     * The document may have either a <code>ANALYSIS_SET</code> root element or a single <code>ANALYSIS</code> root element.
+     * Each analysis is validated against the SRA schema as it is unmarshalled.
+     *
+     * @param url URL, must not be null
+     * @param listener analysis listener, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public static void streamAnalyses(final URL url, final AnalysisListener listener) throws IOException {
+        checkNotNull(url);
+        checkNotNull(listener);
+        try (InputStream inputStream = new BufferedInputStream(url.openStream())) {
+            streamAnalyses(inputStream, listener);
+        }
+    }
+
+    /**
+     * Stream the analyses read from the specified input stream to the specified analysis listener.
+     * The document may have either a <code>ANALYSIS_SET</code> root element or a single <code>ANALYSIS</code> root element.
+     * Each analysis is validated against the SRA schema as it is unmarshalled.
+     *
+     * @param inputStream input stream, must not be null
+     * @param listener analysis listener, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public static void streamAnalyses(final InputStream inputStream, final AnalysisListener listener) throws IOException {
+        checkNotNull(inputStream);
+        checkNotNull(listener);
+        XMLStreamReader xmlStreamReader = null;
+        try {
+            xmlStreamReader = SraContext.xmlInputFactory().createXMLStreamReader(inputStream);
+            streamAnalyses(xmlStreamReader, listener);
+        }
+        catch (XMLStreamException e) {
+            throw new IOException("could not stream Analysis", e);
+        }
+        finally {
+            close(xmlStreamReader);
+        }
+    }
+
+    /**
+     * Stream the analyses read from the specified XML stream reader to the specified analysis listener.
+     *
+     * @param xmlStreamReader XML stream reader positioned at the start of the document
+     * @param listener analysis listener
+     * @throws IOException if an I/O error occurs
+     * @throws XMLStreamException if the xml is not well formed
+     */
+    private static void streamAnalyses(final XMLStreamReader xmlStreamReader, final AnalysisListener listener) throws IOException, XMLStreamException {
+        stream(xmlStreamReader, "ANALYSIS", Analysis.class, Analysis.class, new Handler<Analysis>() {
+                @Override
+                public boolean handle(final Analysis analysis) {
+                    return listener.analysis(analysis);
+                }
+            });
+    }
+
+
+    /**
+     * Stream the experiments read from the specified reader to the specified experiment listener.
+     * The document may have either a <code>EXPERIMENT_SET</code> root element or a single <code>EXPERIMENT</code> root element.
+     * Each experiment is validated against the SRA schema as it is unmarshalled.
+     *
+     * @param reader reader, must not be null
+     * @param listener experiment listener, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public static void streamExperiments(final Reader reader, final ExperimentListener listener) throws IOException {
+        checkNotNull(reader);
+        checkNotNull(listener);
+        XMLStreamReader xmlStreamReader = null;
+        try {
+            xmlStreamReader = SraContext.xmlInputFactory().createXMLStreamReader(reader);
+            streamExperiments(xmlStreamReader, listener);
+        }
+        catch (XMLStreamException e) {
+            throw new IOException("could not stream Experiment", e);
+        }
+        finally {
+            close(xmlStreamReader);
+        }
+    }
+
+    /**
+     * Stream the experiments read from the specified file to the specified experiment listener.
+     * The document may have either a <code>EXPERIMENT_SET</code> root element or a single <code>EXPERIMENT</code> root element.
+     * Each experiment is validated against the SRA schema as it is unmarshalled.
+     *
+     * @param file file, must not be null
+     * @param listener experiment listener, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public static void streamExperiments(final File file, final ExperimentListener listener) throws IOException {
+        checkNotNull(file);
+        checkNotNull(listener);
+        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file))) {
+            streamExperiments(inputStream, listener);
+        }
+    }
+
+    /**
+     * Stream the experiments read from the specified URL to the specified experiment listener.
+     * The document may have either a <code>EXPERIMENT_SET</code> root element or a single <code>EXPERIMENT</code> root element.
+     * Each experiment is validated against the SRA schema as it is unmarshalled.
+     *
+     * @param url URL, must not be null
+     * @param listener experiment listener, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public static void streamExperiments(final URL url, final ExperimentListener listener) throws IOException {
+        checkNotNull(url);
+        checkNotNull(listener);
+        try (InputStream inputStream = new BufferedInputStream(url.openStream())) {
+            streamExperiments(inputStream, listener);
+        }
+    }
+
+    /**
+     * Stream the experiments read from the specified input stream to the specified experiment listener.
+     * The document may have either a <code>EXPERIMENT_SET</code> root element or a single <code>EXPERIMENT</code> root element.
+     * Each experiment is validated against the SRA schema as it is unmarshalled.
+     *
+     * @param inputStream input stream, must not be null
+     * @param listener experiment listener, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public static void streamExperiments(final InputStream inputStream, final ExperimentListener listener) throws IOException {
+        checkNotNull(inputStream);
+        checkNotNull(listener);
+        XMLStreamReader xmlStreamReader = null;
+        try {
+            xmlStreamReader = SraContext.xmlInputFactory().createXMLStreamReader(inputStream);
+            streamExperiments(xmlStreamReader, listener);
+        }
+        catch (XMLStreamException e) {
+            throw new IOException("could not stream Experiment", e);
+        }
+        finally {
+            close(xmlStreamReader);
+        }
+    }
+
+    /**
+     * Stream the experiments read from the specified XML stream reader to the specified experiment listener.
+     *
+     * @param xmlStreamReader XML stream reader positioned at the start of the document
+     * @param listener experiment listener
+     * @throws IOException if an I/O error occurs
+     * @throws XMLStreamException if the xml is not well formed
+     */
+    private static void streamExperiments(final XMLStreamReader xmlStreamReader, final ExperimentListener listener) throws IOException, XMLStreamException {
+        stream(xmlStreamReader, "EXPERIMENT", Experiment.class, Experiment.class, new Handler<Experiment>() {
+                @Override
+                public boolean handle(final Experiment experiment) {
+                    return listener.experiment(experiment);
+                }
+            });
+    }
+
+
+    /**
+     * Stream the runs read from the specified reader to the specified run listener.
+     * The document may have either a <code>RUN_SET</code> root element or a single <code>RUN</code> root element.
+     * Each run is validated against the SRA schema as it is unmarshalled.
+     *
+     * @param reader reader, must not be null
+     * @param listener run listener, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public static void streamRuns(final Reader reader, final RunListener listener) throws IOException {
+        checkNotNull(reader);
+        checkNotNull(listener);
+        XMLStreamReader xmlStreamReader = null;
+        try {
+            xmlStreamReader = SraContext.xmlInputFactory().createXMLStreamReader(reader);
+            streamRuns(xmlStreamReader, listener);
+        }
+        catch (XMLStreamException e) {
+            throw new IOException("could not stream Run", e);
+        }
+        finally {
+            close(xmlStreamReader);
+        }
+    }
+
+    /**
+     * Stream the runs read from the specified file to the specified run listener.
+     * The document may have either a <code>RUN_SET</code> root element or a single <code>RUN</code> root element.
+     * Each run is validated against the SRA schema as it is unmarshalled.
+     *
+     * @param file file, must not be null
+     * @param listener run listener, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public static void streamRuns(final File file, final RunListener listener) throws IOException {
+        checkNotNull(file);
+        checkNotNull(listener);
+        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file))) {
+            streamRuns(inputStream, listener);
+        }
+    }
+
+    /**
+     * Stream the runs read from the specified URL to the specified run listener.
+     * The document may have either a <code>RUN_SET</code> root element or a single <code>RUN</code> root element.
+     * Each run is validated against the SRA schema as it is unmarshalled.
+     *
+     * @param url URL, must not be null
+     * @param listener run listener, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public static void streamRuns(final URL url, final RunListener listener) throws IOException {
+        checkNotNull(url);
+        checkNotNull(listener);
+        try (InputStream inputStream = new BufferedInputStream(url.openStream())) {
+            streamRuns(inputStream, listener);
+        }
+    }
+
+    /**
+     * Stream the runs read from the specified input stream to the specified run listener.
+     * The document may have either a <code>RUN_SET</code> root element or a single <code>RUN</code> root element.
+     * Each run is validated against the SRA schema as it is unmarshalled.
+     *
+     * @param inputStream input stream, must not be null
+     * @param listener run listener, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public static void streamRuns(final InputStream inputStream, final RunListener listener) throws IOException {
+        checkNotNull(inputStream);
+        checkNotNull(listener);
+        XMLStreamReader xmlStreamReader = null;
+        try {
+            xmlStreamReader = SraContext.xmlInputFactory().createXMLStreamReader(inputStream);
+            streamRuns(xmlStreamReader, listener);
+        }
+        catch (XMLStreamException e) {
+            throw new IOException("could not stream Run", e);
+        }
+        finally {
+            close(xmlStreamReader);
+        }
+    }
+
+    /**
+     * Stream the runs read from the specified XML stream reader to the specified run listener.
+     *
+     * @param xmlStreamReader XML stream reader positioned at the start of the document
+     * @param listener run listener
+     * @throws IOException if an I/O error occurs
+     * @throws XMLStreamException if the xml is not well formed
+     */
+    private static void streamRuns(final XMLStreamReader xmlStreamReader, final RunListener listener) throws IOException, XMLStreamException {
+        stream(xmlStreamReader, "RUN", Run.class, RunSet.class, new Handler<Run>() {
+                @Override
+                public boolean handle(final Run run) {
+                    return listener.run(run);
+                }
+            });
+    }
+
+
+    /**
+     * Stream the samples read from the specified reader to the specified sample listener.
+     * The document may have either a <code>SAMPLE_SET</code> root element or a single <code>SAMPLE</code> root element.
+     * Each sample is validated against the SRA schema as it is unmarshalled.
+     *
+     * @param reader reader, must not be null
+     * @param listener sample listener, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public static void streamSamples(final Reader reader, final SampleListener listener) throws IOException {
+        checkNotNull(reader);
+        checkNotNull(listener);
+        XMLStreamReader xmlStreamReader = null;
+        try {
+            xmlStreamReader = SraContext.xmlInputFactory().createXMLStreamReader(reader);
+            streamSamples(xmlStreamReader, listener);
+        }
+        catch (XMLStreamException e) {
+            throw new IOException("could not stream Sample", e);
+        }
+        finally {
+            close(xmlStreamReader);
+        }
+    }
+
+    /**
+     * Stream the samples read from the specified file to the specified sample listener.
+     * The document may have either a <code>SAMPLE_SET</code> root element or a single <code>SAMPLE</code> root element.
+     * Each sample is validated against the SRA schema as it is unmarshalled.
+     *
+     * @param file file, must not be null
+     * @param listener sample listener, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public static void streamSamples(final File file, final SampleListener listener) throws IOException {
+        checkNotNull(file);
+        checkNotNull(listener);
+        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file))) {
+            streamSamples(inputStream, listener);
+        }
+    }
+
+    /**
+     * Stream the samples read from the specified URL to the specified sample listener.
+     * The document may have either a <code>SAMPLE_SET</code> root element or a single <code>SAMPLE</code> root element.
+     * Each sample is validated against the SRA schema as it is unmarshalled.
+     *
+     * @param url URL, must not be null
+     * @param listener sample listener, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public static void streamSamples(final URL url, final SampleListener listener) throws IOException {
+        checkNotNull(url);
+        checkNotNull(listener);
+        try (InputStream inputStream = new BufferedInputStream(url.openStream())) {
+            streamSamples(inputStream, listener);
+        }
+    }
+
+    /**
+     * Stream the samples read from the specified input stream to the specified sample listener.
+     * The document may have either a <code>SAMPLE_SET</code> root element or a single <code>SAMPLE</code> root element.
+     * Each sample is validated against the SRA schema as it is unmarshalled.
+     *
+     * @param inputStream input stream, must not be null
+     * @param listener sample listener, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public static void streamSamples(final InputStream inputStream, final SampleListener listener) throws IOException {
+        checkNotNull(inputStream);
+        checkNotNull(listener);
+        XMLStreamReader xmlStreamReader = null;
+        try {
+            xmlStreamReader = SraContext.xmlInputFactory().createXMLStreamReader(inputStream);
+            streamSamples(xmlStreamReader, listener);
+        }
+        catch (XMLStreamException e) {
+            throw new IOException("could not stream Sample", e);
+        }
+        finally {
+            close(xmlStreamReader);
+        }
+    }
+
+    /**
+     * Stream the samples read from the specified XML stream reader to the specified sample listener.
+     *
+     * @param xmlStreamReader XML stream reader positioned at the start of the document
+     * @param listener sample listener
+     * @throws IOException if an I/O error occurs
+     * @throws XMLStreamException if the xml is not well formed
+     */
+    private static void streamSamples(final XMLStreamReader xmlStreamReader, final SampleListener listener) throws IOException, XMLStreamException {
+        stream(xmlStreamReader, "SAMPLE", Sample.class, Sample.class, new Handler<Sample>() {
+                @Override
+                public boolean handle(final Sample sample) {
+                    return listener.sample(sample);
+                }
+            });
+    }
+
+
+    /**
+     * Stream the elements with the specified name read from the specified XML stream reader to the specified handler.
+     *
+     * @param <T> element type
+     * @param xmlStreamReader XML stream reader positioned at the start of the document
+     * @param name element name
+     * @param type element class
+     * @param contextType root element class of the JAXB context and schema
+     * @param handler handler
+     * @throws IOException if an I/O error occurs
+     * @throws XMLStreamException if the xml is not well formed
+     */
+    private static <T> void stream(final XMLStreamReader xmlStreamReader,
+                                   final String name,
+                                   final Class<T> type,
+                                   final Class<?> contextType,
+                                   final Handler<T> handler) throws IOException, XMLStreamException {
+
+        xmlStreamReader.nextTag();
+        String root = xmlStreamReader.getLocalName();
+        try {
+            Unmarshaller unmarshaller = SraContext.unmarshaller(contextType);
+            if (name.equals(root)) {
+                handler.handle(unmarshaller.unmarshal(xmlStreamReader, type).getValue());
+                return;
+            }
+            if (!(name + "_SET").equals(root)) {
+                throw new IOException("could not stream " + name + ", expected " + name + "_SET or " + name + " root element but found " + root);
+            }
+            int depth = 1;
+            xmlStreamReader.next();
+            while (depth > 0) {
+                int event = xmlStreamReader.getEventType();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    if (depth == 1 && name.equals(xmlStreamReader.getLocalName())) {
+                        // leaves the stream reader at the event following the element end element
+                        if (!handler.handle(unmarshaller.unmarshal(xmlStreamReader, type).getValue())) {
+                            return;
+                        }
+                        continue;
+                    }
+                    depth++;
+                }
+                else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                }
+                if (depth > 0) {
+                    xmlStreamReader.next();
+                }
+            }
+        }
+        catch (JAXBException | SAXException e) {
+            throw new IOException("could not unmarshal " + name, e);
+        }
+    }
+
+    /**
+     * Close the specified XML stream reader, if any, ignoring errors.  This does not close the
+     * underlying source.
+     *
+     * @param xmlStreamReader XML stream reader to close, if any
+     */
+    private static void close(final XMLStreamReader xmlStreamReader) {
+        if (xmlStreamReader != null) {
+            try {
+                xmlStreamReader.close();
+            }
+            catch (XMLStreamException e) {
+                // ignore
+            }
+        }
+    }
+
+    /**
+     * Element handler.
+     *
+     * @param <T> element type
+     */
+    private interface Handler<T> {
+
+        /**
+         * Handle the specified element.
+         *
+         * @param element element
+         * @return true to continue streaming
+         */
+        boolean handle(T element);
+    }
 }
@@ -0,0 +1,188 @@
+/*
+
+    ngs-sra  Mapping for SRA submission XSDs.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.sra;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+
+import org.nmdp.ngs.sra.jaxb.analysis.Analysis;
+import org.nmdp.ngs.sra.jaxb.experiment.Experiment;
+import org.nmdp.ngs.sra.jaxb.run.Run;
+import org.nmdp.ngs.sra.jaxb.run.RunSet;
+import org.nmdp.ngs.sra.jaxb.sample.Sample;
+
+import org.xml.sax.SAXException;
+
+/**
+ * Streaming writer for SRA <code>RUN_SET</code>, <code>EXPERIMENT_SET</code>, <code>SAMPLE_SET</code>,
+ * and <code>ANALYSIS_SET</code> xml.
+ *
+ * <p>
+ * Elements are validated against the SRA schema and appended to the underlying writer one at a time,
+ * so that large sets can be written without holding them in memory.  The set start element is written
+ * when the set writer is created and the set end element when it is closed.  Set writers are not thread safe.
+ * </p>
+ *
+ * @param <T> element type
+ */
+public final class SraSetWriter<T> implements Closeable, Flushable {
+    /** Set element name. */
+    private final String name;
+
+    /** Element class. */
+    private final Class<T> type;
+
+    /** Validating, formatting fragment marshaller. */
+    private final Marshaller marshaller;
+
+    /** Underlying writer. */
+    private final Writer writer;
+
+    /** True if this set writer has been closed. */
+    private boolean closed = false;
+
+
+    /**
+     * Create a new SRA set writer.
+     *
+     * @param name set element name
+     * @param type element class
+     * @param contextType root element class of the JAXB context and schema
+     * @param writer writer, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    private SraSetWriter(final String name, final Class<T> type, final Class<?> contextType, final Writer writer) throws IOException {
+        checkNotNull(writer);
+        this.name = name;
+        this.type = type;
+        this.writer = writer;
+
+        try {
+            // not the shared per-thread marshaller, fragment output must not leak into SraWriter
+            marshaller = SraContext.context(contextType).createMarshaller();
+            marshaller.setSchema(SraContext.schema(contextType));
+            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+            marshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
+        }
+        catch (JAXBException | SAXException e) {
+            throw new IOException("could not create marshaller for " + name, e);
+        }
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n<" + name + ">\n");
+    }
+
+
+    /**
+     * Write the specified element.
+     *
+     * @param element element to write, must not be null
+     * @throws IOException if an I/O error occurs
+     */
+    public void write(final T element) throws IOException {
+        checkNotNull(element);
+        if (closed) {
+            throw new IOException("could not write " + type.getSimpleName() + ", set writer is closed");
+        }
+        try {
+            marshaller.marshal(type.cast(element), writer);
+            writer.write("\n");
+        }
+        catch (JAXBException e) {
+            throw new IOException("could not marshal " + type.getSimpleName(), e);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * Write the set end element and close the underlying writer.  Subsequent calls have no effect.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            try {
+                writer.write("</" + name + ">\n");
+            }
+            finally {
+                writer.close();
+            }
+        }
+    }
+
+
+    /**
+     * Create and return a new set writer for analyses.
+     *
+     * @param writer writer, must not be null
+     * @return a new set writer for analyses
+     * @throws IOException if an I/O error occurs
+     */
+    public static SraSetWriter<Analysis> analysisSetWriter(final Writer writer) throws IOException {
+        return new SraSetWriter<Analysis>("ANALYSIS_SET", Analysis.class, Analysis.class, writer);
+    }
+
+    /**
+     * Create and return a new set writer for experiments.
+     *
+     * @param writer writer, must not be null
+     * @return a new set writer for experiments
+     * @throws IOException if an I/O error occurs
+     */
+    public static SraSetWriter<Experiment> experimentSetWriter(final Writer writer) throws IOException {
+        return new SraSetWriter<Experiment>("EXPERIMENT_SET", Experiment.class, Experiment.class, writer);
+    }
+
+    /**
+     * Create and return a new set writer for runs.
+     *
+     * @param writer writer, must not be null
+     * @return a new set writer for runs
+     * @throws IOException if an I/O error occurs
+     */
+    public static SraSetWriter<Run> runSetWriter(final Writer writer) throws IOException {
+        return new SraSetWriter<Run>("RUN_SET", Run.class, RunSet.class, writer);
+    }
+
+    /**
+     * Create and return a new set writer for samples.
+     *
+     * @param writer writer, must not be null
+     * @return a new set writer for samples
+     * @throws IOException if an I/O error occurs
+     */
+    public static SraSetWriter<Sample> sampleSetWriter(final Writer writer) throws IOException {
+        return new SraSetWriter<Sample>("SAMPLE_SET", Sample.class, Sample.class, writer);
+    }
+}
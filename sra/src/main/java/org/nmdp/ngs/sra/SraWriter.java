@@ -24,8 +24,6 @@ package org.nmdp.ngs.sra;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import java.net.URL;
-
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
@@ -34,16 +32,7 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 
-import javax.xml.XMLConstants;
-
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
-
-import javax.xml.validation.Schema;
-import javax.xml.validation.SchemaFactory;
-
-import javax.xml.transform.stream.StreamSource;
 
 import org.nmdp.ngs.sra.jaxb.analysis.Analysis;
 import org.nmdp.ngs.sra.jaxb.experiment.Experiment;
@@ -72,15 +61,7 @@ public final class SraWriter {
         checkNotNull(writer);
 
         try {
-            JAXBContext context = JAXBContext.newInstance(Analysis.class);
-            Marshaller marshaller = context.createMarshaller();
-            SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-            URL commonSchemaURL = SraReader.class.getResource("/org/nmdp/ngs/sra/xsd/SRA.common.xsd");
-            URL analysisSchemaURL = SraReader.class.getResource("/org/nmdp/ngs/sra/xsd/SRA.analysis.xsd");
-            Schema schema = schemaFactory.newSchema(new StreamSource[] { new StreamSource(commonSchemaURL.toString()), new StreamSource(analysisSchemaURL.toString()) });
-            marshaller.setSchema(schema);
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-            marshaller.marshal(analysis, writer);
+            SraContext.marshaller(Analysis.class).marshal(analysis, writer);
         }
         catch (JAXBException | SAXException e) {
             throw new IOException("could not marshal Analysis", e);
@@ -109,15 +90,7 @@ public final class SraWriter {
         checkNotNull(writer);
 
         try {
-            JAXBContext context = JAXBContext.newInstance(Experiment.class);
-            Marshaller marshaller = context.createMarshaller();
-            SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-            URL commonSchemaURL = SraReader.class.getResource("/org/nmdp/ngs/sra/xsd/SRA.common.xsd");
-            URL experimentSchemaURL = SraReader.class.getResource("/org/nmdp/ngs/sra/xsd/SRA.experiment.xsd");
-            Schema schema = schemaFactory.newSchema(new StreamSource[] { new StreamSource(commonSchemaURL.toString()), new StreamSource(experimentSchemaURL.toString()) });
-            marshaller.setSchema(schema);
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-            marshaller.marshal(experiment, writer);
+            SraContext.marshaller(Experiment.class).marshal(experiment, writer);
         }
         catch (JAXBException | SAXException e) {
             throw new IOException("could not marshal Experiment", e);
@@ -146,15 +119,7 @@ public final class SraWriter {
         checkNotNull(writer);
 
         try {
-            JAXBContext context = JAXBContext.newInstance(RunSet.class);
-            Marshaller marshaller = context.createMarshaller();
-            SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-            URL commonSchemaURL = SraReader.class.getResource("/org/nmdp/ngs/sra/xsd/SRA.common.xsd");
-            URL runSchemaURL = SraReader.class.getResource("/org/nmdp/ngs/sra/xsd/SRA.run.xsd");
-            Schema schema = schemaFactory.newSchema(new StreamSource[] { new StreamSource(commonSchemaURL.toString()), new StreamSource(runSchemaURL.toString()) });
-            marshaller.setSchema(schema);
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-            marshaller.marshal(runSet, writer);
+            SraContext.marshaller(RunSet.class).marshal(runSet, writer);
         }
         catch (JAXBException | SAXException e) {
             throw new IOException("could not marshal RunSet", e);
@@ -183,15 +148,7 @@ public final class SraWriter {
         checkNotNull(writer);
 
         try {
-            JAXBContext context = JAXBContext.newInstance(Sample.class);
-            Marshaller marshaller = context.createMarshaller();
-            SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-            URL commonSchemaURL = SraReader.class.getResource("/org/nmdp/ngs/sra/xsd/SRA.common.xsd");
-            URL sampleSchemaURL = SraReader.class.getResource("/org/nmdp/ngs/sra/xsd/SRA.sample.xsd");
-            Schema schema = schemaFactory.newSchema(new StreamSource[] { new StreamSource(commonSchemaURL.toString()), new StreamSource(sampleSchemaURL.toString()) });
-            marshaller.setSchema(schema);
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-            marshaller.marshal(sample, writer);
+            SraContext.marshaller(Sample.class).marshal(sample, writer);
         }
         catch (JAXBException | SAXException e) {
             throw new IOException("could not marshal Sample", e);
@@ -220,15 +177,7 @@ public final class SraWriter {
         checkNotNull(writer);
 
         try {
-            JAXBContext context = JAXBContext.newInstance(Study.class);
-            Marshaller marshaller = context.createMarshaller();
-            SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-            URL commonSchemaURL = SraReader.class.getResource("/org/nmdp/ngs/sra/xsd/SRA.common.xsd");
-            URL studySchemaURL = SraReader.class.getResource("/org/nmdp/ngs/sra/xsd/SRA.study.xsd");
-            Schema schema = schemaFactory.newSchema(new StreamSource[] { new StreamSource(commonSchemaURL.toString()), new StreamSource(studySchemaURL.toString()) });
-            marshaller.setSchema(schema);
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-            marshaller.marshal(study, writer);
+            SraContext.marshaller(Study.class).marshal(study, writer);
         }
         catch (JAXBException | SAXException e) {
             throw new IOException("could not marshal Study", e);
@@ -257,15 +206,7 @@ public final class SraWriter {
         checkNotNull(writer);
 
         try {
-            JAXBContext context = JAXBContext.newInstance(Submission.class);
-            Marshaller marshaller = context.createMarshaller();
-            SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-            URL commonSchemaURL = SraReader.class.getResource("/org/nmdp/ngs/sra/xsd/SRA.common.xsd");
-            URL submissionSchemaURL = SraReader.class.getResource("/org/nmdp/ngs/sra/xsd/SRA.submission.xsd");
-            Schema schema = schemaFactory.newSchema(new StreamSource[] { new StreamSource(commonSchemaURL.toString()), new StreamSource(submissionSchemaURL.toString()) });
-            marshaller.setSchema(schema);
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-            marshaller.marshal(submission, writer);
+            SraContext.marshaller(Submission.class).marshal(submission, writer);
         }
         catch (JAXBException | SAXException e) {
             throw new IOException("could not marshal Submission", e);
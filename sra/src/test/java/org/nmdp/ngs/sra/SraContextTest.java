@@ -0,0 +1,140 @@
+/*
+
+    ngs-sra  Mapping for SRA submission XSDs.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.sra;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.InputStream;
+
+import java.util.List;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.bind.Unmarshaller;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Test;
+
+import org.nmdp.ngs.sra.jaxb.experiment.Experiment;
+import org.nmdp.ngs.sra.jaxb.run.RunSet;
+
+/**
+ * Unit test for SraContext.
+ */
+public final class SraContextTest {
+
+    @Test(expected=NullPointerException.class)
+    public void testContextNullType() throws Exception {
+        SraContext.context(null);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testContextInvalidType() throws Exception {
+        SraContext.context(String.class);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testSchemaInvalidType() throws Exception {
+        SraContext.schema(String.class);
+    }
+
+    @Test
+    public void testContext() throws Exception {
+        for (Class<?> type : SraContext.SCHEMAS.keySet()) {
+            assertNotNull(SraContext.context(type));
+            assertSame(SraContext.context(type), SraContext.context(type));
+        }
+        assertNotSame(SraContext.context(RunSet.class), SraContext.context(Experiment.class));
+    }
+
+    @Test
+    public void testSchema() throws Exception {
+        for (Class<?> type : SraContext.SCHEMAS.keySet()) {
+            assertNotNull(SraContext.schema(type));
+            assertSame(SraContext.schema(type), SraContext.schema(type));
+        }
+    }
+
+    @Test
+    public void testUnmarshaller() throws Exception {
+        for (Class<?> type : SraContext.SCHEMAS.keySet()) {
+            assertSame(SraContext.unmarshaller(type), SraContext.unmarshaller(type));
+            assertSame(SraContext.schema(type), SraContext.unmarshaller(type).getSchema());
+        }
+    }
+
+    @Test
+    public void testMarshaller() throws Exception {
+        for (Class<?> type : SraContext.SCHEMAS.keySet()) {
+            assertSame(SraContext.marshaller(type), SraContext.marshaller(type));
+            assertSame(SraContext.schema(type), SraContext.marshaller(type).getSchema());
+        }
+    }
+
+    @Test
+    public void testUnmarshallerPerThread() throws Exception {
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            Unmarshaller other = executorService.submit(new Callable<Unmarshaller>() {
+                    @Override
+                    public Unmarshaller call() throws Exception {
+                        return SraContext.unmarshaller(RunSet.class);
+                    }
+                }).get();
+            assertNotSame(SraContext.unmarshaller(RunSet.class), other);
+        }
+        finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testConcurrentUnmarshal() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<RunSet>> futures = Lists.newArrayList();
+            for (int i = 0; i < 32; i++) {
+                futures.add(executorService.submit(new Callable<RunSet>() {
+                        @Override
+                        public RunSet call() throws Exception {
+                            try (InputStream inputStream = getClass().getResourceAsStream("/org/nmdp/ngs/sra/sra-run-example.xml")) {
+                                return (RunSet) SraContext.unmarshaller(RunSet.class).unmarshal(inputStream);
+                            }
+                        }
+                    }));
+            }
+            for (Future<RunSet> future : futures) {
+                assertNotNull(future.get());
+            }
+        }
+        finally {
+            executorService.shutdown();
+        }
+    }
+}
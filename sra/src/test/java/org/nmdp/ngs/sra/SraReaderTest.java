@@ -22,6 +22,7 @@
 */
 package org.nmdp.ngs.sra;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
 import static org.nmdp.ngs.sra.SraReader.readAnalysis;
@@ -30,6 +31,10 @@ import static org.nmdp.ngs.sra.SraReader.readRunSet;
 import static org.nmdp.ngs.sra.SraReader.readSample;
 import static org.nmdp.ngs.sra.SraReader.readStudy;
 import static org.nmdp.ngs.sra.SraReader.readSubmission;
+import static org.nmdp.ngs.sra.SraReader.streamAnalyses;
+import static org.nmdp.ngs.sra.SraReader.streamExperiments;
+import static org.nmdp.ngs.sra.SraReader.streamRuns;
+import static org.nmdp.ngs.sra.SraReader.streamSamples;
 
 import java.net.URL;
 
@@ -37,6 +42,12 @@ import java.io.File;
 import java.io.InputStream;
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.base.Charsets;
 
 import com.google.common.io.Files;
 import com.google.common.io.Resources;
@@ -45,6 +56,7 @@ import org.junit.Test;
 
 import org.nmdp.ngs.sra.jaxb.analysis.Analysis;
 import org.nmdp.ngs.sra.jaxb.experiment.Experiment;
+import org.nmdp.ngs.sra.jaxb.run.Run;
 import org.nmdp.ngs.sra.jaxb.run.RunSet;
 import org.nmdp.ngs.sra.jaxb.sample.Sample;
 import org.nmdp.ngs.sra.jaxb.study.Study;
@@ -385,6 +397,212 @@ public final class SraReaderTest {
     }
 
 
+    @Test(expected=NullPointerException.class)
+    public void testStreamRunsNullReader() throws Exception {
+        streamRuns((Reader) null, new Collect());
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testStreamRunsNullFile() throws Exception {
+        streamRuns((File) null, new Collect());
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testStreamRunsNullURL() throws Exception {
+        streamRuns((URL) null, new Collect());
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testStreamRunsNullInputStream() throws Exception {
+        streamRuns((InputStream) null, new Collect());
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testStreamRunsNullListener() throws Exception {
+        streamRuns(createInputStream("sra-run-example.xml"), null);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testStreamExperimentsNullListener() throws Exception {
+        streamExperiments(createInputStream("sra-experiment-set-example.xml"), null);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testStreamSamplesNullListener() throws Exception {
+        streamSamples(createInputStream("sra-sample-set-example.xml"), null);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testStreamAnalysesNullListener() throws Exception {
+        streamAnalyses(createInputStream("sra-analysis-set-example.xml"), null);
+    }
+
+    @Test
+    public void testStreamRunsFile() throws Exception {
+        Collect collect = new Collect();
+        streamRuns(createFile("sra-run-example.xml"), collect);
+        RunSet runSet = readRunSet(createInputStream("sra-run-example.xml"));
+        assertEquals(runSet.getRuns().size(), collect.runs.size());
+        for (int i = 0, size = collect.runs.size(); i < size; i++) {
+            assertEquals(runSet.getRuns().get(i).getAccession(), collect.runs.get(i).getAccession());
+        }
+    }
+
+    @Test
+    public void testStreamRunsURL() throws Exception {
+        Collect collect = new Collect();
+        streamRuns(createURL("sra-run-example.xml"), collect);
+        assertEquals(2, collect.runs.size());
+    }
+
+    @Test
+    public void testStreamRunsInputStream() throws Exception {
+        Collect collect = new Collect();
+        streamRuns(createInputStream("sra-run-example.xml"), collect);
+        assertEquals(2, collect.runs.size());
+    }
+
+    @Test
+    public void testStreamRunsReader() throws Exception {
+        Collect collect = new Collect();
+        streamRuns(createReader("sra-run-example.xml"), collect);
+        assertEquals(2, collect.runs.size());
+    }
+
+    @Test
+    public void testStreamRunsStop() throws Exception {
+        final List<Run> runs = new ArrayList<Run>();
+        streamRuns(createInputStream("sra-run-example.xml"), new RunListener() {
+                @Override
+                public boolean run(final Run run) {
+                    runs.add(run);
+                    return false;
+                }
+            });
+        assertEquals(1, runs.size());
+    }
+
+    @Test(expected=IOException.class)
+    public void testStreamRunsEmptyFile() throws Exception {
+        streamRuns(createFile("empty.xml"), new Collect());
+    }
+
+    @Test(expected=IOException.class)
+    public void testStreamRunsInvalidSyntaxFile() throws Exception {
+        streamRuns(createFile("invalid-run-syntax.xml"), new Collect());
+    }
+
+    @Test(expected=IOException.class)
+    public void testStreamRunsInvalidSchemaFile() throws Exception {
+        streamRuns(createFile("invalid-run-schema.xml"), new Collect());
+    }
+
+    @Test(expected=IOException.class)
+    public void testStreamRunsUnexpectedRootElement() throws Exception {
+        streamRuns(createInputStream("sra-sample-set-example.xml"), new Collect());
+    }
+
+    @Test
+    public void testStreamExperimentsSet() throws Exception {
+        Collect collect = new Collect();
+        streamExperiments(createInputStream("sra-experiment-set-example.xml"), collect);
+        assertEquals(2, collect.experiments.size());
+        assertEquals("DRX003080", collect.experiments.get(0).getAccession());
+        assertEquals("DRX003081", collect.experiments.get(1).getAccession());
+    }
+
+    @Test
+    public void testStreamExperimentsSingle() throws Exception {
+        Collect collect = new Collect();
+        streamExperiments(createInputStream("sra-experiment-example.xml"), collect);
+        assertEquals(1, collect.experiments.size());
+    }
+
+    @Test(expected=IOException.class)
+    public void testStreamExperimentsInvalidSchemaFile() throws Exception {
+        streamExperiments(createFile("invalid-experiment-schema.xml"), new Collect());
+    }
+
+    @Test
+    public void testStreamSamplesSet() throws Exception {
+        Collect collect = new Collect();
+        streamSamples(createInputStream("sra-sample-set-example.xml"), collect);
+        assertEquals(2, collect.samples.size());
+        assertEquals("DRS003163", collect.samples.get(0).getAccession());
+        assertEquals("DRS003161", collect.samples.get(1).getAccession());
+    }
+
+    @Test
+    public void testStreamSamplesSingle() throws Exception {
+        Collect collect = new Collect();
+        streamSamples(createInputStream("sra-sample-example.xml"), collect);
+        assertEquals(1, collect.samples.size());
+    }
+
+    @Test(expected=IOException.class)
+    public void testStreamSamplesInvalidSchemaFile() throws Exception {
+        streamSamples(createFile("invalid-sample-schema.xml"), new Collect());
+    }
+
+    @Test
+    public void testStreamAnalysesSet() throws Exception {
+        Collect collect = new Collect();
+        streamAnalyses(createInputStream("sra-analysis-set-example.xml"), collect);
+        assertEquals(2, collect.analyses.size());
+        assertEquals("Title", collect.analyses.get(0).getTitle());
+        assertEquals("Second title", collect.analyses.get(1).getTitle());
+    }
+
+    @Test
+    public void testStreamAnalysesSingle() throws Exception {
+        Collect collect = new Collect();
+        streamAnalyses(createInputStream("sra-analysis-example.xml"), collect);
+        assertEquals(1, collect.analyses.size());
+    }
+
+    @Test(expected=IOException.class)
+    public void testStreamAnalysesInvalidSchemaFile() throws Exception {
+        streamAnalyses(createFile("invalid-analysis-schema.xml"), new Collect());
+    }
+
+    /**
+     * Listener that collects SRA elements.
+     */
+    static final class Collect implements AnalysisListener, ExperimentListener, RunListener, SampleListener {
+        final List<Analysis> analyses = new ArrayList<Analysis>();
+        final List<Experiment> experiments = new ArrayList<Experiment>();
+        final List<Run> runs = new ArrayList<Run>();
+        final List<Sample> samples = new ArrayList<Sample>();
+
+        @Override
+        public boolean analysis(final Analysis analysis) {
+            analyses.add(analysis);
+            return true;
+        }
+
+        @Override
+        public boolean experiment(final Experiment experiment) {
+            experiments.add(experiment);
+            return true;
+        }
+
+        @Override
+        public boolean run(final Run run) {
+            runs.add(run);
+            return true;
+        }
+
+        @Override
+        public boolean sample(final Sample sample) {
+            samples.add(sample);
+            return true;
+        }
+    }
+
+    private static Reader createReader(final String name) throws Exception {
+        return new StringReader(Resources.toString(createURL(name), Charsets.UTF_8));
+    }
+
     private static URL createURL(final String name) throws Exception {
         return SraReaderTest.class.getResource(name);
     }
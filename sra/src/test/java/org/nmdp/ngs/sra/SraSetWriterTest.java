@@ -0,0 +1,163 @@
+/*
+
+    ngs-sra  Mapping for SRA submission XSDs.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.sra;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import static org.nmdp.ngs.sra.SraSetWriter.analysisSetWriter;
+import static org.nmdp.ngs.sra.SraSetWriter.experimentSetWriter;
+import static org.nmdp.ngs.sra.SraSetWriter.runSetWriter;
+import static org.nmdp.ngs.sra.SraSetWriter.sampleSetWriter;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.nmdp.ngs.sra.jaxb.analysis.Analysis;
+import org.nmdp.ngs.sra.jaxb.experiment.Experiment;
+import org.nmdp.ngs.sra.jaxb.run.Run;
+import org.nmdp.ngs.sra.jaxb.run.RunSet;
+import org.nmdp.ngs.sra.jaxb.sample.Sample;
+
+/**
+ * Unit test for SraSetWriter.
+ */
+public final class SraSetWriterTest {
+    private StringWriter writer;
+
+    @Before
+    public void setUp() {
+        writer = new StringWriter();
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testAnalysisSetWriterNullWriter() throws Exception {
+        analysisSetWriter(null);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testExperimentSetWriterNullWriter() throws Exception {
+        experimentSetWriter(null);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testRunSetWriterNullWriter() throws Exception {
+        runSetWriter(null);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testSampleSetWriterNullWriter() throws Exception {
+        sampleSetWriter(null);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testWriteNull() throws Exception {
+        try (SraSetWriter<Run> runSetWriter = runSetWriter(writer)) {
+            runSetWriter.write(null);
+        }
+    }
+
+    @Test(expected=IOException.class)
+    public void testWriteAfterClose() throws Exception {
+        SraSetWriter<Run> runSetWriter = runSetWriter(writer);
+        runSetWriter.close();
+        runSetWriter.write(new Run());
+    }
+
+    @Test
+    public void testCloseTwice() throws Exception {
+        SraSetWriter<Run> runSetWriter = runSetWriter(writer);
+        runSetWriter.close();
+        runSetWriter.close();
+        assertTrue(writer.toString().endsWith("</RUN_SET>\n"));
+    }
+
+    @Test
+    public void testRunSetWriter() throws Exception {
+        RunSet expected = SraReader.readRunSet(getClass().getResource("sra-run-example.xml"));
+        try (SraSetWriter<Run> runSetWriter = runSetWriter(writer)) {
+            for (Run run : expected.getRuns()) {
+                runSetWriter.write(run);
+            }
+        }
+        RunSet observed = SraReader.readRunSet(new StringReader(writer.toString()));
+        assertEquals(expected.getRuns().size(), observed.getRuns().size());
+        for (int i = 0, size = expected.getRuns().size(); i < size; i++) {
+            assertEquals(expected.getRuns().get(i).getAccession(), observed.getRuns().get(i).getAccession());
+        }
+    }
+
+    @Test
+    public void testExperimentSetWriter() throws Exception {
+        SraReaderTest.Collect expected = new SraReaderTest.Collect();
+        SraReader.streamExperiments(getClass().getResource("sra-experiment-set-example.xml"), expected);
+        try (SraSetWriter<Experiment> experimentSetWriter = experimentSetWriter(writer)) {
+            for (Experiment experiment : expected.experiments) {
+                experimentSetWriter.write(experiment);
+            }
+        }
+        SraReaderTest.Collect observed = new SraReaderTest.Collect();
+        SraReader.streamExperiments(new StringReader(writer.toString()), observed);
+        assertEquals(2, observed.experiments.size());
+        assertEquals("DRX003080", observed.experiments.get(0).getAccession());
+        assertEquals("DRX003081", observed.experiments.get(1).getAccession());
+    }
+
+    @Test
+    public void testSampleSetWriter() throws Exception {
+        Sample sample = SraReader.readSample(getClass().getResource("sra-sample-example.xml"));
+        try (SraSetWriter<Sample> sampleSetWriter = sampleSetWriter(writer)) {
+            for (int i = 0; i < 3; i++) {
+                sampleSetWriter.write(sample);
+            }
+        }
+        SraReaderTest.Collect observed = new SraReaderTest.Collect();
+        SraReader.streamSamples(new StringReader(writer.toString()), observed);
+        assertEquals(3, observed.samples.size());
+    }
+
+    @Test
+    public void testAnalysisSetWriter() throws Exception {
+        Analysis analysis = SraReader.readAnalysis(getClass().getResource("sra-analysis-example.xml"));
+        try (SraSetWriter<Analysis> analysisSetWriter = analysisSetWriter(writer)) {
+            analysisSetWriter.write(analysis);
+        }
+        assertTrue(writer.toString().startsWith("<?xml"));
+        SraReaderTest.Collect observed = new SraReaderTest.Collect();
+        SraReader.streamAnalyses(new StringReader(writer.toString()), observed);
+        assertEquals(1, observed.analyses.size());
+        assertEquals("Title", observed.analyses.get(0).getTitle());
+    }
+
+    @Test(expected=IOException.class)
+    public void testWriteInvalid() throws Exception {
+        // required elements are missing
+        try (SraSetWriter<Run> runSetWriter = runSetWriter(writer)) {
+            runSetWriter.write(new Run());
+        }
+    }
+}
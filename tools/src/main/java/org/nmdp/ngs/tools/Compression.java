@@ -0,0 +1,177 @@
+/*
+
+    ngs-tools  Next generation sequencing (NGS/HTS) command line tools.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.tools;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+import java.util.zip.GZIPInputStream;
+
+import org.dishevelled.compress.Readers;
+import org.dishevelled.compress.Writers;
+
+/**
+ * Readers and writers for tools, with multi-threaded gzip compression and read ahead decompression.
+ *
+ * <p>
+ * Files with a <code>.gz</code> extension are written with a parallel block gzip writer and read
+ * with gzip decompression on a separate read ahead thread.  Other files, including <code>null</code>
+ * for stdin and stdout, are delegated to dsh-compress.
+ * </p>
+ */
+final class Compression {
+    /** Default number of compression threads. */
+    static final int DEFAULT_THREADS = Runtime.getRuntime().availableProcessors();
+
+    /** Number of compression threads. */
+    private static volatile int threads = DEFAULT_THREADS;
+
+
+    /**
+     * Private no-arg constructor.
+     */
+    private Compression() {
+        // empty
+    }
+
+
+    /**
+     * Return the number of compression threads.
+     *
+     * @return the number of compression threads
+     */
+    static int threads() {
+        return threads;
+    }
+
+    /**
+     * Set the number of compression threads.
+     *
+     * @param threads number of compression threads, must be at least one
+     */
+    static void setThreads(final int threads) {
+        checkArgument(threads > 0, "compression threads must be at least one");
+        Compression.threads = threads;
+    }
+
+    /**
+     * Return true if the specified file should use parallel gzip compression.
+     *
+     * @param file file, if any
+     * @return true if the specified file should use parallel gzip compression
+     */
+    static boolean isGzipFile(final File file) {
+        return file != null && file.getName().endsWith(".gz");
+    }
+
+    /**
+     * Create and return a new buffered reader for the specified file.
+     *
+     * @param file file, if any
+     * @return a new buffered reader for the specified file
+     * @throws IOException if an I/O error occurs
+     */
+    static BufferedReader reader(final File file) throws IOException {
+        if (isGzipFile(file)) {
+            // BGZF files are valid concatenated gzip, so read them this way too
+            return new BufferedReader(new InputStreamReader(new ReadAheadInputStream(new GZIPInputStream(new BufferedInputStream(new FileInputStream(file)), 65536))));
+        }
+        return Readers.reader(file);
+    }
+
+    /**
+     * Create and return a new buffered input stream for the specified file.
+     *
+     * @param file file, if any
+     * @return a new buffered input stream for the specified file
+     * @throws IOException if an I/O error occurs
+     */
+    static InputStream inputStream(final File file) throws IOException {
+        if (file == null) {
+            return new BufferedInputStream(System.in);
+        }
+        if (isGzipFile(file)) {
+            return new ReadAheadInputStream(new GZIPInputStream(new BufferedInputStream(new FileInputStream(file)), 65536));
+        }
+        return new BufferedInputStream(new FileInputStream(file));
+    }
+
+    /**
+     * Create and return a new buffered output stream for the specified file.  Output streams for gzip
+     * files must be closed explicitly to write the final compressed block.
+     *
+     * @param file file, if any
+     * @return a new buffered output stream for the specified file
+     * @throws IOException if an I/O error occurs
+     */
+    static OutputStream outputStream(final File file) throws IOException {
+        if (file == null) {
+            return new BufferedOutputStream(System.out);
+        }
+        if (isGzipFile(file)) {
+            return new ParallelGzipOutputStream(new FileOutputStream(file), threads);
+        }
+        return new BufferedOutputStream(new FileOutputStream(file));
+    }
+
+    /**
+     * Create and return a new print writer for the specified file.
+     *
+     * @param file file, if any
+     * @return a new print writer for the specified file
+     * @throws IOException if an I/O error occurs
+     */
+    static PrintWriter writer(final File file) throws IOException {
+        return writer(file, false);
+    }
+
+    /**
+     * Create and return a new print writer for the specified file.  Print writers for gzip
+     * files do not flush automatically, and must be closed explicitly to write the final
+     * compressed block.
+     *
+     * @param file file, if any
+     * @param append true to append to the specified file
+     * @return a new print writer for the specified file
+     * @throws IOException if an I/O error occurs
+     */
+    static PrintWriter writer(final File file, final boolean append) throws IOException {
+        if (isGzipFile(file)) {
+            return new PrintWriter(new BufferedWriter(new OutputStreamWriter(new ParallelGzipOutputStream(new FileOutputStream(file, append), threads))), false);
+        }
+        return Writers.writer(file, append);
+    }
+}
@@ -22,15 +22,15 @@
 */
 package org.nmdp.ngs.tools;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import static org.dishevelled.compress.Readers.reader;
-import static org.dishevelled.compress.Writers.writer;
+import static org.nmdp.ngs.tools.Compression.inputStream;
+import static org.nmdp.ngs.tools.Compression.outputStream;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.PrintWriter;
 import java.io.IOException;
+import java.io.InputStream;
 
 import java.util.concurrent.Callable;
 
@@ -39,13 +39,6 @@ import org.apache.commons.math3.distribution.BinomialDistribution;
 import org.apache.commons.math3.random.MersenneTwister;
 import org.apache.commons.math3.random.RandomGenerator;
 
-import org.biojava.bio.program.fastq.Fastq;
-import org.biojava.bio.program.fastq.FastqReader;
-import org.biojava.bio.program.fastq.FastqWriter;
-import org.biojava.bio.program.fastq.SangerFastqWriter;
-import org.biojava.bio.program.fastq.SangerFastqReader;
-import org.biojava.bio.program.fastq.StreamListener;
-
 import org.dishevelled.commandline.ArgumentList;
 import org.dishevelled.commandline.CommandLine;
 import org.dishevelled.commandline.CommandLineParseException;
@@ -57,16 +50,43 @@ import org.dishevelled.commandline.argument.DoubleArgument;
 import org.dishevelled.commandline.argument.FileArgument;
 import org.dishevelled.commandline.argument.IntegerArgument;
 
+import org.nmdp.ngs.reads.fastq.FastqRecord;
+import org.nmdp.ngs.reads.fastq.FastqRecordListener;
+import org.nmdp.ngs.reads.fastq.FastqRecordReader;
+import org.nmdp.ngs.reads.fastq.FastqRecordWriter;
+
 /**
  * Downsample sequences from files in FASTQ format.
+ *
+ * <p>
+ * Three modes are supported:  independent per-record sampling from a binomial distribution, an exact
+ * count of records by reservoir sampling in one pass with memory bounded by the count, and deterministic
+ * sampling of a fraction of read names by hash, which is consistent across separate first and second
+ * files and interleaved files downsampled with the same fraction and seed.
+ * </p>
  */
 public final class DownsampleFastq implements Callable<Integer> {
     private final File inputFastqFile;
     private final File outputFastqFile;
+    private final Mode mode;
     private final BinomialDistribution distribution;
-    private final FastqReader fastqReader = new SangerFastqReader();
-    private final FastqWriter fastqWriter = new SangerFastqWriter();
-    private static final String USAGE = "ngs-downsample-fastq -p 0.5 [args]";
+    private final int count;
+    private final RandomGenerator random;
+    private final double fraction;
+    private final long seed;
+    private static final String USAGE = "ngs-downsample-fastq [-p 0.5 | -n 1000 | -f 0.5] [args]";
+
+    /** Downsampling mode. */
+    private enum Mode {
+        /** Binomial distribution per record. */
+        BINOMIAL,
+
+        /** Exact count by reservoir sampling. */
+        RESERVOIR,
+
+        /** Fraction of read names by hash. */
+        HASH
+    }
 
 
     /**
@@ -77,41 +97,109 @@ public final class DownsampleFastq implements Callable<Integer> {
      * @param distribution binomial distribution, must not be null
      */
     public DownsampleFastq(final File inputFastqFile, final File outputFastqFile, final BinomialDistribution distribution) {
-        checkNotNull(distribution);
+        this(inputFastqFile, outputFastqFile, Mode.BINOMIAL, checkNotNull(distribution), 0, null, 0.0d, 0L);
+    }
+
+    /**
+     * Downsample an exact count of sequences from files in FASTQ format by reservoir sampling.  If the
+     * input contains fewer records than the specified count, all records are written.
+     *
+     * @param inputFastqFile input FASTQ file, if any
+     * @param outputFastqFile output FASTQ file, if any
+     * @param count number of records to sample, must be at least zero
+     * @param random source of randomness, must not be null
+     */
+    public DownsampleFastq(final File inputFastqFile, final File outputFastqFile, final int count, final RandomGenerator random) {
+        this(inputFastqFile, outputFastqFile, Mode.RESERVOIR, null, count, checkNotNull(random), 0.0d, 0L);
+        checkArgument(count >= 0, "count must be at least zero");
+    }
+
+    /**
+     * Downsample a fraction of sequences from files in FASTQ format, deterministically by read name hash.
+     *
+     * @param inputFastqFile input FASTQ file, if any
+     * @param outputFastqFile output FASTQ file, if any
+     * @param fraction fraction of read names to keep, <code>[0.0, 1.0]</code>
+     * @param seed hash seed
+     */
+    public DownsampleFastq(final File inputFastqFile, final File outputFastqFile, final double fraction, final long seed) {
+        this(inputFastqFile, outputFastqFile, Mode.HASH, null, 0, null, fraction, seed);
+        checkArgument(fraction >= 0.0d && fraction <= 1.0d, "fraction must be in the range [0.0, 1.0]");
+    }
+
+    /**
+     * Downsample sequences from files in FASTQ format.
+     *
+     * @param inputFastqFile input FASTQ file, if any
+     * @param outputFastqFile output FASTQ file, if any
+     * @param mode mode
+     * @param distribution binomial distribution, if any
+     * @param count number of records to sample
+     * @param random source of randomness, if any
+     * @param fraction fraction of read names to keep
+     * @param seed hash seed
+     */
+    private DownsampleFastq(final File inputFastqFile, final File outputFastqFile, final Mode mode,
+                            final BinomialDistribution distribution, final int count, final RandomGenerator random,
+                            final double fraction, final long seed) {
         this.inputFastqFile = inputFastqFile;
         this.outputFastqFile = outputFastqFile;
+        this.mode = mode;
         this.distribution = distribution;
+        this.count = count;
+        this.random = random;
+        this.fraction = fraction;
+        this.seed = seed;
     }
 
 
     @Override
     public Integer call() throws Exception {
-        BufferedReader reader = null;
-        PrintWriter writer = null;
+        InputStream inputStream = null;
+        FastqRecordWriter writer = null;
         try {
-            reader = reader(inputFastqFile);
-            writer = writer(outputFastqFile);
-
-            final PrintWriter w = writer;
-            fastqReader.stream(reader, new StreamListener() {
-                    @Override
-                    public void fastq(final Fastq fastq) {
-                        if (distribution.sample() > 0) {
-                            try {
-                                fastqWriter.append(w, fastq);
+            inputStream = inputStream(inputFastqFile);
+            writer = new FastqRecordWriter(outputStream(outputFastqFile));
+
+            final FastqRecordWriter w = writer;
+            if (mode == Mode.RESERVOIR) {
+                final Reservoir<FastqRecord> reservoir = new Reservoir<FastqRecord>(count, random);
+                FastqRecordReader.stream(inputStream, new FastqRecordListener() {
+                        @Override
+                        public boolean record(final FastqRecord record) {
+                            int slot = reservoir.offer();
+                            if (slot >= 0) {
+                                reservoir.set(slot, record.copy());
                             }
-                            catch (IOException e) {
-                                throw new RuntimeException("could not write FASTQ", e);
+                            return true;
+                        }
+                    });
+                for (FastqRecord record : reservoir.sample()) {
+                    w.write(record);
+                }
+            }
+            else {
+                FastqRecordReader.stream(inputStream, new FastqRecordListener() {
+                        @Override
+                        public boolean record(final FastqRecord record) {
+                            if (include(record)) {
+                                try {
+                                    w.write(record);
+                                }
+                                catch (IOException e) {
+                                    throw new RuntimeException("could not write FASTQ", e);
+                                }
                             }
+                            return true;
                         }
-                    }
-                });
+                    });
+            }
 
             return 0;
         }
         finally {
             try {
-                reader.close();
+                inputStream.close();
             }
             catch (Exception e) {
                 // ignore
@@ -125,6 +213,20 @@ public final class DownsampleFastq implements Callable<Integer> {
         }
     }
 
+    /**
+     * Return true if the specified FASTQ record should be included, for binomial and hash modes.
+     *
+     * @param record FASTQ record
+     * @return true if the specified FASTQ record should be included
+     */
+    private boolean include(final FastqRecord record) {
+        if (mode == Mode.HASH) {
+            return Downsampling.include(record, fraction, seed);
+        }
+        return distribution.sample() > 0;
+    }
+
+
     /**
      * Main.
      *
@@ -135,10 +237,13 @@ public final class DownsampleFastq implements Callable<Integer> {
         Switch help = new Switch("h", "help", "display help message");
         FileArgument inputFastqFile = new FileArgument("i", "input-fastq-file", "input FASTQ file, default stdin", false);
         FileArgument outputFastqFile = new FileArgument("o", "output-fastq-file", "output FASTQ file, default stdout", false);
-        DoubleArgument probability = new DoubleArgument("p", "probability", "probability a FASTQ record will be removed, [0.0-1.0]", true);
-        IntegerArgument seed = new IntegerArgument("z", "seed", "random number seed, default relates to current time", false);
+        DoubleArgument probability = new DoubleArgument("p", "probability", "probability a FASTQ record will be removed, [0.0-1.0]", false);
+        IntegerArgument count = new IntegerArgument("n", "count", "exact number of FASTQ records to keep, by reservoir sampling", false);
+        DoubleArgument fraction = new DoubleArgument("f", "fraction", "fraction of FASTQ records to keep, deterministic by read name hash, [0.0-1.0]", false);
+        IntegerArgument seed = new IntegerArgument("z", "seed", "random number seed, default relates to current time, or 0 for fraction", false);
+        IntegerArgument compressionThreads = new IntegerArgument("Z", "compression-threads", "number of gzip compression threads, default " + Compression.DEFAULT_THREADS, false);
 
-        ArgumentList arguments = new ArgumentList(about, help, inputFastqFile, outputFastqFile, probability, seed);
+        ArgumentList arguments = new ArgumentList(about, help, inputFastqFile, outputFastqFile, probability, count, fraction, seed, compressionThreads);
         CommandLine commandLine = new CommandLine(args);
 
         DownsampleFastq downsampleFastq = null;
@@ -153,11 +258,23 @@ public final class DownsampleFastq implements Callable<Integer> {
                 Usage.usage(USAGE, null, commandLine, arguments, System.out);
                 System.exit(0);
             }
+            Compression.setThreads(compressionThreads.getValue(Compression.DEFAULT_THREADS));
+            int modes = (probability.wasFound() ? 1 : 0) + (count.wasFound() ? 1 : 0) + (fraction.wasFound() ? 1 : 0);
+            checkArgument(modes == 1, "exactly one of -p, -n, or -f must be specified");
 
-            RandomGenerator random = seed.wasFound() ? new MersenneTwister(seed.getValue()) : new MersenneTwister();
-            BinomialDistribution distribution = new BinomialDistribution(random, 1, probability.getValue());
-
-            downsampleFastq = new DownsampleFastq(inputFastqFile.getValue(), outputFastqFile.getValue(), distribution);
+            if (fraction.wasFound()) {
+                downsampleFastq = new DownsampleFastq(inputFastqFile.getValue(), outputFastqFile.getValue(), fraction.getValue(), seed.getValue(0));
+            }
+            else {
+                RandomGenerator random = seed.wasFound() ? new MersenneTwister(seed.getValue()) : new MersenneTwister();
+                if (count.wasFound()) {
+                    downsampleFastq = new DownsampleFastq(inputFastqFile.getValue(), outputFastqFile.getValue(), count.getValue(), random);
+                }
+                else {
+                    BinomialDistribution distribution = new BinomialDistribution(random, 1, probability.getValue());
+                    downsampleFastq = new DownsampleFastq(inputFastqFile.getValue(), outputFastqFile.getValue(), distribution);
+                }
+            }
         }
         catch (CommandLineParseException e) {
             if (about.wasFound()) {
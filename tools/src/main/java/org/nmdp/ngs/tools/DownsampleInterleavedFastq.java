@@ -22,14 +22,14 @@
 */
 package org.nmdp.ngs.tools;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import static org.dishevelled.compress.Readers.reader;
-import static org.dishevelled.compress.Writers.writer;
+import static org.nmdp.ngs.tools.Compression.inputStream;
+import static org.nmdp.ngs.tools.Compression.outputStream;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.PrintWriter;
+import java.io.InputStream;
 import java.io.IOException;
 
 import java.util.concurrent.Callable;
@@ -40,8 +40,6 @@ import org.apache.commons.math3.random.MersenneTwister;
 import org.apache.commons.math3.random.RandomGenerator;
 
 import org.biojava.bio.program.fastq.Fastq;
-import org.biojava.bio.program.fastq.FastqWriter;
-import org.biojava.bio.program.fastq.SangerFastqWriter;
 
 import org.dishevelled.commandline.ArgumentList;
 import org.dishevelled.commandline.CommandLine;
@@ -54,18 +52,45 @@ import org.dishevelled.commandline.argument.DoubleArgument;
 import org.dishevelled.commandline.argument.FileArgument;
 import org.dishevelled.commandline.argument.IntegerArgument;
 
+import org.nmdp.ngs.reads.fastq.FastqRecord;
+import org.nmdp.ngs.reads.fastq.FastqRecordListener;
+import org.nmdp.ngs.reads.fastq.FastqRecordReader;
+import org.nmdp.ngs.reads.fastq.FastqRecordWriter;
+
 import org.nmdp.ngs.reads.paired.PairedEndAdapter;
 import org.nmdp.ngs.reads.paired.PairedEndFastqReader;
 
 /**
  * Downsample sequences from a file in interleaved FASTQ format.
+ *
+ * <p>
+ * Supports the same modes as {@link DownsampleFastq}, sampling pairs of reads.  In hash mode the
+ * pairs kept are the same as those kept by {@link DownsampleFastq} from separate first and second
+ * files with the same fraction and seed.
+ * </p>
  */
 public final class DownsampleInterleavedFastq implements Callable<Integer> {
     private final File inputFastqFile;
     private final File outputFastqFile;
+    private final Mode mode;
     private final BinomialDistribution distribution;
-    private final FastqWriter fastqWriter = new SangerFastqWriter();
-    private static final String USAGE = "ngs-downsample-interleaved-fastq -p 0.5 [args]";
+    private final int count;
+    private final RandomGenerator random;
+    private final double fraction;
+    private final long seed;
+    private static final String USAGE = "ngs-downsample-interleaved-fastq [-p 0.5 | -n 1000 | -f 0.5] [args]";
+
+    /** Downsampling mode. */
+    private enum Mode {
+        /** Binomial distribution per pair. */
+        BINOMIAL,
+
+        /** Exact count of pairs by reservoir sampling. */
+        RESERVOIR,
+
+        /** Fraction of read names by hash. */
+        HASH
+    }
 
 
     /**
@@ -76,29 +101,175 @@ public final class DownsampleInterleavedFastq implements Callable<Integer> {
      * @param distribution binomial distribution, must not be null
      */
     public DownsampleInterleavedFastq(final File inputFastqFile, final File outputFastqFile, final BinomialDistribution distribution) {
-        checkNotNull(distribution);
+        this(inputFastqFile, outputFastqFile, Mode.BINOMIAL, checkNotNull(distribution), 0, null, 0.0d, 0L);
+    }
+
+    /**
+     * Downsample an exact count of pairs of sequences from a file in interleaved FASTQ format by reservoir
+     * sampling.  If the input contains fewer pairs than the specified count, all pairs are written.
+     *
+     * @param inputFastqFile input interleaved FASTQ file, if any
+     * @param outputFastqFile output interleaved FASTQ file, if any
+     * @param count number of pairs to sample, must be at least zero
+     * @param random source of randomness, must not be null
+     */
+    public DownsampleInterleavedFastq(final File inputFastqFile, final File outputFastqFile, final int count, final RandomGenerator random) {
+        this(inputFastqFile, outputFastqFile, Mode.RESERVOIR, null, count, checkNotNull(random), 0.0d, 0L);
+        checkArgument(count >= 0, "count must be at least zero");
+    }
+
+    /**
+     * Downsample a fraction of pairs of sequences from a file in interleaved FASTQ format, deterministically
+     * by read name hash.
+     *
+     * @param inputFastqFile input interleaved FASTQ file, if any
+     * @param outputFastqFile output interleaved FASTQ file, if any
+     * @param fraction fraction of read names to keep, <code>[0.0, 1.0]</code>
+     * @param seed hash seed
+     */
+    public DownsampleInterleavedFastq(final File inputFastqFile, final File outputFastqFile, final double fraction, final long seed) {
+        this(inputFastqFile, outputFastqFile, Mode.HASH, null, 0, null, fraction, seed);
+        checkArgument(fraction >= 0.0d && fraction <= 1.0d, "fraction must be in the range [0.0, 1.0]");
+    }
+
+    /**
+     * Downsample sequences from a file in interleaved FASTQ format.
+     *
+     * @param inputFastqFile input interleaved FASTQ file, if any
+     * @param outputFastqFile output interleaved FASTQ file, if any
+     * @param mode mode
+     * @param distribution binomial distribution, if any
+     * @param count number of pairs to sample
+     * @param random source of randomness, if any
+     * @param fraction fraction of read names to keep
+     * @param seed hash seed
+     */
+    private DownsampleInterleavedFastq(final File inputFastqFile, final File outputFastqFile, final Mode mode,
+                                       final BinomialDistribution distribution, final int count, final RandomGenerator random,
+                                       final double fraction, final long seed) {
         this.inputFastqFile = inputFastqFile;
         this.outputFastqFile = outputFastqFile;
+        this.mode = mode;
         this.distribution = distribution;
+        this.count = count;
+        this.random = random;
+        this.fraction = fraction;
+        this.seed = seed;
     }
 
 
     @Override
     public Integer call() throws Exception {
-        BufferedReader reader = null;
-        PrintWriter writer = null;
+        if (mode == Mode.BINOMIAL) {
+            return binomial();
+        }
+        InputStream inputStream = null;
+        FastqRecordWriter writer = null;
+        try {
+            inputStream = inputStream(inputFastqFile);
+            writer = new FastqRecordWriter(outputStream(outputFastqFile));
+
+            final FastqRecordWriter w = writer;
+            final Reservoir<FastqRecord[]> reservoir = mode == Mode.RESERVOIR ? new Reservoir<FastqRecord[]>(count, random) : null;
+            final class Pairs implements FastqRecordListener {
+                private boolean second;
+                private boolean unpaired;
+                private FastqRecord first;
+                private int slot;
+                private boolean include;
+
+                @Override
+                public boolean record(final FastqRecord record) {
+                    if (!second) {
+                        first = record.copy();
+                        if (reservoir != null) {
+                            slot = reservoir.offer();
+                        }
+                        else {
+                            include = Downsampling.include(Downsampling.hash(record, seed), fraction);
+                            write(record);
+                        }
+                    }
+                    else {
+                        if (!Downsampling.sameName(first, record)) {
+                            unpaired = true;
+                            return false;
+                        }
+                        if (reservoir != null) {
+                            if (slot >= 0) {
+                                reservoir.set(slot, new FastqRecord[] { first, record.copy() });
+                            }
+                        }
+                        else {
+                            write(record);
+                        }
+                    }
+                    second = !second;
+                    return true;
+                }
+
+                private void write(final FastqRecord record) {
+                    if (include) {
+                        try {
+                            w.write(record);
+                        }
+                        catch (IOException e) {
+                            throw new RuntimeException("could not write FASTQ", e);
+                        }
+                    }
+                }
+            }
+
+            Pairs pairs = new Pairs();
+            FastqRecordReader.stream(inputStream, pairs);
+            if (pairs.unpaired || pairs.second) {
+                throw new IOException("input is not in interleaved FASTQ format, read names of pairs must match");
+            }
+            if (reservoir != null) {
+                for (FastqRecord[] pair : reservoir.sample()) {
+                    w.write(pair[0]);
+                    w.write(pair[1]);
+                }
+            }
+            return 0;
+        }
+        finally {
+            try {
+                inputStream.close();
+            }
+            catch (Exception e) {
+                // ignore
+            }
+            try {
+                writer.close();
+            }
+            catch (Exception e) {
+                // ignore
+            }
+        }
+    }
+
+    /**
+     * Downsample pairs from a binomial distribution.
+     *
+     * @return exit code
+     * @throws Exception if an error occurs
+     */
+    private Integer binomial() throws Exception {
+        InputStream inputStream = null;
+        FastqRecordWriter writer = null;
         try {
-            reader = reader(inputFastqFile);
-            writer = writer(outputFastqFile);
+            inputStream = inputStream(inputFastqFile);
+            writer = new FastqRecordWriter(outputStream(outputFastqFile));
 
-            final PrintWriter w = writer;
-            PairedEndFastqReader.streamInterleaved(reader, new PairedEndAdapter() {
+            final FastqRecordWriter w = writer;
+            PairedEndFastqReader.streamInterleaved(inputStream, new PairedEndAdapter() {
                     @Override
                     public void paired(final Fastq left, final Fastq right) {
                         if (distribution.sample() > 0) {
                             try {
-                                fastqWriter.append(w, left);
-                                fastqWriter.append(w, right);
+                                w.write(left);
+                                w.write(right);
                             }
                             catch (IOException e) {
                                 throw new RuntimeException("could not write FASTQ", e);
@@ -111,7 +282,7 @@ public final class DownsampleInterleavedFastq implements Callable<Integer> {
         }
         finally {
             try {
-                reader.close();
+                inputStream.close();
             }
             catch (Exception e) {
                 // ignore
@@ -136,10 +307,13 @@ public final class DownsampleInterleavedFastq implements Callable<Integer> {
         Switch help = new Switch("h", "help", "display help message");
         FileArgument inputFastqFile = new FileArgument("i", "input-fastq-file", "input interleaved FASTQ file, default stdin", false);
         FileArgument outputFastqFile = new FileArgument("o", "output-fastq-file", "output interleaved FASTQ file, default stdout", false);
-        DoubleArgument probability = new DoubleArgument("p", "probability", "probability a FASTQ record will be removed, [0.0-1.0]", true);
-        IntegerArgument seed = new IntegerArgument("z", "seed", "random number seed, default relates to current time", false);
+        DoubleArgument probability = new DoubleArgument("p", "probability", "probability a FASTQ record will be removed, [0.0-1.0]", false);
+        IntegerArgument count = new IntegerArgument("n", "count", "exact number of pairs of FASTQ records to keep, by reservoir sampling", false);
+        DoubleArgument fraction = new DoubleArgument("f", "fraction", "fraction of pairs of FASTQ records to keep, deterministic by read name hash, [0.0-1.0]", false);
+        IntegerArgument seed = new IntegerArgument("z", "seed", "random number seed, default relates to current time, or 0 for fraction", false);
+        IntegerArgument compressionThreads = new IntegerArgument("Z", "compression-threads", "number of gzip compression threads, default " + Compression.DEFAULT_THREADS, false);
 
-        ArgumentList arguments = new ArgumentList(about, help, inputFastqFile, outputFastqFile, probability, seed);
+        ArgumentList arguments = new ArgumentList(about, help, inputFastqFile, outputFastqFile, probability, count, fraction, seed, compressionThreads);
         CommandLine commandLine = new CommandLine(args);
 
         DownsampleInterleavedFastq downsampleInterleavedFastq = null;
@@ -154,11 +328,23 @@ public final class DownsampleInterleavedFastq implements Callable<Integer> {
                 Usage.usage(USAGE, null, commandLine, arguments, System.out);
                 System.exit(0);
             }
+            Compression.setThreads(compressionThreads.getValue(Compression.DEFAULT_THREADS));
+            int modes = (probability.wasFound() ? 1 : 0) + (count.wasFound() ? 1 : 0) + (fraction.wasFound() ? 1 : 0);
+            checkArgument(modes == 1, "exactly one of -p, -n, or -f must be specified");
 
-            RandomGenerator random = seed.wasFound() ? new MersenneTwister(seed.getValue()) : new MersenneTwister();
-            BinomialDistribution distribution = new BinomialDistribution(random, 1, probability.getValue());
-
-            downsampleInterleavedFastq = new DownsampleInterleavedFastq(inputFastqFile.getValue(), outputFastqFile.getValue(), distribution);
+            if (fraction.wasFound()) {
+                downsampleInterleavedFastq = new DownsampleInterleavedFastq(inputFastqFile.getValue(), outputFastqFile.getValue(), fraction.getValue(), seed.getValue(0));
+            }
+            else {
+                RandomGenerator random = seed.wasFound() ? new MersenneTwister(seed.getValue()) : new MersenneTwister();
+                if (count.wasFound()) {
+                    downsampleInterleavedFastq = new DownsampleInterleavedFastq(inputFastqFile.getValue(), outputFastqFile.getValue(), count.getValue(), random);
+                }
+                else {
+                    BinomialDistribution distribution = new BinomialDistribution(random, 1, probability.getValue());
+                    downsampleInterleavedFastq = new DownsampleInterleavedFastq(inputFastqFile.getValue(), outputFastqFile.getValue(), distribution);
+                }
+            }
         }
         catch (CommandLineParseException e) {
             if (about.wasFound()) {
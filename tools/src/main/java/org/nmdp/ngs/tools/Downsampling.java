@@ -0,0 +1,139 @@
+/*
+
+    ngs-tools  Next generation sequencing (NGS/HTS) command line tools.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.tools;
+
+import org.nmdp.ngs.reads.fastq.FastqRecord;
+
+/**
+ * Deterministic hash-based downsampling of FASTQ records by read name.
+ *
+ * <p>
+ * The read name is the description up to the first whitespace character, with any trailing
+ * <code>/1</code>, <code>/2</code>, <code>\1</code>, or <code>\2</code> mate suffix removed, so
+ * that both reads of a pair hash to the same value whether they are in separate first and second
+ * files or interleaved.  Inclusion depends only on the read name, fraction, and seed, so files can be
+ * downsampled in parallel, independently, and consistently.
+ * </p>
+ */
+final class Downsampling {
+
+    /**
+     * Private no-arg constructor.
+     */
+    private Downsampling() {
+        // empty
+    }
+
+
+    /**
+     * Return the length of the read name in the description of the specified FASTQ record.
+     *
+     * @param record FASTQ record
+     * @return the length of the read name in the description of the specified FASTQ record
+     */
+    static int nameLength(final FastqRecord record) {
+        int length = 0;
+        for (int descriptionLength = record.descriptionLength(); length < descriptionLength; length++) {
+            byte b = record.descriptionAt(length);
+            if (b == ' ' || b == '\t') {
+                break;
+            }
+        }
+        if (length > 2) {
+            byte separator = record.descriptionAt(length - 2);
+            byte mate = record.descriptionAt(length - 1);
+            if ((separator == '/' || separator == '\\') && (mate == '1' || mate == '2')) {
+                length -= 2;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Return true if the specified FASTQ records have the same read name.
+     *
+     * @param first first FASTQ record
+     * @param second second FASTQ record
+     * @return true if the specified FASTQ records have the same read name
+     */
+    static boolean sameName(final FastqRecord first, final FastqRecord second) {
+        int length = nameLength(first);
+        if (length != nameLength(second)) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (first.descriptionAt(i) != second.descriptionAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return a 64-bit hash of the read name of the specified FASTQ record.
+     *
+     * @param record FASTQ record
+     * @param seed seed
+     * @return a 64-bit hash of the read name of the specified FASTQ record
+     */
+    static long hash(final FastqRecord record, final long seed) {
+        // FNV-1a, then the murmur3 64-bit finalizer
+        long h = 0xcbf29ce484222325L ^ seed;
+        for (int i = 0, length = nameLength(record); i < length; i++) {
+            h ^= record.descriptionAt(i) & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Return true if the specified FASTQ record should be included in a downsample of the specified fraction.
+     *
+     * @param record FASTQ record
+     * @param fraction fraction of read names to include, <code>[0.0, 1.0]</code>
+     * @param seed seed
+     * @return true if the specified FASTQ record should be included in a downsample of the specified fraction
+     */
+    static boolean include(final FastqRecord record, final double fraction, final long seed) {
+        return include(hash(record, seed), fraction);
+    }
+
+    /**
+     * Return true if a FASTQ record with the specified read name hash should be included in a downsample
+     * of the specified fraction.
+     *
+     * @param hash read name hash
+     * @param fraction fraction of read names to include, <code>[0.0, 1.0]</code>
+     * @return true if a FASTQ record with the specified read name hash should be included in a downsample
+     *    of the specified fraction
+     */
+    static boolean include(final long hash, final double fraction) {
+        // top 53 bits as a uniform value in [0.0, 1.0)
+        return (hash >>> 11) * 0x1.0p-53 < fraction;
+    }
+}
@@ -24,8 +24,8 @@ package org.nmdp.ngs.tools;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import static org.dishevelled.compress.Readers.reader;
-import static org.dishevelled.compress.Writers.writer;
+import static org.nmdp.ngs.tools.Compression.reader;
+import static org.nmdp.ngs.tools.Compression.writer;
 
 import static org.nmdp.ngs.align.Blastn.blastn;
 
@@ -61,6 +61,7 @@ import org.dishevelled.commandline.Switch;
 import org.dishevelled.commandline.Usage;
 
 import org.dishevelled.commandline.argument.FileArgument;
+import org.dishevelled.commandline.argument.IntegerArgument;
 
 import org.nmdp.ngs.align.HighScoringPair;
 
@@ -226,8 +227,9 @@ public final class EvaluateScaffolds implements Callable<Integer> {
         FileArgument referenceFastaFile = new FileArgument("r", "reference", "input reference FASTA file", true);
         FileArgument scaffoldsFastaFile = new FileArgument("s", "scaffolds", "input scaffolds FASTA file", true);
         FileArgument evalFile = new FileArgument("e", "eval", "output eval file, default stdout", false);
+        IntegerArgument compressionThreads = new IntegerArgument("Z", "compression-threads", "number of gzip compression threads, default " + Compression.DEFAULT_THREADS, false);
 
-        ArgumentList arguments = new ArgumentList(about, help, referenceFastaFile, scaffoldsFastaFile, evalFile);
+        ArgumentList arguments = new ArgumentList(about, help, referenceFastaFile, scaffoldsFastaFile, evalFile, compressionThreads);
         CommandLine commandLine = new CommandLine(args);
 
         EvaluateScaffolds evaluateScaffolds = null;
@@ -241,9 +243,10 @@ public final class EvaluateScaffolds implements Callable<Integer> {
                 Usage.usage(USAGE, null, commandLine, arguments, System.out);
                 System.exit(0);
             }
+            Compression.setThreads(compressionThreads.getValue(Compression.DEFAULT_THREADS));
             evaluateScaffolds = new EvaluateScaffolds(referenceFastaFile.getValue(), scaffoldsFastaFile.getValue(), evalFile.getValue());
         }
-        catch (CommandLineParseException e) {
+        catch (CommandLineParseException | IllegalArgumentException e) {
             if (about.wasFound()) {
                 About.about(System.out);
                 System.exit(0);
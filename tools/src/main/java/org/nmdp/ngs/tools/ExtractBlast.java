@@ -22,8 +22,8 @@
 */
 package org.nmdp.ngs.tools;
 
-import static org.dishevelled.compress.Readers.reader;
-import static org.dishevelled.compress.Writers.writer;
+import static org.nmdp.ngs.tools.Compression.reader;
+import static org.nmdp.ngs.tools.Compression.writer;
 import static org.nmdp.ngs.hml.HmlUtils.toDnaSymbolList;
 import groovyjarjarantlr.StringUtils;
 
@@ -310,8 +310,9 @@ public final class ExtractBlast implements Callable<Integer> {
         FileArgument inputBlastFile  = new FileArgument("i", "input-blast-file", "input blast file, default stdin", false);
         FileArgument inputFastaFile  = new FileArgument("f", "input-fasta-file", "input fastq file, default stdin", false);
         FileArgument outputFile      = new FileArgument("o", "output-file", "output file, default stdout", false);
+        IntegerArgument compressionThreads = new IntegerArgument("Z", "compression-threads", "number of gzip compression threads, default " + Compression.DEFAULT_THREADS, false);
         
-        ArgumentList arguments  = new ArgumentList(about, help, inputBlastFile, inputFastaFile, outputFile, imgtHlaDb);
+        ArgumentList arguments  = new ArgumentList(about, help, inputBlastFile, inputFastaFile, outputFile, imgtHlaDb, compressionThreads);
         CommandLine commandLine = new CommandLine(args);
 
         ExtractBlast extractBlast = null;
@@ -326,6 +327,7 @@ public final class ExtractBlast implements Callable<Integer> {
                 Usage.usage(USAGE, null, commandLine, arguments, System.out);
                 System.exit(0);
             }
+            Compression.setThreads(compressionThreads.getValue(Compression.DEFAULT_THREADS));
 
             int cutoff   = alleleCutoff.getValue() == null ? 10    : alleleCutoff.getValue();
             String imgt  =  imgtHlaDb.getValue()   == null ? "N/A" : imgtHlaDb.getValue(); 
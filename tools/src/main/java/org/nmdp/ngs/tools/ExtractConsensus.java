@@ -22,17 +22,22 @@
 */
 package org.nmdp.ngs.tools;
 
-import static org.dishevelled.compress.Readers.reader;
-import static org.dishevelled.compress.Writers.writer;
+import static com.google.common.base.Preconditions.checkArgument;
 
-import static org.nmdp.ngs.hml.HmlUtils.toDnaSymbolList;
+import static org.nmdp.ngs.tools.Compression.reader;
+import static org.nmdp.ngs.tools.Compression.writer;
+
+import static org.nmdp.ngs.hml.HmlUtils.toDnaString;
 
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
 import java.io.PrintWriter;
 
 import java.util.concurrent.Callable;
 
+import org.biojava.bio.symbol.IllegalSymbolException;
+
 import org.dishevelled.commandline.ArgumentList;
 import org.dishevelled.commandline.CommandLine;
 import org.dishevelled.commandline.CommandLineParseException;
@@ -41,21 +46,32 @@ import org.dishevelled.commandline.Switch;
 import org.dishevelled.commandline.Usage;
 
 import org.dishevelled.commandline.argument.FileArgument;
+import org.dishevelled.commandline.argument.IntegerArgument;
 
 import org.nmdp.ngs.hml.HmlReader;
+import org.nmdp.ngs.hml.SampleListener;
 
 import org.nmdp.ngs.hml.jaxb.ConsensusSequence;
 import org.nmdp.ngs.hml.jaxb.ConsensusSequenceBlock;
-import org.nmdp.ngs.hml.jaxb.Hml;
 import org.nmdp.ngs.hml.jaxb.ReferenceDatabase;
 import org.nmdp.ngs.hml.jaxb.Sample;
 import org.nmdp.ngs.hml.jaxb.Typing;
 
 /**
  * Extract consensus sequences from a file in HML format.
+ *
+ * <p>
+ * By default each consensus sequence is written to its own FASTA file, named
+ * <code>sampleId_typing_consensus.fa.gz</code>.  In batch mode all consensus sequences
+ * are written as records to a single multi-record FASTA file, or to a number of shard
+ * files chosen by sample id, with the file name prefixed to each record header.
+ * </p>
  */
 public final class ExtractConsensus implements Callable<Integer> {
     private final File inputHmlFile;
+    private final boolean batch;
+    private final File outputFile;
+    private final int shards;
     private static final String USAGE = "ngs-extract-consensus [args]";
 
 
@@ -65,51 +81,56 @@ public final class ExtractConsensus implements Callable<Integer> {
      * @param inputHmlFile input HML file, if any
      */
     public ExtractConsensus(final File inputHmlFile) {
+        this(inputHmlFile, false, null, 1);
+    }
+
+    /**
+     * Extract consensus sequences from a file in HML format.
+     *
+     * @param inputHmlFile input HML file, if any
+     * @param batch true to write all consensus sequences to a single multi-record FASTA output file
+     *    or to output file shards
+     * @param outputFile output FASTA file in batch mode, if any
+     * @param shards number of output file shards in batch mode, must be at least one, and if greater
+     *    than one an output file must be specified
+     */
+    public ExtractConsensus(final File inputHmlFile, final boolean batch, final File outputFile, final int shards) {
+        checkArgument(shards > 0, "shards must be at least one");
+        checkArgument(shards == 1 || outputFile != null, "shards require an output file");
         this.inputHmlFile = inputHmlFile;
+        this.batch = batch;
+        this.outputFile = outputFile;
+        this.shards = shards;
     }
 
 
     @Override
     public Integer call() throws Exception {
         BufferedReader reader = null;
+        final PrintWriter[] writers = batch ? new PrintWriter[shards] : null;
         try {
             reader = reader(inputHmlFile);
-            Hml hml = HmlReader.read(reader);
-            for (Sample sample : hml.getSample()) {
-                String id = sample.getId();
-                int typingCount = 0;
-                for (Typing typing : sample.getTyping()) {
-                    typingCount++;
-                    for (ConsensusSequence consensusSequence : typing.getConsensusSequence()) {
-                        int cons = 0;
-                        try (PrintWriter writer = writer(new File(id + "_" + typingCount + "_" + cons + ".fa.gz"))) {
-                            int blocks = 0;
-                            for (ConsensusSequenceBlock consensusSequenceBlock : consensusSequence.getConsensusSequenceBlock()) {
-                                StringBuilder sb = new StringBuilder(1200);
-                                sb.append(">");
-                                sb.append(blocks);
-                                sb.append("|");
-                                sb.append(((ReferenceDatabase.ReferenceSequence) consensusSequenceBlock.getReferenceSequenceId()).getId());
-                                sb.append("|");
-                                sb.append(consensusSequenceBlock.getStart() == null ? "" : consensusSequenceBlock.getStart());
-                                sb.append("|");
-                                sb.append(consensusSequenceBlock.getPhasingGroup() == null ? "" : consensusSequenceBlock.getPhasingGroup());
-                                sb.append("|");
-                                sb.append(consensusSequenceBlock.getExpectedCopyNumber() == null ? "" : consensusSequenceBlock.getExpectedCopyNumber());
-                                sb.append("|");
-                                sb.append(consensusSequenceBlock.getVariant().isEmpty() ? "1" : "0");
-                                sb.append("|");
-                                sb.append((consensusSequenceBlock.isContinuity() != null && consensusSequenceBlock.isContinuity().booleanValue()) ? "1" : "0");
-                                sb.append("\n");
-                                sb.append(toDnaSymbolList(consensusSequenceBlock.getSequence()).seqString());
-                                writer.println(sb.toString());
-
-                                blocks++;
-                            }
+            if (batch) {
+                for (int i = 0; i < shards; i++) {
+                    writers[i] = writer(shards == 1 ? outputFile : shardFile(outputFile, i));
+                }
+            }
+            final Exception[] exception = new Exception[1];
+            HmlReader.stream(reader, new SampleListener() {
+                    @Override
+                    public boolean sample(final Sample sample) {
+                        try {
+                            extract(sample, writers);
+                            return true;
+                        }
+                        catch (IOException | IllegalSymbolException e) {
+                            exception[0] = e;
+                            return false;
                         }
-                        cons++;
                     }
-                }
+                });
+            if (exception[0] != null) {
+                throw exception[0];
             }
 
             return 0;
@@ -121,7 +142,116 @@ public final class ExtractConsensus implements Callable<Integer> {
             catch (Exception e) {
                 // ignore
             }
+            if (writers != null) {
+                for (PrintWriter writer : writers) {
+                    try {
+                        writer.close();
+                    }
+                    catch (Exception e) {
+                        // ignore
+                    }
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Extract consensus sequences from the specified sample.
+     *
+     * @param sample sample
+     * @param writers batch mode output file shard writers, or <code>null</code> to write each consensus sequence to its own file
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalSymbolException if a consensus sequence contains an illegal symbol
+     */
+    private static void extract(final Sample sample, final PrintWriter[] writers) throws IOException, IllegalSymbolException {
+        String id = sample.getId();
+        int typingCount = 0;
+        for (Typing typing : sample.getTyping()) {
+            typingCount++;
+            int cons = 0;
+            for (ConsensusSequence consensusSequence : typing.getConsensusSequence()) {
+                String name = id + "_" + typingCount + "_" + cons;
+                if (writers == null) {
+                    try (PrintWriter writer = writer(new File(name + ".fa.gz"))) {
+                        write(null, consensusSequence, writer);
+                    }
+                }
+                else {
+                    write(name, consensusSequence, writers[shard(id, writers.length)]);
+                }
+                cons++;
+            }
+        }
+    }
+
+    /**
+     * Write the blocks of the specified consensus sequence as FASTA records to the specified writer.
+     *
+     * @param name name to prefix to each record header, if any
+     * @param consensusSequence consensus sequence
+     * @param writer writer
+     * @throws IllegalSymbolException if the consensus sequence contains an illegal symbol
+     */
+    private static void write(final String name, final ConsensusSequence consensusSequence, final PrintWriter writer) throws IllegalSymbolException {
+        int blocks = 0;
+        StringBuilder sb = new StringBuilder(128);
+        for (ConsensusSequenceBlock consensusSequenceBlock : consensusSequence.getConsensusSequenceBlock()) {
+            sb.setLength(0);
+            sb.append(">");
+            if (name != null) {
+                sb.append(name);
+                sb.append("|");
+            }
+            sb.append(blocks);
+            sb.append("|");
+            sb.append(((ReferenceDatabase.ReferenceSequence) consensusSequenceBlock.getReferenceSequenceId()).getId());
+            sb.append("|");
+            sb.append(consensusSequenceBlock.getStart() == null ? "" : consensusSequenceBlock.getStart());
+            sb.append("|");
+            sb.append(consensusSequenceBlock.getPhasingGroup() == null ? "" : consensusSequenceBlock.getPhasingGroup());
+            sb.append("|");
+            sb.append(consensusSequenceBlock.getExpectedCopyNumber() == null ? "" : consensusSequenceBlock.getExpectedCopyNumber());
+            sb.append("|");
+            sb.append(consensusSequenceBlock.getVariant().isEmpty() ? "1" : "0");
+            sb.append("|");
+            sb.append((consensusSequenceBlock.isContinuity() != null && consensusSequenceBlock.isContinuity().booleanValue()) ? "1" : "0");
+            writer.println(sb);
+            writer.println(toDnaString(consensusSequenceBlock.getSequence()));
+
+            blocks++;
+        }
+    }
+
+    /**
+     * Return the output file shard for the specified sample id.
+     *
+     * @param id sample id
+     * @param shards number of output file shards
+     * @return the output file shard for the specified sample id
+     */
+    static int shard(final String id, final int shards) {
+        return id == null ? 0 : (id.hashCode() & Integer.MAX_VALUE) % shards;
+    }
+
+    /**
+     * Return the output file for the specified shard, inserting the shard index before
+     * the <code>.fa</code>, <code>.fasta</code> and <code>.gz</code> extensions, if any.
+     *
+     * @param outputFile output file
+     * @param shard shard index
+     * @return the output file for the specified shard
+     */
+    static File shardFile(final File outputFile, final int shard) {
+        String name = outputFile.getName();
+        String extension = "";
+        for (String suffix : new String[] { ".gz", ".fa", ".fasta" }) {
+            if (name.endsWith(suffix) && name.length() > suffix.length()) {
+                extension = suffix + extension;
+                name = name.substring(0, name.length() - suffix.length());
+            }
         }
+        return new File(outputFile.getParentFile(), name + "." + shard + extension);
     }
 
 
@@ -134,8 +264,12 @@ public final class ExtractConsensus implements Callable<Integer> {
         Switch about = new Switch("a", "about", "display about message");
         Switch help = new Switch("h", "help", "display help message");
         FileArgument inputHmlFile = new FileArgument("i", "input-hml-file", "input HML file, default stdin", false);
+        Switch batch = new Switch("b", "batch", "write all consensus sequences to a single multi-record FASTA output file, default one file per consensus sequence");
+        FileArgument outputFile = new FileArgument("o", "output-file", "output FASTA file, implies batch mode, default stdout", false);
+        IntegerArgument shards = new IntegerArgument("s", "shards", "number of output file shards by sample id in batch mode, requires output file, default 1", false);
+        IntegerArgument compressionThreads = new IntegerArgument("Z", "compression-threads", "number of gzip compression threads, default " + Compression.DEFAULT_THREADS, false);
 
-        ArgumentList arguments = new ArgumentList(about, help, inputHmlFile);
+        ArgumentList arguments = new ArgumentList(about, help, inputHmlFile, batch, outputFile, shards, compressionThreads);
         CommandLine commandLine = new CommandLine(args);
 
         ExtractConsensus extractConsensus = null;
@@ -150,7 +284,8 @@ public final class ExtractConsensus implements Callable<Integer> {
                 Usage.usage(USAGE, null, commandLine, arguments, System.out);
                 System.exit(0);
             }
-            extractConsensus = new ExtractConsensus(inputHmlFile.getValue());
+            Compression.setThreads(compressionThreads.getValue(Compression.DEFAULT_THREADS));
+            extractConsensus = new ExtractConsensus(inputHmlFile.getValue(), batch.wasFound() || outputFile.wasFound() || shards.wasFound(), outputFile.getValue(), shards.getValue(1));
         }
         catch (CommandLineParseException | IllegalArgumentException e) {
             Usage.usage(USAGE, e, commandLine, arguments, System.err);
@@ -22,8 +22,8 @@
 */
 package org.nmdp.ngs.tools;
 
-import static org.dishevelled.compress.Readers.reader;
-import static org.dishevelled.compress.Writers.writer;
+import static org.nmdp.ngs.tools.Compression.reader;
+import static org.nmdp.ngs.tools.Compression.writer;
 
 import java.io.BufferedReader;
 import java.io.File;
@@ -44,6 +44,7 @@ import org.dishevelled.commandline.Switch;
 import org.dishevelled.commandline.Usage;
 
 import org.dishevelled.commandline.argument.FileArgument;
+import org.dishevelled.commandline.argument.IntegerArgument;
 
 import org.nmdp.ngs.hml.HmlReader;
 
@@ -154,8 +155,9 @@ public final class ExtractExpectedGlstrings implements Callable<Integer> {
         Switch help = new Switch("h", "help", "display help message");
         FileArgument inputHmlFile = new FileArgument("i", "input-hml-file", "input HML file, default stdin", false);
         FileArgument outputFile = new FileArgument("o", "output-file", "output allele assignment file, default stdout", false);
+        IntegerArgument compressionThreads = new IntegerArgument("Z", "compression-threads", "number of gzip compression threads, default " + Compression.DEFAULT_THREADS, false);
 
-        ArgumentList arguments = new ArgumentList(about, help, inputHmlFile, outputFile);
+        ArgumentList arguments = new ArgumentList(about, help, inputHmlFile, outputFile, compressionThreads);
         CommandLine commandLine = new CommandLine(args);
 
         ExtractExpectedGlstrings extractExpectedGlstrings = null;
@@ -170,6 +172,7 @@ public final class ExtractExpectedGlstrings implements Callable<Integer> {
                 Usage.usage(USAGE, null, commandLine, arguments, System.out);
                 System.exit(0);
             }
+            Compression.setThreads(compressionThreads.getValue(Compression.DEFAULT_THREADS));
             extractExpectedGlstrings = new ExtractExpectedGlstrings(inputHmlFile.getValue(), outputFile.getValue());
         }
         catch (CommandLineParseException | IllegalArgumentException e) {
@@ -22,8 +22,8 @@
 */
 package org.nmdp.ngs.tools;
 
-import static org.dishevelled.compress.Readers.reader;
-import static org.dishevelled.compress.Writers.writer;
+import static org.nmdp.ngs.tools.Compression.reader;
+import static org.nmdp.ngs.tools.Compression.writer;
 
 import java.io.BufferedReader;
 import java.io.File;
@@ -44,12 +44,13 @@ import org.dishevelled.commandline.Switch;
 import org.dishevelled.commandline.Usage;
 
 import org.dishevelled.commandline.argument.FileArgument;
+import org.dishevelled.commandline.argument.IntegerArgument;
 
 import org.nmdp.ngs.hml.HmlReader;
+import org.nmdp.ngs.hml.SampleListener;
 
 import org.nmdp.ngs.hml.jaxb.Haploid;
 import org.nmdp.ngs.hml.jaxb.AlleleAssignment;
-import org.nmdp.ngs.hml.jaxb.Hml;
 import org.nmdp.ngs.hml.jaxb.Sample;
 import org.nmdp.ngs.hml.jaxb.Typing;
 
@@ -82,44 +83,14 @@ public final class ExtractExpectedHaploids implements Callable<Integer> {
             reader = reader(inputHmlFile);
             writer = writer(outputFile);
 
-            Hml hml = HmlReader.read(reader);
-            for (Sample sample : hml.getSample()) {
-                String sampleId = sample.getId();
-                for (Typing typing : sample.getTyping()) {
-                    String geneFamily = typing.getGeneFamily();
-                    for (AlleleAssignment alleleAssignment : typing.getAlleleAssignment()) {
-                        String alleleDb = alleleAssignment.getAlleleDb();
-                        String alleleVersion = alleleAssignment.getAlleleVersion();
-
-                        ListMultimap<String, Haploid> haploidsByLocus = ArrayListMultimap.create();
-                        for (Object child : alleleAssignment.getPropertyAndHaploidAndGenotypeList()) {
-                            if (child instanceof Haploid) {
-                                Haploid haploid = (Haploid) child;
-                                haploidsByLocus.put(haploid.getLocus(), haploid);
-                            }
-                        }
-                        for (String locus : haploidsByLocus.keySet()) {
-                            List<Haploid> haploids = haploidsByLocus.get(locus);
-
-                            StringBuilder sb = new StringBuilder();
-                            sb.append(sampleId);
-                            sb.append("\t");
-                            sb.append(locus);
-                            sb.append("\t");
-                            sb.append(geneFamily);
-                            sb.append("\t");
-                            sb.append(alleleDb == null ? "" : alleleDb);
-                            sb.append("\t");
-                            sb.append(alleleVersion == null ? "" : alleleVersion);
-                            sb.append("\t");
-
-                            // note only the first two haploids per locus are considered
-                            sb.append(toGenotype(haploids.get(0), haploids.size() > 1 ? haploids.get(1) : null));
-                            writer.println(sb.toString());
-                        }
+            final PrintWriter w = writer;
+            HmlReader.stream(reader, new SampleListener() {
+                    @Override
+                    public boolean sample(final Sample sample) {
+                        extract(sample, w);
+                        return true;
                     }
-                }
-            }
+                });
             return 0;
         }
         finally {
@@ -138,6 +109,50 @@ public final class ExtractExpectedHaploids implements Callable<Integer> {
         }
     }
 
+    /**
+     * Extract expected allele assignments in haploid elements from the specified sample.
+     *
+     * @param sample sample
+     * @param writer writer to write expected allele assignments to
+     */
+    private static void extract(final Sample sample, final PrintWriter writer) {
+        String sampleId = sample.getId();
+        for (Typing typing : sample.getTyping()) {
+            String geneFamily = typing.getGeneFamily();
+            for (AlleleAssignment alleleAssignment : typing.getAlleleAssignment()) {
+                String alleleDb = alleleAssignment.getAlleleDb();
+                String alleleVersion = alleleAssignment.getAlleleVersion();
+
+                ListMultimap<String, Haploid> haploidsByLocus = ArrayListMultimap.create();
+                for (Object child : alleleAssignment.getPropertyAndHaploidAndGenotypeList()) {
+                    if (child instanceof Haploid) {
+                        Haploid haploid = (Haploid) child;
+                        haploidsByLocus.put(haploid.getLocus(), haploid);
+                    }
+                }
+                for (String locus : haploidsByLocus.keySet()) {
+                    List<Haploid> haploids = haploidsByLocus.get(locus);
+
+                    StringBuilder sb = new StringBuilder();
+                    sb.append(sampleId);
+                    sb.append("\t");
+                    sb.append(locus);
+                    sb.append("\t");
+                    sb.append(geneFamily);
+                    sb.append("\t");
+                    sb.append(alleleDb == null ? "" : alleleDb);
+                    sb.append("\t");
+                    sb.append(alleleVersion == null ? "" : alleleVersion);
+                    sb.append("\t");
+
+                    // note only the first two haploids per locus are considered
+                    sb.append(toGenotype(haploids.get(0), haploids.size() > 1 ? haploids.get(1) : null));
+                    writer.println(sb.toString());
+                }
+            }
+        }
+    }
+
     static String toGenotype(final Haploid haploid0, final Haploid haploid1) {
         StringBuilder sb = new StringBuilder();
         sb.append(haploid0.getLocus());
@@ -163,8 +178,9 @@ public final class ExtractExpectedHaploids implements Callable<Integer> {
         Switch help = new Switch("h", "help", "display help message");
         FileArgument inputHmlFile = new FileArgument("i", "input-hml-file", "input HML file, default stdin", false);
         FileArgument outputFile = new FileArgument("o", "output-file", "output allele assignment file, default stdout", false);
+        IntegerArgument compressionThreads = new IntegerArgument("Z", "compression-threads", "number of gzip compression threads, default " + Compression.DEFAULT_THREADS, false);
 
-        ArgumentList arguments = new ArgumentList(about, help, inputHmlFile, outputFile);
+        ArgumentList arguments = new ArgumentList(about, help, inputHmlFile, outputFile, compressionThreads);
         CommandLine commandLine = new CommandLine(args);
 
         ExtractExpectedHaploids extractExpectedHaploids = null;
@@ -179,6 +195,7 @@ public final class ExtractExpectedHaploids implements Callable<Integer> {
                 Usage.usage(USAGE, null, commandLine, arguments, System.out);
                 System.exit(0);
             }
+            Compression.setThreads(compressionThreads.getValue(Compression.DEFAULT_THREADS));
             extractExpectedHaploids = new ExtractExpectedHaploids(inputHmlFile.getValue(), outputFile.getValue());
         }
         catch (CommandLineParseException | IllegalArgumentException e) {
@@ -24,8 +24,8 @@ package org.nmdp.ngs.tools;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
-import static org.dishevelled.compress.Readers.reader;
-import static org.dishevelled.compress.Writers.writer;
+import static org.nmdp.ngs.tools.Compression.reader;
+import static org.nmdp.ngs.tools.Compression.writer;
 
 import java.io.BufferedReader;
 import java.io.File;
@@ -145,8 +145,9 @@ public final class FastaToFastq implements Callable<Integer> {
         FileArgument fastaFile = new FileArgument("i", "input-fasta-file", "input FASTA file, default stdin", false);
         FileArgument fastqFile = new FileArgument("o", "output-fastq-file", "output FASTQ file, default stdout", false);
         IntegerArgument quality = new IntegerArgument("q", "quality", "quality score for FASTQ, [0..93], default " + DEFAULT_QUALITY, false);
+        IntegerArgument compressionThreads = new IntegerArgument("Z", "compression-threads", "number of gzip compression threads, default " + Compression.DEFAULT_THREADS, false);
 
-        ArgumentList arguments = new ArgumentList(about, help, fastaFile, fastqFile, quality);
+        ArgumentList arguments = new ArgumentList(about, help, fastaFile, fastqFile, quality, compressionThreads);
         CommandLine commandLine = new CommandLine(args);
 
         FastaToFastq fastaToFastq = null;
@@ -161,9 +162,10 @@ public final class FastaToFastq implements Callable<Integer> {
                 Usage.usage(USAGE, null, commandLine, arguments, System.out);
                 System.exit(0);
             }
+            Compression.setThreads(compressionThreads.getValue(Compression.DEFAULT_THREADS));
             fastaToFastq = new FastaToFastq(fastaFile.getValue(), fastqFile.getValue(), quality.getValue(DEFAULT_QUALITY));
         }
-        catch (CommandLineParseException e) {
+        catch (CommandLineParseException | IllegalArgumentException e) {
             Usage.usage(USAGE, e, commandLine, arguments, System.err);
             System.exit(-1);
         }
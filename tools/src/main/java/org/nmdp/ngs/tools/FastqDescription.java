@@ -22,20 +22,15 @@
 */
 package org.nmdp.ngs.tools;
 
-import static org.dishevelled.compress.Readers.reader;
-import static org.dishevelled.compress.Writers.writer;
+import static org.nmdp.ngs.tools.Compression.inputStream;
+import static org.nmdp.ngs.tools.Compression.writer;
 
-import java.io.BufferedReader;
 import java.io.File;
+import java.io.InputStream;
 import java.io.PrintWriter;
 
 import java.util.concurrent.Callable;
 
-import org.biojava.bio.program.fastq.Fastq;
-import org.biojava.bio.program.fastq.FastqReader;
-import org.biojava.bio.program.fastq.SangerFastqReader;
-import org.biojava.bio.program.fastq.StreamListener;
-
 import org.dishevelled.commandline.ArgumentList;
 import org.dishevelled.commandline.CommandLine;
 import org.dishevelled.commandline.CommandLineParseException;
@@ -44,6 +39,11 @@ import org.dishevelled.commandline.Switch;
 import org.dishevelled.commandline.Usage;
 
 import org.dishevelled.commandline.argument.FileArgument;
+import org.dishevelled.commandline.argument.IntegerArgument;
+
+import org.nmdp.ngs.reads.fastq.FastqRecord;
+import org.nmdp.ngs.reads.fastq.FastqRecordListener;
+import org.nmdp.ngs.reads.fastq.FastqRecordReader;
 
 /**
  * Output description lines from sequences in FASTQ format.
@@ -51,7 +51,6 @@ import org.dishevelled.commandline.argument.FileArgument;
 public final class FastqDescription implements Callable<Integer> {
     private final File fastqFile;
     private final File descriptionFile;
-    private final FastqReader fastqReader = new SangerFastqReader();
     private static final String USAGE = "ngs-fastq-description [args]";
 
 
@@ -69,18 +68,18 @@ public final class FastqDescription implements Callable<Integer> {
 
     @Override
     public Integer call() throws Exception {
-        BufferedReader reader = null;
+        InputStream inputStream = null;
         PrintWriter writer = null;
         try {
-            reader = reader(fastqFile);
+            inputStream = inputStream(fastqFile);
             writer = writer(descriptionFile);
 
             final PrintWriter w = writer;
-            fastqReader.stream(reader, new StreamListener() {
+            FastqRecordReader.stream(inputStream, new FastqRecordListener() {
                     @Override
-                    public void fastq(final Fastq fastq)
-                    {
-                        w.println(fastq.getDescription());
+                    public boolean record(final FastqRecord record) {
+                        w.println(record.description());
+                        return true;
                     }
                 });
 
@@ -88,7 +87,7 @@ public final class FastqDescription implements Callable<Integer> {
         }
         finally {
             try {
-                reader.close();
+                inputStream.close();
             }
             catch (Exception e) {
                 // ignore
@@ -112,8 +111,9 @@ public final class FastqDescription implements Callable<Integer> {
         Switch help = new Switch("h", "help", "display help message");
         FileArgument fastqFile = new FileArgument("i", "fastq-file", "input FASTQ file, default stdin", false);
         FileArgument descriptionFile = new FileArgument("o", "description-file", "output file of description lines, default stdout", false);
+        IntegerArgument compressionThreads = new IntegerArgument("Z", "compression-threads", "number of gzip compression threads, default " + Compression.DEFAULT_THREADS, false);
 
-        ArgumentList arguments = new ArgumentList(about, help, fastqFile, descriptionFile);
+        ArgumentList arguments = new ArgumentList(about, help, fastqFile, descriptionFile, compressionThreads);
         CommandLine commandLine = new CommandLine(args);
 
         FastqDescription fastqDescription = null;
@@ -128,9 +128,10 @@ public final class FastqDescription implements Callable<Integer> {
                 Usage.usage(USAGE, null, commandLine, arguments, System.out);
                 System.exit(0);
             }
+            Compression.setThreads(compressionThreads.getValue(Compression.DEFAULT_THREADS));
             fastqDescription = new FastqDescription(fastqFile.getValue(), descriptionFile.getValue());
         }
-        catch (CommandLineParseException e) {
+        catch (CommandLineParseException | IllegalArgumentException e) {
             Usage.usage(USAGE, e, commandLine, arguments, System.err);
             System.exit(-1);
         }
@@ -0,0 +1,404 @@
+/*
+
+    ngs-tools  Next generation sequencing (NGS/HTS) command line tools.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.tools;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import static org.nmdp.ngs.tools.Compression.inputStream;
+import static org.nmdp.ngs.tools.Compression.writer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.dishevelled.commandline.ArgumentList;
+import org.dishevelled.commandline.CommandLine;
+import org.dishevelled.commandline.CommandLineParseException;
+import org.dishevelled.commandline.CommandLineParser;
+import org.dishevelled.commandline.Switch;
+import org.dishevelled.commandline.Usage;
+
+import org.dishevelled.commandline.argument.FileArgument;
+import org.dishevelled.commandline.argument.IntegerArgument;
+
+import org.nmdp.ngs.reads.fastq.FastqRecord;
+import org.nmdp.ngs.reads.fastq.FastqRecordListener;
+import org.nmdp.ngs.reads.fastq.FastqRecordReader;
+import org.nmdp.ngs.reads.fastq.FastqStatistics;
+
+/**
+ * Compute per-cycle quality, base composition, length histogram, GC content, and duplicate rate
+ * statistics for sequences in FASTQ format, in a single pass over optionally paired input.
+ *
+ * <p>
+ * Records are parsed on one reader thread per input file and accumulated in batches on a pool of
+ * worker threads, each into its own primitive histograms; the per-thread statistics are merged at
+ * the end.  The report is tab-delimited, with the section and the input (<code>first</code> or
+ * <code>second</code>) in the first two columns:
+ * <pre>
+ * summary      input  name   value
+ * length       input  length count
+ * gc           input  percent count
+ * quality      input  cycle  count  mean  10th  25th  50th  75th  90th percentile
+ * composition  input  cycle  A  C  G  T  N
+ * </pre>
+ * Cycles are one-based.
+ * </p>
+ */
+public final class FastqStats implements Callable<Integer> {
+    private final File firstFastqFile;
+    private final File secondFastqFile;
+    private final File reportFile;
+    private final int threads;
+    private final int batchSize;
+    private final int duplicateSampleSize;
+    static final int DEFAULT_THREADS = Runtime.getRuntime().availableProcessors();
+    static final int DEFAULT_BATCH_SIZE = 10000;
+    private static final double[] QUANTILES = { 0.1d, 0.25d, 0.5d, 0.75d, 0.9d };
+    private static final String USAGE = "ngs-fastq-stats [args]";
+
+
+    /**
+     * Compute statistics for sequences in FASTQ format.
+     *
+     * @param firstFastqFile first or only input FASTQ file, if any
+     * @param secondFastqFile second input FASTQ file, if any
+     * @param reportFile output report file, if any
+     * @param threads number of worker threads, must be at least one
+     * @param batchSize number of records per batch, must be at least one
+     * @param duplicateSampleSize duplicate sample size, must be at least one
+     */
+    public FastqStats(final File firstFastqFile, final File secondFastqFile, final File reportFile,
+                      final int threads, final int batchSize, final int duplicateSampleSize) {
+        checkArgument(threads > 0, "threads must be at least one");
+        checkArgument(batchSize > 0, "batch size must be at least one");
+        checkArgument(duplicateSampleSize > 0, "duplicate sample size must be at least one");
+        this.firstFastqFile = firstFastqFile;
+        this.secondFastqFile = secondFastqFile;
+        this.reportFile = reportFile;
+        this.threads = threads;
+        this.batchSize = batchSize;
+        this.duplicateSampleSize = duplicateSampleSize;
+    }
+
+
+    @Override
+    public Integer call() throws Exception {
+        ThreadFactory threadFactory = new ThreadFactoryBuilder().setDaemon(true).setNameFormat("ngs-fastq-stats-%d").build();
+        final ExecutorService workers = Executors.newFixedThreadPool(threads, threadFactory);
+        ExecutorService readers = Executors.newSingleThreadExecutor(threadFactory);
+        final Semaphore permits = new Semaphore(2 * threads);
+        final List<Future<?>> futures = Collections.synchronizedList(new ArrayList<Future<?>>());
+        final Accumulator first = new Accumulator(duplicateSampleSize);
+        final Accumulator second = secondFastqFile == null ? null : new Accumulator(duplicateSampleSize);
+        PrintWriter writer = null;
+        try {
+            Future<?> secondReader = null;
+            if (second != null) {
+                secondReader = readers.submit(new Callable<Void>() {
+                        @Override
+                        public Void call() throws IOException, InterruptedException {
+                            accumulate(secondFastqFile, second, workers, permits, futures);
+                            return null;
+                        }
+                    });
+            }
+            accumulate(firstFastqFile, first, workers, permits, futures);
+            if (secondReader != null) {
+                secondReader.get();
+            }
+            synchronized (futures) {
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+
+            writer = writer(reportFile);
+            write("first", first.merge(), writer);
+            if (second != null) {
+                write("second", second.merge(), writer);
+            }
+            return 0;
+        }
+        finally {
+            // stop the second reader before cancelling batches it may be waiting on permits for
+            readers.shutdownNow();
+            workers.shutdownNow();
+            try {
+                writer.close();
+            }
+            catch (Exception e) {
+                // ignore
+            }
+        }
+    }
+
+    /**
+     * Accumulate statistics for the specified FASTQ file in batches on the specified workers.
+     *
+     * @param file FASTQ file, if any
+     * @param accumulator accumulator
+     * @param workers workers
+     * @param permits batch permits
+     * @param futures batch futures
+     * @throws IOException if an I/O error occurs
+     * @throws InterruptedException if interrupted while waiting for a batch permit
+     */
+    private void accumulate(final File file, final Accumulator accumulator, final ExecutorService workers,
+                            final Semaphore permits, final List<Future<?>> futures) throws IOException, InterruptedException {
+
+        final class Batcher implements FastqRecordListener {
+            private List<FastqRecord> batch = new ArrayList<FastqRecord>(batchSize);
+            private InterruptedException interrupted;
+
+            @Override
+            public boolean record(final FastqRecord record) {
+                batch.add(record.copy());
+                if (batch.size() == batchSize) {
+                    try {
+                        submit();
+                    }
+                    catch (InterruptedException e) {
+                        interrupted = e;
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            void submit() throws InterruptedException {
+                if (batch.isEmpty()) {
+                    return;
+                }
+                final List<FastqRecord> records = batch;
+                batch = new ArrayList<FastqRecord>(batchSize);
+                permits.acquire();
+                Runnable task = new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                FastqStatistics statistics = accumulator.local();
+                                for (FastqRecord record : records) {
+                                    statistics.record(record);
+                                }
+                            }
+                            finally {
+                                permits.release();
+                            }
+                        }
+                    };
+                try {
+                    futures.add(workers.submit(task));
+                }
+                catch (RejectedExecutionException e) {
+                    permits.release();
+                    throw e;
+                }
+            }
+        }
+
+        Batcher batcher = new Batcher();
+        try (InputStream inputStream = inputStream(file)) {
+            FastqRecordReader.stream(inputStream, batcher);
+        }
+        if (batcher.interrupted != null) {
+            throw batcher.interrupted;
+        }
+        batcher.submit();
+    }
+
+    /**
+     * Write a report for the specified statistics.
+     *
+     * @param input input name
+     * @param statistics statistics
+     * @param writer writer
+     */
+    static void write(final String input, final FastqStatistics statistics, final PrintWriter writer) {
+        writer.println("summary\t" + input + "\trecords\t" + statistics.count());
+        writer.println("summary\t" + input + "\tbases\t" + statistics.bases());
+        writer.println("summary\t" + input + "\tminimum_length\t" + statistics.minimumLength());
+        writer.println("summary\t" + input + "\tmaximum_length\t" + statistics.maximumLength());
+        writer.println("summary\t" + input + "\tmean_length\t" + format(statistics.meanLength()));
+        writer.println("summary\t" + input + "\tgc_content\t" + format(statistics.gcContent()));
+        writer.println("summary\t" + input + "\tdistinct\t" + statistics.distinct());
+        writer.println("summary\t" + input + "\tdistinct_exact\t" + statistics.isDistinctExact());
+        writer.println("summary\t" + input + "\tduplicate_rate\t" + format(statistics.duplicateRate()));
+
+        for (int length = 0, maximumLength = statistics.maximumLength(); length <= maximumLength; length++) {
+            long count = statistics.lengthCount(length);
+            if (count > 0L) {
+                writer.println("length\t" + input + "\t" + length + "\t" + count);
+            }
+        }
+        for (int percent = 0; percent <= 100; percent++) {
+            long count = statistics.gcContentCount(percent);
+            if (count > 0L) {
+                writer.println("gc\t" + input + "\t" + percent + "\t" + count);
+            }
+        }
+        for (int cycle = 0, cycles = statistics.cycles(); cycle < cycles; cycle++) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("quality\t").append(input).append("\t").append(cycle + 1);
+            sb.append("\t").append(statistics.cycleCount(cycle));
+            sb.append("\t").append(format(statistics.meanQuality(cycle)));
+            for (double quantile : QUANTILES) {
+                sb.append("\t").append(statistics.qualityQuantile(cycle, quantile));
+            }
+            writer.println(sb.toString());
+        }
+        for (int cycle = 0, cycles = statistics.cycles(); cycle < cycles; cycle++) {
+            writer.println("composition\t" + input + "\t" + (cycle + 1)
+                           + "\t" + statistics.baseCount(cycle, 'A')
+                           + "\t" + statistics.baseCount(cycle, 'C')
+                           + "\t" + statistics.baseCount(cycle, 'G')
+                           + "\t" + statistics.baseCount(cycle, 'T')
+                           + "\t" + statistics.baseCount(cycle, 'N'));
+        }
+    }
+
+    /**
+     * Format the specified value to four decimal places.
+     *
+     * @param value value to format
+     * @return the specified value formatted to four decimal places
+     */
+    private static String format(final double value) {
+        return String.format(Locale.US, "%.4f", value);
+    }
+
+    /**
+     * Per-thread statistics for one input.
+     */
+    private static final class Accumulator {
+        private final int duplicateSampleSize;
+        private final List<FastqStatistics> statistics = Collections.synchronizedList(new ArrayList<FastqStatistics>());
+        private final ThreadLocal<FastqStatistics> local = new ThreadLocal<FastqStatistics>() {
+                @Override
+                protected FastqStatistics initialValue() {
+                    FastqStatistics value = FastqStatistics.create(duplicateSampleSize);
+                    statistics.add(value);
+                    return value;
+                }
+            };
+
+        /**
+         * Create a new accumulator.
+         *
+         * @param duplicateSampleSize duplicate sample size
+         */
+        Accumulator(final int duplicateSampleSize) {
+            this.duplicateSampleSize = duplicateSampleSize;
+        }
+
+        /**
+         * Return the statistics for the current thread.
+         *
+         * @return the statistics for the current thread
+         */
+        FastqStatistics local() {
+            return local.get();
+        }
+
+        /**
+         * Merge and return the statistics for all threads.
+         *
+         * @return the merged statistics for all threads
+         */
+        FastqStatistics merge() {
+            FastqStatistics merged = FastqStatistics.create(duplicateSampleSize);
+            synchronized (statistics) {
+                for (FastqStatistics value : statistics) {
+                    merged.merge(value);
+                }
+            }
+            return merged;
+        }
+    }
+
+
+    /**
+     * Main.
+     *
+     * @param args command line args
+     */
+    public static void main(final String[] args) {
+        Switch about = new Switch("a", "about", "display about message");
+        Switch help = new Switch("h", "help", "display help message");
+        FileArgument firstFastqFile = new FileArgument("1", "first-fastq-file", "first or only FASTQ input file, default stdin", false);
+        FileArgument secondFastqFile = new FileArgument("2", "second-fastq-file", "second FASTQ input file, if paired", false);
+        FileArgument reportFile = new FileArgument("o", "report-file", "output report file, default stdout", false);
+        IntegerArgument threads = new IntegerArgument("T", "threads", "number of worker threads, default " + DEFAULT_THREADS, false);
+        IntegerArgument batchSize = new IntegerArgument("B", "batch-size", "number of records per batch, default " + DEFAULT_BATCH_SIZE, false);
+        IntegerArgument duplicateSampleSize = new IntegerArgument("d", "duplicate-sample-size", "duplicate sample size, default " + FastqStatistics.DEFAULT_DUPLICATE_SAMPLE_SIZE, false);
+        IntegerArgument compressionThreads = new IntegerArgument("Z", "compression-threads", "number of gzip compression threads, default " + Compression.DEFAULT_THREADS, false);
+
+        ArgumentList arguments = new ArgumentList(about, help, firstFastqFile, secondFastqFile, reportFile, threads, batchSize, duplicateSampleSize, compressionThreads);
+        CommandLine commandLine = new CommandLine(args);
+
+        FastqStats fastqStats = null;
+        try
+        {
+            CommandLineParser.parse(commandLine, arguments);
+            if (about.wasFound()) {
+                About.about(System.out);
+                System.exit(0);
+            }
+            if (help.wasFound()) {
+                Usage.usage(USAGE, null, commandLine, arguments, System.out);
+                System.exit(0);
+            }
+            Compression.setThreads(compressionThreads.getValue(Compression.DEFAULT_THREADS));
+            fastqStats = new FastqStats(firstFastqFile.getValue(), secondFastqFile.getValue(), reportFile.getValue(),
+                                        threads.getValue(DEFAULT_THREADS), batchSize.getValue(DEFAULT_BATCH_SIZE),
+                                        duplicateSampleSize.getValue(FastqStatistics.DEFAULT_DUPLICATE_SAMPLE_SIZE));
+        }
+        catch (CommandLineParseException | IllegalArgumentException e) {
+            Usage.usage(USAGE, e, commandLine, arguments, System.err);
+            System.exit(-1);
+        }
+        try {
+            System.exit(fastqStats.call());
+        }
+        catch (Exception e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+}
@@ -25,14 +25,22 @@ package org.nmdp.ngs.tools;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import static org.dishevelled.compress.Readers.reader;
-import static org.dishevelled.compress.Writers.writer;
+import static org.nmdp.ngs.tools.Compression.reader;
+import static org.nmdp.ngs.tools.Compression.writer;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+
+import java.nio.charset.StandardCharsets;
 
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
 
 import java.util.concurrent.Callable;
 
@@ -41,6 +49,8 @@ import java.util.regex.Pattern;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Ordering;
 
+import com.google.common.io.Files;
+
 import org.biojava.bio.program.fastq.Fastq;
 import org.biojava.bio.program.fastq.SangerFastqReader;
 import org.biojava.bio.program.fastq.StreamListener;
@@ -64,10 +74,13 @@ public final class FastqToSsake implements Callable<Integer> {
     private final File secondFastqFile;
     private final File ssakeFile;
     private final File unpairedFile;
+    private final int runSize;
     public static final int DEFAULT_INSERT_SIZE = 500;
+    public static final int DEFAULT_RUN_SIZE = 1000000;
+    static final int MERGE_FAN_IN = 64;
     private static final Pattern LEFT = Pattern.compile("^.* 1.*$");
     private static final Pattern RIGHT = Pattern.compile("^.* 2.*$");
-    private static final String USAGE = "ngs-fastq-to-ssake -1 foo_1.fq.gz -2 foo_2.fq.gz [args]\n\n   Note:  the contents of both FASTQ files are read into RAM.\n   Increase RAM to the JVM using e.g. -Xms2g -Xmx8g if necessary.";
+    private static final String USAGE = "ngs-fastq-to-ssake -1 foo_1.fq.gz -2 foo_2.fq.gz [args]\n\n   Note:  unless --external-sort is specified, the contents of both FASTQ files are read into RAM.\n   Increase RAM to the JVM using e.g. -Xms2g -Xmx8g if necessary.";
 
 
     /**
@@ -80,14 +93,30 @@ public final class FastqToSsake implements Callable<Integer> {
      * @param unpairedFile file to write unpaired read names to, if any
      */
     public FastqToSsake(final File firstFastqFile, final File secondFastqFile, final File ssakeFile, final int insertSize, final File unpairedFile) {
+        this(firstFastqFile, secondFastqFile, ssakeFile, insertSize, unpairedFile, 0);
+    }
+
+    /**
+     * Convert sequences in FASTQ format to SSAKE import format.
+     *
+     * @param firstFastqFile first FASTQ input file, must not be null
+     * @param secondFastqFile second FASTQ input file, must not be null
+     * @param ssakeFile output SSAKE file, if any
+     * @param insertSize insert size, must be at least 0
+     * @param unpairedFile file to write unpaired read names to, if any
+     * @param runSize run size in reads for sorting externally in bounded memory, or 0 to sort in RAM
+     */
+    public FastqToSsake(final File firstFastqFile, final File secondFastqFile, final File ssakeFile, final int insertSize, final File unpairedFile, final int runSize) {
         checkNotNull(firstFastqFile);
         checkNotNull(secondFastqFile);
         checkArgument((insertSize > -1), "insertSize must be at least 0");
+        checkArgument((runSize > -1), "runSize must be at least 0");
         this.insertSize = insertSize;
         this.firstFastqFile = firstFastqFile;
         this.secondFastqFile = secondFastqFile;
         this.ssakeFile = ssakeFile;
         this.unpairedFile = unpairedFile;
+        this.runSize = runSize;
     }
 
 
@@ -99,71 +128,14 @@ public final class FastqToSsake implements Callable<Integer> {
             ssakeWriter = writer(ssakeFile);
             unpairedWriter = (unpairedFile == null) ? null : writer(unpairedFile);
 
-            // read both FASTQ files into RAM (ick)
-            final List<Fastq> reads = Lists.newArrayList();
-            SangerFastqReader fastqReader = new SangerFastqReader();
-            fastqReader.stream(reader(firstFastqFile), new StreamListener() {
-                    @Override
-                    public void fastq(final Fastq fastq) {
-                        reads.add(fastq);
-                    }
-                });
-            fastqReader.stream(reader(secondFastqFile), new StreamListener() {
-                    @Override
-                    public void fastq(final Fastq fastq) {
-                        reads.add(fastq);
-                    }
-                });
-
-            // .. and sort by description
-            Collections.sort(reads, new Ordering<Fastq>() {
-                    @Override
-                    public int compare(final Fastq left, final Fastq right) {
-                        return left.getDescription().compareTo(right.getDescription());
-                    }
-                });
-
-            for (int i = 0, size = reads.size(); i < size; ) {
-                Fastq left = reads.get(i);
-                if ((i + 1) == size) {
-                    if (unpairedWriter != null) {
-                        unpairedWriter.println(left.getDescription());
-                    }
-                    break;
-                }
-                Fastq right = reads.get(i + 1);
-
-                if (isLeft(left)) {
-                    if (isRight(right)) {
-                        // write paired reads to SSAKE-hacked-up version of FASTA format
-                        StringBuilder sb = new StringBuilder(512);
-                        sb.append(">");
-                        sb.append(left.getDescription());
-                        sb.append(":");
-                        sb.append(right.getDescription());
-                        sb.append(":");
-                        sb.append(insertSize);
-                        sb.append("\n");
-                        sb.append(left.getSequence());
-                        sb.append(":");
-                        sb.append(right.getSequence());
-                        ssakeWriter.println(sb.toString());
-                        i += 2;
-                    }
-                    else {
-                        if (unpairedWriter != null) {
-                            unpairedWriter.println(right.getDescription());
-                        }
-                        i++;
-                    }
-                }
-                else {
-                    if (unpairedWriter != null) {
-                        unpairedWriter.println(left.getDescription());
-                    }
-                    i++;
-                }
+            Pairing pairing = new Pairing(ssakeWriter, unpairedWriter, insertSize);
+            if (runSize > 0) {
+                externalSort(pairing);
+            }
+            else {
+                sort(pairing);
             }
+            pairing.finish();
             return 0;
         }
         finally {
@@ -182,12 +154,334 @@ public final class FastqToSsake implements Callable<Integer> {
         }
     }
 
+    /**
+     * Read both FASTQ files into RAM, sort by description, and pair.
+     *
+     * @param pairing pairing
+     * @throws IOException if an I/O error occurs
+     */
+    private void sort(final Pairing pairing) throws IOException {
+        // read both FASTQ files into RAM (ick)
+        final List<Fastq> reads = Lists.newArrayList();
+        SangerFastqReader fastqReader = new SangerFastqReader();
+        fastqReader.stream(reader(firstFastqFile), new StreamListener() {
+                @Override
+                public void fastq(final Fastq fastq) {
+                    reads.add(fastq);
+                }
+            });
+        fastqReader.stream(reader(secondFastqFile), new StreamListener() {
+                @Override
+                public void fastq(final Fastq fastq) {
+                    reads.add(fastq);
+                }
+            });
+
+        // .. and sort by description
+        Collections.sort(reads, new Ordering<Fastq>() {
+                @Override
+                public int compare(final Fastq left, final Fastq right) {
+                    return left.getDescription().compareTo(right.getDescription());
+                }
+            });
+
+        for (Fastq read : reads) {
+            pairing.add(read.getDescription(), read.getSequence());
+        }
+    }
+
+    /**
+     * Sort both FASTQ files by description in bounded memory, spilling sorted runs of at most
+     * <code>runSize</code> reads to temporary files and k-way merging them, and pair.
+     *
+     * @param pairing pairing
+     * @throws IOException if an I/O error occurs
+     */
+    private void externalSort(final Pairing pairing) throws IOException {
+        final File directory = Files.createTempDir();
+        try {
+            final List<File> runs = Lists.newArrayList();
+            final List<Read> run = Lists.newArrayListWithCapacity(Math.min(runSize, 65536));
+            StreamListener streamListener = new StreamListener() {
+                    @Override
+                    public void fastq(final Fastq fastq) {
+                        run.add(new Read(fastq.getDescription(), fastq.getSequence()));
+                        if (run.size() == runSize) {
+                            try {
+                                runs.add(writeRun(directory, runs.size(), run));
+                            }
+                            catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                            run.clear();
+                        }
+                    }
+                };
+
+            try {
+                SangerFastqReader fastqReader = new SangerFastqReader();
+                fastqReader.stream(reader(firstFastqFile), streamListener);
+                fastqReader.stream(reader(secondFastqFile), streamListener);
+            }
+            catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (!run.isEmpty()) {
+                runs.add(writeRun(directory, runs.size(), run));
+                run.clear();
+            }
+
+            // merge runs in order preserving groups until a single merge pass suffices
+            List<File> remaining = runs;
+            int generation = runs.size();
+            while (remaining.size() > MERGE_FAN_IN) {
+                List<File> merged = Lists.newArrayList();
+                for (List<File> group : Lists.partition(remaining, MERGE_FAN_IN)) {
+                    File file = new File(directory, "run-" + (generation++) + ".txt");
+                    try (BufferedWriter writer = Files.newWriter(file, StandardCharsets.UTF_8)) {
+                        merge(group, new RunWriter(writer));
+                    }
+                    for (File f : group) {
+                        f.delete();
+                    }
+                    merged.add(file);
+                }
+                remaining = merged;
+            }
+            merge(remaining, pairing);
+        }
+        finally {
+            File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            directory.delete();
+        }
+    }
+
+    /**
+     * Sort the specified run of reads by description and write it to a new temporary file.
+     *
+     * @param directory temporary directory
+     * @param index run index
+     * @param run run of reads
+     * @return the new temporary file
+     * @throws IOException if an I/O error occurs
+     */
+    private static File writeRun(final File directory, final int index, final List<Read> run) throws IOException {
+        Collections.sort(run, BY_DESCRIPTION);
+        File file = new File(directory, "run-" + index + ".txt");
+        try (BufferedWriter writer = Files.newWriter(file, StandardCharsets.UTF_8)) {
+            RunWriter runWriter = new RunWriter(writer);
+            for (Read read : run) {
+                runWriter.add(read.description, read.sequence);
+            }
+        }
+        return file;
+    }
+
+    /**
+     * K-way merge the specified sorted runs, in order of description, to the specified sink.
+     * Reads with equal descriptions are merged in run order, so the merge is stable.
+     *
+     * @param runs sorted runs
+     * @param sink sink
+     * @throws IOException if an I/O error occurs
+     */
+    private static void merge(final List<File> runs, final ReadSink sink) throws IOException {
+        PriorityQueue<RunReader> queue = new PriorityQueue<RunReader>(Math.max(1, runs.size()), new Comparator<RunReader>() {
+                @Override
+                public int compare(final RunReader left, final RunReader right) {
+                    int c = left.description.compareTo(right.description);
+                    return (c != 0) ? c : Integer.compare(left.index, right.index);
+                }
+            });
+        List<RunReader> readers = Lists.newArrayListWithCapacity(runs.size());
+        try {
+            for (int i = 0, size = runs.size(); i < size; i++) {
+                RunReader runReader = new RunReader(i, Files.newReader(runs.get(i), StandardCharsets.UTF_8));
+                readers.add(runReader);
+                if (runReader.advance()) {
+                    queue.add(runReader);
+                }
+            }
+            while (!queue.isEmpty()) {
+                RunReader runReader = queue.poll();
+                sink.add(runReader.description, runReader.sequence);
+                if (runReader.advance()) {
+                    queue.add(runReader);
+                }
+            }
+        }
+        finally {
+            for (RunReader runReader : readers) {
+                try {
+                    runReader.reader.close();
+                }
+                catch (IOException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    /** Order reads by description. */
+    private static final Comparator<Read> BY_DESCRIPTION = new Comparator<Read>() {
+            @Override
+            public int compare(final Read left, final Read right) {
+                return left.description.compareTo(right.description);
+            }
+        };
+
+    /**
+     * Read description and sequence.
+     */
+    private static final class Read {
+        private final String description;
+        private final String sequence;
+
+        Read(final String description, final String sequence) {
+            this.description = description;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * Sink for reads in order of description.
+     */
+    private interface ReadSink {
+        void add(String description, String sequence) throws IOException;
+    }
+
+    /**
+     * Writes reads to a sorted run file, one line for description and one for sequence.
+     */
+    private static final class RunWriter implements ReadSink {
+        private final BufferedWriter writer;
+
+        RunWriter(final BufferedWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void add(final String description, final String sequence) throws IOException {
+            writer.write(description);
+            writer.newLine();
+            writer.write(sequence);
+            writer.newLine();
+        }
+    }
+
+    /**
+     * Reads reads from a sorted run file.
+     */
+    private static final class RunReader {
+        private final int index;
+        private final BufferedReader reader;
+        private String description;
+        private String sequence;
+
+        RunReader(final int index, final BufferedReader reader) {
+            this.index = index;
+            this.reader = reader;
+        }
+
+        boolean advance() throws IOException {
+            description = reader.readLine();
+            if (description == null) {
+                return false;
+            }
+            sequence = reader.readLine();
+            if (sequence == null) {
+                throw new IOException("truncated sorted run file");
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Pairs adjacent reads in order of description, writing paired reads in SSAKE import
+     * format and unpaired read names to the unpaired writer, if any.
+     */
+    private static final class Pairing implements ReadSink {
+        private final PrintWriter ssakeWriter;
+        private final PrintWriter unpairedWriter;
+        private final int insertSize;
+        private String description;
+        private String sequence;
+
+        Pairing(final PrintWriter ssakeWriter, final PrintWriter unpairedWriter, final int insertSize) {
+            this.ssakeWriter = ssakeWriter;
+            this.unpairedWriter = unpairedWriter;
+            this.insertSize = insertSize;
+        }
+
+        @Override
+        public void add(final String rightDescription, final String rightSequence) {
+            if (description == null) {
+                description = rightDescription;
+                sequence = rightSequence;
+                return;
+            }
+            if (isLeft(description)) {
+                if (isRight(rightDescription)) {
+                    // write paired reads to SSAKE-hacked-up version of FASTA format
+                    StringBuilder sb = new StringBuilder(512);
+                    sb.append(">");
+                    sb.append(description);
+                    sb.append(":");
+                    sb.append(rightDescription);
+                    sb.append(":");
+                    sb.append(insertSize);
+                    sb.append("\n");
+                    sb.append(sequence);
+                    sb.append(":");
+                    sb.append(rightSequence);
+                    ssakeWriter.println(sb.toString());
+                    description = null;
+                    sequence = null;
+                    return;
+                }
+                unpaired(rightDescription);
+            }
+            else {
+                unpaired(description);
+            }
+            description = rightDescription;
+            sequence = rightSequence;
+        }
+
+        void finish() {
+            if (description != null) {
+                unpaired(description);
+                description = null;
+                sequence = null;
+            }
+        }
+
+        private void unpaired(final String unpairedDescription) {
+            if (unpairedWriter != null) {
+                unpairedWriter.println(unpairedDescription);
+            }
+        }
+    }
+
     static boolean isLeft(final Fastq fastq) {
-        return LEFT.matcher(fastq.getDescription()).matches();
+        return isLeft(fastq.getDescription());
     }
 
     static boolean isRight(final Fastq fastq) {
-        return RIGHT.matcher(fastq.getDescription()).matches();
+        return isRight(fastq.getDescription());
+    }
+
+    static boolean isLeft(final String description) {
+        return LEFT.matcher(description).matches();
+    }
+
+    static boolean isRight(final String description) {
+        return RIGHT.matcher(description).matches();
     }
 
     /**
@@ -203,8 +497,11 @@ public final class FastqToSsake implements Callable<Integer> {
         FileArgument ssakeFile = new FileArgument("o", "ssake-file", "output SSAKE file, default stdout", false);
         FileArgument unpairedFile = new FileArgument("u", "unpaired-file", "write unpaired read names to file", false);
         IntegerArgument insertSize = new IntegerArgument("s", "insert-size", "insert size, must be at least zero, default " + DEFAULT_INSERT_SIZE, false);
+        Switch externalSort = new Switch("x", "external-sort", "sort reads externally in bounded memory instead of in RAM");
+        IntegerArgument runSize = new IntegerArgument("r", "run-size", "external sort run size in reads, must be at least one, default " + DEFAULT_RUN_SIZE, false);
+        IntegerArgument compressionThreads = new IntegerArgument("Z", "compression-threads", "number of gzip compression threads, default " + Compression.DEFAULT_THREADS, false);
 
-        ArgumentList arguments = new ArgumentList(about, help, firstFastqFile, secondFastqFile, ssakeFile, insertSize, unpairedFile);
+        ArgumentList arguments = new ArgumentList(about, help, firstFastqFile, secondFastqFile, ssakeFile, insertSize, unpairedFile, externalSort, runSize, compressionThreads);
         CommandLine commandLine = new CommandLine(args);
 
         FastqToSsake fastqToSsake = null;
@@ -219,9 +516,13 @@ public final class FastqToSsake implements Callable<Integer> {
                 Usage.usage(USAGE, null, commandLine, arguments, System.out);
                 System.exit(0);
             }
-            fastqToSsake = new FastqToSsake(firstFastqFile.getValue(), secondFastqFile.getValue(), ssakeFile.getValue(), insertSize.getValue(DEFAULT_INSERT_SIZE), unpairedFile.getValue());
+            checkArgument(externalSort.wasFound() || !runSize.wasFound(), "run size requires external sort");
+            checkArgument(!externalSort.wasFound() || runSize.getValue(DEFAULT_RUN_SIZE) > 0, "run size must be at least one");
+            Compression.setThreads(compressionThreads.getValue(Compression.DEFAULT_THREADS));
+            fastqToSsake = new FastqToSsake(firstFastqFile.getValue(), secondFastqFile.getValue(), ssakeFile.getValue(), insertSize.getValue(DEFAULT_INSERT_SIZE), unpairedFile.getValue(),
+                                            externalSort.wasFound() ? runSize.getValue(DEFAULT_RUN_SIZE) : 0);
         }
-        catch (CommandLineParseException e) {
+        catch (CommandLineParseException | IllegalArgumentException e) {
             if (about.wasFound()) {
                 About.about(System.out);
                 System.exit(0);
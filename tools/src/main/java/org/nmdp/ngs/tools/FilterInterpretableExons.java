@@ -24,8 +24,8 @@ package org.nmdp.ngs.tools;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import static org.dishevelled.compress.Readers.reader;
-import static org.dishevelled.compress.Writers.writer;
+import static org.nmdp.ngs.tools.Compression.reader;
+import static org.nmdp.ngs.tools.Compression.writer;
 
 import static org.nmdp.ngs.align.Genewise.genewiseExons;
 
@@ -50,6 +50,7 @@ import org.dishevelled.commandline.Switch;
 import org.dishevelled.commandline.Usage;
 
 import org.dishevelled.commandline.argument.FileArgument;
+import org.dishevelled.commandline.argument.IntegerArgument;
 
 import org.nmdp.ngs.align.GenewiseExon;
 
@@ -146,8 +147,9 @@ public final class FilterInterpretableExons implements Callable<Integer> {
         FileArgument aminoAcidHmm2File = new FileArgument("m", "amino-acid-hmm2-file", "amino acid HMM file in HMMER2 format", true);
         FileArgument inputFastaFile = new FileArgument("i", "input-fasta-file", "input FASTA file, default stdin", false);
         FileArgument outputFastaFile = new FileArgument("o", "output-fasta-file", "output FASTA file, default stdout", false);
+        IntegerArgument compressionThreads = new IntegerArgument("Z", "compression-threads", "number of gzip compression threads, default " + Compression.DEFAULT_THREADS, false);
 
-        ArgumentList arguments = new ArgumentList(about, help, aminoAcidHmm2File, inputFastaFile, outputFastaFile);
+        ArgumentList arguments = new ArgumentList(about, help, aminoAcidHmm2File, inputFastaFile, outputFastaFile, compressionThreads);
         CommandLine commandLine = new CommandLine(args);
 
         FilterInterpretableExons filterInterpretableExons = null;
@@ -161,9 +163,10 @@ public final class FilterInterpretableExons implements Callable<Integer> {
                 Usage.usage(USAGE, null, commandLine, arguments, System.out);
                 System.exit(0);
             }
+            Compression.setThreads(compressionThreads.getValue(Compression.DEFAULT_THREADS));
             filterInterpretableExons = new FilterInterpretableExons(aminoAcidHmm2File.getValue(), inputFastaFile.getValue(), outputFastaFile.getValue());
         }
-        catch (CommandLineParseException e) {
+        catch (CommandLineParseException | IllegalArgumentException e) {
             if (about.wasFound()) {
                 About.about(System.out);
                 System.exit(0);
@@ -24,8 +24,8 @@ package org.nmdp.ngs.tools;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import static org.dishevelled.compress.Readers.reader;
-import static org.dishevelled.compress.Writers.writer;
+import static org.nmdp.ngs.tools.Compression.reader;
+import static org.nmdp.ngs.tools.Compression.writer;
 
 import java.io.BufferedReader;
 import java.io.File;
@@ -39,6 +39,8 @@ import java.util.Set;
 
 import java.util.concurrent.Callable;
 
+import com.google.common.base.Predicates;
+
 import com.google.common.io.CharStreams;
 
 import org.dishevelled.commandline.ArgumentList;
@@ -49,7 +51,9 @@ import org.dishevelled.commandline.Switch;
 import org.dishevelled.commandline.Usage;
 
 import org.dishevelled.commandline.argument.FileArgument;
+import org.dishevelled.commandline.argument.IntegerArgument;
 
+import org.nmdp.ngs.hml.HmlFilter;
 import org.nmdp.ngs.hml.HmlReader;
 import org.nmdp.ngs.hml.HmlWriter;
 
@@ -63,6 +67,7 @@ public final class FilterSamples implements Callable<Integer> {
     private final File inputHmlFile;
     private final File inputSampleIdFile;
     private final File outputHmlFile;
+    private final boolean streaming;
     private static final String USAGE = "ngs-filter-samples -i hml.xml.gz -s sample-ids.txt.gz -o filtered.xml.gz";
 
 
@@ -74,10 +79,23 @@ public final class FilterSamples implements Callable<Integer> {
      * @param outputHmlFile output HML file, if an
      */
     public FilterSamples(final File inputHmlFile, final File inputSampleIdFile, final File outputHmlFile) {
+        this(inputHmlFile, inputSampleIdFile, outputHmlFile, false);
+    }
+
+    /**
+     * Filter samples from a file in HML format.
+     *
+     * @param inputHmlFile input HML file, if any
+     * @param inputSampleIdFile input file of sample ids, must not be null
+     * @param outputHmlFile output HML file, if an
+     * @param streaming true to stream xml events through without binding or validating samples
+     */
+    public FilterSamples(final File inputHmlFile, final File inputSampleIdFile, final File outputHmlFile, final boolean streaming) {
         checkNotNull(inputSampleIdFile);
         this.inputHmlFile = inputHmlFile;
         this.inputSampleIdFile = inputSampleIdFile;
         this.outputHmlFile = outputHmlFile;
+        this.streaming = streaming;
     }
 
 
@@ -89,8 +107,13 @@ public final class FilterSamples implements Callable<Integer> {
             reader = reader(inputHmlFile);
             writer = writer(outputHmlFile);
 
-            Hml hml = HmlReader.read(reader);
             Set<String> sampleIds = readSampleIds(inputSampleIdFile);
+            if (streaming) {
+                HmlFilter.filterSamples(reader, writer, Predicates.in(sampleIds));
+                return 0;
+            }
+
+            Hml hml = HmlReader.read(reader);
             List<Sample> toRemove = new ArrayList<Sample>();
             for (Sample sample : hml.getSample()) {
                 if (!sampleIds.contains(sample.getId())) {
@@ -150,8 +173,10 @@ public final class FilterSamples implements Callable<Integer> {
         FileArgument inputHmlFile = new FileArgument("i", "input-hml-file", "input HML file, default stdin", false);
         FileArgument inputSampleIdFile = new FileArgument("s", "input-sample-id-file", "input sample id file, one per line", true);
         FileArgument outputHmlFile = new FileArgument("o", "output-hml-file", "output HML file, default stdout", false);
+        Switch streaming = new Switch("t", "streaming", "stream xml through without binding or validating samples");
+        IntegerArgument compressionThreads = new IntegerArgument("Z", "compression-threads", "number of gzip compression threads, default " + Compression.DEFAULT_THREADS, false);
 
-        ArgumentList arguments = new ArgumentList(about, help, inputHmlFile, inputSampleIdFile, outputHmlFile);
+        ArgumentList arguments = new ArgumentList(about, help, inputHmlFile, inputSampleIdFile, outputHmlFile, streaming, compressionThreads);
         CommandLine commandLine = new CommandLine(args);
 
         FilterSamples filterSamples = null;
@@ -166,7 +191,8 @@ public final class FilterSamples implements Callable<Integer> {
                 Usage.usage(USAGE, null, commandLine, arguments, System.out);
                 System.exit(0);
             }
-            filterSamples = new FilterSamples(inputHmlFile.getValue(), inputSampleIdFile.getValue(), outputHmlFile.getValue());
+            Compression.setThreads(compressionThreads.getValue(Compression.DEFAULT_THREADS));
+            filterSamples = new FilterSamples(inputHmlFile.getValue(), inputSampleIdFile.getValue(), outputHmlFile.getValue(), streaming.wasFound());
         }
         catch (CommandLineParseException | IllegalArgumentException e) {
             Usage.usage(USAGE, e, commandLine, arguments, System.err);
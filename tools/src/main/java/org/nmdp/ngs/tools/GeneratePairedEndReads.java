@@ -22,18 +22,23 @@
 */
 package org.nmdp.ngs.tools;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import static org.dishevelled.compress.Readers.reader;
-import static org.dishevelled.compress.Writers.writer;
+import static org.nmdp.ngs.tools.Compression.reader;
+import static org.nmdp.ngs.tools.Compression.writer;
 
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintWriter;
 
 import java.util.concurrent.Callable;
 
+import com.google.common.base.Function;
+import com.google.common.base.Functions;
+
 import org.apache.commons.math3.distribution.NormalDistribution;
 import org.apache.commons.math3.distribution.RealDistribution;
 
@@ -62,6 +67,7 @@ import org.dishevelled.commandline.argument.StringArgument;
 
 import org.nmdp.ngs.reads.CoverageStrategy;
 import org.nmdp.ngs.reads.MutationStrategy;
+import org.nmdp.ngs.reads.ParallelGeneratePairedEndReads;
 import org.nmdp.ngs.reads.QualityStrategy;
 
 import org.nmdp.ngs.reads.coverage.MeanCoverageStrategy;
@@ -75,6 +81,7 @@ import org.nmdp.ngs.reads.mutation.IndelMutationStrategy;
 import org.nmdp.ngs.reads.mutation.InsertionMutationStrategy;
 import org.nmdp.ngs.reads.mutation.SubstitutionMutationStrategy;
 
+import org.nmdp.ngs.reads.quality.EmpiricalQualityStrategy;
 import org.nmdp.ngs.reads.quality.RealDistributionQualityStrategy;
 import org.nmdp.ngs.reads.quality.ScoreFunctionQualityStrategy;
 import org.nmdp.ngs.reads.quality.ScoreFunctions;
@@ -88,12 +95,14 @@ public final class GeneratePairedEndReads implements Callable<Integer> {
     private final File firstReadFile;
     private final File secondReadFile;
     private final RandomGenerator random;
-    private final RealDistribution length;
-    private final RealDistribution insertSize;
-    private final QualityStrategy quality;
+    private final int threads;
+    private final int batchSize;
+    private final Function<? super RandomGenerator, ? extends RealDistribution> length;
+    private final Function<? super RandomGenerator, ? extends RealDistribution> insertSize;
+    private final Function<? super RandomGenerator, ? extends QualityStrategy> quality;
     private final CoverageStrategy coverage;
     private final double mutationRate;
-    private final MutationStrategy mutation;
+    private final Function<? super RandomGenerator, ? extends MutationStrategy> mutation;
 
     private static final double DEFAULT_MEAN_LENGTH = 60.0d;
     private static final double DEFAULT_LENGTH_VARIATION = 10.0d;
@@ -155,6 +164,61 @@ public final class GeneratePairedEndReads implements Callable<Integer> {
         this.firstReadFile = firstReadFile;
         this.secondReadFile = secondReadFile;
         this.random = random;
+        this.threads = 0;
+        this.batchSize = ParallelGeneratePairedEndReads.DEFAULT_BATCH_SIZE;
+        this.length = Functions.constant(length);
+        this.insertSize = Functions.constant(insertSize);
+        this.quality = Functions.constant(quality);
+        this.coverage = coverage;
+        this.mutationRate = mutationRate;
+        this.mutation = Functions.constant(mutation);
+    }
+
+    /**
+     * Generate paired-end next generation sequencing (NGS/HTS) reads in parallel.
+     *
+     * @param referenceFile reference file, if any
+     * @param firstReadFile first read file, must not be null
+     * @param secondReadFile second read file, must not be null
+     * @param random random generator for per-reference seeds, must not be null
+     * @param threads number of worker threads, must be at least one
+     * @param batchSize number of read pair attempts per batch, must be at least one
+     * @param length length distribution function, must not be null
+     * @param insertSize insert size distribution function, must not be null
+     * @param quality quality strategy function, must not be null
+     * @param coverage coverage strategy, must not be null
+     * @param mutationRate mutation rate
+     * @param mutation mutation strategy function, must not be null
+     */
+    public GeneratePairedEndReads(final File referenceFile,
+                                  final File firstReadFile,
+                                  final File secondReadFile,
+                                  final RandomGenerator random,
+                                  final int threads,
+                                  final int batchSize,
+                                  final Function<? super RandomGenerator, ? extends RealDistribution> length,
+                                  final Function<? super RandomGenerator, ? extends RealDistribution> insertSize,
+                                  final Function<? super RandomGenerator, ? extends QualityStrategy> quality,
+                                  final CoverageStrategy coverage,
+                                  final double mutationRate,
+                                  final Function<? super RandomGenerator, ? extends MutationStrategy> mutation) {
+
+        checkNotNull(firstReadFile);
+        checkNotNull(secondReadFile);
+        checkNotNull(random);
+        checkArgument(threads > 0, "threads must be at least one");
+        checkArgument(batchSize > 0, "batchSize must be at least one");
+        checkNotNull(length);
+        checkNotNull(insertSize);
+        checkNotNull(quality);
+        checkNotNull(coverage);
+        checkNotNull(mutation);
+        this.referenceFile = referenceFile;
+        this.firstReadFile = firstReadFile;
+        this.secondReadFile = secondReadFile;
+        this.random = random;
+        this.threads = threads;
+        this.batchSize = batchSize;
         this.length = length;
         this.insertSize = insertSize;
         this.quality = quality;
@@ -175,33 +239,17 @@ public final class GeneratePairedEndReads implements Callable<Integer> {
             // since writes append to each output file, they must be deleted first
             firstReadFile.delete();
             secondReadFile.delete();
+            firstWriter = writer(firstReadFile, true);
+            secondWriter = writer(secondReadFile, true);
 
             SequenceIterator sequences = SeqIOTools.readFastaDNA(reader);
             while (sequences.hasNext()) {
                 Sequence sequence = sequences.nextSequence();
-                try {
-                    firstWriter = writer(firstReadFile, true);
-                    secondWriter = writer(secondReadFile, true);
-
-                    new org.nmdp.ngs.reads.GeneratePairedEndReads(sequence, FastqVariant.FASTQ_SANGER, random, length, insertSize, quality, coverage, mutationRate, mutation, firstWriter, secondWriter, new SangerFastqWriter()).run();
+                if (threads > 0) {
+                    new ParallelGeneratePairedEndReads(sequence, FastqVariant.FASTQ_SANGER, random.nextLong(), threads, batchSize, length, insertSize, quality, coverage, mutationRate, mutation, firstWriter, secondWriter, new SangerFastqWriter()).run();
                 }
-                catch (IOException e) {
-                    e.printStackTrace();
-                    System.exit(-1);
-                }
-                finally {
-                    try {
-                        firstWriter.flush();
-                    }
-                    catch (Exception e) {
-                        // ignore
-                    }
-                    try {
-                        secondWriter.flush();
-                    }
-                    catch (Exception e) {
-                        // ignore
-                    }
+                else {
+                    new org.nmdp.ngs.reads.GeneratePairedEndReads(sequence, FastqVariant.FASTQ_SANGER, random, length.apply(random), insertSize.apply(random), quality.apply(random), coverage, mutationRate, mutation.apply(random), firstWriter, secondWriter, new SangerFastqWriter()).run();
                 }
             }
 
@@ -247,7 +295,8 @@ public final class GeneratePairedEndReads implements Callable<Integer> {
         DoubleArgument insertSizeVariation = new DoubleArgument("k", "insert-size-variation", "insert size variation, default " + DEFAULT_INSERT_SIZE_VARIATION, false);
         IntegerArgument minimumCoverage = new IntegerArgument("c", "minimum-coverage", "minimum coverage, default " + DEFAULT_MINIMUM_COVERAGE, false);
         IntegerArgument meanCoverage = new IntegerArgument("g", "mean-coverage", "mean coverage", false);
-        StringArgument qualityType = new StringArgument("u", "quality", "quality strategy type { illumina, normal }, default normal", false);
+        StringArgument qualityType = new StringArgument("u", "quality", "quality strategy type { illumina, normal, empirical }, default normal", false);
+        FileArgument qualityProfile = new FileArgument("P", "quality-profile", "FASTQ file to learn empirical quality score distributions from, required for empirical quality", false);
         DoubleArgument meanQualityWeight = new DoubleArgument("w", "mean-quality-weight", "mean quality weight, default " + DEFAULT_MEAN_QUALITY_WEIGHT, false);
         DoubleArgument qualityWeightVariation = new DoubleArgument("t", "quality-weight-variation", "quality weight variation, default " + DEFAULT_QUALITY_WEIGHT_VARIATION, false);
         DoubleArgument meanQuality = new DoubleArgument("q", "mean-quality", "mean quality, default " + DEFAULT_MEAN_QUALITY, false);
@@ -262,12 +311,15 @@ public final class GeneratePairedEndReads implements Callable<Integer> {
         DoubleArgument ambiguousRate = new DoubleArgument("b", "ambiguous-rate", "ambiguous substitution rate, default " + DEFAULT_AMBIGUOUS_RATE, false);
         DoubleArgument mutationRate = new DoubleArgument("n", "mutation-rate", "mutation rate, default " + DEFAULT_MUTATION_RATE, false);
         IntegerArgument seed = new IntegerArgument("z", "seed", "random number seed, default relates to current time", false);
+        IntegerArgument threads = new IntegerArgument("T", "threads", "number of read simulation threads, reads are generated sequentially if not specified", false);
+        IntegerArgument batchSize = new IntegerArgument("B", "batch-size", "number of read pair attempts per batch with threads, default " + ParallelGeneratePairedEndReads.DEFAULT_BATCH_SIZE, false);
+        IntegerArgument compressionThreads = new IntegerArgument("Z", "compression-threads", "number of gzip compression threads, default " + Compression.DEFAULT_THREADS, false);
 
         ArgumentList arguments = new ArgumentList(about, help, referenceFile, firstReadFile, secondReadFile, meanLength, lengthVariation,
                                                   meanInsertSize, insertSizeVariation, minimumCoverage, meanCoverage,
-                                                  qualityType, meanQualityWeight, qualityWeightVariation, meanQuality, qualityVariation,
+                                                  qualityType, qualityProfile, meanQualityWeight, qualityWeightVariation, meanQuality, qualityVariation,
                                                   mutationType, extendInsertionRate, maximumInsertionLength, insertionRate, deletionRate,
-                                                  substitutionRate, indelRate, ambiguousRate, mutationRate, seed);
+                                                  substitutionRate, indelRate, ambiguousRate, mutationRate, seed, threads, batchSize, compressionThreads);
 
         CommandLine commandLine = new CommandLine(args);
 
@@ -282,14 +334,27 @@ public final class GeneratePairedEndReads implements Callable<Integer> {
                 Usage.usage(USAGE, null, commandLine, arguments, System.out);
                 System.exit(0);
             }
+            Compression.setThreads(compressionThreads.getValue(Compression.DEFAULT_THREADS));
 
             RandomGenerator random = seed.wasFound() ? new MersenneTwister(seed.getValue()) : new MersenneTwister();
 
-            double lv = Math.max(NO_VARIATION, lengthVariation.getValue(DEFAULT_LENGTH_VARIATION));
-            RealDistribution length = new NormalDistribution(random, meanLength.getValue(DEFAULT_MEAN_LENGTH), lv, NormalDistribution.DEFAULT_INVERSE_ABSOLUTE_ACCURACY);
-
-            double isv = Math.max(NO_VARIATION, insertSizeVariation.getValue(DEFAULT_INSERT_SIZE_VARIATION));
-            RealDistribution insertSize = new NormalDistribution(random, meanInsertSize.getValue(DEFAULT_MEAN_INSERT_SIZE), isv, NormalDistribution.DEFAULT_INVERSE_ABSOLUTE_ACCURACY);
+            final double ml = meanLength.getValue(DEFAULT_MEAN_LENGTH);
+            final double lv = Math.max(NO_VARIATION, lengthVariation.getValue(DEFAULT_LENGTH_VARIATION));
+            Function<RandomGenerator, RealDistribution> length = new Function<RandomGenerator, RealDistribution>() {
+                    @Override
+                    public RealDistribution apply(final RandomGenerator randomGenerator) {
+                        return new NormalDistribution(randomGenerator, ml, lv, NormalDistribution.DEFAULT_INVERSE_ABSOLUTE_ACCURACY);
+                    }
+                };
+
+            final double mis = meanInsertSize.getValue(DEFAULT_MEAN_INSERT_SIZE);
+            final double isv = Math.max(NO_VARIATION, insertSizeVariation.getValue(DEFAULT_INSERT_SIZE_VARIATION));
+            Function<RandomGenerator, RealDistribution> insertSize = new Function<RandomGenerator, RealDistribution>() {
+                    @Override
+                    public RealDistribution apply(final RandomGenerator randomGenerator) {
+                        return new NormalDistribution(randomGenerator, mis, isv, NormalDistribution.DEFAULT_INVERSE_ABSOLUTE_ACCURACY);
+                    }
+                };
 
             CoverageStrategy coverage = DEFAULT_COVERAGE;
             if (minimumCoverage.wasFound()) {
@@ -299,48 +364,86 @@ public final class GeneratePairedEndReads implements Callable<Integer> {
                 coverage = new MeanCoverageStrategy(meanCoverage.getValue());
             }
 
-            QualityStrategy quality = null;
-            if ("illumina".equals(qualityType.getValue())) {
-                RealDistribution realDistribution = new NormalDistribution(random, meanQualityWeight.getValue(DEFAULT_MEAN_QUALITY_WEIGHT), qualityWeightVariation.getValue(DEFAULT_QUALITY_WEIGHT_VARIATION), NormalDistribution.DEFAULT_INVERSE_ABSOLUTE_ACCURACY);
-                quality = new ScoreFunctionQualityStrategy(realDistribution, ScoreFunctions.illumina());
+            final EmpiricalQualityStrategy empirical;
+            if ("empirical".equals(qualityType.getValue())) {
+                if (!qualityProfile.wasFound()) {
+                    throw new IllegalArgumentException("-P, --quality-profile is required for empirical quality");
+                }
+                try (InputStream inputStream = Compression.inputStream(qualityProfile.getValue())) {
+                    empirical = EmpiricalQualityStrategy.learn(inputStream, random);
+                }
             }
             else {
-                RealDistribution realDistribution = new NormalDistribution(random, meanQuality.getValue(DEFAULT_MEAN_QUALITY), qualityVariation.getValue(DEFAULT_QUALITY_VARIATION), NormalDistribution.DEFAULT_INVERSE_ABSOLUTE_ACCURACY);
-                quality = new RealDistributionQualityStrategy(realDistribution);
+                empirical = null;
             }
+            final boolean illumina = "illumina".equals(qualityType.getValue());
+            final double mqw = meanQualityWeight.getValue(DEFAULT_MEAN_QUALITY_WEIGHT);
+            final double qwv = qualityWeightVariation.getValue(DEFAULT_QUALITY_WEIGHT_VARIATION);
+            final double mq = meanQuality.getValue(DEFAULT_MEAN_QUALITY);
+            final double qv = qualityVariation.getValue(DEFAULT_QUALITY_VARIATION);
+            Function<RandomGenerator, QualityStrategy> quality = new Function<RandomGenerator, QualityStrategy>() {
+                    @Override
+                    public QualityStrategy apply(final RandomGenerator randomGenerator) {
+                        if (empirical != null) {
+                            return empirical.withRandom(randomGenerator);
+                        }
+                        if (illumina) {
+                            RealDistribution realDistribution = new NormalDistribution(randomGenerator, mqw, qwv, NormalDistribution.DEFAULT_INVERSE_ABSOLUTE_ACCURACY);
+                            return new ScoreFunctionQualityStrategy(realDistribution, ScoreFunctions.illumina());
+                        }
+                        RealDistribution realDistribution = new NormalDistribution(randomGenerator, mq, qv, NormalDistribution.DEFAULT_INVERSE_ABSOLUTE_ACCURACY);
+                        return new RealDistributionQualityStrategy(realDistribution);
+                    }
+                };
+
+            final String mt = mutationType.wasFound() ? mutationType.getValue() : null;
+            final double eir = extendInsertionRate.getValue(DEFAULT_EXTEND_INSERTION_RATE);
+            final int mil = maximumInsertionLength.getValue(DEFAULT_MAXIMUM_INSERTION_LENGTH);
+            final double ir = insertionRate.getValue(DEFAULT_INSERTION_RATE);
+            final double dr = deletionRate.getValue(DEFAULT_DELETION_RATE);
+            final double sr = substitutionRate.getValue(DEFAULT_SUBSTITUTION_RATE);
+            final double idr = indelRate.getValue(DEFAULT_INDEL_RATE);
+            final double ar = ambiguousRate.getValue(DEFAULT_AMBIGUOUS_RATE);
+            Function<RandomGenerator, MutationStrategy> mutation = new Function<RandomGenerator, MutationStrategy>() {
+                    @Override
+                    public MutationStrategy apply(final RandomGenerator randomGenerator) {
+                        if ("substitution".equals(mt)) {
+                            return new SubstitutionMutationStrategy(randomGenerator);
+                        }
+                        else if ("ambiguous".equals(mt)) {
+                            return new AmbiguousSubstitutionMutationStrategy();
+                        }
+                        else if ("insertion".equals(mt)) {
+                            return new InsertionMutationStrategy(randomGenerator, eir, mil);
+                        }
+                        else if ("deletion".equals(mt)) {
+                            return new DeletionMutationStrategy();
+                        }
+                        else if ("indel".equals(mt)) {
+                            InsertionMutationStrategy insertion = new InsertionMutationStrategy(randomGenerator, ir, mil);
+                            DeletionMutationStrategy deletion = new DeletionMutationStrategy();
+                            return new IndelMutationStrategy(randomGenerator, insertion, ir, deletion, dr);
+                        }
+                        else if ("composite".equals(mt)) {
+                            SubstitutionMutationStrategy substitution = new SubstitutionMutationStrategy(randomGenerator);
+                            InsertionMutationStrategy insertion = new InsertionMutationStrategy(randomGenerator, ir, mil);
+                            DeletionMutationStrategy deletion = new DeletionMutationStrategy();
+                            IndelMutationStrategy indel = new IndelMutationStrategy(randomGenerator, insertion, ir, deletion, dr);
+                            AmbiguousSubstitutionMutationStrategy ambiguous = new AmbiguousSubstitutionMutationStrategy();
+                            return new CompositeMutationStrategy(randomGenerator, substitution, sr, indel, idr, ambiguous, ar);
+                        }
+                        return DEFAULT_MUTATION;
+                    }
+                };
 
-            MutationStrategy mutation = DEFAULT_MUTATION;
-            if (mutationType.wasFound()) {
-                if ("substitution".equals(mutationType.getValue())) {
-                    mutation = new SubstitutionMutationStrategy(random);
-                }
-                else if ("ambiguous".equals(mutationType.getValue())) {
-                    mutation = new AmbiguousSubstitutionMutationStrategy();
-                }
-                else if ("insertion".equals(mutationType.getValue())) {
-                    mutation = new InsertionMutationStrategy(random, extendInsertionRate.getValue(DEFAULT_EXTEND_INSERTION_RATE), maximumInsertionLength.getValue(DEFAULT_MAXIMUM_INSERTION_LENGTH));
-                }
-                else if ("deletion".equals(mutationType.getValue())) {
-                    mutation = new DeletionMutationStrategy();
-                }
-                else if ("indel".equals(mutationType.getValue())) {
-                    InsertionMutationStrategy insertion = new InsertionMutationStrategy(random, insertionRate.getValue(DEFAULT_INSERTION_RATE), maximumInsertionLength.getValue(DEFAULT_MAXIMUM_INSERTION_LENGTH));
-                    DeletionMutationStrategy deletion = new DeletionMutationStrategy();
-                    mutation = new IndelMutationStrategy(random, insertion, insertionRate.getValue(DEFAULT_INSERTION_RATE), deletion, deletionRate.getValue(DEFAULT_DELETION_RATE));
-                }
-                else if ("composite".equals(mutationType.getValue())) {
-                    SubstitutionMutationStrategy substitution = new SubstitutionMutationStrategy(random);
-                    InsertionMutationStrategy insertion = new InsertionMutationStrategy(random, insertionRate.getValue(DEFAULT_INSERTION_RATE), maximumInsertionLength.getValue(DEFAULT_MAXIMUM_INSERTION_LENGTH));
-                    DeletionMutationStrategy deletion = new DeletionMutationStrategy();
-                    IndelMutationStrategy indel = new IndelMutationStrategy(random, insertion, insertionRate.getValue(DEFAULT_INSERTION_RATE), deletion, deletionRate.getValue(DEFAULT_DELETION_RATE));
-                    AmbiguousSubstitutionMutationStrategy ambiguous = new AmbiguousSubstitutionMutationStrategy();
-                    mutation = new CompositeMutationStrategy(random, substitution, substitutionRate.getValue(DEFAULT_SUBSTITUTION_RATE), indel, indelRate.getValue(DEFAULT_INDEL_RATE), ambiguous, ambiguousRate.getValue(DEFAULT_AMBIGUOUS_RATE));
-                }
+            if (threads.wasFound()) {
+                generatePairedEndReads = new GeneratePairedEndReads(referenceFile.getValue(), firstReadFile.getValue(), secondReadFile.getValue(), random, threads.getValue(), batchSize.getValue(ParallelGeneratePairedEndReads.DEFAULT_BATCH_SIZE), length, insertSize, quality, coverage, mutationRate.getValue(DEFAULT_MUTATION_RATE), mutation);
+            }
+            else {
+                generatePairedEndReads = new GeneratePairedEndReads(referenceFile.getValue(), firstReadFile.getValue(), secondReadFile.getValue(), random, length.apply(random), insertSize.apply(random), quality.apply(random), coverage, mutationRate.getValue(DEFAULT_MUTATION_RATE), mutation.apply(random));
             }
-
-            generatePairedEndReads = new GeneratePairedEndReads(referenceFile.getValue(), firstReadFile.getValue(), secondReadFile.getValue(), random, length, insertSize, quality, coverage, mutationRate.getValue(DEFAULT_MUTATION_RATE), mutation);
         }
-        catch (CommandLineParseException e) {
+        catch (CommandLineParseException | IllegalArgumentException e) {
             if (about.wasFound()) {
                 About.about(System.out);
                 System.exit(0);
@@ -352,6 +455,10 @@ public final class GeneratePairedEndReads implements Callable<Integer> {
             Usage.usage(USAGE, e, commandLine, arguments, System.err);
             System.exit(-1);
         }
+        catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
         try {
             System.exit(generatePairedEndReads.call());
         }
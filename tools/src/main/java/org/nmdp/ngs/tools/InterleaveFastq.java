@@ -24,19 +24,16 @@ package org.nmdp.ngs.tools;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import static org.dishevelled.compress.Readers.reader;
-import static org.dishevelled.compress.Writers.writer;
+import static org.nmdp.ngs.tools.Compression.inputStream;
+import static org.nmdp.ngs.tools.Compression.outputStream;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.PrintWriter;
+import java.io.InputStream;
 import java.io.IOException;
 
 import java.util.concurrent.Callable;
 
 import org.biojava.bio.program.fastq.Fastq;
-import org.biojava.bio.program.fastq.FastqWriter;
-import org.biojava.bio.program.fastq.SangerFastqWriter;
 
 import org.dishevelled.commandline.ArgumentList;
 import org.dishevelled.commandline.CommandLine;
@@ -46,6 +43,9 @@ import org.dishevelled.commandline.Switch;
 import org.dishevelled.commandline.Usage;
 
 import org.dishevelled.commandline.argument.FileArgument;
+import org.dishevelled.commandline.argument.IntegerArgument;
+
+import org.nmdp.ngs.reads.fastq.FastqRecordWriter;
 
 import org.nmdp.ngs.reads.paired.PairedEndAdapter;
 import org.nmdp.ngs.reads.paired.PairedEndFastqReader;
@@ -83,38 +83,38 @@ public final class InterleaveFastq implements Callable<Integer> {
 
     @Override
     public Integer call() throws Exception {
-        BufferedReader firstReader = null;
-        BufferedReader secondReader = null;
-        PrintWriter pairedWriter = null;
-        PrintWriter unpairedWriter = null;
+        InputStream firstInputStream = null;
+        InputStream secondInputStream = null;
+        FastqRecordWriter pairedWriter = null;
+        FastqRecordWriter unpairedWriter = null;
         try {
-            firstReader = reader(firstFastqFile);
-            secondReader = reader(secondFastqFile);
-            pairedWriter = writer(pairedFile);
-            unpairedWriter = writer(unpairedFile);
-
-            final PrintWriter pw = pairedWriter;
-            final PrintWriter uw = unpairedWriter;
+            firstInputStream = inputStream(firstFastqFile);
+            secondInputStream = inputStream(secondFastqFile);
+            pairedWriter = new FastqRecordWriter(outputStream(pairedFile));
+            unpairedWriter = new FastqRecordWriter(outputStream(unpairedFile));
 
-            final FastqWriter pairedFastqWriter = new SangerFastqWriter();
-            final FastqWriter unpairedFastqWriter = new SangerFastqWriter();
+            final FastqRecordWriter pw = pairedWriter;
+            final FastqRecordWriter uw = unpairedWriter;
 
-            PairedEndFastqReader.streamPaired(firstReader, secondReader, new PairedEndAdapter() {
+            PairedEndFastqReader.streamPaired(firstInputStream, secondInputStream, new PairedEndAdapter() {
                     @Override
                     public void paired(final Fastq left, final Fastq right) {
-                        try {
-                            pairedFastqWriter.append(pw, left);
-                            pairedFastqWriter.append(pw, right);
-                        }
-                        catch (IOException e) {
-                            throw new RuntimeException("could not write paired end reads", e);
+                        // paired is called from both reader threads
+                        synchronized (pw) {
+                            try {
+                                pw.write(left);
+                                pw.write(right);
+                            }
+                            catch (IOException e) {
+                                throw new RuntimeException("could not write paired end reads", e);
+                            }
                         }
                     }
 
                     @Override
                     public void unpaired(final Fastq unpaired) {
                         try {
-                            unpairedFastqWriter.append(uw, unpaired);
+                            uw.write(unpaired);
                         }
                         catch (IOException e) {
                             throw new RuntimeException("could not write unpaired read", e);
@@ -126,13 +126,13 @@ public final class InterleaveFastq implements Callable<Integer> {
         }
         finally {
             try {
-                firstReader.close();
+                firstInputStream.close();
             }
             catch (Exception e) {
                 // ignore
             }
             try {
-                secondReader.close();
+                secondInputStream.close();
             }
             catch (Exception e) {
                 // ignore
@@ -165,8 +165,9 @@ public final class InterleaveFastq implements Callable<Integer> {
         FileArgument secondFastqFile = new FileArgument("2", "second-fastq-file", "second FASTQ input file", true);
         FileArgument pairedFile = new FileArgument("p", "paired-file", "output interleaved paired FASTQ file", true);
         FileArgument unpairedFile = new FileArgument("u", "unpaired-file", "output unpaired FASTQ file", true);
+        IntegerArgument compressionThreads = new IntegerArgument("Z", "compression-threads", "number of gzip compression threads, default " + Compression.DEFAULT_THREADS, false);
 
-        ArgumentList arguments = new ArgumentList(about, help, firstFastqFile, secondFastqFile, pairedFile, unpairedFile);
+        ArgumentList arguments = new ArgumentList(about, help, firstFastqFile, secondFastqFile, pairedFile, unpairedFile, compressionThreads);
         CommandLine commandLine = new CommandLine(args);
 
         InterleaveFastq interleaveFastq = null;
@@ -180,9 +181,10 @@ public final class InterleaveFastq implements Callable<Integer> {
                 Usage.usage(USAGE, null, commandLine, arguments, System.out);
                 System.exit(0);
             }
+            Compression.setThreads(compressionThreads.getValue(Compression.DEFAULT_THREADS));
             interleaveFastq = new InterleaveFastq(firstFastqFile.getValue(), secondFastqFile.getValue(), pairedFile.getValue(), unpairedFile.getValue());
         }
-        catch (CommandLineParseException e) {
+        catch (CommandLineParseException | IllegalArgumentException e) {
             if (about.wasFound()) {
                 About.about(System.out);
                 System.exit(0);
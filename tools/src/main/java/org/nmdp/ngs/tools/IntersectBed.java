@@ -24,8 +24,8 @@ package org.nmdp.ngs.tools;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import static org.dishevelled.compress.Readers.reader;
-import static org.dishevelled.compress.Writers.writer;
+import static org.nmdp.ngs.tools.Compression.reader;
+import static org.nmdp.ngs.tools.Compression.writer;
 
 import java.io.BufferedReader;
 import java.io.File;
@@ -56,6 +56,7 @@ import org.dishevelled.commandline.Switch;
 import org.dishevelled.commandline.Usage;
 
 import org.dishevelled.commandline.argument.FileArgument;
+import org.dishevelled.commandline.argument.IntegerArgument;
 import org.dishevelled.commandline.argument.StringArgument;
 
 import org.nmdp.ngs.align.BedListener;
@@ -362,8 +363,9 @@ public final class IntersectBed implements Callable<Integer> {
         FileArgument bInputFile = new FileArgument("b", "b-input-file", "B input BED file", true);
         FileArgument outputFile = new FileArgument("o", "output-file", "output BED file, default stdout", false);
         StringArgument strategy = new StringArgument("s", "strategy", "strategy { range-list, range-set, centered-range-tree, r-tree, r-star-tree }, default range-set", false);
+        IntegerArgument compressionThreads = new IntegerArgument("Z", "compression-threads", "number of gzip compression threads, default " + Compression.DEFAULT_THREADS, false);
 
-        ArgumentList arguments = new ArgumentList(help, aInputFile, bInputFile, outputFile, strategy);
+        ArgumentList arguments = new ArgumentList(help, aInputFile, bInputFile, outputFile, strategy, compressionThreads);
         CommandLine commandLine = new CommandLine(args);
 
         IntersectBed intersectBed = null;
@@ -374,9 +376,10 @@ public final class IntersectBed implements Callable<Integer> {
                 Usage.usage(USAGE, null, commandLine, arguments, System.out);
                 System.exit(0);
             }
+            Compression.setThreads(compressionThreads.getValue(Compression.DEFAULT_THREADS));
             intersectBed = new IntersectBed(aInputFile.getValue(), bInputFile.getValue(), outputFile.getValue(), strategies.get(strategy.getValue(DEFAULT_STRATEGY)));
         }
-        catch (CommandLineParseException | NullPointerException e) {
+        catch (CommandLineParseException | IllegalArgumentException | NullPointerException e) {
             if (help.wasFound()) {
                 Usage.usage(USAGE, null, commandLine, arguments, System.out);
                 System.exit(0);
@@ -24,8 +24,8 @@ package org.nmdp.ngs.tools;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import static org.dishevelled.compress.Readers.reader;
-import static org.dishevelled.compress.Writers.writer;
+import static org.nmdp.ngs.tools.Compression.reader;
+import static org.nmdp.ngs.tools.Compression.writer;
 
 import java.io.BufferedReader;
 import java.io.File;
@@ -45,6 +45,7 @@ import org.dishevelled.commandline.Switch;
 import org.dishevelled.commandline.Usage;
 
 import org.dishevelled.commandline.argument.FileArgument;
+import org.dishevelled.commandline.argument.IntegerArgument;
 
 import org.nmdp.ngs.align.BedListener;
 import org.nmdp.ngs.align.BedReader;
@@ -161,8 +162,9 @@ public final class LiftoverBed implements Callable<Integer> {
         FileArgument refBedFile = new FileArgument("r", "ref-bed-file", "reference BED file", true);
         FileArgument sourceBedFile = new FileArgument("i", "source-bed-file", "input BED file, default stdin", false);
         FileArgument targetBedFile = new FileArgument("o", "target-bed-file", "output BED file, default stdout", false);
+        IntegerArgument compressionThreads = new IntegerArgument("Z", "compression-threads", "number of gzip compression threads, default " + Compression.DEFAULT_THREADS, false);
 
-        ArgumentList arguments = new ArgumentList(about, help, refBedFile, sourceBedFile, targetBedFile);
+        ArgumentList arguments = new ArgumentList(about, help, refBedFile, sourceBedFile, targetBedFile, compressionThreads);
         CommandLine commandLine = new CommandLine(args);
 
         LiftoverBed liftoverBed = null;
@@ -176,9 +178,10 @@ public final class LiftoverBed implements Callable<Integer> {
                 Usage.usage(USAGE, null, commandLine, arguments, System.out);
                 System.exit(0);
             }
+            Compression.setThreads(compressionThreads.getValue(Compression.DEFAULT_THREADS));
             liftoverBed = new LiftoverBed(refBedFile.getValue(), sourceBedFile.getValue(), targetBedFile.getValue());
         }
-        catch (CommandLineParseException e) {
+        catch (CommandLineParseException | IllegalArgumentException e) {
             if (about.wasFound()) {
                 About.about(System.out);
                 System.exit(0);
@@ -24,11 +24,11 @@ package org.nmdp.ngs.tools;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import static org.dishevelled.compress.Readers.reader;
-import static org.dishevelled.compress.Writers.writer;
+import static org.nmdp.ngs.tools.Compression.inputStream;
+import static org.nmdp.ngs.tools.Compression.outputStream;
 
 import java.io.File;
-import java.io.PrintWriter;
+import java.io.InputStream;
 import java.io.IOException;
 
 import java.util.List;
@@ -37,12 +37,6 @@ import java.util.concurrent.Callable;
 
 import com.google.common.collect.ImmutableList;
 
-import org.biojava.bio.program.fastq.Fastq;
-import org.biojava.bio.program.fastq.FastqWriter;
-import org.biojava.bio.program.fastq.SangerFastqWriter;
-import org.biojava.bio.program.fastq.SangerFastqReader;
-import org.biojava.bio.program.fastq.StreamListener;
-
 import org.dishevelled.commandline.ArgumentList;
 import org.dishevelled.commandline.CommandLine;
 import org.dishevelled.commandline.CommandLineParseException;
@@ -52,6 +46,12 @@ import org.dishevelled.commandline.Usage;
 
 import org.dishevelled.commandline.argument.FileArgument;
 import org.dishevelled.commandline.argument.FileListArgument;
+import org.dishevelled.commandline.argument.IntegerArgument;
+
+import org.nmdp.ngs.reads.fastq.FastqRecord;
+import org.nmdp.ngs.reads.fastq.FastqRecordListener;
+import org.nmdp.ngs.reads.fastq.FastqRecordReader;
+import org.nmdp.ngs.reads.fastq.FastqRecordWriter;
 
 /**
  * Merge two or more files in FASTQ format.
@@ -59,7 +59,6 @@ import org.dishevelled.commandline.argument.FileListArgument;
 public final class MergeFastq implements Callable<Integer> {
     private final List<File> inputFastqFiles;
     private final File outputFastqFile;
-    private final FastqWriter fastqWriter = new SangerFastqWriter();
     private static final String USAGE = "ngs-merge-fastq -i foo_1.fq.gz,bar_1.fq.gz [args]";
 
 
@@ -78,14 +77,15 @@ public final class MergeFastq implements Callable<Integer> {
 
     @Override
     public Integer call() throws Exception {
-        PrintWriter writer = null;
+        FastqRecordWriter writer = null;
         try {
-            writer = writer(outputFastqFile);
+            writer = new FastqRecordWriter(outputStream(outputFastqFile));
 
-            Append append = new Append(fastqWriter, writer);
-            SangerFastqReader fastqReader = new SangerFastqReader();
+            Append append = new Append(writer);
             for (File inputFastqFile : inputFastqFiles) {
-                fastqReader.stream(reader(inputFastqFile), append);
+                try (InputStream inputStream = inputStream(inputFastqFile)) {
+                    FastqRecordReader.stream(inputStream, append);
+                }
             }
 
             return 0;
@@ -103,23 +103,22 @@ public final class MergeFastq implements Callable<Integer> {
     /**
      * Append.
      */
-    private static final class Append implements StreamListener {
-        private final FastqWriter fastqWriter;
-        private final PrintWriter writer;
+    private static final class Append implements FastqRecordListener {
+        private final FastqRecordWriter writer;
 
-        private Append(final FastqWriter fastqWriter, final PrintWriter writer) {
-            this.fastqWriter = fastqWriter;
+        private Append(final FastqRecordWriter writer) {
             this.writer = writer;
         }
 
         @Override
-        public void fastq(final Fastq fastq) {
+        public boolean record(final FastqRecord record) {
             try {
-                fastqWriter.append(writer, fastq);
+                writer.write(record);
             }
             catch (IOException e) {
-                // todo:  rethrow?
+                throw new RuntimeException("could not write FASTQ", e);
             }
+            return true;
         }
     }
 
@@ -134,8 +133,9 @@ public final class MergeFastq implements Callable<Integer> {
         Switch help = new Switch("h", "help", "display help message");
         FileListArgument inputFastqFiles = new FileListArgument("i", "input-fastq-files", "list of FASTQ input files", true);
         FileArgument outputFastqFile = new FileArgument("o", "output-fastq-file", "FASTQ output file, default stdout", false);
+        IntegerArgument compressionThreads = new IntegerArgument("Z", "compression-threads", "number of gzip compression threads, default " + Compression.DEFAULT_THREADS, false);
 
-        ArgumentList arguments = new ArgumentList(about, help, inputFastqFiles, outputFastqFile);
+        ArgumentList arguments = new ArgumentList(about, help, inputFastqFiles, outputFastqFile, compressionThreads);
         CommandLine commandLine = new CommandLine(args);
 
         MergeFastq mergeFastq = null;
@@ -149,9 +149,10 @@ public final class MergeFastq implements Callable<Integer> {
                 Usage.usage(USAGE, null, commandLine, arguments, System.out);
                 System.exit(0);
             }
+            Compression.setThreads(compressionThreads.getValue(Compression.DEFAULT_THREADS));
             mergeFastq = new MergeFastq(inputFastqFiles.getValue(), outputFastqFile.getValue());
         }
-        catch (CommandLineParseException e) {
+        catch (CommandLineParseException | IllegalArgumentException e) {
             if (about.wasFound()) {
                 About.about(System.out);
                 System.exit(0);
@@ -0,0 +1,250 @@
+/*
+
+    ngs-tools  Next generation sequencing (NGS/HTS) command line tools.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.tools;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import java.util.zip.GZIPOutputStream;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Parallel block gzip output stream, in the manner of pigz.
+ *
+ * <p>
+ * Bytes are collected into fixed size blocks, each of which is compressed on a worker thread into a
+ * standalone gzip member.  Members are written to the underlying output stream in order, so the output
+ * is a valid concatenated gzip stream.  At most twice as many blocks as threads are held in memory.
+ * </p>
+ *
+ * <p>
+ * Flushing this output stream writes any blocks already compressed and flushes the underlying output
+ * stream, but does not end the current block; blocks end only when full or when this output stream
+ * is closed, so flushing per line does not cost compression.
+ * </p>
+ */
+final class ParallelGzipOutputStream extends OutputStream {
+    /** Default block size, in bytes. */
+    static final int DEFAULT_BLOCK_SIZE = 131072;
+
+    /** Underlying output stream. */
+    private final OutputStream outputStream;
+
+    /** Block size. */
+    private final int blockSize;
+
+    /** Maximum number of blocks in flight. */
+    private final int maximumPending;
+
+    /** Compression executor. */
+    private final ExecutorService executor;
+
+    /** Compressed blocks in flight, in order. */
+    private final Deque<Future<byte[]>> pending = new ArrayDeque<Future<byte[]>>();
+
+    /** Current block. */
+    private byte[] block;
+
+    /** Number of bytes in the current block. */
+    private int count;
+
+    /** True if any block has been submitted. */
+    private boolean submitted;
+
+    /** True if this output stream has been closed. */
+    private boolean closed;
+
+
+    /**
+     * Create a new parallel block gzip output stream.
+     *
+     * @param outputStream underlying output stream, must not be null
+     * @param threads number of compression threads, must be at least one
+     */
+    ParallelGzipOutputStream(final OutputStream outputStream, final int threads) {
+        this(outputStream, threads, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Create a new parallel block gzip output stream.
+     *
+     * @param outputStream underlying output stream, must not be null
+     * @param threads number of compression threads, must be at least one
+     * @param blockSize block size, in bytes, must be at least one
+     */
+    ParallelGzipOutputStream(final OutputStream outputStream, final int threads, final int blockSize) {
+        checkNotNull(outputStream);
+        checkArgument(threads > 0, "threads must be at least one");
+        checkArgument(blockSize > 0, "blockSize must be at least one");
+        this.outputStream = outputStream;
+        this.blockSize = blockSize;
+        this.maximumPending = 2 * threads;
+        this.executor = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder().setDaemon(true).setNameFormat("gzip-%d").build());
+        this.block = new byte[blockSize];
+    }
+
+
+    @Override
+    public void write(final int b) throws IOException {
+        ensureOpen();
+        block[count++] = (byte) b;
+        if (count == blockSize) {
+            submit();
+        }
+    }
+
+    @Override
+    public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+        ensureOpen();
+        checkNotNull(bytes);
+        if (offset < 0 || length < 0 || offset + length > bytes.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        int position = offset;
+        int remaining = length;
+        while (remaining > 0) {
+            int n = Math.min(remaining, blockSize - count);
+            System.arraycopy(bytes, position, block, count, n);
+            count += n;
+            position += n;
+            remaining -= n;
+            if (count == blockSize) {
+                submit();
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        while (!pending.isEmpty() && pending.peekFirst().isDone()) {
+            drain();
+        }
+        outputStream.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            // always write at least one member, so that empty output is still valid gzip
+            if (count > 0 || !submitted) {
+                submit();
+            }
+            while (!pending.isEmpty()) {
+                drain();
+            }
+        }
+        finally {
+            closed = true;
+            executor.shutdownNow();
+            outputStream.close();
+        }
+    }
+
+    /**
+     * Submit the current block for compression, draining completed blocks as necessary
+     * to bound the number of blocks in flight.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    private void submit() throws IOException {
+        final byte[] data = block;
+        final int length = count;
+        pending.add(executor.submit(new Callable<byte[]>() {
+                @Override
+                public byte[] call() throws IOException {
+                    return compress(data, length);
+                }
+            }));
+        submitted = true;
+        block = new byte[blockSize];
+        count = 0;
+        while (pending.size() > maximumPending) {
+            drain();
+        }
+    }
+
+    /**
+     * Wait for the oldest block in flight and write it to the underlying output stream.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    private void drain() throws IOException {
+        Future<byte[]> future = pending.removeFirst();
+        try {
+            outputStream.write(future.get());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while compressing");
+        }
+        catch (ExecutionException e) {
+            throw new IOException("could not compress block", e.getCause());
+        }
+    }
+
+    /**
+     * Ensure this output stream is open.
+     *
+     * @throws IOException if this output stream has been closed
+     */
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("stream closed");
+        }
+    }
+
+    /**
+     * Compress the specified bytes into a standalone gzip member.
+     *
+     * @param data bytes to compress
+     * @param length number of bytes to compress
+     * @return the specified bytes compressed into a standalone gzip member
+     * @throws IOException if an I/O error occurs
+     */
+    static byte[] compress(final byte[] data, final int length) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(length / 2 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes, 8192)) {
+            gzip.write(data, 0, length);
+        }
+        return bytes.toByteArray();
+    }
+}
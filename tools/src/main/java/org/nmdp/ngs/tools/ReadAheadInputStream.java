@@ -0,0 +1,242 @@
+/*
+
+    ngs-tools  Next generation sequencing (NGS/HTS) command line tools.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.tools;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Input stream that reads ahead from an underlying input stream on a separate thread.
+ *
+ * <p>
+ * Two buffers are exchanged between the reading thread and the consumer, so that decompression
+ * of the next buffer overlaps with consumption of the current one.
+ * </p>
+ */
+final class ReadAheadInputStream extends InputStream {
+    /** Default buffer size, in bytes. */
+    static final int DEFAULT_BUFFER_SIZE = 65536;
+
+    /** Buffers filled by the reading thread. */
+    private final BlockingQueue<Buffer> full = new ArrayBlockingQueue<Buffer>(2);
+
+    /** Buffers returned by the consumer. */
+    private final BlockingQueue<Buffer> empty = new ArrayBlockingQueue<Buffer>(2);
+
+    /** Underlying input stream. */
+    private final InputStream inputStream;
+
+    /** Reading thread. */
+    private final Thread thread;
+
+    /** Current buffer, if any. */
+    private Buffer current;
+
+    /** Position in the current buffer. */
+    private int position;
+
+    /** True if the end of stream has been reached. */
+    private boolean eof;
+
+    /** True if this input stream has been closed. */
+    private boolean closed;
+
+
+    /**
+     * Create a new read ahead input stream.
+     *
+     * @param inputStream underlying input stream, must not be null
+     */
+    ReadAheadInputStream(final InputStream inputStream) {
+        this(inputStream, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Create a new read ahead input stream.
+     *
+     * @param inputStream underlying input stream, must not be null
+     * @param bufferSize buffer size, in bytes, must be at least one
+     */
+    ReadAheadInputStream(final InputStream inputStream, final int bufferSize) {
+        checkNotNull(inputStream);
+        checkArgument(bufferSize > 0, "bufferSize must be at least one");
+        this.inputStream = inputStream;
+        empty.add(new Buffer(bufferSize));
+        empty.add(new Buffer(bufferSize));
+
+        thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        while (true) {
+                            Buffer buffer = empty.take();
+                            buffer.fill(inputStream);
+                            full.put(buffer);
+                            if (buffer.length < 0 || buffer.error != null) {
+                                return;
+                            }
+                        }
+                    }
+                    catch (InterruptedException e) {
+                        // closed by consumer
+                    }
+                }
+            }, "read-ahead");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureAvailable()) {
+            return -1;
+        }
+        return current.data[position++] & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+        checkNotNull(bytes);
+        if (offset < 0 || length < 0 || offset + length > bytes.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (length == 0) {
+            return 0;
+        }
+        if (!ensureAvailable()) {
+            return -1;
+        }
+        int n = Math.min(length, current.length - position);
+        System.arraycopy(current.data, position, bytes, offset, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (current == null || closed) ? 0 : current.length - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        thread.interrupt();
+        inputStream.close();
+    }
+
+    /**
+     * Ensure bytes are available in the current buffer, waiting for the reading thread if necessary.
+     *
+     * @return true if bytes are available, false if the end of stream has been reached
+     * @throws IOException if an I/O error occurs
+     */
+    private boolean ensureAvailable() throws IOException {
+        if (closed) {
+            throw new IOException("stream closed");
+        }
+        while (!eof && (current == null || position == current.length)) {
+            if (current != null) {
+                empty.add(current);
+                current = null;
+            }
+            Buffer buffer;
+            try {
+                buffer = full.take();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted while reading ahead");
+            }
+            if (buffer.error != null) {
+                eof = true;
+                throw buffer.error;
+            }
+            if (buffer.length < 0) {
+                eof = true;
+            }
+            else {
+                current = buffer;
+                position = 0;
+            }
+        }
+        return !eof;
+    }
+
+    /**
+     * Buffer exchanged between the reading thread and the consumer.
+     */
+    private static final class Buffer {
+        /** Data. */
+        private final byte[] data;
+
+        /** Number of bytes of data, or <code>-1</code> at end of stream. */
+        private int length;
+
+        /** I/O error, if any. */
+        private IOException error;
+
+
+        /**
+         * Create a new buffer.
+         *
+         * @param size size
+         */
+        Buffer(final int size) {
+            data = new byte[size];
+        }
+
+
+        /**
+         * Fill this buffer from the specified input stream.
+         *
+         * @param inputStream input stream
+         */
+        void fill(final InputStream inputStream) {
+            int n = 0;
+            try {
+                while (n < data.length) {
+                    int read = inputStream.read(data, n, data.length - n);
+                    if (read < 0) {
+                        break;
+                    }
+                    n += read;
+                }
+                length = (n == 0) ? -1 : n;
+            }
+            catch (IOException e) {
+                error = e;
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+
+    ngs-tools  Next generation sequencing (NGS/HTS) command line tools.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.tools;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.commons.math3.random.RandomGenerator;
+
+/**
+ * Exact size reservoir sample over a stream of elements, in one pass with memory bounded by the sample size.
+ *
+ * <p>
+ * Uses Li's Algorithm L, which draws geometric skips between replacements, so after the reservoir fills
+ * only a vanishing fraction of elements cost more than a counter increment.  Callers {@link #offer()}
+ * each element in turn and only copy and {@link #set(int, Object)} those elements given a slot.
+ * The sample is returned in input order.
+ * </p>
+ *
+ * @param <E> element type
+ */
+final class Reservoir<E> {
+    /** Sample size. */
+    private final int size;
+
+    /** Source of randomness. */
+    private final RandomGenerator random;
+
+    /** Sampled elements. */
+    private final Object[] elements;
+
+    /** Input indices of sampled elements. */
+    private final long[] indices;
+
+    /** Number of elements offered. */
+    private long count;
+
+    /** Index of the next element to replace into the reservoir. */
+    private long next;
+
+    /** Algorithm L weight. */
+    private double w;
+
+
+    /**
+     * Create a new reservoir with the specified sample size.
+     *
+     * @param size sample size, must be at least zero
+     * @param random source of randomness, must not be null
+     */
+    Reservoir(final int size, final RandomGenerator random) {
+        checkArgument(size >= 0, "size must be at least zero");
+        checkNotNull(random);
+        this.size = size;
+        this.random = random;
+        elements = new Object[size];
+        indices = new long[size];
+        if (size > 0) {
+            w = Math.exp(Math.log(uniform()) / size);
+            next = size + skip();
+        }
+        else {
+            next = Long.MAX_VALUE;
+        }
+    }
+
+
+    /**
+     * Return a uniform random value in <code>(0.0, 1.0]</code>.
+     *
+     * @return a uniform random value in <code>(0.0, 1.0]</code>
+     */
+    private double uniform() {
+        return 1.0d - random.nextDouble();
+    }
+
+    /**
+     * Return the number of elements to skip before the next replacement.
+     *
+     * @return the number of elements to skip before the next replacement
+     */
+    private long skip() {
+        double skip = Math.floor(Math.log(uniform()) / Math.log1p(-w));
+        return (Double.isNaN(skip) || skip < 0.0d) ? 0L : (long) Math.min(skip, (double) (Long.MAX_VALUE / 2L));
+    }
+
+    /**
+     * Offer the next element to this reservoir.
+     *
+     * @return the slot the next element should be set into, or <code>-1</code> if it is not sampled
+     */
+    int offer() {
+        long index = count++;
+        if (index < size) {
+            return (int) index;
+        }
+        if (index == next) {
+            int slot = random.nextInt(size);
+            w *= Math.exp(Math.log(uniform()) / size);
+            next = index + 1L + skip();
+            return slot;
+        }
+        return -1;
+    }
+
+    /**
+     * Set the most recently offered element into the specified slot.
+     *
+     * @param slot slot returned by {@link #offer()}, must be at least zero
+     * @param element element
+     */
+    void set(final int slot, final E element) {
+        checkArgument(slot >= 0 && slot < size, "slot must be in the range [0, size)");
+        elements[slot] = element;
+        indices[slot] = count - 1L;
+    }
+
+    /**
+     * Return the number of elements offered.
+     *
+     * @return the number of elements offered
+     */
+    long count() {
+        return count;
+    }
+
+    /**
+     * Return the sampled elements in input order.
+     *
+     * @return the sampled elements in input order
+     */
+    @SuppressWarnings("unchecked")
+    List<E> sample() {
+        int n = (int) Math.min(count, (long) size);
+        Integer[] slots = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            slots[i] = i;
+        }
+        Arrays.sort(slots, new Comparator<Integer>() {
+                @Override
+                public int compare(final Integer slot0, final Integer slot1) {
+                    return Long.compare(indices[slot0], indices[slot1]);
+                }
+            });
+        List<E> sample = new ArrayList<E>(n);
+        for (Integer slot : slots) {
+            sample.add((E) elements[slot]);
+        }
+        return sample;
+    }
+}
@@ -0,0 +1,317 @@
+/*
+
+    ngs-tools  Next generation sequencing (NGS/HTS) command line tools.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.tools;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import static org.nmdp.ngs.tools.Compression.reader;
+import static org.nmdp.ngs.tools.Compression.writer;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.bind.JAXBException;
+
+import com.google.common.collect.ImmutableList;
+
+import org.dishevelled.commandline.ArgumentList;
+import org.dishevelled.commandline.CommandLine;
+import org.dishevelled.commandline.CommandLineParseException;
+import org.dishevelled.commandline.CommandLineParser;
+import org.dishevelled.commandline.Switch;
+import org.dishevelled.commandline.Usage;
+
+import org.dishevelled.commandline.argument.FileArgument;
+import org.dishevelled.commandline.argument.FileListArgument;
+import org.dishevelled.commandline.argument.IntegerArgument;
+
+import org.nmdp.ngs.hml.HmlReader;
+import org.nmdp.ngs.hml.HmlValidationException;
+import org.nmdp.ngs.hml.HmlValidator;
+
+import org.nmdp.ngs.hml.jaxb.Hml;
+
+import org.nmdp.ngs.hml.rules.HmlValidationRules;
+
+import org.xml.sax.SAXException;
+
+/**
+ * Validate a batch of files in HML format.
+ *
+ * <p>
+ * Files are read and validated against the HML schema, and optionally the MIRING validation rules,
+ * on a fixed size pool of worker threads sharing one cached JAXB context and compiled schema.  The
+ * report is tab-delimited, one line per file in input order, with columns file, status
+ * (<code>valid</code>, <code>invalid</code>, or <code>error</code> if the file could not be read),
+ * elapsed time in milliseconds, and message.
+ * </p>
+ */
+public final class ValidateHmlFiles implements Callable<Integer> {
+    private final List<File> inputHmlFiles;
+    private final File outputFile;
+    private final boolean miring;
+    private final boolean concurrentRules;
+    private final int threads;
+    static final int DEFAULT_THREADS = Runtime.getRuntime().availableProcessors();
+    private static final String USAGE = "ngs-validate-hml-files -i hml.xml,hml.xml.gz [-d directory] [args]";
+
+
+    /**
+     * Validate a batch of files in HML format.
+     *
+     * @param inputHmlFiles list of input HML files, must not be null
+     * @param outputFile output report file, if any
+     * @param miring true to also validate with the MIRING validation rules
+     * @param concurrentRules true to evaluate validation rules for each file concurrently, if there is
+     *    more than one rule
+     * @param threads number of worker threads, must be at least one
+     */
+    public ValidateHmlFiles(final List<File> inputHmlFiles,
+                            final File outputFile,
+                            final boolean miring,
+                            final boolean concurrentRules,
+                            final int threads) {
+        checkNotNull(inputHmlFiles);
+        checkArgument(threads > 0, "threads must be at least one");
+        this.inputHmlFiles = ImmutableList.copyOf(inputHmlFiles);
+        this.outputFile = outputFile;
+        this.miring = miring;
+        this.concurrentRules = concurrentRules;
+        this.threads = threads;
+    }
+
+
+    @Override
+    public Integer call() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        // a single rule is always evaluated sequentially, so only create a rule pool if there is more than one
+        boolean concurrent = miring && concurrentRules && HmlValidationRules.miringRules().size() > 1;
+        // rules run on their own pool, workers waiting on rules queued behind other workers would deadlock
+        ExecutorService ruleExecutorService = concurrent ? Executors.newFixedThreadPool(threads) : null;
+        PrintWriter writer = null;
+        try {
+            HmlValidator validator = null;
+            if (miring) {
+                validator = concurrent ? HmlValidationRules.miring(ruleExecutorService) : HmlValidationRules.miring();
+            }
+
+            List<Future<Result>> futures = new ArrayList<Future<Result>>(inputHmlFiles.size());
+            for (File inputHmlFile : inputHmlFiles) {
+                futures.add(executorService.submit(new Validate(inputHmlFile, validator)));
+            }
+
+            writer = writer(outputFile);
+            writer.println("#file\tstatus\telapsed_ms\tmessage");
+            int notValid = 0;
+            for (Future<Result> future : futures) {
+                Result result = future.get();
+                if (!Result.VALID.equals(result.status)) {
+                    notValid++;
+                }
+                writer.println(result.file + "\t" + result.status + "\t" + result.elapsed + "\t" + result.message);
+            }
+            return notValid == 0 ? 0 : 1;
+        }
+        finally {
+            executorService.shutdownNow();
+            if (ruleExecutorService != null) {
+                ruleExecutorService.shutdownNow();
+            }
+            try {
+                writer.close();
+            }
+            catch (Exception e) {
+                // ignore
+            }
+        }
+    }
+
+    /**
+     * Return the HML files, with <code>.xml</code> or <code>.xml.gz</code> extensions, in the specified
+     * directory sorted by name.
+     *
+     * @param directory directory, must not be null
+     * @return the HML files in the specified directory sorted by name
+     * @throws IOException if the specified directory could not be listed
+     */
+    static List<File> listHmlFiles(final File directory) throws IOException {
+        checkNotNull(directory);
+        File[] files = directory.listFiles();
+        if (files == null) {
+            throw new IOException("could not list files in directory " + directory);
+        }
+        Arrays.sort(files);
+        List<File> hmlFiles = new ArrayList<File>(files.length);
+        for (File file : files) {
+            if (file.isFile() && (file.getName().endsWith(".xml") || file.getName().endsWith(".xml.gz"))) {
+                hmlFiles.add(file);
+            }
+        }
+        return hmlFiles;
+    }
+
+    /**
+     * Return the message of the innermost cause of the specified exception that has one,
+     * on a single line.
+     *
+     * @param e exception
+     * @return the message of the innermost cause of the specified exception that has one
+     */
+    static String message(final Throwable e) {
+        String message = e.getMessage();
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null) {
+                message = cause.getMessage();
+            }
+        }
+        return message == null ? "" : message.replaceAll("\\s+", " ").trim();
+    }
+
+    /**
+     * Validation result.
+     */
+    private static final class Result {
+        static final String VALID = "valid";
+        static final String INVALID = "invalid";
+        static final String ERROR = "error";
+        private final File file;
+        private final String status;
+        private final long elapsed;
+        private final String message;
+
+        Result(final File file, final String status, final long elapsed, final String message) {
+            this.file = file;
+            this.status = status;
+            this.elapsed = elapsed;
+            this.message = message;
+        }
+    }
+
+    /**
+     * Validate task.
+     */
+    private static final class Validate implements Callable<Result> {
+        private final File file;
+        private final HmlValidator validator;
+
+        Validate(final File file, final HmlValidator validator) {
+            this.file = file;
+            this.validator = validator;
+        }
+
+        @Override
+        public Result call() {
+            long start = System.nanoTime();
+            try (BufferedReader reader = reader(file)) {
+                Hml hml = HmlReader.read(reader);
+                if (validator != null) {
+                    validator.validate(hml);
+                }
+                return new Result(file, Result.VALID, elapsed(start), "");
+            }
+            catch (HmlValidationException e) {
+                return new Result(file, Result.INVALID, elapsed(start), message(e));
+            }
+            catch (IOException e) {
+                boolean invalid = e.getCause() instanceof JAXBException || e.getCause() instanceof SAXException;
+                return new Result(file, invalid ? Result.INVALID : Result.ERROR, elapsed(start), message(e));
+            }
+            catch (RuntimeException e) {
+                // report unexpected failures for this file rather than aborting the batch
+                return new Result(file, Result.ERROR, elapsed(start), e.getClass().getSimpleName() + ": " + message(e));
+            }
+        }
+
+        private static long elapsed(final long start) {
+            return (System.nanoTime() - start) / 1000000L;
+        }
+    }
+
+
+    /**
+     * Main.
+     *
+     * @param args command line args
+     */
+    public static void main(final String[] args) {
+        Switch about = new Switch("a", "about", "display about message");
+        Switch help = new Switch("h", "help", "display help message");
+        FileListArgument inputHmlFiles = new FileListArgument("i", "input-hml-files", "comma-separated list of input HML files", false);
+        FileArgument inputDirectory = new FileArgument("d", "input-directory", "input directory of HML files with .xml or .xml.gz extensions", false);
+        FileArgument outputFile = new FileArgument("o", "output-file", "output report file, default stdout", false);
+        Switch miring = new Switch("m", "miring", "also validate with the MIRING validation rules");
+        Switch concurrentRules = new Switch("r", "concurrent-rules", "evaluate validation rules for each file concurrently, if there is more than one rule");
+        IntegerArgument threads = new IntegerArgument("T", "threads", "number of worker threads, default " + DEFAULT_THREADS, false);
+        IntegerArgument compressionThreads = new IntegerArgument("Z", "compression-threads", "number of gzip compression threads, default " + Compression.DEFAULT_THREADS, false);
+
+        ArgumentList arguments = new ArgumentList(about, help, inputHmlFiles, inputDirectory, outputFile, miring, concurrentRules, threads, compressionThreads);
+        CommandLine commandLine = new CommandLine(args);
+
+        ValidateHmlFiles validateHmlFiles = null;
+        try
+        {
+            CommandLineParser.parse(commandLine, arguments);
+            if (about.wasFound()) {
+                About.about(System.out);
+                System.exit(0);
+            }
+            if (help.wasFound()) {
+                Usage.usage(USAGE, null, commandLine, arguments, System.out);
+                System.exit(0);
+            }
+            Compression.setThreads(compressionThreads.getValue(Compression.DEFAULT_THREADS));
+            List<File> files = new ArrayList<File>();
+            if (inputHmlFiles.wasFound()) {
+                files.addAll(inputHmlFiles.getValue());
+            }
+            if (inputDirectory.wasFound()) {
+                files.addAll(listHmlFiles(inputDirectory.getValue()));
+            }
+            checkArgument(!files.isEmpty(), "at least one input HML file or an input directory must be specified");
+            validateHmlFiles = new ValidateHmlFiles(files, outputFile.getValue(), miring.wasFound(), concurrentRules.wasFound(), threads.getValue(DEFAULT_THREADS));
+        }
+        catch (CommandLineParseException | IllegalArgumentException | IOException e) {
+            Usage.usage(USAGE, e, commandLine, arguments, System.err);
+            System.exit(-1);
+        }
+        try {
+            System.exit(validateHmlFiles.call());
+        }
+        catch (Exception e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+}
@@ -22,7 +22,7 @@
 */
 package org.nmdp.ngs.tools;
 
-import static org.dishevelled.compress.Readers.reader;
+import static org.nmdp.ngs.tools.Compression.reader;
 
 import java.io.BufferedReader;
 import java.io.File;
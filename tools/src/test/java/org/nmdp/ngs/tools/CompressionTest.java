@@ -0,0 +1,151 @@
+/*
+
+    ngs-tools  Next generation sequencing (NGS/HTS) command line tools.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.zip.GZIPInputStream;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for Compression.
+ */
+public final class CompressionTest {
+    private File gzipFile;
+    private File textFile;
+
+    @Before
+    public void setUp() throws Exception {
+        gzipFile = File.createTempFile("compressionTest", ".txt.gz");
+        textFile = File.createTempFile("compressionTest", ".txt");
+    }
+
+    @After
+    public void tearDown() {
+        gzipFile.delete();
+        textFile.delete();
+        Compression.setThreads(Compression.DEFAULT_THREADS);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testSetThreadsInvalid() {
+        Compression.setThreads(0);
+    }
+
+    @Test
+    public void testSetThreads() {
+        Compression.setThreads(3);
+        assertEquals(3, Compression.threads());
+    }
+
+    @Test
+    public void testIsGzipFile() {
+        assertTrue(Compression.isGzipFile(gzipFile));
+        assertFalse(Compression.isGzipFile(textFile));
+        assertFalse(Compression.isGzipFile(null));
+    }
+
+    private static void write(final File file, final boolean append, final int from, final int to) throws Exception {
+        try (PrintWriter writer = Compression.writer(file, append)) {
+            for (int i = from; i < to; i++) {
+                writer.println("line " + i);
+            }
+        }
+    }
+
+    private static void assertLines(final File file, final int count) throws Exception {
+        try (BufferedReader reader = Compression.reader(file)) {
+            for (int i = 0; i < count; i++) {
+                assertEquals("line " + i, reader.readLine());
+            }
+            assertEquals(null, reader.readLine());
+        }
+    }
+
+    @Test
+    public void testGzipRoundTrip() throws Exception {
+        Compression.setThreads(2);
+        write(gzipFile, false, 0, 50000);
+        assertLines(gzipFile, 50000);
+
+        // readable by a plain gzip reader
+        String value = new String(ByteStreams.toByteArray(new GZIPInputStream(new FileInputStream(gzipFile))), StandardCharsets.UTF_8);
+        assertTrue(value.startsWith("line 0"));
+    }
+
+    @Test
+    public void testGzipAppend() throws Exception {
+        write(gzipFile, false, 0, 10);
+        write(gzipFile, true, 10, 20);
+        assertLines(gzipFile, 20);
+    }
+
+    @Test
+    public void testText() throws Exception {
+        write(textFile, false, 0, 10);
+        assertEquals("line 0", Files.readFirstLine(textFile, StandardCharsets.UTF_8));
+        assertLines(textFile, 10);
+    }
+
+    @Test
+    public void testInputStream() throws Exception {
+        write(gzipFile, false, 0, 10);
+        write(textFile, false, 0, 10);
+        try (InputStream inputStream = Compression.inputStream(gzipFile)) {
+            assertTrue(new String(ByteStreams.toByteArray(inputStream), StandardCharsets.UTF_8).startsWith("line 0"));
+        }
+        try (InputStream inputStream = Compression.inputStream(textFile)) {
+            assertTrue(new String(ByteStreams.toByteArray(inputStream), StandardCharsets.UTF_8).startsWith("line 0"));
+        }
+    }
+
+    @Test
+    public void testOutputStream() throws Exception {
+        Compression.setThreads(2);
+        try (OutputStream outputStream = Compression.outputStream(gzipFile)) {
+            outputStream.write("line 0\n".getBytes(StandardCharsets.UTF_8));
+        }
+        try (OutputStream outputStream = Compression.outputStream(textFile)) {
+            outputStream.write("line 0\n".getBytes(StandardCharsets.UTF_8));
+        }
+        assertLines(gzipFile, 1);
+        assertLines(textFile, 1);
+    }
+}
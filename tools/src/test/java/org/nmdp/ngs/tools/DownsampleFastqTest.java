@@ -22,14 +22,25 @@
 */
 package org.nmdp.ngs.tools;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
 
 import org.apache.commons.math3.random.JDKRandomGenerator;
+import org.apache.commons.math3.random.MersenneTwister;
 
 import org.apache.commons.math3.distribution.BinomialDistribution;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -44,6 +55,14 @@ public final class DownsampleFastqTest {
     @Before
     public void setUp() throws Exception {
         distribution = new BinomialDistribution(new JDKRandomGenerator(), 1, 1.0d);
+        inputFastqFile = File.createTempFile("downsampleFastqTest", ".fq");
+        outputFastqFile = File.createTempFile("downsampleFastqTest", ".fq.gz");
+    }
+
+    @After
+    public void tearDown() {
+        inputFastqFile.delete();
+        outputFastqFile.delete();
     }
 
     @Test(expected=NullPointerException.class)
@@ -55,4 +74,83 @@ public final class DownsampleFastqTest {
     public void testConstructor() {
         assertNotNull(new DownsampleFastq(inputFastqFile, outputFastqFile, distribution));
     }
+
+    private static void write(final File file, final int count) throws IOException {
+        try (PrintWriter writer = Compression.writer(file)) {
+            for (int i = 0; i < count; i++) {
+                writer.println("@read" + i + " 1:N:0:ACGT\nACGT\n+\nIIII");
+            }
+        }
+    }
+
+    private static List<String> names(final File file) throws IOException {
+        List<String> names = Lists.newArrayList();
+        try (BufferedReader reader = Compression.reader(file)) {
+            int i = 0;
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (i++ % 4 == 0) {
+                    names.add(line);
+                }
+            }
+        }
+        return names;
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructorNegativeCount() {
+        new DownsampleFastq(inputFastqFile, outputFastqFile, -1, new MersenneTwister());
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testConstructorNullRandom() {
+        new DownsampleFastq(inputFastqFile, outputFastqFile, 1, null);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructorFractionOutOfRange() {
+        new DownsampleFastq(inputFastqFile, outputFastqFile, -0.1d, 0L);
+    }
+
+    @Test
+    public void testConstructorCountAndFraction() {
+        assertNotNull(new DownsampleFastq(inputFastqFile, outputFastqFile, 0, new MersenneTwister()));
+        assertNotNull(new DownsampleFastq(inputFastqFile, outputFastqFile, 0.5d, 0L));
+    }
+
+    @Test
+    public void testCallBinomial() throws Exception {
+        write(inputFastqFile, 10);
+        new DownsampleFastq(inputFastqFile, outputFastqFile, distribution).call();
+        assertEquals(10, names(outputFastqFile).size());
+    }
+
+    @Test
+    public void testCallCount() throws Exception {
+        write(inputFastqFile, 1000);
+        new DownsampleFastq(inputFastqFile, outputFastqFile, 100, new MersenneTwister(42L)).call();
+        List<String> names = names(outputFastqFile);
+        assertEquals(100, names.size());
+        for (int i = 1; i < names.size(); i++) {
+            assertTrue(Integer.parseInt(names.get(i - 1).substring(5).split(" ")[0]) < Integer.parseInt(names.get(i).substring(5).split(" ")[0]));
+        }
+    }
+
+    @Test
+    public void testCallCountMoreThanInput() throws Exception {
+        write(inputFastqFile, 10);
+        new DownsampleFastq(inputFastqFile, outputFastqFile, 100, new MersenneTwister(42L)).call();
+        assertEquals(10, names(outputFastqFile).size());
+    }
+
+    @Test
+    public void testCallFraction() throws Exception {
+        write(inputFastqFile, 1000);
+        new DownsampleFastq(inputFastqFile, outputFastqFile, 0.2d, 42L).call();
+        List<String> names = names(outputFastqFile);
+        assertEquals(200.0d, names.size(), 50.0d);
+
+        // deterministic
+        new DownsampleFastq(inputFastqFile, outputFastqFile, 0.2d, 42L).call();
+        assertEquals(names, names(outputFastqFile));
+    }
 }
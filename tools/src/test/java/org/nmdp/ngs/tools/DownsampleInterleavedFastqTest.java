@@ -22,14 +22,25 @@
 */
 package org.nmdp.ngs.tools;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
 
 import org.apache.commons.math3.random.JDKRandomGenerator;
+import org.apache.commons.math3.random.MersenneTwister;
 
 import org.apache.commons.math3.distribution.BinomialDistribution;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -44,6 +55,14 @@ public final class DownsampleInterleavedFastqTest {
     @Before
     public void setUp() throws Exception {
         distribution = new BinomialDistribution(new JDKRandomGenerator(), 1, 1.0d);
+        inputFastqFile = File.createTempFile("downsampleInterleavedFastqTest", ".fq");
+        outputFastqFile = File.createTempFile("downsampleInterleavedFastqTest", ".fq.gz");
+    }
+
+    @After
+    public void tearDown() {
+        inputFastqFile.delete();
+        outputFastqFile.delete();
     }
 
     @Test(expected=NullPointerException.class)
@@ -55,4 +74,124 @@ public final class DownsampleInterleavedFastqTest {
     public void testConstructor() {
         assertNotNull(new DownsampleInterleavedFastq(inputFastqFile, outputFastqFile, distribution));
     }
+
+    private static void write(final File file, final int pairs) throws IOException {
+        try (PrintWriter writer = Compression.writer(file)) {
+            for (int i = 0; i < pairs; i++) {
+                writer.println("@read" + i + " 1\nACGT\n+\nIIII");
+                writer.println("@read" + i + " 2\nTTTT\n+\nIIII");
+            }
+        }
+    }
+
+    private static List<String> names(final File file) throws IOException {
+        List<String> names = Lists.newArrayList();
+        try (BufferedReader reader = Compression.reader(file)) {
+            int i = 0;
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (i++ % 4 == 0) {
+                    names.add(line);
+                }
+            }
+        }
+        return names;
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructorNegativeCount() {
+        new DownsampleInterleavedFastq(inputFastqFile, outputFastqFile, -1, new MersenneTwister());
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testConstructorNullRandom() {
+        new DownsampleInterleavedFastq(inputFastqFile, outputFastqFile, 1, null);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructorFractionOutOfRange() {
+        new DownsampleInterleavedFastq(inputFastqFile, outputFastqFile, 1.1d, 0L);
+    }
+
+    @Test
+    public void testCallBinomial() throws Exception {
+        write(inputFastqFile, 10);
+        new DownsampleInterleavedFastq(inputFastqFile, outputFastqFile, distribution).call();
+        assertEquals(20, names(outputFastqFile).size());
+    }
+
+    @Test
+    public void testCallCount() throws Exception {
+        write(inputFastqFile, 1000);
+        new DownsampleInterleavedFastq(inputFastqFile, outputFastqFile, 100, new MersenneTwister(42L)).call();
+        List<String> names = names(outputFastqFile);
+        assertEquals(200, names.size());
+        for (int i = 0; i < names.size(); i += 2) {
+            assertEquals(names.get(i).replace(" 1", " 2"), names.get(i + 1));
+        }
+    }
+
+    @Test
+    public void testCallFractionConsistentWithDownsampleFastq() throws Exception {
+        write(inputFastqFile, 1000);
+        new DownsampleInterleavedFastq(inputFastqFile, outputFastqFile, 0.2d, 42L).call();
+        List<String> names = names(outputFastqFile);
+        assertEquals(0, names.size() % 2);
+
+        File first = File.createTempFile("downsampleInterleavedFastqTest", ".fq");
+        File downsampled = File.createTempFile("downsampleInterleavedFastqTest", ".fq");
+        try {
+            try (PrintWriter writer = Compression.writer(first)) {
+                for (int i = 0; i < 1000; i++) {
+                    writer.println("@read" + i + " 1\nACGT\n+\nIIII");
+                }
+            }
+            new DownsampleFastq(first, downsampled, 0.2d, 42L).call();
+            List<String> expected = Lists.newArrayList();
+            for (String name : names(downsampled)) {
+                expected.add(name);
+                expected.add(name.replace(" 1", " 2"));
+            }
+            assertEquals(expected, names);
+        }
+        finally {
+            first.delete();
+            downsampled.delete();
+        }
+    }
+
+    @Test(expected=IOException.class)
+    public void testCallFractionNotInterleaved() throws Exception {
+        try (PrintWriter writer = Compression.writer(inputFastqFile)) {
+            writer.println("@foo/1\nACGT\n+\nIIII");
+            writer.println("@bar/2\nACGT\n+\nIIII");
+        }
+        new DownsampleInterleavedFastq(inputFastqFile, outputFastqFile, 0.5d, 0L).call();
+    }
+
+    @Test(expected=IOException.class)
+    public void testCallCountNotInterleaved() throws Exception {
+        try (PrintWriter writer = Compression.writer(inputFastqFile)) {
+            writer.println("@foo/1\nACGT\n+\nIIII");
+            writer.println("@bar/2\nACGT\n+\nIIII");
+        }
+        new DownsampleInterleavedFastq(inputFastqFile, outputFastqFile, 0, new MersenneTwister()).call();
+    }
+
+    @Test
+    public void testCallFractionMateSuffix() throws Exception {
+        try (PrintWriter writer = Compression.writer(inputFastqFile)) {
+            writer.println("@foo/1\nACGT\n+\nIIII");
+            writer.println("@foo/2\nACGT\n+\nIIII");
+        }
+        new DownsampleInterleavedFastq(inputFastqFile, outputFastqFile, 1.0d, 0L).call();
+        assertEquals(2, names(outputFastqFile).size());
+    }
+
+    @Test(expected=IOException.class)
+    public void testCallCountOddRecords() throws Exception {
+        try (PrintWriter writer = Compression.writer(inputFastqFile)) {
+            writer.println("@foo/1\nACGT\n+\nIIII");
+        }
+        new DownsampleInterleavedFastq(inputFastqFile, outputFastqFile, 10, new MersenneTwister()).call();
+    }
 }
@@ -0,0 +1,96 @@
+/*
+
+    ngs-tools  Next generation sequencing (NGS/HTS) command line tools.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.biojava.bio.program.fastq.Fastq;
+import org.biojava.bio.program.fastq.FastqVariant;
+
+import org.junit.Test;
+
+import org.nmdp.ngs.reads.fastq.FastqRecord;
+
+/**
+ * Unit test for Downsampling.
+ */
+public final class DownsamplingTest {
+
+    private static FastqRecord record(final String description) {
+        return FastqRecord.valueOf(Fastq.builder()
+                                   .withVariant(FastqVariant.FASTQ_SANGER)
+                                   .withDescription(description)
+                                   .withSequence("ACGT")
+                                   .withQuality("IIII")
+                                   .build());
+    }
+
+    @Test
+    public void testNameLength() {
+        assertEquals(3, Downsampling.nameLength(record("foo")));
+        assertEquals(3, Downsampling.nameLength(record("foo 1:N:0:ACGT")));
+        assertEquals(3, Downsampling.nameLength(record("foo\tbar")));
+        assertEquals(3, Downsampling.nameLength(record("foo/1")));
+        assertEquals(3, Downsampling.nameLength(record("foo/2 bar")));
+        assertEquals(3, Downsampling.nameLength(record("foo\\2")));
+        assertEquals(5, Downsampling.nameLength(record("foo/3")));
+        assertEquals(2, Downsampling.nameLength(record("/1")));
+        assertEquals(0, Downsampling.nameLength(record("")));
+    }
+
+    @Test
+    public void testSameName() {
+        assertTrue(Downsampling.sameName(record("foo/1"), record("foo/2")));
+        assertTrue(Downsampling.sameName(record("foo 1:N:0:ACGT"), record("foo 2:N:0:ACGT")));
+        assertFalse(Downsampling.sameName(record("foo/1"), record("bar/2")));
+        assertFalse(Downsampling.sameName(record("foo/1"), record("fooo/2")));
+    }
+
+    @Test
+    public void testHash() {
+        assertEquals(Downsampling.hash(record("foo/1"), 0L), Downsampling.hash(record("foo 2"), 0L));
+        assertNotEquals(Downsampling.hash(record("foo/1"), 0L), Downsampling.hash(record("bar/1"), 0L));
+        assertNotEquals(Downsampling.hash(record("foo/1"), 0L), Downsampling.hash(record("foo/1"), 1L));
+    }
+
+    @Test
+    public void testInclude() {
+        assertFalse(Downsampling.include(record("foo"), 0.0d, 0L));
+        assertTrue(Downsampling.include(record("foo"), 1.0d, 0L));
+        assertTrue(Downsampling.include(0L, 0.5d));
+        assertFalse(Downsampling.include(-1L, 0.5d));
+        assertFalse(Downsampling.include(-1L, 0.99d));
+        assertTrue(Downsampling.include(-1L, 1.0d));
+
+        int included = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (Downsampling.include(record("read" + i), 0.3d, 42L)) {
+                included++;
+            }
+        }
+        assertEquals(3000.0d, included, 200.0d);
+    }
+}
@@ -22,10 +22,24 @@
 */
 package org.nmdp.ngs.tools;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
+import static org.nmdp.ngs.tools.ExtractConsensus.shard;
+import static org.nmdp.ngs.tools.ExtractConsensus.shardFile;
+
+import java.io.BufferedReader;
 import java.io.File;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.io.Files;
+import com.google.common.io.Resources;
+
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 
 /**
@@ -33,9 +47,89 @@ import org.junit.Test;
  */
 public final class ExtractConsensusTest {
     private File inputHmlFile;
+    private File outputFile;
+
+    @Before
+    public void setUp() throws Exception {
+        inputHmlFile = File.createTempFile("extractConsensusTest", ".xml");
+        Files.write(Resources.toByteArray(getClass().getResource("samples.xml")), inputHmlFile);
+        outputFile = File.createTempFile("extractConsensusTest", ".fa.gz");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        inputHmlFile.delete();
+        outputFile.delete();
+        for (int i = 0; i < 3; i++) {
+            shardFile(outputFile, i).delete();
+        }
+    }
 
     @Test
     public void testConstructor() {
         assertNotNull(new ExtractConsensus(inputHmlFile));
     }
+
+    @Test
+    public void testBatchConstructor() {
+        assertNotNull(new ExtractConsensus(inputHmlFile, true, outputFile, 3));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testBatchConstructorInvalidShards() {
+        new ExtractConsensus(inputHmlFile, true, outputFile, 0);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testBatchConstructorShardsWithoutOutputFile() {
+        new ExtractConsensus(inputHmlFile, true, null, 2);
+    }
+
+    @Test
+    public void testBatch() throws Exception {
+        assertEquals(0, (int) new ExtractConsensus(inputHmlFile, true, outputFile, 1).call());
+        List<String> lines = readLines(outputFile);
+        assertEquals(24, lines.size());
+        for (int i = 0; i < lines.size(); i += 2) {
+            assertTrue(lines.get(i).startsWith(">"));
+            assertTrue(lines.get(i).split("\\|")[0].matches(">[0-9]+_1_0"));
+            assertTrue(lines.get(i + 1).matches("[acgtnrykmswbdhv-]+"));
+        }
+    }
+
+    @Test
+    public void testShards() throws Exception {
+        assertEquals(0, (int) new ExtractConsensus(inputHmlFile, true, outputFile, 3).call());
+        int count = 0;
+        for (int i = 0; i < 3; i++) {
+            File shardFile = shardFile(outputFile, i);
+            assertTrue(shardFile.exists());
+            for (String line : readLines(shardFile)) {
+                if (line.startsWith(">")) {
+                    String id = line.substring(1, line.indexOf('_'));
+                    assertEquals(i, shard(id, 3));
+                    count++;
+                }
+            }
+        }
+        assertEquals(12, count);
+    }
+
+    @Test
+    public void testShardFile() {
+        assertEquals(new File("dir", "consensus.2.fa.gz"), shardFile(new File("dir", "consensus.fa.gz"), 2));
+        assertEquals(new File("consensus.0.fasta"), shardFile(new File("consensus.fasta"), 0));
+        assertEquals(new File("consensus.1"), shardFile(new File("consensus"), 1));
+    }
+
+    private static List<String> readLines(final File file) throws Exception {
+        List<String> lines = new ArrayList<String>();
+        try (BufferedReader reader = Compression.reader(file)) {
+            String line = null;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
 }
@@ -0,0 +1,176 @@
+/*
+
+    ngs-tools  Next generation sequencing (NGS/HTS) command line tools.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.io.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for FastqStats.
+ */
+public final class FastqStatsTest {
+    private File firstFastqFile;
+    private File secondFastqFile;
+    private File reportFile;
+
+    @Before
+    public void setUp() throws Exception {
+        firstFastqFile = File.createTempFile("fastqStatsTest", ".fq.gz");
+        secondFastqFile = File.createTempFile("fastqStatsTest", ".fq");
+        reportFile = File.createTempFile("fastqStatsTest", ".txt");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        firstFastqFile.delete();
+        secondFastqFile.delete();
+        reportFile.delete();
+    }
+
+    private static void write(final File file, final int count, final long seed) throws IOException {
+        Random random = new Random(seed);
+        try (PrintWriter writer = Compression.writer(file)) {
+            for (int i = 0; i < count; i++) {
+                int length = 50 + random.nextInt(51);
+                StringBuilder sequence = new StringBuilder(length);
+                StringBuilder quality = new StringBuilder(length);
+                for (int j = 0; j < length; j++) {
+                    sequence.append("ACGTN".charAt(random.nextInt(5)));
+                    quality.append((char) (33 + random.nextInt(42)));
+                }
+                writer.println("@read" + i);
+                writer.println(i % 5 == 0 ? "ACGT" : sequence.toString());
+                writer.println("+");
+                writer.println(i % 5 == 0 ? "IIII" : quality.toString());
+            }
+        }
+    }
+
+    private List<String> report() throws IOException {
+        return Files.readLines(reportFile, StandardCharsets.UTF_8);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructorThreadsTooSmall() {
+        new FastqStats(firstFastqFile, secondFastqFile, reportFile, 0, 1, 1);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructorBatchSizeTooSmall() {
+        new FastqStats(firstFastqFile, secondFastqFile, reportFile, 1, 0, 1);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructorDuplicateSampleSizeTooSmall() {
+        new FastqStats(firstFastqFile, secondFastqFile, reportFile, 1, 1, 0);
+    }
+
+    @Test
+    public void testConstructor() {
+        assertNotNull(new FastqStats(firstFastqFile, secondFastqFile, reportFile, 1, 1, 1));
+        assertNotNull(new FastqStats(firstFastqFile, null, null, 1, 1, 1));
+    }
+
+    @Test
+    public void testCallSingle() throws Exception {
+        write(firstFastqFile, 100, 42L);
+        assertEquals(0, (int) new FastqStats(firstFastqFile, null, reportFile, 2, 7, 1000).call());
+        List<String> report = report();
+        assertTrue(report.contains("summary\tfirst\trecords\t100"));
+        assertTrue(report.contains("summary\tfirst\tminimum_length\t4"));
+        assertTrue(report.contains("summary\tfirst\tdistinct\t81"));
+        assertTrue(report.contains("summary\tfirst\tduplicate_rate\t0.1900"));
+        assertTrue(report.contains("length\tfirst\t4\t20"));
+        for (String line : report) {
+            assertTrue(line.startsWith("summary\tfirst") || line.startsWith("length\tfirst") || line.startsWith("gc\tfirst")
+                       || line.startsWith("quality\tfirst") || line.startsWith("composition\tfirst"));
+        }
+    }
+
+    @Test
+    public void testCallPaired() throws Exception {
+        write(firstFastqFile, 1000, 42L);
+        write(secondFastqFile, 500, 43L);
+        assertEquals(0, (int) new FastqStats(firstFastqFile, secondFastqFile, reportFile, 4, 10, 1000).call());
+        List<String> report = report();
+        assertTrue(report.contains("summary\tfirst\trecords\t1000"));
+        assertTrue(report.contains("summary\tsecond\trecords\t500"));
+        boolean firstCycle = false;
+        for (String line : report) {
+            firstCycle |= line.startsWith("quality\tsecond\t1\t500\t");
+        }
+        assertTrue(firstCycle);
+    }
+
+    @Test
+    public void testCallIndependentOfThreadsAndBatchSize() throws Exception {
+        write(firstFastqFile, 2000, 42L);
+        write(secondFastqFile, 2000, 43L);
+        new FastqStats(firstFastqFile, secondFastqFile, reportFile, 1, 2000, 100).call();
+        List<String> expected = report();
+        new FastqStats(firstFastqFile, secondFastqFile, reportFile, 4, 13, 100).call();
+        assertEquals(expected, report());
+    }
+
+    private static boolean statsThreadsAlive() {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.isAlive() && thread.getName().startsWith("ngs-fastq-stats-")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    public void testCallFirstFailureStopsSecondReader() throws Exception {
+        firstFastqFile.delete();
+        write(secondFastqFile, 20000, 43L);
+        try {
+            new FastqStats(firstFastqFile, secondFastqFile, reportFile, 1, 1, 100).call();
+        }
+        catch (IOException e) {
+            // expected
+        }
+        for (int i = 0; i < 100 && statsThreadsAlive(); i++) {
+            Thread.sleep(50L);
+        }
+        assertFalse(statsThreadsAlive());
+    }
+}
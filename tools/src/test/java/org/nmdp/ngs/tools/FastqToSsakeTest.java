@@ -22,6 +22,7 @@
 */
 package org.nmdp.ngs.tools;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -30,14 +31,22 @@ import static org.nmdp.ngs.tools.FastqToSsake.isLeft;
 import static org.nmdp.ngs.tools.FastqToSsake.isRight;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+
+import java.nio.charset.StandardCharsets;
 
 import java.util.List;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+import com.google.common.io.Files;
 
 import org.biojava.bio.program.fastq.Fastq;
 import org.biojava.bio.program.fastq.FastqBuilder;
+import org.biojava.bio.program.fastq.SangerFastqWriter;
 
 import org.junit.After;
 import org.junit.Before;
@@ -85,6 +94,16 @@ public final class FastqToSsakeTest {
         new FastqToSsake(firstFastqFile, secondFastqFile, ssakeFile, -1, unpairedFile);
     }
 
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructorRunSizeTooSmall() {
+        new FastqToSsake(firstFastqFile, secondFastqFile, ssakeFile, FastqToSsake.DEFAULT_INSERT_SIZE, unpairedFile, -1);
+    }
+
+    @Test
+    public void testConstructorRunSize() {
+        assertNotNull(new FastqToSsake(firstFastqFile, secondFastqFile, ssakeFile, FastqToSsake.DEFAULT_INSERT_SIZE, unpairedFile, 100));
+    }
+
     @Test
     public void testConstructor() {
         assertNotNull(new FastqToSsake(firstFastqFile, secondFastqFile, ssakeFile, FastqToSsake.DEFAULT_INSERT_SIZE, unpairedFile));
@@ -115,4 +134,50 @@ public final class FastqToSsakeTest {
             assertFalse(isRight(fastq));
         }
     }
+
+    private static Fastq read(final String description) {
+        return new FastqBuilder().withDescription(description).appendSequence("acgt").appendQuality("IIII").build();
+    }
+
+    private static void write(final File file, final List<Fastq> reads) throws IOException {
+        try (OutputStream outputStream = new FileOutputStream(file)) {
+            new SangerFastqWriter().write(outputStream, reads);
+        }
+    }
+
+    private String call(final int runSize) throws Exception {
+        File ssake = File.createTempFile("fastqToSsakeTest", ".txt");
+        File unpaired = File.createTempFile("fastqToSsakeTest", ".txt");
+        try {
+            assertEquals(Integer.valueOf(0), new FastqToSsake(firstFastqFile, secondFastqFile, ssake, FastqToSsake.DEFAULT_INSERT_SIZE, unpaired, runSize).call());
+            return Files.toString(ssake, StandardCharsets.UTF_8) + "--\n" + Files.toString(unpaired, StandardCharsets.UTF_8);
+        }
+        finally {
+            ssake.delete();
+            unpaired.delete();
+        }
+    }
+
+    @Test
+    public void testCallExternalSortMatchesSort() throws Exception {
+        List<Fastq> firsts = Lists.newArrayList();
+        List<Fastq> seconds = Lists.newArrayList();
+        for (int i = 0; i < 300; i++) {
+            firsts.add(read("read" + ((i * 7919) % 300) + " 1"));
+            if (i % 10 != 0) {
+                seconds.add(read("read" + ((i * 104729) % 300) + " 2"));
+            }
+        }
+        firsts.add(read("invalid"));
+        write(firstFastqFile, firsts);
+        write(secondFastqFile, seconds);
+
+        String expected = call(0);
+        assertTrue(expected.startsWith(">read"));
+        assertTrue(expected.contains("invalid"));
+        // one run, several runs, and enough runs to require more than one merge pass
+        assertEquals(expected, call(1000));
+        assertEquals(expected, call(50));
+        assertEquals(expected, call(2));
+    }
 }
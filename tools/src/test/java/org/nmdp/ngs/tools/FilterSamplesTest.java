@@ -22,10 +22,20 @@
 */
 package org.nmdp.ngs.tools;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
 import java.io.File;
 
+import com.google.common.base.Charsets;
+
+import com.google.common.io.Files;
+import com.google.common.io.Resources;
+
+import org.nmdp.ngs.hml.HmlReader;
+
+import org.nmdp.ngs.hml.jaxb.Hml;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -40,6 +50,7 @@ public final class FilterSamplesTest {
     @Before
     public void setUp() throws Exception {
         inputSampleIdFile = File.createTempFile("filterSampleTest", ".txt");
+        inputSampleIdFile.deleteOnExit();
     }
     
     @Test
@@ -51,4 +62,35 @@ public final class FilterSamplesTest {
     public void testConstructorNullInputSampleIdFile() {
         new FilterSamples(inputHmlFile, null, outputHmlFile);
     }
+
+    @Test
+    public void testConstructorStreaming() {
+        assertNotNull(new FilterSamples(inputHmlFile, inputSampleIdFile, outputHmlFile, true));
+    }
+
+    @Test
+    public void testFilterSamples() throws Exception {
+        filterSamples(false);
+    }
+
+    @Test
+    public void testFilterSamplesStreaming() throws Exception {
+        filterSamples(true);
+    }
+
+    private void filterSamples(final boolean streaming) throws Exception {
+        inputHmlFile = File.createTempFile("filterSampleTest", ".xml");
+        inputHmlFile.deleteOnExit();
+        Files.write(Resources.toByteArray(getClass().getResource("samples.xml")), inputHmlFile);
+        Files.write("323456789\n123456789\n", inputSampleIdFile, Charsets.UTF_8);
+        outputHmlFile = File.createTempFile("filterSampleTest", ".xml.gz");
+        outputHmlFile.deleteOnExit();
+
+        assertEquals(Integer.valueOf(0), new FilterSamples(inputHmlFile, inputSampleIdFile, outputHmlFile, streaming).call());
+
+        Hml hml = HmlReader.read(Compression.inputStream(outputHmlFile));
+        assertEquals(2, hml.getSample().size());
+        assertEquals("123456789", hml.getSample().get(0).getId());
+        assertEquals("323456789", hml.getSample().get(1).getId());
+    }
 }
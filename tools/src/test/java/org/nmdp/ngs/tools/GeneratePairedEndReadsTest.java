@@ -26,6 +26,8 @@ import static org.junit.Assert.assertNotNull;
 
 import java.io.File;
 
+import com.google.common.base.Functions;
+
 import org.apache.commons.math3.distribution.NormalDistribution;
 import org.apache.commons.math3.distribution.RealDistribution;
 
@@ -89,4 +91,14 @@ public final class GeneratePairedEndReadsTest {
     public void testConstructor() {
         assertNotNull(new GeneratePairedEndReads(referenceFile, firstReadFile, secondReadFile, random, length, insertSize, quality, coverage, mutationRate, mutation));
     }
+
+    @Test
+    public void testParallelConstructor() {
+        assertNotNull(new GeneratePairedEndReads(referenceFile, firstReadFile, secondReadFile, random, 2, 100, Functions.constant(length), Functions.constant(insertSize), Functions.constant(quality), coverage, mutationRate, Functions.constant(mutation)));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testParallelConstructorZeroBatchSize() {
+        new GeneratePairedEndReads(referenceFile, firstReadFile, secondReadFile, random, 2, 0, Functions.constant(length), Functions.constant(insertSize), Functions.constant(quality), coverage, mutationRate, Functions.constant(mutation));
+    }
 }
@@ -26,6 +26,8 @@ import static org.junit.Assert.assertNotNull;
 
 import java.io.File;
 
+import com.google.common.base.Functions;
+
 import org.apache.commons.math3.distribution.NormalDistribution;
 import org.apache.commons.math3.distribution.RealDistribution;
 
@@ -67,4 +69,14 @@ public final class GenerateReadsTest {
     public void testConstructor() {
         assertNotNull(new GenerateReads(referenceFile, readFile, random, length, quality, coverage, mutationRate, mutation));
     }
+
+    @Test
+    public void testParallelConstructor() {
+        assertNotNull(new GenerateReads(referenceFile, readFile, random, 2, 100, Functions.constant(length), Functions.constant(quality), coverage, mutationRate, Functions.constant(mutation)));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testParallelConstructorZeroThreads() {
+        new GenerateReads(referenceFile, readFile, random, 0, 100, Functions.constant(length), Functions.constant(quality), coverage, mutationRate, Functions.constant(mutation));
+    }
 }
@@ -0,0 +1,126 @@
+/*
+
+    ngs-tools  Next generation sequencing (NGS/HTS) command line tools.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.tools;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import java.util.Random;
+
+import java.util.zip.GZIPInputStream;
+
+import com.google.common.io.ByteStreams;
+
+import org.junit.Test;
+
+/**
+ * Unit test for ParallelGzipOutputStream.
+ */
+public final class ParallelGzipOutputStreamTest {
+
+    private static byte[] bytes(final int length) {
+        byte[] bytes = new byte[length];
+        Random random = new Random(42L);
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) "acgtn\n".charAt(random.nextInt(6));
+        }
+        return bytes;
+    }
+
+    private static byte[] gunzip(final byte[] bytes) throws IOException {
+        return ByteStreams.toByteArray(new GZIPInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testConstructorNullOutputStream() {
+        new ParallelGzipOutputStream(null, 1);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructorInvalidThreads() {
+        new ParallelGzipOutputStream(new ByteArrayOutputStream(), 0);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructorInvalidBlockSize() {
+        new ParallelGzipOutputStream(new ByteArrayOutputStream(), 1, 0);
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new ParallelGzipOutputStream(outputStream, 2).close();
+        assertEquals(0, gunzip(outputStream.toByteArray()).length);
+    }
+
+    @Test
+    public void testWriteBlocks() throws Exception {
+        byte[] bytes = bytes(100000);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ParallelGzipOutputStream gzip = new ParallelGzipOutputStream(outputStream, 4, 1000)) {
+            gzip.write(bytes, 0, 50000);
+            for (int i = 50000; i < 50500; i++) {
+                gzip.write(bytes[i]);
+            }
+            gzip.write(bytes, 50500, 49500);
+        }
+        assertArrayEquals(bytes, gunzip(outputStream.toByteArray()));
+    }
+
+    @Test
+    public void testFlush() throws Exception {
+        byte[] bytes = bytes(1500);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ParallelGzipOutputStream gzip = new ParallelGzipOutputStream(outputStream, 2, 1000);
+        gzip.write(bytes);
+        gzip.flush();
+        gzip.close();
+        assertArrayEquals(bytes, gunzip(outputStream.toByteArray()));
+    }
+
+    @Test
+    public void testFlushDoesNotEndBlock() throws Exception {
+        byte[] bytes = bytes(500);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ParallelGzipOutputStream gzip = new ParallelGzipOutputStream(outputStream, 2, 1000);
+        for (int i = 0; i < bytes.length; i++) {
+            gzip.write(bytes[i]);
+            gzip.flush();
+        }
+        assertEquals(0, outputStream.size());
+        gzip.close();
+        // a single gzip member
+        assertArrayEquals(ParallelGzipOutputStream.compress(bytes, bytes.length), outputStream.toByteArray());
+    }
+
+    @Test(expected=IOException.class)
+    public void testWriteAfterClose() throws Exception {
+        ParallelGzipOutputStream gzip = new ParallelGzipOutputStream(new ByteArrayOutputStream(), 1);
+        gzip.close();
+        gzip.write(0);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+
+    ngs-tools  Next generation sequencing (NGS/HTS) command line tools.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.tools;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.google.common.io.ByteStreams;
+
+import org.junit.Test;
+
+/**
+ * Unit test for ReadAheadInputStream.
+ */
+public final class ReadAheadInputStreamTest {
+
+    private static byte[] bytes(final int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) i;
+        }
+        return bytes;
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testConstructorNullInputStream() {
+        new ReadAheadInputStream(null);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructorInvalidBufferSize() {
+        new ReadAheadInputStream(new ByteArrayInputStream(new byte[0]), 0);
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        try (InputStream inputStream = new ReadAheadInputStream(new ByteArrayInputStream(new byte[0]))) {
+            assertEquals(-1, inputStream.read());
+            assertEquals(-1, inputStream.read(new byte[10], 0, 10));
+        }
+    }
+
+    @Test
+    public void testRead() throws Exception {
+        byte[] bytes = bytes(10000);
+        try (InputStream inputStream = new ReadAheadInputStream(new ByteArrayInputStream(bytes), 333)) {
+            assertArrayEquals(bytes, ByteStreams.toByteArray(inputStream));
+        }
+    }
+
+    @Test
+    public void testReadSingleBytes() throws Exception {
+        byte[] bytes = bytes(1000);
+        try (InputStream inputStream = new ReadAheadInputStream(new ByteArrayInputStream(bytes), 7)) {
+            for (int i = 0; i < bytes.length; i++) {
+                assertEquals(bytes[i] & 0xff, inputStream.read());
+            }
+            assertEquals(-1, inputStream.read());
+        }
+    }
+
+    @Test(expected=IOException.class)
+    public void testReadError() throws Exception {
+        InputStream failing = new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    throw new IOException("expected");
+                }
+            };
+        try (InputStream inputStream = new ReadAheadInputStream(failing)) {
+            inputStream.read();
+        }
+    }
+
+    @Test(expected=IOException.class)
+    public void testReadAfterClose() throws Exception {
+        InputStream inputStream = new ReadAheadInputStream(new ByteArrayInputStream(bytes(10)));
+        inputStream.close();
+        inputStream.read();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+
+    ngs-tools  Next generation sequencing (NGS/HTS) command line tools.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.apache.commons.math3.random.MersenneTwister;
+import org.apache.commons.math3.random.RandomGenerator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for Reservoir.
+ */
+public final class ReservoirTest {
+    private RandomGenerator random;
+
+    @Before
+    public void setUp() {
+        random = new MersenneTwister(42L);
+    }
+
+    private static List<Integer> sample(final int size, final int count, final RandomGenerator random) {
+        Reservoir<Integer> reservoir = new Reservoir<Integer>(size, random);
+        for (int i = 0; i < count; i++) {
+            int slot = reservoir.offer();
+            if (slot >= 0) {
+                reservoir.set(slot, i);
+            }
+        }
+        assertEquals(count, reservoir.count());
+        return reservoir.sample();
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructorNegativeSize() {
+        new Reservoir<Integer>(-1, random);
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testConstructorNullRandom() {
+        new Reservoir<Integer>(1, null);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testSetInvalidSlot() {
+        new Reservoir<Integer>(1, random).set(1, 0);
+    }
+
+    @Test
+    public void testEmpty() {
+        assertTrue(sample(0, 100, random).isEmpty());
+        assertTrue(sample(10, 0, random).isEmpty());
+    }
+
+    @Test
+    public void testFewerThanSize() {
+        List<Integer> sample = sample(10, 5, random);
+        assertEquals(5, sample.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(Integer.valueOf(i), sample.get(i));
+        }
+    }
+
+    @Test
+    public void testExactSizeInInputOrder() {
+        List<Integer> sample = sample(100, 100000, random);
+        assertEquals(100, sample.size());
+        for (int i = 1; i < sample.size(); i++) {
+            assertTrue(sample.get(i - 1) < sample.get(i));
+        }
+    }
+
+    @Test
+    public void testUniform() {
+        // each of 20 elements should be sampled about 5 in 20 times
+        int[] counts = new int[20];
+        int trials = 20000;
+        for (int trial = 0; trial < trials; trial++) {
+            for (Integer i : sample(5, 20, random)) {
+                counts[i]++;
+            }
+        }
+        for (int count : counts) {
+            assertEquals(0.25d, (double) count / trials, 0.02d);
+        }
+    }
+}
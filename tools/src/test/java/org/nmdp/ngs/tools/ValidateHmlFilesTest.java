@@ -0,0 +1,164 @@
+/*
+
+    ngs-tools  Next generation sequencing (NGS/HTS) command line tools.
+    Copyright (c) 2014-2015 National Marrow Donor Program (NMDP)
+
+    This library is free software; you can redistribute it and/or modify it
+    under the terms of the GNU Lesser General Public License as published
+    by the Free Software Foundation; either version 3 of the License, or (at
+    your option) any later version.
+
+    This library is distributed in the hope that it will be useful, but WITHOUT
+    ANY WARRANTY; with out even the implied warranty of MERCHANTABILITY or
+    FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public
+    License for more details.
+
+    You should have received a copy of the GNU Lesser General Public License
+    along with this library;  if not, write to the Free Software Foundation,
+    Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307  USA.
+
+    > http://www.gnu.org/licenses/lgpl.html
+
+*/
+package org.nmdp.ngs.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import static org.nmdp.ngs.tools.ValidateHmlFiles.listHmlFiles;
+import static org.nmdp.ngs.tools.ValidateHmlFiles.message;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.List;
+
+import com.google.common.base.Charsets;
+
+import com.google.common.collect.ImmutableList;
+
+import com.google.common.io.Files;
+import com.google.common.io.Resources;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for ValidateHmlFiles.
+ */
+public final class ValidateHmlFilesTest {
+    private File directory;
+    private File valid;
+    private File invalid;
+    private File missing;
+    private File outputFile;
+    private List<File> inputHmlFiles;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = Files.createTempDir();
+        valid = new File(directory, "valid.xml");
+        Files.write(Resources.toByteArray(getClass().getResource("samples.xml")), valid);
+        invalid = new File(directory, "invalid.xml");
+        Files.write("<?xml version=\"1.0\"?>\n<hml xmlns=\"http://schemas.nmdp.org/spec/hml/1.0.1\" version=\"1.0.1\"/>\n", invalid, Charsets.UTF_8);
+        missing = new File(directory, "missing.xml");
+        outputFile = new File(directory, "report.txt");
+        inputHmlFiles = ImmutableList.of(valid, invalid, missing);
+    }
+
+    @After
+    public void tearDown() {
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    @Test(expected=NullPointerException.class)
+    public void testConstructorNullInputHmlFiles() {
+        new ValidateHmlFiles(null, outputFile, false, false, 1);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructorInvalidThreads() {
+        new ValidateHmlFiles(inputHmlFiles, outputFile, false, false, 0);
+    }
+
+    @Test
+    public void testConstructor() {
+        assertNotNull(new ValidateHmlFiles(inputHmlFiles, outputFile, false, false, 1));
+    }
+
+    @Test
+    public void testCall() throws Exception {
+        assertEquals(Integer.valueOf(1), new ValidateHmlFiles(inputHmlFiles, outputFile, false, false, 2).call());
+        List<String> lines = Files.readLines(outputFile, Charsets.UTF_8);
+        assertEquals(4, lines.size());
+        assertTrue(lines.get(0).startsWith("#"));
+        assertStatus(valid, "valid", lines.get(1));
+        assertStatus(invalid, "invalid", lines.get(2));
+        assertStatus(missing, "error", lines.get(3));
+    }
+
+    @Test
+    public void testCallSampleRoot() throws Exception {
+        File sampleRoot = new File(directory, "sample-root.xml");
+        Files.write(Resources.toByteArray(getClass().getResource("sample-root.xml")), sampleRoot);
+        assertEquals(Integer.valueOf(1), new ValidateHmlFiles(ImmutableList.of(sampleRoot, valid), outputFile, true, false, 2).call());
+        List<String> lines = Files.readLines(outputFile, Charsets.UTF_8);
+        assertEquals(3, lines.size());
+        assertStatus(sampleRoot, "error", lines.get(1));
+        assertStatus(valid, "invalid", lines.get(2));
+    }
+
+    @Test
+    public void testCallAllValid() throws Exception {
+        assertEquals(Integer.valueOf(0), new ValidateHmlFiles(ImmutableList.of(valid, valid, valid), outputFile, false, false, 2).call());
+        assertEquals(4, Files.readLines(outputFile, Charsets.UTF_8).size());
+    }
+
+    @Test
+    public void testCallMiring() throws Exception {
+        // samples.xml does not have an hmlid element
+        assertEquals(Integer.valueOf(1), new ValidateHmlFiles(ImmutableList.of(valid), outputFile, true, false, 2).call());
+        List<String> lines = Files.readLines(outputFile, Charsets.UTF_8);
+        assertStatus(valid, "invalid", lines.get(1));
+        assertTrue(lines.get(1).contains("hmlid"));
+    }
+
+    @Test
+    public void testCallMiringConcurrentRules() throws Exception {
+        assertEquals(Integer.valueOf(1), new ValidateHmlFiles(ImmutableList.of(valid, valid), outputFile, true, true, 2).call());
+        List<String> lines = Files.readLines(outputFile, Charsets.UTF_8);
+        assertStatus(valid, "invalid", lines.get(1));
+        assertStatus(valid, "invalid", lines.get(2));
+    }
+
+    @Test
+    public void testListHmlFiles() throws Exception {
+        Files.write("", new File(directory, "other.txt"), Charsets.UTF_8);
+        Files.write("", new File(directory, "compressed.xml.gz"), Charsets.UTF_8);
+        assertEquals(ImmutableList.of(new File(directory, "compressed.xml.gz"), invalid, valid), listHmlFiles(directory));
+    }
+
+    @Test(expected=IOException.class)
+    public void testListHmlFilesNotDirectory() throws Exception {
+        listHmlFiles(valid);
+    }
+
+    @Test
+    public void testMessage() {
+        assertEquals("", message(new IOException()));
+        assertEquals("outer", message(new IOException("outer")));
+        assertEquals("inner message", message(new IOException("outer", new IOException("inner\n\tmessage"))));
+    }
+
+    private static void assertStatus(final File file, final String status, final String line) {
+        String[] tokens = line.split("\t", -1);
+        assertEquals(4, tokens.length);
+        assertEquals(file.toString(), tokens[0]);
+        assertEquals(status, tokens[1]);
+    }
+}